@@ -0,0 +1,101 @@
+package com.randomstrangerpassenger.mcopt.benchmark;
+
+import com.randomstrangerpassenger.mcopt.common.cache.BiomeLookupCache;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.biome.Biome;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for {@link BiomeLookupCache}.
+ * <p>
+ * Eviction in this cache happens through chunk invalidation, so the
+ * eviction-heavy workload drops a chunk every 256 lookups per thread, roughly
+ * matching chunk unload churn while flying.
+ * </p>
+ *
+ * To run this benchmark:
+ * ./gradlew jmh -PenableJmh -Pjmh.includes='BiomeLookupCacheBenchmark'
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = { "-Xms2G", "-Xmx2G" })
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+public class BiomeLookupCacheBenchmark {
+
+    private static final int KEYS = 1 << 12;
+    private static final int EVICTION_PERIOD = 256;
+
+    @Param({ "HIT_HEAVY", "MISS_HEAVY", "EVICTION_HEAVY" })
+    public CacheWorkload workload;
+
+    private BlockPos[] positions;
+    private Holder<Biome> biome;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BiomeLookupCache.invalidateAll();
+        biome = CacheFixtures.biomeHolder();
+
+        switch (workload) {
+            case HIT_HEAVY -> {
+                // 64 chunks x 64 positions: exactly the per-chunk limit, all warm
+                positions = CacheFixtures.chunkLocalPositions(64, 64, 42L);
+                for (BlockPos pos : positions) {
+                    BiomeLookupCache.cache(pos, biome);
+                }
+            }
+            case MISS_HEAVY -> {
+                // Warm chunks exist, but the probed positions are never stored
+                positions = CacheFixtures.blockPositions(KEYS, 64, 42L);
+                for (BlockPos pos : CacheFixtures.blockPositions(KEYS, 64, 7L)) {
+                    BiomeLookupCache.cache(pos, biome);
+                }
+            }
+            case EVICTION_HEAVY -> positions = CacheFixtures.blockPositions(KEYS, 16, 42L);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BiomeLookupCache.invalidateAll();
+    }
+
+    private Holder<Biome> lookup(ThreadCursor cursor) {
+        BlockPos pos = positions[cursor.next(KEYS - 1)];
+        if (workload == CacheWorkload.EVICTION_HEAVY && cursor.every(EVICTION_PERIOD)) {
+            BiomeLookupCache.invalidateChunk(new ChunkPos(pos));
+        }
+
+        Holder<Biome> cached = BiomeLookupCache.getCached(pos);
+        if (cached != null || workload == CacheWorkload.MISS_HEAVY) {
+            return cached;
+        }
+
+        BiomeLookupCache.cache(pos, biome);
+        return biome;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Holder<Biome> lookup_1Thread(ThreadCursor cursor) {
+        return lookup(cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Holder<Biome> lookup_4Threads(ThreadCursor cursor) {
+        return lookup(cursor);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Holder<Biome> lookup_16Threads(ThreadCursor cursor) {
+        return lookup(cursor);
+    }
+}
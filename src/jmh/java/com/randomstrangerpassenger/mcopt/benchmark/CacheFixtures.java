@@ -0,0 +1,113 @@
+package com.randomstrangerpassenger.mcopt.benchmark;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.core.Registry;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.item.crafting.Recipe;
+import net.minecraft.world.item.crafting.RecipeType;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.pathfinder.Path;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Bootstrap-free fixtures for the cache benchmarks.
+ * <p>
+ * Touching {@code Registries}, {@code BuiltInRegistries} or {@code ItemStack}
+ * would require {@code Bootstrap.bootStrap()}, which is slow, pulls in half the
+ * game and makes results depend on data pack loading. Everything here is built
+ * from plain value types and direct holders instead, so the benchmarks measure
+ * only the cache itself.
+ * </p>
+ */
+final class CacheFixtures {
+
+    private static final ResourceKey<? extends Registry<Object>> BENCH_REGISTRY = ResourceKey
+            .createRegistryKey(ResourceLocation.fromNamespaceAndPath("mcopt", "benchmark"));
+
+    private CacheFixtures() {
+    }
+
+    /**
+     * Random block positions spread over a square of {@code chunkSpread x chunkSpread} chunks.
+     */
+    static BlockPos[] blockPositions(int count, int chunkSpread, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int span = chunkSpread * 16;
+        BlockPos[] positions = new BlockPos[count];
+        for (int i = 0; i < count; i++) {
+            positions[i] = new BlockPos(random.nextInt(span) - span / 2, random.nextInt(-64, 320),
+                    random.nextInt(span) - span / 2);
+        }
+        return positions;
+    }
+
+    /**
+     * {@code perChunk} distinct random positions in each of {@code chunks} chunks,
+     * laid out chunk by chunk.
+     */
+    static BlockPos[] chunkLocalPositions(int chunks, int perChunk, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        BlockPos[] positions = new BlockPos[chunks * perChunk];
+        int side = (int) Math.ceil(Math.sqrt(chunks));
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int baseX = (chunk % side) * 16;
+            int baseZ = (chunk / side) * 16;
+            for (int i = 0; i < perChunk; i++) {
+                // Distinct y per entry keeps positions unique within the chunk
+                positions[chunk * perChunk + i] = new BlockPos(baseX + random.nextInt(16), i,
+                        baseZ + random.nextInt(16));
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Stand-in for a biome holder. The caches only store and compare holders, they
+     * never dereference the biome.
+     */
+    @SuppressWarnings("unchecked")
+    static Holder<Biome> biomeHolder() {
+        return (Holder<Biome>) (Holder<?>) Holder.direct(new Object());
+    }
+
+    /**
+     * Distinct direct holders; identity is all the tag cache keys on.
+     */
+    static Holder<?>[] holders(int count) {
+        Holder<?>[] holders = new Holder<?>[count];
+        for (int i = 0; i < count; i++) {
+            holders[i] = Holder.direct(new Object());
+        }
+        return holders;
+    }
+
+    static TagKey<?>[] tags(int count) {
+        TagKey<?>[] tags = new TagKey<?>[count];
+        for (int i = 0; i < count; i++) {
+            tags[i] = TagKey.create(BENCH_REGISTRY, ResourceLocation.fromNamespaceAndPath("mcopt", "tag_" + i));
+        }
+        return tags;
+    }
+
+    /**
+     * Unregistered recipe type. Implementing the interface does not initialise it,
+     * so the vanilla {@code RecipeType} constants are never registered.
+     */
+    static RecipeType<?> recipeType(String name) {
+        return new RecipeType<Recipe<?>>() {
+            @Override
+            public String toString() {
+                return "mcopt:" + name;
+            }
+        };
+    }
+
+    static Path path(BlockPos target) {
+        return new Path(List.of(), target, true);
+    }
+}
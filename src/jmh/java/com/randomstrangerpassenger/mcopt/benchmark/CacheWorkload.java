@@ -0,0 +1,23 @@
+package com.randomstrangerpassenger.mcopt.benchmark;
+
+/**
+ * Access patterns shared by the cache benchmarks.
+ */
+public enum CacheWorkload {
+    /**
+     * Small, pre-warmed working set that fits the cache. Measures the hit path.
+     */
+    HIT_HEAVY,
+
+    /**
+     * Lookups against keys that are never cached. Measures the miss path
+     * (key construction, hashing, statistics) without any insert cost.
+     */
+    MISS_HEAVY,
+
+    /**
+     * Get-or-populate over a working set that does not fit, or with
+     * invalidation churn, so entries are continuously discarded and rebuilt.
+     */
+    EVICTION_HEAVY
+}
@@ -0,0 +1,99 @@
+package com.randomstrangerpassenger.mcopt.benchmark;
+
+import com.randomstrangerpassenger.mcopt.server.entity.ai.PathfindingCache;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.pathfinder.Path;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for {@link PathfindingCache}.
+ * <p>
+ * Uses the position-keyed entry points so no {@code Mob} is needed. Entries
+ * expire after 3 seconds, so the hit-heavy workload re-populates on miss and
+ * stays warm across iterations.
+ * </p>
+ * <p>
+ * The eviction-heavy working set is 32x the default cache size (128).
+ * </p>
+ *
+ * To run this benchmark:
+ * ./gradlew jmh -PenableJmh -Pjmh.includes='PathfindingCacheBenchmark'
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = { "-Xms2G", "-Xmx2G" })
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+public class PathfindingCacheBenchmark {
+
+    private static final int KEYS = 1 << 12;
+    private static final String[] ENTITY_TYPES = {
+            "entity.minecraft.zombie", "entity.minecraft.villager"
+    };
+
+    @Param({ "HIT_HEAVY", "MISS_HEAVY", "EVICTION_HEAVY" })
+    public CacheWorkload workload;
+
+    private BlockPos[] starts;
+    private BlockPos[] targets;
+    private Path[] paths;
+    private int keyMask;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        PathfindingCache.clear();
+
+        int workingSet = workload == CacheWorkload.HIT_HEAVY ? 64 : KEYS;
+        keyMask = workingSet - 1;
+        starts = CacheFixtures.blockPositions(workingSet, 8, 42L);
+        targets = CacheFixtures.blockPositions(workingSet, 8, 7L);
+        paths = new Path[workingSet];
+        for (int i = 0; i < workingSet; i++) {
+            paths[i] = CacheFixtures.path(targets[i]);
+        }
+
+        if (workload == CacheWorkload.HIT_HEAVY) {
+            for (int i = 0; i < workingSet; i++) {
+                PathfindingCache.cachePath(starts[i], targets[i], ENTITY_TYPES[i & 1], paths[i]);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        PathfindingCache.clear();
+    }
+
+    private Path lookup(ThreadCursor cursor) {
+        int index = cursor.next(keyMask);
+        String entityType = ENTITY_TYPES[index & 1];
+        Path cached = PathfindingCache.getCachedPath(starts[index], targets[index], entityType);
+        if (cached != null || workload == CacheWorkload.MISS_HEAVY) {
+            return cached;
+        }
+
+        PathfindingCache.cachePath(starts[index], targets[index], entityType, paths[index]);
+        return paths[index];
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Path lookup_1Thread(ThreadCursor cursor) {
+        return lookup(cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Path lookup_4Threads(ThreadCursor cursor) {
+        return lookup(cursor);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Path lookup_16Threads(ThreadCursor cursor) {
+        return lookup(cursor);
+    }
+}
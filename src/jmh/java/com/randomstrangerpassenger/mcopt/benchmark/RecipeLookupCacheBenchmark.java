@@ -0,0 +1,104 @@
+package com.randomstrangerpassenger.mcopt.benchmark;
+
+import com.randomstrangerpassenger.mcopt.common.cache.RecipeLookupCache;
+import net.minecraft.world.item.crafting.RecipeHolder;
+import net.minecraft.world.item.crafting.RecipeType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for {@link RecipeLookupCache}.
+ * <p>
+ * Uses the pattern-hash entry points so no {@code ItemStack} (and therefore no
+ * registry bootstrap) is needed. Cached results are "no match" entries, which
+ * go through exactly the same map path as real recipes.
+ * </p>
+ * <p>
+ * The eviction-heavy working set is 16x the default cache size (256), so
+ * nearly every populate evicts the eldest entry of the access-ordered map.
+ * </p>
+ *
+ * To run this benchmark:
+ * ./gradlew jmh -PenableJmh -Pjmh.includes='RecipeLookupCacheBenchmark'
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = { "-Xms2G", "-Xmx2G" })
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+public class RecipeLookupCacheBenchmark {
+
+    private static final int KEYS = 1 << 12;
+
+    @Param({ "HIT_HEAVY", "MISS_HEAVY", "EVICTION_HEAVY" })
+    public CacheWorkload workload;
+
+    private RecipeType<?>[] types;
+    private int[] patterns;
+    private int keyMask;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        RecipeLookupCache.invalidateAll();
+        types = new RecipeType<?>[] {
+                CacheFixtures.recipeType("crafting"),
+                CacheFixtures.recipeType("smelting")
+        };
+
+        int workingSet = workload == CacheWorkload.HIT_HEAVY ? 128 : KEYS;
+        keyMask = workingSet - 1;
+        patterns = new int[workingSet];
+        SplittableRandom random = new SplittableRandom(42L);
+        for (int i = 0; i < workingSet; i++) {
+            patterns[i] = random.nextInt();
+        }
+
+        if (workload == CacheWorkload.HIT_HEAVY) {
+            for (int i = 0; i < workingSet; i++) {
+                RecipeLookupCache.cacheRecipe(types[i & 1], patterns[i], null);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RecipeLookupCache.invalidateAll();
+    }
+
+    private boolean lookup(ThreadCursor cursor) {
+        int index = cursor.next(keyMask);
+        RecipeType<?> type = types[index & 1];
+        RecipeHolder<?> cached = RecipeLookupCache.getCachedRecipe(type, patterns[index]);
+        if (cached != null) {
+            return true;
+        }
+
+        // "No match" entries read back as null as well, so eviction-heavy populates after every
+        // lookup; with a working set 16x the capacity that is what nearly every lookup costs anyway
+        if (workload == CacheWorkload.EVICTION_HEAVY) {
+            RecipeLookupCache.cacheRecipe(type, patterns[index], null);
+        }
+        return false;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean lookup_1Thread(ThreadCursor cursor) {
+        return lookup(cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean lookup_4Threads(ThreadCursor cursor) {
+        return lookup(cursor);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean lookup_16Threads(ThreadCursor cursor) {
+        return lookup(cursor);
+    }
+}
@@ -0,0 +1,109 @@
+package com.randomstrangerpassenger.mcopt.benchmark;
+
+import com.randomstrangerpassenger.mcopt.common.cache.TagLookupCache;
+import net.minecraft.core.Holder;
+import net.minecraft.tags.TagKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JMH benchmark for {@link TagLookupCache}.
+ * <p>
+ * The cache is cleared on every new tick, so the tick rate is what drives
+ * eviction: hit-heavy never advances the tick, miss-heavy advances it every
+ * 4096 lookups over a working set far larger than that, and eviction-heavy
+ * advances it every 64 lookups over a small working set so the clear itself
+ * dominates.
+ * </p>
+ * <p>
+ * Direct holders are never bound to tags, so every uncached result is
+ * {@code false}; that is irrelevant to the cache cost being measured.
+ * </p>
+ *
+ * To run this benchmark:
+ * ./gradlew jmh -PenableJmh -Pjmh.includes='TagLookupCacheBenchmark'
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgs = { "-Xms2G", "-Xmx2G" })
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+public class TagLookupCacheBenchmark {
+
+    private static final int TAGS = 16;
+
+    @Param({ "HIT_HEAVY", "MISS_HEAVY", "EVICTION_HEAVY" })
+    public CacheWorkload workload;
+
+    private Holder<?>[] holders;
+    private TagKey<?>[] tags;
+    private int pairMask;
+    private int tickPeriod;
+
+    private final AtomicLong tick = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        tags = CacheFixtures.tags(TAGS);
+
+        switch (workload) {
+            case HIT_HEAVY -> {
+                holders = CacheFixtures.holders(32);
+                tickPeriod = 0;
+            }
+            case MISS_HEAVY -> {
+                holders = CacheFixtures.holders(1 << 14);
+                tickPeriod = 1 << 12;
+            }
+            case EVICTION_HEAVY -> {
+                holders = CacheFixtures.holders(32);
+                tickPeriod = 64;
+            }
+        }
+        pairMask = holders.length * TAGS - 1;
+
+        TagLookupCache.onTickStart(tick.incrementAndGet());
+        if (workload == CacheWorkload.HIT_HEAVY) {
+            for (Holder<?> holder : holders) {
+                for (TagKey<?> tag : tags) {
+                    TagLookupCache.isIn(holder, tag);
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        TagLookupCache.invalidateAll();
+    }
+
+    private boolean lookup(ThreadCursor cursor) {
+        if (tickPeriod != 0 && cursor.every(tickPeriod)) {
+            TagLookupCache.onTickStart(tick.incrementAndGet());
+        }
+
+        int pair = cursor.next(pairMask);
+        return TagLookupCache.isIn(holders[pair / TAGS], tags[pair % TAGS]);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean isIn_1Thread(ThreadCursor cursor) {
+        return lookup(cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean isIn_4Threads(ThreadCursor cursor) {
+        return lookup(cursor);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean isIn_16Threads(ThreadCursor cursor) {
+        return lookup(cursor);
+    }
+}
@@ -0,0 +1,40 @@
+package com.randomstrangerpassenger.mcopt.benchmark;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-thread position in a benchmark's key array.
+ * <p>
+ * Each thread starts at a random offset so multi-threaded runs don't march
+ * through the same keys in lockstep.
+ * </p>
+ */
+@State(Scope.Thread)
+public class ThreadCursor {
+
+    private int next;
+    private long ops;
+
+    @Setup
+    public void setup() {
+        next = ThreadLocalRandom.current().nextInt(1 << 20);
+    }
+
+    /**
+     * @param mask key array length minus one (arrays are power-of-two sized)
+     */
+    int next(int mask) {
+        return next++ & mask;
+    }
+
+    /**
+     * @return true once every {@code period} calls ({@code period} must be a power of two)
+     */
+    boolean every(int period) {
+        return (ops++ & (period - 1)) == 0;
+    }
+}
@@ -6,6 +6,7 @@ import com.randomstrangerpassenger.mcopt.common.FeatureInitializer;
 import com.randomstrangerpassenger.mcopt.config.ConfigCacheManager;
 import com.randomstrangerpassenger.mcopt.config.ConfigMigrationHandler;
 import com.randomstrangerpassenger.mcopt.config.ConfigRegistrar;
+import com.randomstrangerpassenger.mcopt.gametest.MCOPTGameTests;
 import com.randomstrangerpassenger.mcopt.util.FeatureToggles;
 import com.randomstrangerpassenger.mcopt.worldgen.MCOPTBiomeModifiers;
 
@@ -58,6 +59,9 @@ public class MCOPT {
         EventRegistrar.registerServerHandlers();
         EventRegistrar.registerCommands();
 
+        // Start the local metrics endpoint (only when enabled in config)
+        EventRegistrar.registerMetricsExporter();
+
         // Register config migration handlers
         modEventBus.addListener(ConfigMigrationHandler::onConfigLoad);
         modEventBus.addListener(ConfigMigrationHandler::onConfigReload);
@@ -66,6 +70,9 @@ public class MCOPT {
         modEventBus.addListener(ConfigCacheManager::onConfigLoad);
         modEventBus.addListener(ConfigCacheManager::onConfigReload);
 
+        // Register MSPT regression game tests (only run by the gameTestServer)
+        modEventBus.addListener(MCOPTGameTests::register);
+
         // Register setup event listeners
         modEventBus.addListener(this::commonSetup);
         modEventBus.addListener(this::clientSetup);
@@ -3,8 +3,22 @@ package com.randomstrangerpassenger.mcopt.client;
 import com.randomstrangerpassenger.mcopt.MCOPT;
 import com.randomstrangerpassenger.mcopt.client.bucket.BucketPreviewHandler;
 import com.randomstrangerpassenger.mcopt.client.fps.DynamicFpsManager;
+import com.randomstrangerpassenger.mcopt.client.hud.CulledSectionsDebugOverlay;
 import com.randomstrangerpassenger.mcopt.client.hud.MemoryHudRenderer;
+import com.randomstrangerpassenger.mcopt.client.manager.AdaptiveLimitsHandler;
+import com.randomstrangerpassenger.mcopt.client.metrics.ClientCacheMetrics;
+import com.randomstrangerpassenger.mcopt.client.rendering.AnimatedTextureHandler;
+import com.randomstrangerpassenger.mcopt.client.rendering.AnimationLODFrameHandler;
+import com.randomstrangerpassenger.mcopt.client.rendering.ItemEntityBatchingHandler;
+import com.randomstrangerpassenger.mcopt.client.rendering.culling.OcclusionCullingHandler;
+import com.randomstrangerpassenger.mcopt.client.rendering.particle.ParticleCullingHandler;
+import com.randomstrangerpassenger.mcopt.client.sound.SoundOcclusionHandler;
+import com.randomstrangerpassenger.mcopt.client.sound.SoundPredecodeHandler;
 import com.randomstrangerpassenger.mcopt.config.GameplayConfig;
+import com.randomstrangerpassenger.mcopt.config.PerformanceConfig;
+import com.randomstrangerpassenger.mcopt.config.RenderingConfig;
+import com.randomstrangerpassenger.mcopt.config.SoundConfig;
+import com.randomstrangerpassenger.mcopt.metrics.MetricsExporter;
 import com.randomstrangerpassenger.mcopt.safety.PanicButtonHandler;
 import com.randomstrangerpassenger.mcopt.util.FeatureKey;
 import com.randomstrangerpassenger.mcopt.util.HandlerRegistry;
@@ -44,11 +58,12 @@ public class MCOPTClient {
     public static class ModEvents {
 
         /**
-         * Register GUI layers (Memory HUD).
+         * Register GUI layers (Memory HUD, culled sections debug).
          */
         @SubscribeEvent
         public static void onRegisterGuiLayers(RegisterGuiLayersEvent event) {
             MemoryHudRenderer.onRegisterGuiLayers(event);
+            CulledSectionsDebugOverlay.onRegisterGuiLayers(event);
         }
 
         /**
@@ -98,10 +113,62 @@ public class MCOPTClient {
                 BucketPreviewHandler::new,
                 "Bucket preview tooltips");
 
+        // Register frame timing for adaptive limits (stress factor)
+        HandlerRegistry.registerWithCondition(
+                PerformanceConfig.ENABLE_ADAPTIVE_LIMITS::get,
+                AdaptiveLimitsHandler::new,
+                "Adaptive limits frame timing");
+
+        // Register sound occlusion maintenance (result draining, eviction)
+        HandlerRegistry.registerWithCondition(
+                SoundConfig.ENABLE_SOUND_OCCLUSION::get,
+                SoundOcclusionHandler::new,
+                "Async sound occlusion");
+
+        // Register occlusion culling (grid maintenance, per-frame visibility jobs)
+        HandlerRegistry.registerWithCondition(
+                () -> RenderingConfig.ENABLE_ENTITY_CULLING.get()
+                        || RenderingConfig.ENABLE_BLOCK_ENTITY_CULLING.get(),
+                OcclusionCullingHandler::new,
+                "Entity and block entity culling");
+
+        // Register particle culling camera updates
+        HandlerRegistry.registerWithCondition(
+                RenderingConfig.ENABLE_PARTICLE_CULLING::get,
+                ParticleCullingHandler::new,
+                "Particle frustum/distance culling");
+
+        // Register item entity clustering
+        HandlerRegistry.registerWithCondition(
+                RenderingConfig.ENABLE_VISUAL_ITEM_MERGING::get,
+                ItemEntityBatchingHandler::new,
+                "Visual item merging");
+
+        // Register animation LOD frame counting
+        HandlerRegistry.registerWithCondition(
+                RenderingConfig.ENABLE_ANIMATION_LOD::get,
+                AnimationLODFrameHandler::new,
+                "Animation LOD");
+
+        // Register animated texture activity tracking
+        HandlerRegistry.registerWithCondition(
+                RenderingConfig.ENABLE_SMART_ANIMATIONS::get,
+                AnimatedTextureHandler::new,
+                "Smart animated textures");
+
+        // Register sound predecoding (nearby scans, buffer budget)
+        HandlerRegistry.registerWithCondition(
+                SoundConfig.ENABLE_SOUND_PREDECODE::get,
+                SoundPredecodeHandler::new,
+                "Sound predecoding");
+
         // Register Panic Button Handler (game events)
         // Key mapping is registered via ModEvents.onRegisterKeyMappings
         NeoForge.EVENT_BUS.register(PanicButtonHandler.GameEventHandler.class);
 
+        // Expose client-only caches to the metrics exporter (no-op unless it is enabled)
+        MetricsExporter.registerSource(new ClientCacheMetrics());
+
         MCOPT.LOGGER.info("Client-side event handlers registered");
     }
 }
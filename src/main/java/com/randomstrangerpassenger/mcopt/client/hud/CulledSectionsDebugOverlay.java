@@ -0,0 +1,43 @@
+package com.randomstrangerpassenger.mcopt.client.hud;
+
+import com.randomstrangerpassenger.mcopt.MCOPT;
+import com.randomstrangerpassenger.mcopt.client.rendering.RenderFrameCache;
+import net.minecraft.client.DeltaTracker;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.resources.ResourceLocation;
+import net.neoforged.neoforge.client.event.RegisterGuiLayersEvent;
+
+/**
+ * Shows how many sections the elliptical render distance removed, when
+ * {@code showCulledChunksDebug} is enabled.
+ */
+public class CulledSectionsDebugOverlay {
+
+    private static final ResourceLocation LAYER_ID = ResourceLocation.fromNamespaceAndPath(MCOPT.MOD_ID,
+            "culled_sections_debug");
+    private static final int COLOR_YELLOW = 0xFFFFFF55;
+
+    /**
+     * Register the overlay above every other layer.
+     */
+    public static void onRegisterGuiLayers(RegisterGuiLayersEvent event) {
+        event.registerAboveAll(LAYER_ID, CulledSectionsDebugOverlay::render);
+    }
+
+    private static void render(GuiGraphics guiGraphics, DeltaTracker deltaTracker) {
+        if (!RenderFrameCache.isCulledDebugShown() || !RenderFrameCache.isEllipticalEnabled()) {
+            return;
+        }
+
+        Minecraft minecraft = Minecraft.getInstance();
+        if (minecraft.level == null || minecraft.options.hideGui) {
+            return;
+        }
+
+        String text = "MCOPT ellipsoid: " + RenderFrameCache.getCulledSections() + " sections culled, "
+                + RenderFrameCache.getSkippedCompiles() + " compiles skipped";
+        int x = guiGraphics.guiWidth() - minecraft.font.width(text) - 2;
+        guiGraphics.drawString(minecraft.font, text, x, 2, COLOR_YELLOW, true);
+    }
+}
@@ -0,0 +1,20 @@
+package com.randomstrangerpassenger.mcopt.client.manager;
+
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.client.event.RenderFrameEvent;
+
+/**
+ * Feeds frame timing into {@link AdaptiveLimitsManager}.
+ */
+public class AdaptiveLimitsHandler {
+
+    @SubscribeEvent
+    public void onRenderFrame(RenderFrameEvent.Pre event) {
+        AdaptiveLimitsManager.onFrameStart();
+    }
+
+    @SubscribeEvent
+    public void onRenderFrameEnd(RenderFrameEvent.Post event) {
+        AdaptiveLimitsManager.onFrameEnd();
+    }
+}
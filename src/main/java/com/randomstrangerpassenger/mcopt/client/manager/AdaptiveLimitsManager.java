@@ -7,7 +7,7 @@ import net.minecraft.client.Minecraft;
  * Manages adaptive performance limits based on real-time game performance.
  * 
  * <p>
- * Monitors frame time (FPS) and adjusts optimization strictness dynamically.
+ * Monitors frame render time and adjusts optimization strictness dynamically.
  * When performance drops below target, optimization becomes stricter (reducing
  * visuals/load).
  * When performance is good, limits are relaxed to improve quality.
@@ -15,12 +15,15 @@ import net.minecraft.client.Minecraft;
  */
 public class AdaptiveLimitsManager {
 
+    private static final int UNLIMITED_FRAMERATE = 260;
+
     private static boolean enabled = true;
     private static int targetFrameTimeMs = 16; // Target ~60 FPS (1000/60 = 16.6)
 
     // Runtime metrics
     private static double avgFrameTime = 0;
     private static float stressFactor = 0.0f; // 0.0 = no stress, 1.0 = max stress
+    private static long frameStartNanos = 0;
 
     /**
      * Refresh configuration cache.
@@ -31,30 +34,39 @@ public class AdaptiveLimitsManager {
     }
 
     /**
-     * Called every frame to update performance metrics.
+     * Called when a frame starts rendering.
      */
     public static void onFrameStart() {
-        if (!enabled)
+        frameStartNanos = enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Called when a frame has finished rendering, before the buffer swap.
+     * <p>
+     * Only the time spent rendering counts. The buffer swap (vsync) and the
+     * frame rate limiter sleep come afterwards, so a client capped well below
+     * what it could render reads as unstressed. Frames while the window is
+     * unfocused are skipped, since background frame limiting would otherwise
+     * read as stress.
+     * </p>
+     */
+    public static void onFrameEnd() {
+        long start = frameStartNanos;
+        frameStartNanos = 0;
+        if (!enabled || start == 0)
             return;
 
         Minecraft mc = Minecraft.getInstance();
-        if (mc == null)
+        if (!mc.isWindowActive())
             return;
 
-        // Get frame time in nanoseconds and convert to milliseconds
-        // Minecraft doesn't expose a simple "last frame time" easily in public API
-        // without access transformers sometimes,
-        // but we can use our own delta tracker or access widely available metrics.
-        // For simplicity, we might assume this is called with a delta, OR we measure
-        // it.
-
-        // Actually, let's just rely on a simple rolling average if we can't get engine
-        // internals.
-        // Or simpler: Use current FPS if available. (mc.fpsString is debug string)
-
-        // Better approach: Rendering mixins usually have partialTicks or frame time
-        // logic.
-        // Let's assume this method is called from a Mixin that knows the frame delta.
+        double workMs = (System.nanoTime() - start) / 1_000_000.0;
+        // A frame rate cap slower than the target leaves the time up to the cap for rendering
+        int limit = mc.options.framerateLimit().get();
+        double budgetMs = limit < UNLIMITED_FRAMERATE
+                ? Math.max(targetFrameTimeMs, 1000.0 / limit)
+                : targetFrameTimeMs;
+        updateMetrics(workMs * targetFrameTimeMs / budgetMs);
     }
 
     /**
@@ -73,10 +85,9 @@ public class AdaptiveLimitsManager {
     }
 
     /**
-     * Update metrics. Should be called once per frame from a central mixin (e.g.
-     * Minecraft.runTick or similar).
+     * Update metrics. Called once per rendered frame by {@link #onFrameEnd()}.
      * 
-     * @param deltaMs Time taken for the last frame in milliseconds
+     * @param deltaMs Time spent rendering the last frame in milliseconds
      */
     public static void updateMetrics(double deltaMs) {
         if (!enabled)
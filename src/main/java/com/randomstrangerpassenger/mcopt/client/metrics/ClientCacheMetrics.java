@@ -0,0 +1,161 @@
+package com.randomstrangerpassenger.mcopt.client.metrics;
+
+import com.randomstrangerpassenger.mcopt.client.rendering.AdaptiveChunkUploader;
+import com.randomstrangerpassenger.mcopt.client.rendering.AnimatedTextureOptimizer;
+import com.randomstrangerpassenger.mcopt.client.rendering.AtlasUploadBatcher;
+import com.randomstrangerpassenger.mcopt.client.rendering.MapUpdateThrottler;
+import com.randomstrangerpassenger.mcopt.client.rendering.RenderFeatureLOD;
+import com.randomstrangerpassenger.mcopt.client.rendering.AnimationLODHandler;
+import com.randomstrangerpassenger.mcopt.client.rendering.ItemEntityBatcher;
+import com.randomstrangerpassenger.mcopt.client.rendering.RenderFrameCache;
+import com.randomstrangerpassenger.mcopt.client.rendering.SectionCompileScheduler;
+import com.randomstrangerpassenger.mcopt.client.rendering.SectionMeshCache;
+import com.randomstrangerpassenger.mcopt.client.rendering.culling.BlockEntityCullingEngine;
+import com.randomstrangerpassenger.mcopt.client.rendering.culling.EntityCullingEngine;
+import com.randomstrangerpassenger.mcopt.client.rendering.leaves.SmartLeavesCuller;
+import com.randomstrangerpassenger.mcopt.client.rendering.particle.ParticleCullingManager;
+import com.randomstrangerpassenger.mcopt.client.rendering.particle.ParticlePhysicsOptimizer;
+import com.randomstrangerpassenger.mcopt.client.rendering.particle.ParticlePool;
+import com.randomstrangerpassenger.mcopt.client.sound.SoundOcclusionCache;
+import com.randomstrangerpassenger.mcopt.client.sound.SoundPredecoder;
+import com.randomstrangerpassenger.mcopt.client.sound.SoundVoiceBudget;
+import com.randomstrangerpassenger.mcopt.client.ui.SignTextCache;
+import com.randomstrangerpassenger.mcopt.metrics.MetricsSource;
+import com.randomstrangerpassenger.mcopt.metrics.PrometheusTextBuilder;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Exposes client-only caches to the metrics exporter.
+ * <p>
+ * Registered from {@link com.randomstrangerpassenger.mcopt.client.MCOPTClient}
+ * so it is never loaded on a dedicated server.
+ * </p>
+ */
+public class ClientCacheMetrics implements MetricsSource {
+
+    @Override
+    public void write(@Nonnull PrometheusTextBuilder out) {
+        out.cache("sound_occlusion", SoundOcclusionCache.getHits(), SoundOcclusionCache.getMisses(),
+                SoundOcclusionCache.getSize());
+        out.cache("sign_text", SignTextCache.getHits(), SignTextCache.getMisses(), SignTextCache.getSize());
+        out.counter("mcopt_sign_sides_blank_skipped_total", "Blank sign sides not submitted for rendering",
+                SignTextCache.getBlankSkipped());
+        out.counter("mcopt_sign_outlines_skipped_total", "Glowing sign text outlines left out at mid range",
+                SignTextCache.getOutlinesSkipped());
+
+        out.counter("mcopt_sound_budget_rejected_total", "Sounds not started because the voice budget was full",
+                SoundVoiceBudget.getRejected());
+        out.counter("mcopt_sound_budget_stolen_total", "Playing sounds stopped to make room for a stronger one",
+                SoundVoiceBudget.getStolen());
+
+        out.gauge("mcopt_sections_culled", "Sections outside the elliptical render distance in the visible list",
+                RenderFrameCache.getCulledSections());
+        out.counter("mcopt_section_compiles_skipped_total", "Section compiles refused outside the ellipsoid",
+                RenderFrameCache.getSkippedCompiles());
+
+        out.gauge("mcopt_section_upload_queue", "Section uploads waiting at the start of the last frame",
+                AdaptiveChunkUploader.getQueueDepth());
+        out.gauge("mcopt_section_upload_budget_used_ratio", "Share of the upload time budget used last frame",
+                AdaptiveChunkUploader.getBudgetNanos() > 0
+                        ? (double) AdaptiveChunkUploader.getUsedNanosLastFrame() / AdaptiveChunkUploader.getBudgetNanos()
+                        : 0.0);
+        out.counter("mcopt_section_uploads_total", "Section uploads run by the budgeted scheduler",
+                AdaptiveChunkUploader.getTotalUploads());
+
+        out.gauge("mcopt_section_compile_workers", "Concurrent section compiles currently allowed",
+                SectionCompileScheduler.getAllowedWorkers());
+        out.counter("mcopt_section_compiles_polled_total", "Section compiles handed to a worker",
+                SectionCompileScheduler.getPolls());
+        out.counter("mcopt_section_compiles_in_view_total", "Section compiles handed out for sections in view",
+                SectionCompileScheduler.getVisiblePicks());
+        out.counter("mcopt_section_compile_starts_deferred_total", "Compile starts deferred by the worker cap",
+                SectionCompileScheduler.getThrottledRuns());
+
+        out.cache("section_mesh", SectionMeshCache.getHits(), SectionMeshCache.getMisses(), SectionMeshCache.getSize());
+        out.gauge("mcopt_section_mesh_cache_bytes", "Buffer memory held by retained section meshes",
+                SectionMeshCache.getUsedBytes());
+        out.counter("mcopt_section_mesh_cache_stale_total", "Retained section meshes dropped because the section changed",
+                SectionMeshCache.getStale());
+        out.counter("mcopt_section_mesh_cache_evicted_total", "Retained section meshes dropped for the memory budget",
+                SectionMeshCache.getEvicted());
+
+        out.counter("mcopt_leaf_faces_culled_total", "Leaf faces skipped inside dense canopies",
+                SmartLeavesCuller.getFacesCulled());
+        out.counter("mcopt_leaf_sections_analyzed_total", "Section compiles that built a leaf depth buffer",
+                SmartLeavesCuller.getSectionsAnalyzed());
+
+        out.gauge("mcopt_entities_culled", "Entities hidden behind walls in the latest culling result",
+                EntityCullingEngine.getCulledCount());
+        out.gauge("mcopt_block_entities_culled", "Block entity renderers skipped during the last frame",
+                BlockEntityCullingEngine.getCulledLastFrame());
+        out.counter("mcopt_block_entity_culls_total", "Block entity renders skipped",
+                BlockEntityCullingEngine.getDistanceCulled(), "reason", "distance");
+        out.counter("mcopt_block_entity_culls_total", "Block entity renders skipped",
+                BlockEntityCullingEngine.getOcclusionCulled(), "reason", "occlusion");
+
+        out.gauge("mcopt_item_entities", "Item entities clustered during the last frame",
+                ItemEntityBatcher.getItemsLastFrame());
+        out.gauge("mcopt_item_clusters", "Item entities drawn for those clusters",
+                ItemEntityBatcher.getClustersLastFrame());
+
+        out.counter("mcopt_animation_poses_total", "Living entity poses under animation LOD",
+                AnimationLODHandler.getPosesReused(), "source", "reused");
+        out.counter("mcopt_animation_poses_total", "Living entity poses under animation LOD",
+                AnimationLODHandler.getPosesComputed(), "source", "computed");
+        out.counter("mcopt_render_features_dropped_total", "Entity render layers dropped or simplified by distance",
+                RenderFeatureLOD.getShadowsDropped(), "feature", "shadow");
+        out.counter("mcopt_render_features_dropped_total", "Entity render layers dropped or simplified by distance",
+                RenderFeatureLOD.getArmorSimplified(), "feature", "armor_details");
+        out.counter("mcopt_render_features_dropped_total", "Entity render layers dropped or simplified by distance",
+                RenderFeatureLOD.getArmorDropped(), "feature", "armor");
+        out.counter("mcopt_render_features_dropped_total", "Entity render layers dropped or simplified by distance",
+                RenderFeatureLOD.getHeldItemsDropped(), "feature", "held_items");
+        out.counter("mcopt_render_features_dropped_total", "Entity render layers dropped or simplified by distance",
+                RenderFeatureLOD.getNameTagsDropped(), "feature", "name_tag");
+
+        out.counter("mcopt_sprite_ticks_total", "Animated sprite frame advances and uploads",
+                AnimatedTextureOptimizer.getTicksRun(), "result", "run");
+        out.counter("mcopt_sprite_ticks_total", "Animated sprite frame advances and uploads",
+                AnimatedTextureOptimizer.getTicksSkipped(), "result", "skipped");
+        out.counter("mcopt_atlas_upload_regions_total", "Animated sprite frame regions written to atlases",
+                AtlasUploadBatcher.getRegionsUploaded());
+        out.counter("mcopt_atlas_upload_calls_total", "Texture writes used for animated sprite frames",
+                AtlasUploadBatcher.getUploadCalls());
+
+        out.counter("mcopt_map_uploads_total", "Map texture uploads", MapUpdateThrottler.getFullUploads(),
+                "kind", "full");
+        out.counter("mcopt_map_uploads_total", "Map texture uploads", MapUpdateThrottler.getPartialUploads(),
+                "kind", "partial");
+        out.counter("mcopt_map_uploads_total", "Map texture uploads", MapUpdateThrottler.getSkippedUploads(),
+                "kind", "unchanged");
+        out.counter("mcopt_map_upload_pixels_total", "Map pixels uploaded", MapUpdateThrottler.getUploadedPixels());
+        out.counter("mcopt_map_uploads_deferred_total", "Map uploads deferred by the per-tick budget",
+                MapUpdateThrottler.getDeferredUploads());
+
+        out.gauge("mcopt_particles_live", "Live particles tracked by the particle budget",
+                ParticleCullingManager.getTrackedCount());
+        out.gauge("mcopt_particles_culled", "Particles outside the view during the last tick",
+                ParticleCullingManager.getCulledLastTick());
+        out.counter("mcopt_particles_budget_dropped_total", "Particles removed to stay within the budgets",
+                ParticleCullingManager.getDroppedByBudget());
+        out.cache("particle_ground_column", ParticlePhysicsOptimizer.getColumnHits(),
+                ParticlePhysicsOptimizer.getColumnMisses(), ParticlePhysicsOptimizer.getColumnCacheSize());
+        out.gauge("mcopt_particles_pooled", "Removed particles waiting to be reused", ParticlePool.getPooledCount());
+        out.counter("mcopt_particles_reused_total", "Particles taken from the pool instead of allocated",
+                ParticlePool.getReused());
+        out.counter("mcopt_particles_allocated_total", "Poolable particles allocated", ParticlePool.getAllocated());
+
+        out.cache("sound_buffer", SoundPredecoder.getHits(), SoundPredecoder.getMisses(), SoundPredecoder.getSize());
+        out.gauge("mcopt_sound_buffer_bytes", "Decoded sound buffer bytes tracked against the budget",
+                SoundPredecoder.getUsedBytes());
+        out.counter("mcopt_sound_predecoded_total", "Sound buffers decoded ahead of their first play",
+                SoundPredecoder.getPredecoded());
+        out.counter("mcopt_sound_predecode_used_total", "Predecoded sound buffers that were later played",
+                SoundPredecoder.getPredecodeHits());
+        for (SoundPredecoder.EvictionCount evicted : SoundPredecoder.getMostEvicted()) {
+            out.counter("mcopt_sound_buffer_evictions_total", "Evictions of the most often evicted sound files",
+                    evicted.count(), "sound", evicted.path().toString());
+        }
+    }
+}
@@ -1,55 +1,79 @@
 package com.randomstrangerpassenger.mcopt.client.rendering;
 
+import com.randomstrangerpassenger.mcopt.client.manager.AdaptiveLimitsManager;
 import com.randomstrangerpassenger.mcopt.config.RenderingConfig;
 import net.minecraft.client.Minecraft;
+import net.minecraft.core.SectionPos;
 
 import javax.annotation.Nonnull;
 
 /**
- * Provides adaptive chunk upload limiting based on frame counter.
+ * Frame-time budgeted section upload scheduling.
  * 
  * <p>
- * The vanilla chunk upload system uses System.currentTimeMillis() which
- * can behave poorly at high FPS (sub-millisecond frame times). This
- * system uses frame counting for more consistent behavior.
+ * Vanilla uploads every finished section mesh as soon as the render thread
+ * gets to it, which stalls frames when a lot of terrain finishes at once and
+ * the old limiter (wall-clock milliseconds as "frames", FPS-nudged
+ * multipliers) made that random. Instead, the dispatcher's upload queue is
+ * replaced by a {@link SectionUploadQueue} that hands out uploads only while
+ * the frame's budget lasts.
  * </p>
  * 
  * <p>
- * <strong>Adaptive Logic:</strong>
+ * <strong>Budget:</strong> {@code uploadFrameBudgetPercent} of the target frame
+ * time (the frame rate limit, or 60 FPS when unlimited), shrunk by up to half
+ * under adaptive limits stress. Each upload's actual duration is measured, and
+ * an upload that would probably overrun the budget waits for the next frame.
+ * At least {@code baseUploadLimit} uploads run every frame, so the queue
+ * always drains.
  * </p>
- * <ul>
- * <li>Base limit per frame (configurable)</li>
- * <li>Adjusts based on render distance</li>
- * <li>Considers GPU frame time when available</li>
- * </ul>
  * 
  * <p>
- * <strong>Sodium Synergy:</strong> Complements Sodium's chunk rendering
- * with better upload scheduling.
+ * <strong>Order:</strong> Uploads for sections in front of the camera go
+ * first, nearest first, then everything else by distance. Uploads that have
+ * waited {@value #MAX_WAIT_FRAMES} frames go first regardless. Uploads of the
+ * same section always keep their queue order.
  * </p>
  */
 public class AdaptiveChunkUploader {
 
+    static final int MAX_WAIT_FRAMES = 30;
+    // Extra angle around the field of view when deciding what is "in front"
+    private static final double VIEW_MARGIN_RADIANS = Math.toRadians(20);
+    private static final int UNLIMITED_FRAMERATE = 260;
+    private static final int FALLBACK_TARGET_FPS = 60;
+
     // Cached config values
     private static boolean enabled = true;
-    private static int baseLimit = 4;
+    private static int minUploadsPerFrame = 4;
+    private static double budgetFraction = 0.15;
+
+    // Section whose upload the current thread is queueing, used to tag the upload
+    private static final ThreadLocal<long[]> UPLOADING_SECTION = ThreadLocal
+            .withInitial(() -> new long[] { Long.MIN_VALUE });
+
+    // Camera snapshot for ordering, render thread only
+    private static ViewCone view = ViewCone.EVERYWHERE;
 
     // Frame tracking
     private static long currentFrame = 0;
-    private static int uploadsThisFrame = 0;
-    private static long lastResetFrame = 0;
 
-    // Adaptive adjustment
-    private static float adaptiveMultiplier = 1.0f;
-    private static long lastAdjustTime = 0;
-    private static final long ADJUST_INTERVAL_MS = 1000; // Adjust every second
+    // Statistics
+    private static int queueDepth = 0;
+    private static int uploadsLastFrame = 0;
+    private static long budgetNanos = 0;
+    private static long usedNanosLastFrame = 0;
+    private static double averageUploadNanos = 200_000.0;
+    private static long totalUploads = 0;
 
     /**
      * Refresh configuration cache.
      */
     public static void refreshConfigCache() {
-        enabled = RenderingConfig.ENABLE_ADAPTIVE_CHUNK_UPLOAD.get();
-        baseLimit = RenderingConfig.BASE_CHUNK_UPLOAD_LIMIT.get();
+        enabled = RenderingConfig.ENABLE_CHUNK_OPTIMIZATIONS.get()
+                && RenderingConfig.ENABLE_ADAPTIVE_CHUNK_UPLOAD.get();
+        minUploadsPerFrame = RenderingConfig.BASE_CHUNK_UPLOAD_LIMIT.get();
+        budgetFraction = RenderingConfig.UPLOAD_FRAME_BUDGET_PERCENT.get() / 100.0;
     }
 
     /**
@@ -60,87 +84,101 @@ public class AdaptiveChunkUploader {
     }
 
     /**
-     * Called at the start of each frame to reset counter.
+     * A render section is about to queue an upload (mesh or index buffer) on
+     * this thread; the upload is tagged with the section.
      */
-    public static void onFrameStart() {
-        currentFrame++;
-        if (currentFrame != lastResetFrame) {
-            lastResetFrame = currentFrame;
-            uploadsThisFrame = 0;
-        }
-
-        // Periodic adaptive adjustment
-        long now = System.currentTimeMillis();
-        if (now - lastAdjustTime > ADJUST_INTERVAL_MS) {
-            lastAdjustTime = now;
-            adjustMultiplier();
-        }
+    public static void beginSectionUpload(long sectionNode) {
+        UPLOADING_SECTION.get()[0] = sectionNode;
     }
 
     /**
-     * Check if a chunk upload can proceed this frame.
-     * 
-     * @return true if upload is allowed
+     * The render section finished queueing its upload.
      */
-    public static boolean canUpload() {
-        if (!enabled) {
-            return true;
-        }
+    public static void endSectionUpload() {
+        UPLOADING_SECTION.get()[0] = Long.MIN_VALUE;
+    }
 
-        int currentLimit = getEffectiveLimit();
-        return uploadsThisFrame < currentLimit;
+    /**
+     * Section whose upload this thread is queueing, or {@link Long#MIN_VALUE}.
+     */
+    static long getUploadingSection() {
+        return UPLOADING_SECTION.get()[0];
     }
 
     /**
-     * Record that a chunk upload occurred.
+     * Called when the dispatcher starts draining uploads for a frame:
+     * refreshes the camera snapshot and the budget.
      */
-    public static void recordUpload() {
-        if (enabled) {
-            uploadsThisFrame++;
-        }
+    static void onFrameStart(int pendingUploads) {
+        Minecraft mc = Minecraft.getInstance();
+        int framerateLimit = mc.options.framerateLimit().get();
+        int targetFps = framerateLimit >= UNLIMITED_FRAMERATE ? FALLBACK_TARGET_FPS : Math.max(framerateLimit, 10);
+        startFrame(pendingUploads, ViewCone.capture(mc, VIEW_MARGIN_RADIANS), targetFps);
     }
 
     /**
-     * Get the effective upload limit for this frame.
+     * Start a frame with an explicit camera and frame rate.
      */
-    public static int getEffectiveLimit() {
-        if (!enabled) {
-            return Integer.MAX_VALUE;
-        }
+    static void startFrame(int pendingUploads, @Nonnull ViewCone camera, int targetFps) {
+        currentFrame++;
+        queueDepth = pendingUploads;
+        view = camera;
 
-        int limit = Math.round(baseLimit * adaptiveMultiplier);
+        double fraction = budgetFraction * (1.0f - 0.5f * AdaptiveLimitsManager.getStressFactor());
+        budgetNanos = (long) (1_000_000_000.0 / targetFps * fraction);
+    }
 
-        // Adjust for render distance
-        Minecraft mc = Minecraft.getInstance();
-        int renderDistance = mc.options.getEffectiveRenderDistance();
-        if (renderDistance > 16) {
-            // Allow more uploads for higher render distances
-            limit += (renderDistance - 16) / 4;
+    /**
+     * Sort key of an upload: in-view sections first, then by distance; lower
+     * is sooner.
+     */
+    static double priority(long sectionPos, long queuedFrame) {
+        if (sectionPos == Long.MIN_VALUE || currentFrame - queuedFrame >= MAX_WAIT_FRAMES) {
+            return -1.0;
         }
 
-        return Math.max(1, limit);
+        double x = SectionPos.sectionToBlockCoord(SectionPos.x(sectionPos), 8);
+        double y = SectionPos.sectionToBlockCoord(SectionPos.y(sectionPos), 8);
+        double z = SectionPos.sectionToBlockCoord(SectionPos.z(sectionPos), 8);
+        double distanceSqr = view.distanceSqr(x, y, z);
+
+        // Sections around the camera count as in view; the camera may be inside them
+        boolean inView = distanceSqr < 32.0 * 32.0 || view.contains(x, y, z, distanceSqr);
+        return inView ? distanceSqr : 1.0e12 + distanceSqr;
     }
 
     /**
-     * Adjust the adaptive multiplier based on performance.
+     * Whether another upload may start this frame.
+     *
+     * @param uploadsSoFar Uploads already started this frame
+     * @param elapsedNanos Time spent on them
      */
-    private static void adjustMultiplier() {
-        Minecraft mc = Minecraft.getInstance();
-        if (mc.level == null) {
-            return;
+    static boolean canUpload(int uploadsSoFar, long elapsedNanos) {
+        if (!enabled || uploadsSoFar < minUploadsPerFrame) {
+            return true;
         }
+        // Don't start an upload that will most likely overrun the budget
+        return elapsedNanos + (long) averageUploadNanos <= budgetNanos;
+    }
 
-        // Simple FPS-based adjustment
-        float fps = mc.getFps();
+    /**
+     * Record the measured duration of one upload.
+     */
+    static void recordUpload(long nanos) {
+        averageUploadNanos = averageUploadNanos * 0.9 + nanos * 0.1;
+        totalUploads++;
+    }
 
-        if (fps > 60) {
-            // Good FPS: can afford more uploads
-            adaptiveMultiplier = Math.min(2.0f, adaptiveMultiplier + 0.1f);
-        } else if (fps < 30) {
-            // Low FPS: reduce uploads
-            adaptiveMultiplier = Math.max(0.5f, adaptiveMultiplier - 0.1f);
-        }
-        // 30-60 FPS: keep current multiplier
+    /**
+     * Record the totals of a finished frame.
+     */
+    static void recordFrame(int uploads, long usedNanos) {
+        uploadsLastFrame = uploads;
+        usedNanosLastFrame = usedNanos;
+    }
+
+    static long getCurrentFrame() {
+        return currentFrame;
     }
 
     /**
@@ -148,17 +186,30 @@ public class AdaptiveChunkUploader {
      */
     public static void reset() {
         currentFrame = 0;
-        uploadsThisFrame = 0;
-        lastResetFrame = 0;
-        adaptiveMultiplier = 1.0f;
-        lastAdjustTime = 0;
+        queueDepth = 0;
+        uploadsLastFrame = 0;
+        usedNanosLastFrame = 0;
+        averageUploadNanos = 200_000.0;
     }
 
-    /**
-     * Get current frame number.
-     */
-    public static long getCurrentFrame() {
-        return currentFrame;
+    public static int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public static int getUploadsLastFrame() {
+        return uploadsLastFrame;
+    }
+
+    public static long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    public static long getUsedNanosLastFrame() {
+        return usedNanosLastFrame;
+    }
+
+    public static long getTotalUploads() {
+        return totalUploads;
     }
 
     /**
@@ -166,7 +217,8 @@ public class AdaptiveChunkUploader {
      */
     @Nonnull
     public static String getDebugStats() {
-        return "AdaptiveChunk: " + uploadsThisFrame + "/" + getEffectiveLimit() +
-                " (mult=" + String.format("%.2f", adaptiveMultiplier) + "), enabled=" + enabled;
+        return String.format("AdaptiveChunk: %d queued, %d uploaded, budget %.2f/%.2f ms (avg %.3f ms/upload), enabled=%s",
+                queueDepth, uploadsLastFrame, usedNanosLastFrame / 1_000_000.0, budgetNanos / 1_000_000.0,
+                averageUploadNanos / 1_000_000.0, enabled);
     }
 }
@@ -0,0 +1,24 @@
+package com.randomstrangerpassenger.mcopt.client.rendering;
+
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.client.event.ClientTickEvent;
+import net.neoforged.neoforge.event.level.LevelEvent;
+
+/**
+ * Collects the animated sprites in use before textures tick, and forgets the
+ * section records when the client level unloads.
+ */
+public class AnimatedTextureHandler {
+
+    @SubscribeEvent
+    public void onClientTick(ClientTickEvent.Pre event) {
+        AnimatedTextureOptimizer.onClientTick();
+    }
+
+    @SubscribeEvent
+    public void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel().isClientSide()) {
+            AnimatedTextureOptimizer.clearTrackedPositions();
+        }
+    }
+}
@@ -2,29 +2,52 @@ package com.randomstrangerpassenger.mcopt.client.rendering;
 
 import com.randomstrangerpassenger.mcopt.MCOPT;
 import com.randomstrangerpassenger.mcopt.config.RenderingConfig;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import net.minecraft.client.Minecraft;
-import net.minecraft.client.Camera;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.chunk.SectionRenderDispatcher;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.phys.Vec3;
 
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Optimizes animated texture updates by tracking visibility and distance.
+ * Ticks animated textures only while something on screen uses them.
  * <p>
- * Immersion-first approach: Only skips animation updates for textures that are
- * truly off-screen or far away, preserving vanilla visuals for visible
- * textures.
+ * <strong>Recording:</strong> While a section is compiled, every animated
+ * sprite its block models and fluids use is set in a per-thread bitset
+ * indexed by animated sprite id; when the compile finishes, the bitset is
+ * stored for the section. Sprites drawn through the item renderer (GUI,
+ * held items, dropped items) and block models drawn outside a section compile
+ * (falling blocks, moving pistons, {@code renderSingleBlock}) are recorded as
+ * they are drawn.
  * </p>
  * <p>
- * Key optimizations:
+ * <strong>Activity:</strong> At the start of every client tick, before
+ * textures tick, the sprites of the currently visible sections are collected:
+ * </p>
  * <ul>
- * <li>Off-screen textures: Update at reduced frequency</li>
- * <li>Distant textures: Update less often as distance increases</li>
- * <li>Visible textures: Always update normally for seamless experience</li>
+ * <li>Visible sections within {@code animationUpdateDistance}: tick every tick</li>
+ * <li>Visible sections farther away: tick every {@code offscreenAnimationInterval} ticks</li>
+ * <li>Sprites drawn as items or single blocks since the last tick: tick every tick</li>
+ * <li>Terrain sprites in none of these: do not tick or upload at all</li>
  * </ul>
+ * <p>
+ * Sprites no section has ever used (entity, GUI and particle atlases, items
+ * only) are never held back, and neither are the fire sprites, which entity
+ * fire and the first-person fire overlay draw without a block model. Records
+ * of sections whose mesh {@link SectionMeshCache} still holds are kept, since
+ * a restored mesh is not compiled again.
  * </p>
  */
 public final class AnimatedTextureOptimizer {
@@ -33,17 +56,51 @@ public final class AnimatedTextureOptimizer {
         // Utility class
     }
 
-    // Track last update tick for each animated texture type
-    private static final Map<String, Long> lastUpdateTicks = new ConcurrentHashMap<>();
+    // Section records are dropped this many render distances away
+    private static final int FORGET_DISTANCE_FACTOR = 2;
+    private static final int CLEANUP_INTERVAL_TICKS = 200;
+
+    // Block atlas sprites drawn directly by non-terrain renderers
+    private static final List<ResourceLocation> UNGATED_SPRITES = List.of(
+            ResourceLocation.withDefaultNamespace("block/fire_0"),
+            ResourceLocation.withDefaultNamespace("block/fire_1"));
+
+    private static final AtomicInteger nextSpriteId = new AtomicInteger();
+
+    // Sprites recorded by the section compile running on each worker thread
+    private static final ThreadLocal<SectionRecord> COMPILING = ThreadLocal.withInitial(SectionRecord::new);
 
-    // Track positions where animated blocks are known to exist
-    private static final Map<BlockPos, String> animatedBlockPositions = new ConcurrentHashMap<>();
+    // Section -> bitset words of the animated sprites it uses; written by workers, read on the render thread
+    private static final Map<Long, long[]> sectionSprites = new ConcurrentHashMap<>();
+
+    // Every sprite any section ever used, guarded by itself
+    private static final BitSet terrainSprites = new BitSet();
+    // Sprites that always tick; ids are handed out while atlases load, guarded by itself
+    private static final BitSet ungatedSprites = new BitSet();
+
+    // Render thread only
+    @Nullable
+    private static List<SectionRenderDispatcher.RenderSection> visibleSections;
+    private static final BitSet directSprites = new BitSet();
+    private static BitSet knownSprites = new BitSet();
+    private static final BitSet nearSprites = new BitSet();
+    private static final BitSet distantSprites = new BitSet();
+    private static long tick = 0;
 
     // Cached config values
     private static int updateDistance = 32;
     private static int offscreenInterval = 8;
     private static boolean enabled = true;
 
+    // Statistics
+    private static long ticksRun = 0;
+    private static long ticksSkipped = 0;
+
+    private static final class SectionRecord {
+        final BitSet sprites = new BitSet();
+        boolean active;
+    }
+
     /**
      * Refresh cached config values.
      */
@@ -51,89 +108,207 @@ public final class AnimatedTextureOptimizer {
         enabled = RenderingConfig.ENABLE_SMART_ANIMATIONS.get();
         updateDistance = RenderingConfig.ANIMATION_UPDATE_DISTANCE.get();
         offscreenInterval = RenderingConfig.OFFSCREEN_ANIMATION_INTERVAL.get();
+        if (!enabled) {
+            clearTrackedPositions();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
     }
 
     /**
-     * Check if an animated texture should be updated this tick.
+     * Hand out the id of a newly seen animated sprite.
      *
-     * @param textureId   Identifier for the animated texture (e.g.,
-     *                    "block/water_still")
-     * @param currentTick Current game tick
-     * @return true if animation should be updated, false to skip this update
+     * @param name The sprite's name in its atlas
      */
-    public static boolean shouldUpdateAnimation(String textureId, long currentTick) {
-        if (!enabled) {
-            return true; // Feature disabled, always update
+    public static int nextSpriteId(@Nonnull ResourceLocation name) {
+        int id = nextSpriteId.getAndIncrement();
+        if (UNGATED_SPRITES.contains(name)) {
+            synchronized (ungatedSprites) {
+                ungatedSprites.set(id);
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Start recording the sprites of a section compile on this thread.
+     */
+    public static void beginSection() {
+        SectionRecord record = COMPILING.get();
+        record.sprites.clear();
+        record.active = enabled;
+    }
+
+    /**
+     * Store the sprites recorded for a finished section compile.
+     */
+    public static void endSection(@Nonnull SectionPos sectionPos) {
+        SectionRecord record = COMPILING.get();
+        if (!record.active) {
+            return;
         }
+        record.active = false;
 
-        Minecraft minecraft = Minecraft.getInstance();
-        if (minecraft.player == null || minecraft.level == null) {
-            return true; // Safety: update when no player context
+        if (record.sprites.isEmpty()) {
+            sectionSprites.remove(sectionPos.asLong());
+            return;
         }
+        sectionSprites.put(sectionPos.asLong(), record.sprites.toLongArray());
+        synchronized (terrainSprites) {
+            terrainSprites.or(record.sprites);
+        }
+    }
 
-        // Get camera position for distance calculations
-        Camera camera = minecraft.gameRenderer.getMainCamera();
-        Vec3 cameraPos = camera.getPosition();
+    /**
+     * Record a sprite used by a block model. Inside a section compile it is
+     * recorded for the section; on the render thread (falling blocks, moving
+     * pistons) it is recorded as drawn this tick.
+     */
+    public static void recordTerrainSprite(@Nonnull TextureAtlasSprite sprite) {
+        int id = ((MCOptAnimatedSprite) sprite.contents()).mcopt$getAnimationId();
+        if (id < 0) {
+            return;
+        }
+        SectionRecord record = COMPILING.get();
+        if (record.active) {
+            record.sprites.set(id);
+        } else if (Minecraft.getInstance().isSameThread()) {
+            directSprites.set(id);
+        }
+    }
 
-        // Check if any known animated block of this type is close enough
-        boolean hasNearbyBlock = false;
-        for (Map.Entry<BlockPos, String> entry : animatedBlockPositions.entrySet()) {
-            if (entry.getValue().equals(textureId)) {
-                BlockPos pos = entry.getKey();
-                double distance = cameraPos.distanceTo(new Vec3(pos.getX(), pos.getY(), pos.getZ()));
-                if (distance <= updateDistance) {
-                    hasNearbyBlock = true;
-                    break;
-                }
+    /**
+     * Record the animated sprites of quads drawn directly (items, single
+     * blocks). Render thread only.
+     */
+    public static void recordDirectQuads(@Nonnull List<BakedQuad> quads) {
+        for (int i = 0, size = quads.size(); i < size; i++) {
+            int id = ((MCOptAnimatedSprite) quads.get(i).sprite().contents()).mcopt$getAnimationId();
+            if (id >= 0) {
+                directSprites.set(id);
             }
         }
+    }
 
-        // If there's a nearby block, always update
-        if (hasNearbyBlock) {
-            lastUpdateTicks.put(textureId, currentTick);
-            return true;
+    /**
+     * The level renderer's visible section list; read every tick.
+     */
+    public static void setVisibleSections(@Nonnull ObjectArrayList<SectionRenderDispatcher.RenderSection> sections) {
+        visibleSections = sections;
+    }
+
+    /**
+     * Collect the sprites that may tick during this client tick. Called
+     * before textures tick.
+     */
+    public static void onClientTick() {
+        if (!enabled) {
+            return;
         }
+        tick++;
 
-        // For distant/offscreen textures, use reduced update frequency
-        Long lastUpdate = lastUpdateTicks.get(textureId);
-        if (lastUpdate == null) {
-            lastUpdateTicks.put(textureId, currentTick);
-            return true; // First update, always allow
+        synchronized (terrainSprites) {
+            knownSprites = (BitSet) terrainSprites.clone();
+        }
+        nearSprites.clear();
+        distantSprites.clear();
+        nearSprites.or(directSprites);
+        directSprites.clear();
+        synchronized (ungatedSprites) {
+            nearSprites.or(ungatedSprites);
         }
 
-        long ticksSinceUpdate = currentTick - lastUpdate;
-        if (ticksSinceUpdate >= offscreenInterval) {
-            lastUpdateTicks.put(textureId, currentTick);
-            return true;
+        Minecraft mc = Minecraft.getInstance();
+        List<SectionRenderDispatcher.RenderSection> sections = visibleSections;
+        if (sections == null || mc.level == null) {
+            return;
         }
 
-        // Skip this update cycle
-        return false;
+        Vec3 camera = mc.gameRenderer.getMainCamera().getPosition();
+        double nearSqr = (double) updateDistance * updateDistance;
+        for (int i = 0, size = sections.size(); i < size; i++) {
+            SectionRenderDispatcher.RenderSection section = sections.get(i);
+            BlockPos origin = section.getRenderOrigin();
+            long[] words = sectionSprites.get(SectionPos.asLong(origin));
+            if (words == null) {
+                continue;
+            }
+            double distanceSqr = camera.distanceToSqr(origin.getX() + 8.0, origin.getY() + 8.0, origin.getZ() + 8.0);
+            or(distanceSqr <= nearSqr ? nearSprites : distantSprites, words);
+        }
+
+        if (tick % CLEANUP_INTERVAL_TICKS == 0) {
+            forgetFarSections(camera, mc.options.getEffectiveRenderDistance());
+        }
+    }
+
+    private static void or(BitSet target, long[] words) {
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            while (word != 0) {
+                int bit = Long.numberOfTrailingZeros(word);
+                target.set(w * 64 + bit);
+                word &= word - 1;
+            }
+        }
+    }
+
+    private static void forgetFarSections(Vec3 camera, int renderDistance) {
+        int limit = (renderDistance + 1) * FORGET_DISTANCE_FACTOR;
+        int centerX = SectionPos.blockToSectionCoord(camera.x);
+        int centerZ = SectionPos.blockToSectionCoord(camera.z);
+        Iterator<Long> iterator = sectionSprites.keySet().iterator();
+        while (iterator.hasNext()) {
+            long key = iterator.next();
+            boolean far = Math.abs(SectionPos.x(key) - centerX) > limit
+                    || Math.abs(SectionPos.z(key) - centerZ) > limit;
+            // A retained mesh comes back without a compile, so its record must survive
+            if (far && !SectionMeshCache.contains(key)) {
+                iterator.remove();
+            }
+        }
     }
 
     /**
-     * Register an animated block position for tracking.
-     * Called when animated blocks are rendered.
+     * Whether an animated sprite should advance and upload its frame this
+     * tick. Render thread only.
      *
-     * @param pos       Block position
-     * @param textureId Texture identifier
+     * @param spriteId Its {@link MCOptAnimatedSprite} id
      */
-    public static void registerAnimatedBlock(BlockPos pos, String textureId) {
-        if (!enabled) {
-            return;
+    public static boolean shouldTick(int spriteId) {
+        if (!enabled || spriteId < 0 || !knownSprites.get(spriteId) || nearSprites.get(spriteId)
+                || (distantSprites.get(spriteId) && tick % offscreenInterval == 0)) {
+            ticksRun++;
+            return true;
         }
-        BlockPos validPos = Objects.requireNonNull(pos, "Position cannot be null");
-        String validId = Objects.requireNonNull(textureId, "Texture ID cannot be null");
-        animatedBlockPositions.put(validPos.immutable(), validId);
+        ticksSkipped++;
+        return false;
     }
 
     /**
-     * Clear tracked positions when world changes.
+     * Forget every section record (world change, renderer reload). Sprite ids
+     * stay valid; sections report their sprites again when they recompile.
      */
     public static void clearTrackedPositions() {
-        animatedBlockPositions.clear();
-        lastUpdateTicks.clear();
-        MCOPT.LOGGER.debug("[SmartAnimations] Cleared tracked positions");
+        sectionSprites.clear();
+        synchronized (terrainSprites) {
+            terrainSprites.clear();
+        }
+        knownSprites = new BitSet();
+        nearSprites.clear();
+        distantSprites.clear();
+        directSprites.clear();
+        MCOPT.LOGGER.debug("[SmartAnimations] Cleared tracked sections");
+    }
+
+    public static long getTicksRun() {
+        return ticksRun;
+    }
+
+    public static long getTicksSkipped() {
+        return ticksSkipped;
     }
 
     /**
@@ -142,7 +317,7 @@ public final class AnimatedTextureOptimizer {
      * @return String with current tracking stats
      */
     public static String getDebugStats() {
-        return String.format("AnimatedTextures: %d tracked blocks, %d texture types",
-                animatedBlockPositions.size(), lastUpdateTicks.size());
+        return String.format("AnimatedTextures: %d sections tracked, %d/%d terrain sprites active, %d ticks skipped",
+                sectionSprites.size(), nearSprites.cardinality(), knownSprites.cardinality(), ticksSkipped);
     }
 }
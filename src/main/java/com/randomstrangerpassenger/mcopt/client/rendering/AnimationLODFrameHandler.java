@@ -0,0 +1,16 @@
+package com.randomstrangerpassenger.mcopt.client.rendering;
+
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.client.event.RenderFrameEvent;
+
+/**
+ * Advances the {@link AnimationLODHandler} frame counter at the start of
+ * every frame.
+ */
+public class AnimationLODFrameHandler {
+
+    @SubscribeEvent
+    public void onRenderFrame(RenderFrameEvent.Pre event) {
+        AnimationLODHandler.onFrameStart();
+    }
+}
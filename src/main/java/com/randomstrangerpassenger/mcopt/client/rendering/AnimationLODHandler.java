@@ -1,22 +1,18 @@
 package com.randomstrangerpassenger.mcopt.client.rendering;
 
 import com.randomstrangerpassenger.mcopt.config.RenderingConfig;
-import net.minecraft.client.Minecraft;
-import net.minecraft.client.player.LocalPlayer;
-import net.minecraft.world.entity.Entity;
+import net.minecraft.client.renderer.entity.state.LivingEntityRenderState;
 import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.TamableAnimal;
 
 import javax.annotation.Nonnull;
-import javax.annotation.Nullable;
-import java.util.Map;
-import java.util.WeakHashMap;
 
 /**
  * Handles Level of Detail (LOD) for entity animations.
  * 
  * <p>
  * Reduces animation update frequency for distant entities to save CPU cycles
- * on skeletal bone matrix calculations (Math.sin/cos).
+ * on skeletal bone matrix calculations (Math.sin/cos) in {@code setupAnim}.
  * </p>
  * 
  * <p>
@@ -24,11 +20,20 @@ import java.util.WeakHashMap;
  * </p>
  * <ul>
  * <li>Near (&lt;16 blocks): Full animation every frame</li>
- * <li>Mid (16-32 blocks): Animation every 2-3 frames, reuse poses between</li>
- * <li>Far (&gt;32 blocks): Static idle pose</li>
+ * <li>Mid (16-32 blocks): Posed every 3 frames; in between, the render state
+ * gets the inputs of the posed frame back and the model reuses its pose</li>
+ * <li>Far (&gt;32 blocks): Posed once in an idle pose (no walking, head
+ * straight, frozen age), then reused until the entity changes tier or
+ * posture (crouching, sleeping, sitting, riding, ...)</li>
  * </ul>
  * 
  * <p>
+ * Decided in {@code extractRenderState} from the render state's camera
+ * distance. The per-entity memory is an {@link AnimationPose} owned by the
+ * entity, so it goes away with it.
+ * </p>
+ * 
+ * <p>
  * <strong>Immersion First:</strong> AI and gameplay unaffected. Only visual
  * smoothness of distant animations is reduced.
  * </p>
@@ -37,11 +42,15 @@ public class AnimationLODHandler {
 
     // Cached config values
     private static boolean enabled = true;
-    private static int nearDistance = 16;
-    private static int farDistance = 32;
+    private static double nearDistanceSq = 16.0 * 16.0;
+    private static double farDistanceSq = 32.0 * 32.0;
 
-    // Cache for animation frame tracking
-    private static final Map<Integer, AnimationState> animationStates = new WeakHashMap<>();
+    // Render thread only
+    private static long frame = 0;
+
+    // Statistics
+    private static long posesReused = 0;
+    private static long posesComputed = 0;
 
     /**
      * LOD tier for animation updates.
@@ -49,7 +58,7 @@ public class AnimationLODHandler {
     public enum LODTier {
         /** Full animation every frame */
         NEAR(1),
-        /** Animation every 2-3 frames */
+        /** Animation every 3 frames */
         MID(3),
         /** Static idle pose */
         FAR(0);
@@ -65,36 +74,15 @@ public class AnimationLODHandler {
         }
     }
 
-    /**
-     * Tracks animation state for an entity.
-     */
-    private static class AnimationState {
-        long lastUpdateFrame;
-        float cachedLimbSwing;
-        float cachedLimbSwingAmount;
-        float cachedAgeInTicks;
-
-        AnimationState(long frame) {
-            this.lastUpdateFrame = frame;
-        }
-
-        void update(long frame, float limbSwing, float limbSwingAmount,
-                float ageInTicks, float headYaw, float headPitch) {
-            this.lastUpdateFrame = frame;
-            this.cachedLimbSwing = limbSwing;
-            this.cachedLimbSwingAmount = limbSwingAmount;
-            this.cachedAgeInTicks = ageInTicks;
-
-        }
-    }
-
     /**
      * Refresh configuration cache.
      */
     public static void refreshConfigCache() {
         enabled = RenderingConfig.ENABLE_ANIMATION_LOD.get();
-        nearDistance = RenderingConfig.ANIMATION_LOD_NEAR_DISTANCE.get();
-        farDistance = RenderingConfig.ANIMATION_LOD_FAR_DISTANCE.get();
+        double near = RenderingConfig.ANIMATION_LOD_NEAR_DISTANCE.get();
+        double far = Math.max(near, RenderingConfig.ANIMATION_LOD_FAR_DISTANCE.get());
+        nearDistanceSq = near * near;
+        farDistanceSq = far * far;
     }
 
     /**
@@ -105,171 +93,99 @@ public class AnimationLODHandler {
     }
 
     /**
-     * Get the LOD tier for an entity based on distance.
-     * 
-     * @param entity The entity to check
-     * @return The appropriate LOD tier
+     * Advance the frame counter. Called at the start of every frame.
      */
-    @Nonnull
-    public static LODTier getLODTier(@Nonnull Entity entity) {
-        if (!enabled) {
-            return LODTier.NEAR;
-        }
-
-        double distanceSq = getDistanceToPlayerSq(entity);
-        int nearDistSq = nearDistance * nearDistance;
-        int farDistSq = farDistance * farDistance;
-
-        if (distanceSq <= nearDistSq) {
-            return LODTier.NEAR;
-        } else if (distanceSq <= farDistSq) {
-            return LODTier.MID;
-        } else {
-            return LODTier.FAR;
-        }
+    public static void onFrameStart() {
+        frame++;
     }
 
     /**
-     * Check if this entity's animation should be updated this frame.
-     * 
-     * @param entity       The entity to check
-     * @param currentFrame Current render frame number
-     * @return true if animation should be recalculated
+     * Get the LOD tier for a squared distance from the camera.
      */
-    public static boolean shouldUpdateAnimation(@Nonnull LivingEntity entity, long currentFrame) {
-        if (!enabled) {
-            return true;
-        }
-
-        LODTier tier = getLODTier(entity);
-
-        // Near entities always update
-        if (tier == LODTier.NEAR) {
-            return true;
-        }
-
-        // Far entities use static pose (never update animation math)
-        if (tier == LODTier.FAR) {
-            return false;
-        }
-
-        // Mid-range: check frame interval
-        int entityId = entity.getId();
-        @Nullable
-        AnimationState state = animationStates.get(entityId);
-
-        if (state == null) {
-            animationStates.put(entityId, new AnimationState(currentFrame));
-            return true;
-        }
-
-        long framesSinceUpdate = currentFrame - state.lastUpdateFrame;
-        if (framesSinceUpdate >= tier.getUpdateInterval()) {
-            state.lastUpdateFrame = currentFrame;
-            return true;
-        }
-
-        return false;
-    }
-
-    /**
-     * Store cached animation parameters for an entity.
-     * Used when animation update is skipped to provide consistent values.
-     */
-    public static void cacheAnimationParams(@Nonnull LivingEntity entity, long currentFrame,
-            float limbSwing, float limbSwingAmount, float ageInTicks,
-            float headYaw, float headPitch) {
-        if (!enabled) {
-            return;
-        }
-
-        int entityId = entity.getId();
-        @Nullable
-        AnimationState state = animationStates.get(entityId);
-
-        if (state == null) {
-            state = new AnimationState(currentFrame);
-            animationStates.put(entityId, state);
-        }
-
-        state.update(currentFrame, limbSwing, limbSwingAmount, ageInTicks, headYaw, headPitch);
-    }
-
-    /**
-     * Get cached limb swing value.
-     */
-    public static float getCachedLimbSwing(@Nonnull LivingEntity entity, float defaultValue) {
-        if (!enabled) {
-            return defaultValue;
-        }
-
-        @Nullable
-        AnimationState state = animationStates.get(entity.getId());
-        return state != null ? state.cachedLimbSwing : defaultValue;
+    @Nonnull
+    public static LODTier getLODTier(double distanceSq) {
+        return enabled ? getTierForDistance(distanceSq) : LODTier.NEAR;
     }
 
     /**
-     * Get cached limb swing amount.
+     * Get the tier of a squared distance from the camera, even when animation
+     * LOD itself is disabled (see {@link RenderFeatureLOD}).
      */
-    public static float getCachedLimbSwingAmount(@Nonnull LivingEntity entity, float defaultValue) {
-        if (!enabled) {
-            return defaultValue;
+    @Nonnull
+    public static LODTier getTierForDistance(double distanceSq) {
+        if (distanceSq <= nearDistanceSq) {
+            return LODTier.NEAR;
         }
-
-        @Nullable
-        AnimationState state = animationStates.get(entity.getId());
-        return state != null ? state.cachedLimbSwingAmount : defaultValue;
+        return distanceSq <= farDistanceSq ? LODTier.MID : LODTier.FAR;
     }
 
     /**
-     * Get cached age in ticks.
+     * Decide how a freshly extracted render state is animated, and adjust its
+     * animation inputs for reused and idle poses.
      */
-    public static float getCachedAgeInTicks(@Nonnull LivingEntity entity, float defaultValue) {
-        if (!enabled) {
-            return defaultValue;
+    public static void onExtract(@Nonnull LivingEntity entity, @Nonnull LivingEntityRenderState state) {
+        MCOptAnimationLODState lod = (MCOptAnimationLODState) state;
+        LODTier tier = getLODTier(state.distanceToCameraSq);
+        AnimationPose pose = ((MCOptAnimatedEntity) entity).mcopt$getAnimationPose();
+        if (tier == LODTier.NEAR) {
+            // Leaving the near tier again must not pick up a pose from before
+            if (pose.tier != LODTier.NEAR) {
+                pose.invalidate();
+            }
+            lod.mcopt$setAnimationLOD(null, false);
+            return;
         }
 
-        @Nullable
-        AnimationState state = animationStates.get(entity.getId());
-        return state != null ? state.cachedAgeInTicks : defaultValue;
-    }
-
-    /**
-     * Check if entity should use static idle pose (far LOD).
-     */
-    public static boolean shouldUseIdlePose(@Nonnull Entity entity) {
-        if (!enabled) {
-            return false;
+        int posture = posture(entity);
+        boolean reuse;
+        if (pose.tier != tier || pose.posture != posture) {
+            pose.tier = tier;
+            pose.posture = posture;
+            reuse = false;
+        } else if (tier == LODTier.MID) {
+            reuse = frame - pose.posedFrame < tier.getUpdateInterval();
+        } else {
+            // Already posed idle when it became far or changed posture
+            reuse = true;
         }
 
-        return getLODTier(entity) == LODTier.FAR;
+        if (reuse) {
+            pose.restoreInputs(state);
+            posesReused++;
+        } else {
+            if (tier == LODTier.FAR) {
+                state.walkAnimationPos = 0.0f;
+                state.walkAnimationSpeed = 0.0f;
+                state.yRot = 0.0f;
+                state.xRot = 0.0f;
+            }
+            pose.storeInputs(state, frame);
+            posesComputed++;
+        }
+        lod.mcopt$setAnimationLOD(pose, reuse);
     }
 
     /**
-     * Get squared distance from entity to local player.
+     * The body posture flags a reused pose must match: standing, crouching,
+     * sleeping, swimming and the like, riding, sitting and baby size.
      */
-    private static double getDistanceToPlayerSq(@Nonnull Entity entity) {
-        Minecraft mc = Minecraft.getInstance();
-        @Nullable
-        LocalPlayer player = mc.player;
-        if (player == null) {
-            return 0;
-        }
-        return entity.distanceToSqr(player);
+    private static int posture(LivingEntity entity) {
+        int posture = entity.getPose().ordinal();
+        posture = posture << 1 | (entity.isCrouching() ? 1 : 0);
+        posture = posture << 1 | (entity.isPassenger() ? 1 : 0);
+        posture = posture << 1 | (entity.isFallFlying() ? 1 : 0);
+        posture = posture << 1 | (entity.isAutoSpinAttack() ? 1 : 0);
+        posture = posture << 1 | (entity.isBaby() ? 1 : 0);
+        posture = posture << 1 | (entity instanceof TamableAnimal tamable && tamable.isInSittingPose() ? 1 : 0);
+        return posture;
     }
 
-    /**
-     * Clear animation state for an entity.
-     */
-    public static void clearEntity(int entityId) {
-        animationStates.remove(entityId);
+    public static long getPosesReused() {
+        return posesReused;
     }
 
-    /**
-     * Clear all cached animation states.
-     */
-    public static void clearAll() {
-        animationStates.clear();
+    public static long getPosesComputed() {
+        return posesComputed;
     }
 
     /**
@@ -277,6 +193,7 @@ public class AnimationLODHandler {
      */
     @Nonnull
     public static String getDebugStats() {
-        return "AnimationLOD: " + animationStates.size() + " tracked, enabled=" + enabled;
+        return String.format("AnimationLOD: %d poses reused, %d computed, enabled=%s",
+                posesReused, posesComputed, enabled);
     }
 }
@@ -0,0 +1,137 @@
+package com.randomstrangerpassenger.mcopt.client.rendering;
+
+import net.minecraft.client.model.Model;
+import net.minecraft.client.model.geom.ModelPart;
+import net.minecraft.client.renderer.entity.state.LivingEntityRenderState;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+
+/**
+ * Animation LOD memory of one living entity: the animation inputs of the
+ * last posed frame and the model pose they produced.
+ * <p>
+ * Owned by the entity (see {@link MCOptAnimatedEntity}) because render
+ * states are extracted fresh every frame; the render state only points to it
+ * (see {@link MCOptAnimationLODState}). Render thread only.
+ * </p>
+ */
+public final class AnimationPose {
+
+    // x, y, z, xRot, yRot, zRot, xScale, yScale, zScale per part
+    private static final int FLOATS_PER_PART = 9;
+
+    AnimationLODHandler.LODTier tier = AnimationLODHandler.LODTier.NEAR;
+    long posedFrame = Long.MIN_VALUE;
+    // Body posture the pose was computed for (see AnimationLODHandler)
+    int posture;
+
+    // Animation inputs of the posed frame
+    private float walkAnimationPos;
+    private float walkAnimationSpeed;
+    private float ageInTicks;
+    private float headYaw;
+    private float headPitch;
+
+    // Model pose produced from them
+    private Model<?> model;
+    private float[] transforms = new float[0];
+    private boolean[] visible = new boolean[0];
+    private boolean captured;
+
+    /**
+     * Remember the inputs of a freshly posed frame. Forgets the model pose
+     * until it is captured again.
+     */
+    void storeInputs(@Nonnull LivingEntityRenderState state, long frame) {
+        posedFrame = frame;
+        walkAnimationPos = state.walkAnimationPos;
+        walkAnimationSpeed = state.walkAnimationSpeed;
+        ageInTicks = state.ageInTicks;
+        headYaw = state.yRot;
+        headPitch = state.xRot;
+        captured = false;
+    }
+
+    /**
+     * Forget the pose, so the next frame below the near tier poses afresh.
+     */
+    void invalidate() {
+        tier = AnimationLODHandler.LODTier.NEAR;
+        posedFrame = Long.MIN_VALUE;
+        captured = false;
+    }
+
+    /**
+     * Put the inputs of the posed frame back, so anything that poses the
+     * model from this state gets the cached pose.
+     */
+    void restoreInputs(@Nonnull LivingEntityRenderState state) {
+        state.walkAnimationPos = walkAnimationPos;
+        state.walkAnimationSpeed = walkAnimationSpeed;
+        state.ageInTicks = ageInTicks;
+        state.yRot = headYaw;
+        state.xRot = headPitch;
+    }
+
+    /**
+     * Copy the pose {@code setupAnim} just left in the model's parts.
+     */
+    public void capture(@Nonnull Model<?> model) {
+        List<ModelPart> parts = model.allParts();
+        int count = parts.size();
+        if (visible.length != count) {
+            transforms = new float[count * FLOATS_PER_PART];
+            visible = new boolean[count];
+        }
+
+        for (int i = 0; i < count; i++) {
+            ModelPart part = parts.get(i);
+            int offset = i * FLOATS_PER_PART;
+            transforms[offset] = part.x;
+            transforms[offset + 1] = part.y;
+            transforms[offset + 2] = part.z;
+            transforms[offset + 3] = part.xRot;
+            transforms[offset + 4] = part.yRot;
+            transforms[offset + 5] = part.zRot;
+            transforms[offset + 6] = part.xScale;
+            transforms[offset + 7] = part.yScale;
+            transforms[offset + 8] = part.zScale;
+            visible[i] = part.visible;
+        }
+        this.model = model;
+        captured = true;
+    }
+
+    /**
+     * Pose the model from the captured copy instead of running
+     * {@code setupAnim}.
+     *
+     * @return false if there is no copy for this model
+     */
+    public boolean apply(@Nonnull Model<?> model) {
+        if (!captured || this.model != model) {
+            return false;
+        }
+        List<ModelPart> parts = model.allParts();
+        if (parts.size() != visible.length) {
+            return false;
+        }
+
+        for (int i = 0, count = parts.size(); i < count; i++) {
+            ModelPart part = parts.get(i);
+            int offset = i * FLOATS_PER_PART;
+            part.x = transforms[offset];
+            part.y = transforms[offset + 1];
+            part.z = transforms[offset + 2];
+            part.xRot = transforms[offset + 3];
+            part.yRot = transforms[offset + 4];
+            part.zRot = transforms[offset + 5];
+            part.xScale = transforms[offset + 6];
+            part.yScale = transforms[offset + 7];
+            part.zScale = transforms[offset + 8];
+            part.visible = visible[i];
+        }
+        return true;
+    }
+}
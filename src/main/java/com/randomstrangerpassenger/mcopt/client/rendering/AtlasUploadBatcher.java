@@ -0,0 +1,280 @@
+package com.randomstrangerpassenger.mcopt.client.rendering;
+
+import com.mojang.blaze3d.platform.NativeImage;
+import com.mojang.blaze3d.systems.CommandEncoder;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.textures.GpuTexture;
+import com.randomstrangerpassenger.mcopt.config.RenderingConfig;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import org.lwjgl.system.MemoryUtil;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Comparator;
+
+/**
+ * Coalesces the animated sprite frame uploads of one atlas tick into as few
+ * texture writes as possible.
+ *
+ * <p>
+ * Vanilla writes every animated sprite frame, at every mip level, with its
+ * own sub-image upload. While an atlas cycles its animations, those writes
+ * are queued here instead; at the end of the cycle they are grouped per mip
+ * level and merged into rectangles of exactly adjacent regions: first runs of
+ * regions in the same row with the same height, then stacks of runs with the
+ * same column and width. The stitcher places sprites of the same size next to
+ * each other, so neighbouring animated blocks of a mod pack usually end up in
+ * one rectangle. A rectangle made of several regions is assembled in a
+ * staging image and written in one call; a lone region is written from its
+ * frame image directly.
+ * </p>
+ *
+ * <p>
+ * Only pixels that vanilla would have written are written, so sprites that
+ * {@link AnimatedTextureOptimizer} held back keep their current frame.
+ * </p>
+ *
+ * <p>
+ * <strong>Threading:</strong> Render thread only, like texture ticking. The
+ * frame images stay untouched until the end of the cycle, because every
+ * sprite uploads at most once per cycle.
+ * </p>
+ */
+public final class AtlasUploadBatcher {
+
+    private AtlasUploadBatcher() {
+        // Utility class
+    }
+
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private static final Comparator<Region> BY_ROW = Comparator.comparingInt(Region::mipLevel)
+            .thenComparingInt(Region::destY)
+            .thenComparingInt(Region::destX);
+    private static final Comparator<Rect> BY_COLUMN = Comparator.<Rect>comparingInt(rect -> rect.mipLevel)
+            .thenComparingInt(rect -> rect.x)
+            .thenComparingInt(rect -> rect.y);
+
+    // Cached config values
+    private static boolean enabled = true;
+
+    private static boolean batching = false;
+    @Nullable
+    private static GpuTexture batchTexture;
+    private static final ObjectArrayList<Region> regions = new ObjectArrayList<>();
+    private static final ObjectArrayList<Rect> rects = new ObjectArrayList<>();
+    @Nullable
+    private static NativeImage staging;
+
+    // Statistics
+    private static long regionsUploaded = 0;
+    private static long uploadCalls = 0;
+
+    /**
+     * One frame region vanilla wanted to write.
+     */
+    record Region(NativeImage source, int mipLevel, int destX, int destY, int width, int height,
+            int srcX, int srcY) {
+
+        boolean isMergeable() {
+            return source.format() == NativeImage.Format.RGBA;
+        }
+    }
+
+    /**
+     * A rectangle of exactly adjacent regions, written with one call.
+     */
+    static final class Rect {
+        final ObjectArrayList<Region> members = new ObjectArrayList<>(4);
+        int mipLevel;
+        int x;
+        int y;
+        int width;
+        int height;
+
+        Rect(Region first) {
+            members.add(first);
+            mipLevel = first.mipLevel();
+            x = first.destX();
+            y = first.destY();
+            width = first.width();
+            height = first.height();
+        }
+    }
+
+    /**
+     * Refresh configuration cache.
+     */
+    public static void refreshConfigCache() {
+        enabled = RenderingConfig.ENABLE_BATCHED_ATLAS_UPLOADS.get();
+    }
+
+    /**
+     * Start queueing frame uploads. Called when an atlas starts cycling its
+     * animations.
+     */
+    public static void begin() {
+        // Leftovers of a cycle that threw before it finished
+        flush();
+        batching = enabled;
+    }
+
+    /**
+     * Write a sprite frame region, or queue it while a cycle is batching.
+     * Arguments are those of {@link CommandEncoder#writeToTexture}.
+     */
+    public static void write(@Nonnull CommandEncoder encoder, @Nonnull GpuTexture texture, @Nonnull NativeImage image,
+            int mipLevel, int depth, int destX, int destY, int width, int height, int srcX, int srcY) {
+        if (!batching || depth != 0) {
+            encoder.writeToTexture(texture, image, mipLevel, depth, destX, destY, width, height, srcX, srcY);
+            return;
+        }
+        if (batchTexture != null && batchTexture != texture) {
+            flush();
+            batching = true;
+        }
+        batchTexture = texture;
+        regions.add(new Region(image, mipLevel, destX, destY, width, height, srcX, srcY));
+    }
+
+    /**
+     * Write everything queued during the cycle. Called when the atlas has
+     * finished cycling its animations.
+     */
+    public static void flush() {
+        batching = false;
+        GpuTexture texture = batchTexture;
+        batchTexture = null;
+        if (regions.isEmpty() || texture == null) {
+            regions.clear();
+            return;
+        }
+
+        CommandEncoder encoder = RenderSystem.getDevice().createCommandEncoder();
+        try {
+            mergeRows(regions, rects);
+            mergeColumns(rects);
+            for (int i = 0, size = rects.size(); i < size; i++) {
+                upload(encoder, texture, rects.get(i));
+            }
+            regionsUploaded += regions.size();
+        } finally {
+            regions.clear();
+            rects.clear();
+        }
+    }
+
+    /**
+     * Regions in the same row with the same height that touch each other.
+     * Sorts the regions and adds the runs to {@code rects}.
+     */
+    static void mergeRows(ObjectArrayList<Region> regions, ObjectArrayList<Rect> rects) {
+        regions.sort(BY_ROW);
+        Rect current = null;
+        for (int i = 0, size = regions.size(); i < size; i++) {
+            Region region = regions.get(i);
+            if (current != null && region.isMergeable() && current.members.get(0).isMergeable()
+                    && region.mipLevel() == current.mipLevel && region.destY() == current.y
+                    && region.height() == current.height && region.destX() == current.x + current.width) {
+                current.members.add(region);
+                current.width += region.width();
+                continue;
+            }
+            current = new Rect(region);
+            rects.add(current);
+        }
+    }
+
+    /**
+     * Row runs in the same column with the same width that touch each other.
+     * Replaces the contents of {@code rects} with the merged rectangles.
+     */
+    static void mergeColumns(ObjectArrayList<Rect> rects) {
+        rects.sort(BY_COLUMN);
+        int write = 0;
+        Rect current = null;
+        for (int i = 0, size = rects.size(); i < size; i++) {
+            Rect rect = rects.get(i);
+            if (current != null && rect.members.get(0).isMergeable() && current.members.get(0).isMergeable()
+                    && rect.mipLevel == current.mipLevel && rect.x == current.x
+                    && rect.width == current.width && rect.y == current.y + current.height) {
+                current.members.addAll(rect.members);
+                current.height += rect.height;
+                continue;
+            }
+            current = rect;
+            rects.set(write++, rect);
+        }
+        rects.size(write);
+    }
+
+    private static void upload(CommandEncoder encoder, GpuTexture texture, Rect rect) {
+        uploadCalls++;
+        if (rect.members.size() == 1) {
+            Region region = rect.members.get(0);
+            encoder.writeToTexture(texture, region.source(), region.mipLevel(), 0, region.destX(), region.destY(),
+                    region.width(), region.height(), region.srcX(), region.srcY());
+            return;
+        }
+
+        NativeImage target = ensureStaging(rect.width, rect.height);
+        long targetBase = target.getPointer();
+        long targetStride = (long) target.getWidth() * BYTES_PER_PIXEL;
+        for (int i = 0, size = rect.members.size(); i < size; i++) {
+            Region region = rect.members.get(i);
+            long sourceBase = region.source().getPointer();
+            long sourceStride = (long) region.source().getWidth() * BYTES_PER_PIXEL;
+            long rowBytes = (long) region.width() * BYTES_PER_PIXEL;
+            int offsetX = region.destX() - rect.x;
+            int offsetY = region.destY() - rect.y;
+            for (int row = 0; row < region.height(); row++) {
+                MemoryUtil.memCopy(
+                        sourceBase + (region.srcY() + row) * sourceStride + (long) region.srcX() * BYTES_PER_PIXEL,
+                        targetBase + (offsetY + row) * targetStride + (long) offsetX * BYTES_PER_PIXEL,
+                        rowBytes);
+            }
+        }
+        encoder.writeToTexture(texture, target, rect.mipLevel, 0, rect.x, rect.y, rect.width, rect.height, 0, 0);
+    }
+
+    private static NativeImage ensureStaging(int width, int height) {
+        NativeImage current = staging;
+        if (current != null && current.getWidth() >= width && current.getHeight() >= height) {
+            return current;
+        }
+        int newWidth = current != null ? Math.max(width, current.getWidth()) : width;
+        int newHeight = current != null ? Math.max(height, current.getHeight()) : height;
+        if (current != null) {
+            current.close();
+        }
+        staging = new NativeImage(NativeImage.Format.RGBA, newWidth, newHeight, false);
+        return staging;
+    }
+
+    /**
+     * Release the staging image (resource reload).
+     */
+    public static void clear() {
+        flush();
+        if (staging != null) {
+            staging.close();
+            staging = null;
+        }
+    }
+
+    public static long getRegionsUploaded() {
+        return regionsUploaded;
+    }
+
+    public static long getUploadCalls() {
+        return uploadCalls;
+    }
+
+    /**
+     * Get statistics for debugging.
+     */
+    @Nonnull
+    public static String getDebugStats() {
+        return String.format("AtlasUploads: %d regions in %d writes", regionsUploaded, uploadCalls);
+    }
+}
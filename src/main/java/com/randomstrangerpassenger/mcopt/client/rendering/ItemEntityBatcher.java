@@ -1,22 +1,39 @@
 package com.randomstrangerpassenger.mcopt.client.rendering;
 
 import com.randomstrangerpassenger.mcopt.config.RenderingConfig;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.item.ItemEntity;
-import net.minecraft.world.phys.AABB;
-import net.minecraft.world.phys.Vec3;
+import net.minecraft.world.item.ItemStack;
 
 import javax.annotation.Nonnull;
-import java.util.*;
+import java.util.ArrayList;
 
 /**
  * Handles visual batching of nearby item entities for improved rendering
  * performance.
  * 
  * <p>
- * This optimizer groups nearby item entities and renders them as a single
- * batch,
- * reducing draw calls while keeping server-side entity logic unchanged.
+ * Once per frame, every item entity of the level is dropped into a uniform
+ * grid whose cells are {@code itemMergeRadius} blocks wide. Items of the same
+ * kind (same item and components) in the same cell form a cluster of up to
+ * {@code maxItemsPerBatch} entities. One pass, no per-item entity queries.
+ * </p>
+ * 
+ * <p>
+ * Only one item of a cluster is drawn, as a single model sized for the
+ * combined stack count and with a count label when the camera is close; the
+ * others are skipped before their render state is extracted. The drawn item
+ * is the first member that passes every other culling check in
+ * {@code shouldRender} (frustum, occlusion), so a cluster whose first member
+ * is off screen or behind a wall is still drawn from a visible one. An item
+ * farm's collection area with thousands of items costs a few hundred item
+ * renders.
  * </p>
  * 
  * <p>
@@ -31,29 +48,37 @@ import java.util.*;
 @SuppressWarnings("null")
 public class ItemEntityBatcher {
 
+    // Count labels are only drawn this close to the camera
+    private static final double LABEL_DISTANCE = 16.0;
+
     private static boolean enabled = true;
     private static double mergeRadius = 1.5;
-    private static int maxItemsPerBatch = 8;
+    private static int maxItemsPerBatch = 16;
 
-    // Cache for batched item groups - cleared each frame
-    private static final Map<ItemEntity, List<ItemEntity>> batchGroups = new WeakHashMap<>();
-    private static final Set<ItemEntity> processedItems = Collections.newSetFromMap(new WeakHashMap<>());
-    private static long lastFrameTime = 0;
+    // Rebuilt every frame, render thread only
+    private static final Long2ObjectOpenHashMap<Cluster> cells = new Long2ObjectOpenHashMap<>();
+    private static final ArrayList<Cluster> clusterPool = new ArrayList<>();
+    private static int clustersUsed = 0;
+    // Item id -> its cluster, for every item of the frame
+    private static final Int2ObjectOpenHashMap<Cluster> clusterOf = new Int2ObjectOpenHashMap<>();
+
+    // Statistics
+    private static int itemsLastFrame = 0;
+    private static int clustersLastFrame = 0;
+    private static int hiddenThisFrame = 0;
 
     /**
-     * Represents a batch of item entities to be rendered together.
+     * Items of one kind in one grid cell. Clusters of other kinds in the same
+     * cell are chained through {@link #next}.
      */
-    public record ItemBatch(
-            @Nonnull ItemEntity primaryItem,
-            @Nonnull List<ItemEntity> groupedItems,
-            int totalCount,
-            @Nonnull Vec3 centerPosition) {
-        /**
-         * Check if this batch contains multiple items.
-         */
-        public boolean isBatched() {
-            return groupedItems.size() > 1;
-        }
+    private static final class Cluster {
+        // Only valid while clustering
+        ItemStack stack;
+        Cluster next;
+        int members;
+        int totalCount;
+        // The member that is drawn, chosen in shouldRender; -1 until then
+        int drawnId;
     }
 
     /**
@@ -63,6 +88,9 @@ public class ItemEntityBatcher {
         enabled = RenderingConfig.ENABLE_VISUAL_ITEM_MERGING.get();
         mergeRadius = RenderingConfig.ITEM_MERGE_RADIUS.get();
         maxItemsPerBatch = RenderingConfig.MAX_ITEMS_PER_BATCH.get();
+        if (!enabled) {
+            clear();
+        }
     }
 
     /**
@@ -73,153 +101,136 @@ public class ItemEntityBatcher {
     }
 
     /**
-     * Determine if this item should be rendered or skipped (because it's batched
-     * with another).
-     * 
-     * @param item The item entity being rendered
-     * @return true if this item should be rendered, false if it's part of another
-     *         batch
+     * Cluster every item entity of the level. Called at the start of every
+     * frame, before entities are extracted for rendering.
      */
-    public static boolean shouldRenderItem(@Nonnull ItemEntity item) {
-        if (!enabled) {
-            return true;
+    public static void onFrameStart() {
+        clear();
+        ClientLevel level = Minecraft.getInstance().level;
+        if (!enabled || level == null) {
+            return;
         }
 
-        // Clear cache if this is a new frame
-        clearCacheIfNewFrame();
+        double cellsPerBlock = 1.0 / mergeRadius;
+        int items = 0;
+        for (Entity entity : level.entitiesForRendering()) {
+            if (!(entity instanceof ItemEntity item) || !item.isAlive()) {
+                continue;
+            }
+            items++;
+
+            long cell = BlockPos.asLong(Mth.floor(item.getX() * cellsPerBlock), Mth.floor(item.getY() * cellsPerBlock),
+                    Mth.floor(item.getZ() * cellsPerBlock));
+            ItemStack stack = item.getItem();
+            Cluster head = cells.get(cell);
+            Cluster cluster = head;
+            while (cluster != null
+                    && (cluster.members >= maxItemsPerBatch || !ItemStack.isSameItemSameComponents(cluster.stack, stack))) {
+                cluster = cluster.next;
+            }
+
+            if (cluster == null) {
+                // First of its kind here, or every matching cluster is full
+                cluster = nextCluster();
+                cluster.stack = stack;
+                cluster.members = 0;
+                cluster.totalCount = 0;
+                cluster.drawnId = -1;
+                cluster.next = head;
+                cells.put(cell, cluster);
+            }
 
-        // If this item has already been processed, check if it's a primary or grouped
-        if (processedItems.contains(item)) {
-            return batchGroups.containsKey(item);
+            cluster.members++;
+            cluster.totalCount += stack.getCount();
+            clusterOf.put(item.getId(), cluster);
         }
 
-        // Process this item and nearby items
-        processBatchForItem(item);
+        itemsLastFrame = items;
+        clustersLastFrame = clustersUsed;
+        // Drop references to item stacks until the next frame
+        for (int i = 0; i < clustersUsed; i++) {
+            Cluster cluster = clusterPool.get(i);
+            cluster.stack = null;
+            cluster.next = null;
+        }
+        cells.clear();
+    }
 
-        return true; // Primary items are always rendered
+    private static Cluster nextCluster() {
+        if (clustersUsed == clusterPool.size()) {
+            clusterPool.add(new Cluster());
+        }
+        return clusterPool.get(clustersUsed++);
     }
 
     /**
-     * Get the batch information for a primary item entity.
-     * 
-     * @param item The primary item entity
-     * @return ItemBatch containing grouped items, or null if not batched
+     * Decide whether an item that passed every other culling check is drawn.
+     * The first such member of a cluster is drawn for the whole cluster; the
+     * other members are skipped.
+     *
+     * @return false if the item is drawn as part of another item's cluster
      */
-    public static ItemBatch getBatchForItem(@Nonnull ItemEntity item) {
-        if (!enabled || !batchGroups.containsKey(item)) {
-            return null;
+    public static boolean claim(@Nonnull ItemEntity item) {
+        if (!enabled) {
+            return true;
         }
-
-        List<ItemEntity> grouped = batchGroups.get(item);
-        if (grouped == null || grouped.size() <= 1) {
-            return null;
+        Cluster cluster = clusterOf.get(item.getId());
+        if (cluster == null || cluster.members < 2) {
+            return true;
         }
-
-        Vec3 center = calculateBatchCenter(grouped);
-        return new ItemBatch(item, grouped, grouped.size(), center);
+        if (cluster.drawnId == -1) {
+            cluster.drawnId = item.getId();
+            return true;
+        }
+        if (cluster.drawnId == item.getId()) {
+            return true;
+        }
+        hiddenThisFrame++;
+        return false;
     }
 
     /**
      * Get the count of items in a batch for stack display purposes.
      * 
      * @param item The primary item entity
-     * @return Number of items in the batch, or 1 if not batched
+     * @return Total stack count of its cluster, or its own count if it has none
      */
     public static int getBatchedItemCount(@Nonnull ItemEntity item) {
-        if (!enabled) {
-            return 1;
-        }
-
-        List<ItemEntity> grouped = batchGroups.get(item);
-        if (grouped == null) {
-            return 1;
-        }
-
-        // Sum up the actual stack counts
-        int total = 0;
-        for (ItemEntity groupedItem : grouped) {
-            total += groupedItem.getItem().getCount();
-        }
-        return total;
+        Cluster cluster = enabled ? clusterOf.get(item.getId()) : null;
+        return cluster != null ? cluster.totalCount : item.getItem().getCount();
     }
 
     /**
-     * Clear cache if this is a new frame.
+     * Whether this item is the drawn representative of a cluster of two or
+     * more items.
      */
-    private static void clearCacheIfNewFrame() {
-        Minecraft mc = Minecraft.getInstance();
-        if (mc.level == null) {
-            return;
-        }
-
-        long currentTime = mc.level.getGameTime();
-        if (currentTime != lastFrameTime) {
-            batchGroups.clear();
-            processedItems.clear();
-            lastFrameTime = currentTime;
+    public static boolean isClusterPrimary(@Nonnull ItemEntity item) {
+        if (!enabled) {
+            return false;
         }
+        Cluster cluster = clusterOf.get(item.getId());
+        return cluster != null && cluster.members >= 2 && cluster.drawnId == item.getId();
     }
 
     /**
-     * Process batching for a specific item entity.
+     * Whether a cluster at this squared camera distance gets a count label.
      */
-    private static void processBatchForItem(@Nonnull ItemEntity primaryItem) {
-        Minecraft mc = Minecraft.getInstance();
-        if (mc.level == null) {
-            processedItems.add(primaryItem);
-            return;
-        }
-
-        // Find nearby items
-        Vec3 pos = primaryItem.position();
-        AABB searchBox = new AABB(
-                pos.x - mergeRadius, pos.y - mergeRadius, pos.z - mergeRadius,
-                pos.x + mergeRadius, pos.y + mergeRadius, pos.z + mergeRadius);
-
-        List<ItemEntity> nearbyItems = mc.level.getEntitiesOfClass(
-                ItemEntity.class,
-                searchBox,
-                item -> !processedItems.contains(item) && item.isAlive());
-
-        // Sort by distance to primary
-        nearbyItems.sort(Comparator.comparingDouble(
-                item -> item.position().distanceToSqr(pos)));
-
-        // Limit batch size
-        List<ItemEntity> batch = new ArrayList<>();
-        for (ItemEntity item : nearbyItems) {
-            if (batch.size() >= maxItemsPerBatch) {
-                break;
-            }
-            batch.add(item);
-            processedItems.add(item);
-        }
-
-        // Register batch with primary item
-        if (!batch.isEmpty()) {
-            batchGroups.put(primaryItem, batch);
-        }
+    public static boolean shouldShowCount(double distanceToCameraSqr) {
+        return distanceToCameraSqr < LABEL_DISTANCE * LABEL_DISTANCE;
     }
 
-    /**
-     * Calculate the center position of a batch.
-     */
-    @Nonnull
-    private static Vec3 calculateBatchCenter(@Nonnull List<ItemEntity> items) {
-        if (items.isEmpty()) {
-            return Vec3.ZERO;
-        }
+    private static void clear() {
+        clusterOf.clear();
+        clustersUsed = 0;
+        hiddenThisFrame = 0;
+    }
 
-        double x = 0, y = 0, z = 0;
-        for (ItemEntity item : items) {
-            Vec3 pos = item.position();
-            x += pos.x;
-            y += pos.y;
-            z += pos.z;
-        }
+    public static int getItemsLastFrame() {
+        return itemsLastFrame;
+    }
 
-        int count = items.size();
-        return new Vec3(x / count, y / count, z / count);
+    public static int getClustersLastFrame() {
+        return clustersLastFrame;
     }
 
     /**
@@ -227,11 +238,7 @@ public class ItemEntityBatcher {
      */
     @Nonnull
     public static String getDebugStats() {
-        int totalBatches = batchGroups.size();
-        int totalItems = processedItems.size();
-        int savedRenderCalls = totalItems - totalBatches;
-
-        return String.format("ItemBatcher: %d batches, %d items, %d render calls saved",
-                totalBatches, totalItems, savedRenderCalls);
+        return String.format("ItemBatcher: %d items in %d clusters, %d render calls saved",
+                itemsLastFrame, clustersLastFrame, hiddenThisFrame);
     }
 }
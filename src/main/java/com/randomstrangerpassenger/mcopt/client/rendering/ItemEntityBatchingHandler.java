@@ -0,0 +1,15 @@
+package com.randomstrangerpassenger.mcopt.client.rendering;
+
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.client.event.RenderFrameEvent;
+
+/**
+ * Rebuilds the {@link ItemEntityBatcher} clusters at the start of every frame.
+ */
+public class ItemEntityBatchingHandler {
+
+    @SubscribeEvent
+    public void onRenderFrame(RenderFrameEvent.Pre event) {
+        ItemEntityBatcher.onFrameStart();
+    }
+}
@@ -0,0 +1,19 @@
+package com.randomstrangerpassenger.mcopt.client.rendering;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Animation LOD memory mixed into every
+ * {@link net.minecraft.world.entity.LivingEntity}.
+ * <p>
+ * Lives outside the mixin package because it is loaded as a regular class
+ * by the transformed entity classes.
+ * </p>
+ */
+public interface MCOptAnimatedEntity {
+    /**
+     * The entity's pose cache, created on first use.
+     */
+    @Nonnull
+    AnimationPose mcopt$getAnimationPose();
+}
@@ -0,0 +1,17 @@
+package com.randomstrangerpassenger.mcopt.client.rendering;
+
+/**
+ * Animated sprite id mixed into every
+ * {@link net.minecraft.client.renderer.texture.SpriteContents}.
+ * <p>
+ * Lives outside the mixin package because it is loaded as a regular class
+ * by the transformed texture classes.
+ * </p>
+ */
+public interface MCOptAnimatedSprite {
+    /**
+     * Dense id of this sprite among all animated sprites, assigned when its
+     * ticker is created; -1 if the sprite is not animated.
+     */
+    int mcopt$getAnimationId();
+}
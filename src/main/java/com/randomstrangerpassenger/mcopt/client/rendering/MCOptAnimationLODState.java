@@ -0,0 +1,21 @@
+package com.randomstrangerpassenger.mcopt.client.rendering;
+
+import javax.annotation.Nullable;
+
+/**
+ * Animation LOD decision mixed into every
+ * {@link net.minecraft.client.renderer.entity.state.LivingEntityRenderState},
+ * made during extraction and read when the model is posed.
+ */
+public interface MCOptAnimationLODState {
+    /**
+     * @param pose      The entity's pose cache, or null for full animation
+     * @param reusePose Whether the cached model pose stands in for {@code setupAnim}
+     */
+    void mcopt$setAnimationLOD(@Nullable AnimationPose pose, boolean reusePose);
+
+    @Nullable
+    AnimationPose mcopt$getAnimationPose();
+
+    boolean mcopt$reusesPose();
+}
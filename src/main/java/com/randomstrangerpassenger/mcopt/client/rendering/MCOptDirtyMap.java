@@ -0,0 +1,21 @@
+package com.randomstrangerpassenger.mcopt.client.rendering;
+
+import javax.annotation.Nullable;
+
+/**
+ * Changed pixel rectangle mixed into every
+ * {@link net.minecraft.world.level.saveddata.maps.MapItemSavedData}.
+ * <p>
+ * Lives outside the mixin package because it is loaded as a regular class
+ * by the transformed map classes.
+ * </p>
+ */
+public interface MCOptDirtyMap {
+    /**
+     * Take the rectangle of pixels changed since the last call and reset it.
+     *
+     * @return {minX, minY, maxX, maxY} (inclusive), or null if no pixel changed
+     */
+    @Nullable
+    int[] mcopt$takeDirtyRect();
+}
@@ -1,35 +1,47 @@
 package com.randomstrangerpassenger.mcopt.client.rendering;
 
 import com.randomstrangerpassenger.mcopt.config.RenderingConfig;
+import it.unimi.dsi.fastutil.ints.Int2DoubleMap;
+import it.unimi.dsi.fastutil.ints.Int2DoubleOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.player.LocalPlayer;
 import net.minecraft.core.BlockPos;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.*;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.Arrays;
 
 /**
- * Throttles map texture updates to reduce rendering overhead.
- * 
+ * Throttles map texture uploads and limits them to the pixels that changed.
+ *
  * <p>
- * Maps in item frames update their textures every frame, which can
- * cause significant performance issues with many maps. This throttler
- * limits updates per tick and prioritizes nearby maps.
+ * <strong>Partial uploads:</strong> Every client map remembers the rectangle
+ * of pixels that changed since its texture was last uploaded (see
+ * {@link MCOptDirtyMap}). Server map updates only carry the changed
+ * rectangle, and updates that only move decorations change no pixel at all,
+ * so most uploads shrink to a few rows or disappear entirely. Only a map that
+ * is new or whose data was replaced gets a full upload.
  * </p>
- * 
+ *
  * <p>
- * <strong>Throttling Strategy:</strong>
+ * <strong>Throttling:</strong> Maps in item frames share a budget of
+ * {@code updatesPerTick} uploads:
  * </p>
  * <ul>
- * <li>Near maps: Priority update</li>
- * <li>Far maps: Queued for later update</li>
- * <li>Off-screen maps: Delayed update</li>
+ * <li>Held maps: always upload immediately</li>
+ * <li>Framed maps within {@code updateDistance}: upload immediately while budget remains</li>
+ * <li>Everything else: deferred; at the start of the next tick the nearest deferred maps get the budget</li>
  * </ul>
- * 
  * <p>
- * <strong>Sodium Synergy:</strong> Map rendering is not covered by Sodium.
+ * A deferred map keeps showing its previous texture and asks again on the
+ * next frame it is drawn, so a map art wall catches up over a few ticks,
+ * nearest maps first.
+ * </p>
+ *
+ * <p>
+ * <strong>Threading:</strong> Render thread only.
  * </p>
  */
 @SuppressWarnings("null")
@@ -38,20 +50,27 @@ public class MapUpdateThrottler {
     // Cached config values
     private static boolean enabled = true;
     private static int updatesPerTick = 4;
-    private static int updateDistance = 32;
+    private static double updateDistanceSqr = 32.0 * 32.0;
 
-    // Update queue for throttled maps
-    private static final Queue<MapUpdateRequest> updateQueue = new ConcurrentLinkedQueue<>();
+    // Map being prepared for rendering, and the item frame it sits in (null when held)
+    private static int currentMapId = -1;
+    @Nullable
+    private static BlockPos currentPosition;
+
+    // Deferred map -> squared distance to the player, and maps granted budget this tick
+    private static final Int2DoubleOpenHashMap deferred = new Int2DoubleOpenHashMap();
+    private static final IntOpenHashSet granted = new IntOpenHashSet();
 
     // Tracking for this tick
     private static int updatesThisTick = 0;
-    private static long lastTick = 0;
+    private static long lastTick = Long.MIN_VALUE;
 
-    /**
-     * Represents a pending map update request.
-     */
-    private record MapUpdateRequest(int mapId, BlockPos position, long requestTick) {
-    }
+    // Statistics
+    private static long fullUploads = 0;
+    private static long partialUploads = 0;
+    private static long skippedUploads = 0;
+    private static long uploadedPixels = 0;
+    private static long deferredUploads = 0;
 
     /**
      * Refresh configuration cache.
@@ -59,7 +78,11 @@ public class MapUpdateThrottler {
     public static void refreshConfigCache() {
         enabled = RenderingConfig.ENABLE_MAP_THROTTLING.get();
         updatesPerTick = RenderingConfig.MAP_UPDATES_PER_TICK.get();
-        updateDistance = RenderingConfig.MAP_UPDATE_DISTANCE.get();
+        int updateDistance = RenderingConfig.MAP_UPDATE_DISTANCE.get();
+        updateDistanceSqr = (double) updateDistance * updateDistance;
+        if (!enabled) {
+            clearQueue();
+        }
     }
 
     /**
@@ -69,104 +92,159 @@ public class MapUpdateThrottler {
         return enabled;
     }
 
+    /**
+     * Set the map whose texture is about to be prepared.
+     */
+    public static void setCurrentMap(int mapId) {
+        currentMapId = mapId;
+    }
+
+    /**
+     * Set the item frame being extracted for rendering, or null once it is
+     * done.
+     */
+    public static void setCurrentPosition(@Nullable BlockPos position) {
+        currentPosition = position;
+    }
+
+    /**
+     * Check if the map currently being prepared may upload its texture now.
+     */
+    public static boolean canUpdateCurrentMap() {
+        return canUpdateMap(currentMapId, currentPosition);
+    }
+
     /**
      * Check if a map can update this tick.
-     * 
+     *
      * @param mapId    Map data ID
-     * @param position Position of the map (item frame, player hand, etc.)
+     * @param position Position of the item frame holding the map, or null when held
      * @return true if map should update now
      */
     public static boolean canUpdateMap(int mapId, @Nullable BlockPos position) {
-        if (!enabled) {
+        if (!enabled || position == null) {
             return true;
         }
 
         Minecraft mc = Minecraft.getInstance();
-        if (mc.level == null) {
+        LocalPlayer player = mc.player;
+        if (mc.level == null || player == null) {
             return true;
         }
 
         long currentTick = mc.level.getGameTime();
-
-        // Reset counter for new tick
         if (currentTick != lastTick) {
             lastTick = currentTick;
-            updatesThisTick = 0;
             processQueuedUpdates();
         }
 
-        // Check if we have budget this tick
-        if (updatesThisTick >= updatesPerTick) {
-            // Queue for next tick if position provided
-            if (position != null) {
-                queueUpdate(mapId, position, currentTick);
-            }
-            return false;
+        if (granted.remove(mapId)) {
+            return true;
         }
 
-        // Priority check: nearby maps always update
-        if (position != null && isNearby(position)) {
+        double distanceSqr = player.distanceToSqr(position.getX() + 0.5, position.getY() + 0.5,
+                position.getZ() + 0.5);
+        if (distanceSqr <= updateDistanceSqr && updatesThisTick < updatesPerTick) {
             updatesThisTick++;
             return true;
         }
 
-        // Non-priority: check queue position
-        if (position != null) {
-            // Queue for later if distant
-            if (!isNearby(position)) {
-                queueUpdate(mapId, position, currentTick);
-                return false;
-            }
+        double previous = deferred.getOrDefault(mapId, Double.MAX_VALUE);
+        if (distanceSqr < previous) {
+            deferred.put(mapId, distanceSqr);
         }
-
-        updatesThisTick++;
-        return true;
+        deferredUploads++;
+        return false;
     }
 
     /**
-     * Check if position is within update distance.
+     * Hand this tick's budget to the nearest maps deferred during the last
+     * tick.
      */
-    private static boolean isNearby(@Nonnull BlockPos position) {
-        Minecraft mc = Minecraft.getInstance();
-        @Nullable
-        LocalPlayer player = mc.player;
-        if (player == null) {
-            return true;
+    private static void processQueuedUpdates() {
+        updatesThisTick = 0;
+        granted.clear();
+        if (deferred.isEmpty()) {
+            return;
         }
 
-        double distSq = player.blockPosition().distSqr(position);
-        return distSq <= (updateDistance * updateDistance);
+        int count = deferred.size();
+        int budget = Math.min(updatesPerTick, count);
+        if (budget == count) {
+            granted.addAll(deferred.keySet());
+        } else {
+            double[] distances = new double[count];
+            int i = 0;
+            for (double distance : deferred.values()) {
+                distances[i++] = distance;
+            }
+            Arrays.sort(distances);
+            double threshold = distances[budget - 1];
+
+            ObjectIterator<Int2DoubleMap.Entry> iterator = deferred.int2DoubleEntrySet().fastIterator();
+            while (iterator.hasNext() && granted.size() < budget) {
+                Int2DoubleMap.Entry entry = iterator.next();
+                if (entry.getDoubleValue() <= threshold) {
+                    granted.add(entry.getIntKey());
+                }
+            }
+        }
+        updatesThisTick = granted.size();
+        // Maps still on screen ask again, with their current distance
+        deferred.clear();
     }
 
     /**
-     * Queue a map update for later processing.
+     * Record a full 128x128 upload.
      */
-    private static void queueUpdate(int mapId, @Nonnull BlockPos position, long tick) {
-        // Limit queue size to prevent memory issues
-        if (updateQueue.size() > 100) {
-            updateQueue.poll(); // Remove oldest
-        }
-        updateQueue.offer(new MapUpdateRequest(mapId, position.immutable(), tick));
+    public static void recordFullUpload() {
+        fullUploads++;
+        uploadedPixels += 128 * 128;
     }
 
     /**
-     * Process queued updates at start of new tick.
+     * Record an upload of only the changed rectangle.
      */
-    private static void processQueuedUpdates() {
-        // Process a few queued items per tick
-        int processed = 0;
-        while (!updateQueue.isEmpty() && processed < 2) {
-            updateQueue.poll();
-            processed++;
-        }
+    public static void recordPartialUpload(int pixels) {
+        partialUploads++;
+        uploadedPixels += pixels;
+    }
+
+    /**
+     * Record an upload request without any changed pixel.
+     */
+    public static void recordSkippedUpload() {
+        skippedUploads++;
     }
 
     /**
      * Clear all queued updates.
      */
     public static void clearQueue() {
-        updateQueue.clear();
+        deferred.clear();
+        granted.clear();
         updatesThisTick = 0;
+        currentPosition = null;
+    }
+
+    public static long getFullUploads() {
+        return fullUploads;
+    }
+
+    public static long getPartialUploads() {
+        return partialUploads;
+    }
+
+    public static long getSkippedUploads() {
+        return skippedUploads;
+    }
+
+    public static long getUploadedPixels() {
+        return uploadedPixels;
+    }
+
+    public static long getDeferredUploads() {
+        return deferredUploads;
     }
 
     /**
@@ -175,6 +253,7 @@ public class MapUpdateThrottler {
     @Nonnull
     public static String getDebugStats() {
         return "MapThrottler: " + updatesThisTick + "/" + updatesPerTick +
-                " updates, " + updateQueue.size() + " queued, enabled=" + enabled;
+                " updates, " + deferred.size() + " deferred, " + partialUploads + " partial / " + fullUploads
+                + " full uploads, enabled=" + enabled;
     }
 }
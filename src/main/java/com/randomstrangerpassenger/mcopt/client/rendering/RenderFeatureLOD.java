@@ -0,0 +1,180 @@
+package com.randomstrangerpassenger.mcopt.client.rendering;
+
+import com.randomstrangerpassenger.mcopt.config.RenderingConfig;
+import net.minecraft.client.renderer.entity.state.ArmedEntityRenderState;
+import net.minecraft.client.renderer.entity.state.EntityRenderState;
+import net.minecraft.client.renderer.entity.state.HumanoidRenderState;
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Drops or simplifies the extra render layers of distant entities, using the
+ * {@link AnimationLODHandler} distance tiers.
+ *
+ * <p>
+ * <strong>LOD Tiers:</strong>
+ * </p>
+ * <ul>
+ * <li>Near: Everything, as vanilla</li>
+ * <li>Mid: No shadow; armor drawn without trims and enchantment glint</li>
+ * <li>Far: Additionally no armor, elytra or held items, and optionally no
+ * name tag on non-player entities</li>
+ * </ul>
+ *
+ * <p>
+ * Hiding mob name tags is off by default. A name tag is a label the player
+ * chose to put there, and nothing replaces it at range; turning it on trades
+ * that label for fewer text submissions per frame.
+ * </p>
+ *
+ * <p>
+ * Applied to the finished render state right after extraction, so the layers
+ * simply find nothing to draw. Armor details are the exception: vanilla
+ * extracts fresh copies of the equipment stacks every frame, so instead of
+ * replacing them the armor layer ignores trims and glint while it submits a
+ * mid-range entity. Every feature has its own toggle. Player name tags are
+ * always kept; vanilla already limits their range.
+ * </p>
+ *
+ * <p>
+ * <strong>Immersion First:</strong> Only the look of distant entities
+ * changes; the entities themselves are untouched.
+ * </p>
+ */
+public class RenderFeatureLOD {
+
+    // Cached config values
+    private static boolean lodShadows = true;
+    private static boolean lodArmorDetails = true;
+    private static boolean lodArmor = true;
+    private static boolean lodHeldItems = true;
+    private static boolean lodNameTags = false;
+
+    // Set while the armor layer submits an entity drawn without armor details; render thread only
+    private static boolean plainArmor = false;
+
+    // Statistics
+    private static long shadowsDropped = 0;
+    private static long armorSimplified = 0;
+    private static long armorDropped = 0;
+    private static long heldItemsDropped = 0;
+    private static long nameTagsDropped = 0;
+
+    /**
+     * Refresh configuration cache.
+     */
+    public static void refreshConfigCache() {
+        lodShadows = RenderingConfig.LOD_SHADOWS.get();
+        lodArmorDetails = RenderingConfig.LOD_ARMOR_DETAILS.get();
+        lodArmor = RenderingConfig.LOD_ARMOR.get();
+        lodHeldItems = RenderingConfig.LOD_HELD_ITEMS.get();
+        lodNameTags = RenderingConfig.LOD_NAME_TAGS.get();
+    }
+
+    public static boolean isEnabled() {
+        return lodShadows || lodArmorDetails || lodArmor || lodHeldItems || lodNameTags;
+    }
+
+    /**
+     * Strip the layers the entity's tier does not draw from a freshly
+     * extracted render state.
+     */
+    public static void apply(@Nonnull Entity entity, @Nonnull EntityRenderState state) {
+        AnimationLODHandler.LODTier tier = AnimationLODHandler.getTierForDistance(state.distanceToCameraSq);
+        if (tier == AnimationLODHandler.LODTier.NEAR) {
+            return;
+        }
+        boolean far = tier == AnimationLODHandler.LODTier.FAR;
+
+        if (lodShadows && state.shadowRadius > 0.0f) {
+            state.shadowRadius = 0.0f;
+            state.shadowPieces.clear();
+            shadowsDropped++;
+        }
+
+        if (state instanceof HumanoidRenderState humanoid) {
+            if (far && lodArmor) {
+                // The elytra layer draws from the chest slot as well
+                humanoid.headEquipment = ItemStack.EMPTY;
+                humanoid.chestEquipment = ItemStack.EMPTY;
+                humanoid.legsEquipment = ItemStack.EMPTY;
+                humanoid.feetEquipment = ItemStack.EMPTY;
+                armorDropped++;
+            } else if (lodArmorDetails && (hasDetails(humanoid.headEquipment) || hasDetails(humanoid.chestEquipment)
+                    || hasDetails(humanoid.legsEquipment) || hasDetails(humanoid.feetEquipment))) {
+                // Left to the armor layer, see beginArmorLayer
+                armorSimplified++;
+            }
+        }
+
+        if (far && lodHeldItems && state instanceof ArmedEntityRenderState armed) {
+            armed.rightHandItem.clear();
+            armed.leftHandItem.clear();
+            heldItemsDropped++;
+        }
+
+        if (far && lodNameTags && state.nameTag != null && !(entity instanceof Player)) {
+            state.nameTag = null;
+            nameTagsDropped++;
+        }
+    }
+
+    private static boolean hasDetails(ItemStack stack) {
+        return !stack.isEmpty() && (stack.has(DataComponents.TRIM) || stack.hasFoil());
+    }
+
+    /**
+     * Called when the armor layer starts submitting an entity.
+     */
+    public static void beginArmorLayer(@Nonnull HumanoidRenderState state) {
+        plainArmor = lodArmorDetails
+                && AnimationLODHandler.getTierForDistance(state.distanceToCameraSq) != AnimationLODHandler.LODTier.NEAR;
+    }
+
+    /**
+     * Called when the armor layer has finished submitting an entity.
+     */
+    public static void endArmorLayer() {
+        plainArmor = false;
+    }
+
+    /**
+     * Check if the armor being submitted is drawn without trims and glint.
+     */
+    public static boolean isPlainArmor() {
+        return plainArmor;
+    }
+
+    public static long getShadowsDropped() {
+        return shadowsDropped;
+    }
+
+    public static long getArmorSimplified() {
+        return armorSimplified;
+    }
+
+    public static long getArmorDropped() {
+        return armorDropped;
+    }
+
+    public static long getHeldItemsDropped() {
+        return heldItemsDropped;
+    }
+
+    public static long getNameTagsDropped() {
+        return nameTagsDropped;
+    }
+
+    /**
+     * Get debug statistics.
+     */
+    @Nonnull
+    public static String getDebugStats() {
+        return String.format("RenderFeatureLOD: %d shadows, %d armor simplified, %d armor, %d held items, %d name tags dropped",
+                shadowsDropped, armorSimplified, armorDropped, heldItemsDropped, nameTagsDropped);
+    }
+}
@@ -1,7 +1,12 @@
 package com.randomstrangerpassenger.mcopt.client.rendering;
 
+import com.randomstrangerpassenger.mcopt.config.RenderingConfig;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
 import net.minecraft.world.phys.Vec3;
 
+import javax.annotation.Nullable;
+
 /**
  * Per-frame cache for render calculations to avoid redundant computation.
  * This cache is updated once per frame and shared across all render sections.
@@ -11,33 +16,73 @@ import net.minecraft.world.phys.Vec3;
  * <li>Performance: Called thousands of times per frame - instance creation
  * overhead is unacceptable</li>
  * <li>Shared State: Single source of truth for all render sections in a
- * frame</li>
+ * frame, published as one immutable snapshot so compile workers can read it
+ * safely</li>
  * <li>Lifecycle: Explicitly managed via {@link #updateForFrame} and
  * {@link #reset}</li>
  * <li>Memory Safety: {@link com.randomstrangerpassenger.mcopt.safety.LeakGuard}
  * calls {@link #reset} on level unload</li>
  * </ul>
  * <p>
+ * <b>Elliptical render distance:</b> {@code LevelRendererMixin} refreshes the
+ * cache whenever vanilla rebuilds the visible section list and then drops
+ * every section outside the ellipsoid from it. Because vanilla only schedules
+ * compiles for visible sections, culled sections are never meshed or
+ * uploaded, and their dirty flag survives until they are visible again.
+ * <p>
  * Performance impact: Reduces redundant calculations from O(n sections) to O(1
  * per frame)
  */
 public class RenderFrameCache {
 
-    private static Vec3 cameraPosition = Vec3.ZERO;
-    private static double renderDistance = 0.0;
-    private static double verticalStretch = 1.0;
-    private static double horizontalStretch = 1.0;
+    // Cached config values
+    private static boolean ellipticalEnabled = true;
+    private static double configVerticalStretch = 0.75;
+    private static double configHorizontalStretch = 1.0;
+    private static boolean showCulledDebug = false;
+
+    // Published by the render thread, read by compile workers (see SectionCompileScheduler)
+    @Nullable
+    private static volatile Ellipsoid ellipsoid;
+
+    // Sections dropped from the current visible list, and dirty ones among them since
+    private static int culledSections = 0;
+    private static int skippedCompiles = 0;
+
+    /**
+     * Refresh configuration cache.
+     */
+    public static void refreshConfigCache() {
+        ellipticalEnabled = RenderingConfig.ENABLE_ELLIPTICAL_RENDER_DISTANCE.get();
+        configVerticalStretch = RenderingConfig.VERTICAL_RENDER_STRETCH.get();
+        configHorizontalStretch = RenderingConfig.HORIZONTAL_RENDER_STRETCH.get();
+        showCulledDebug = RenderingConfig.SHOW_CULLED_CHUNKS_DEBUG.get();
+        if (!ellipticalEnabled) {
+            reset();
+        }
+    }
+
+    public static boolean isEllipticalEnabled() {
+        return ellipticalEnabled;
+    }
 
-    // Pre-calculated values for ellipsoid culling
-    private static double renderDistanceSquared = 0.0;
+    public static boolean isCulledDebugShown() {
+        return showCulledDebug;
+    }
 
-    // Frame tracking to detect stale cache
-    private static long lastUpdateFrame = -1;
-    private static long currentFrame = 0;
+    /**
+     * Refresh the camera and render distance from the client. Called from
+     * LevelRendererMixin before the visible section list is filtered.
+     */
+    public static void updateForFrame(Minecraft mc) {
+        // Sections reach one section past the render distance in vanilla
+        double distance = (mc.options.getEffectiveRenderDistance() + 1) * 16.0;
+        updateForFrame(mc.gameRenderer.getMainCamera().getPosition(), distance,
+                configVerticalStretch, configHorizontalStretch);
+    }
 
     /**
      * Update cache at the beginning of each frame.
-     * Should be called from LevelRendererMixin.renderLevel()
      */
     public static void updateForFrame(
             Vec3 camPos,
@@ -45,19 +90,16 @@ public class RenderFrameCache {
             double vertStretch,
             double horizStretch) {
 
-        currentFrame++;
-        lastUpdateFrame = currentFrame;
-
-        cameraPosition = camPos;
-        renderDistance = renderDist;
-        verticalStretch = vertStretch;
-        horizontalStretch = horizStretch;
-
-        renderDistanceSquared = renderDistance * renderDistance;
+        ellipsoid = new Ellipsoid(camPos, renderDist * renderDist, vertStretch, horizStretch);
+        culledSections = 0;
     }
 
     /**
      * Check if a chunk should be culled based on elliptical distance from camera.
+     * <p>
+     * The stretch factors scale the ellipsoid's axes: a vertical stretch of 0.5
+     * keeps sections up to half the render distance above and below the camera.
+     * </p>
      *
      * @param chunkCenterX Chunk center X coordinate
      * @param chunkCenterY Chunk center Y coordinate
@@ -65,42 +107,87 @@ public class RenderFrameCache {
      * @return true if chunk should be culled (outside ellipsoid)
      */
     public static boolean shouldCullChunk(double chunkCenterX, double chunkCenterY, double chunkCenterZ) {
-        if (!isValid()) {
+        Ellipsoid current = ellipsoid;
+        if (current == null) {
             return false; // Don't cull if cache is invalid
         }
+        return current.isOutside(chunkCenterX, chunkCenterY, chunkCenterZ);
+    }
 
-        // Calculate distance components with stretch factors
-        double dx = (cameraPosition.x - chunkCenterX) * horizontalStretch;
-        double dy = (cameraPosition.y - chunkCenterY) * verticalStretch;
-        double dz = (cameraPosition.z - chunkCenterZ) * horizontalStretch;
+    /**
+     * Check a render section by its origin (minimum corner).
+     */
+    public static boolean shouldCullSection(BlockPos origin) {
+        return shouldCullChunk(origin.getX() + 8.0, origin.getY() + 8.0, origin.getZ() + 8.0);
+    }
 
-        // Calculate squared distance in ellipsoid space
-        double distanceSquared = dx * dx + dy * dy + dz * dz;
+    /**
+     * Record a section dropped from the visible list.
+     */
+    public static void recordCulledSection() {
+        culledSections++;
+    }
 
-        // If distance is greater than render distance, cull this chunk
-        return distanceSquared > renderDistanceSquared;
+    /**
+     * Record a dirty section whose compile was held back.
+     */
+    public static void recordSkippedCompile() {
+        skippedCompiles++;
     }
 
     /**
-     * Check if the cache has been updated this frame.
+     * Check if the cache has been updated since the last reset.
+     * <p>
+     * Vanilla only rebuilds the visible section list when the camera or the
+     * frustum changes, so the last update stays valid until then.
+     * </p>
      */
     public static boolean isValid() {
-        return lastUpdateFrame == currentFrame;
+        return ellipsoid != null;
     }
 
     /**
      * Get cached camera position.
      */
     public static Vec3 getCameraPosition() {
-        return cameraPosition;
+        Ellipsoid current = ellipsoid;
+        return current != null ? current.camera() : Vec3.ZERO;
+    }
+
+    /**
+     * Number of sections outside the ellipsoid in the current visible list.
+     */
+    public static int getCulledSections() {
+        return culledSections;
+    }
+
+    public static int getSkippedCompiles() {
+        return skippedCompiles;
     }
 
     /**
      * Reset the cache. Should be called on level unload to prevent leaks.
      */
     public static void reset() {
-        cameraPosition = Vec3.ZERO;
-        lastUpdateFrame = -1;
-        currentFrame = 0;
+        ellipsoid = null;
+        culledSections = 0;
+    }
+
+    /**
+     * One frame's render ellipsoid. Immutable, so a compile worker always
+     * sees a camera and a radius of the same frame.
+     */
+    private record Ellipsoid(Vec3 camera, double renderDistanceSquared, double verticalStretch,
+            double horizontalStretch) {
+
+        boolean isOutside(double x, double y, double z) {
+            // Calculate distance components in ellipsoid space
+            double dx = (camera.x - x) / horizontalStretch;
+            double dy = (camera.y - y) / verticalStretch;
+            double dz = (camera.z - z) / horizontalStretch;
+
+            // If distance is greater than render distance, cull this chunk
+            return dx * dx + dy * dy + dz * dz > renderDistanceSquared;
+        }
     }
 }
@@ -0,0 +1,183 @@
+package com.randomstrangerpassenger.mcopt.client.rendering;
+
+import com.randomstrangerpassenger.mcopt.client.manager.AdaptiveLimitsManager;
+import com.randomstrangerpassenger.mcopt.config.RenderingConfig;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Visibility and distance ordering of section compiles, and an adaptive cap
+ * on concurrent compile workers.
+ *
+ * <p>
+ * <strong>Order:</strong> Vanilla takes the nearest task, alternating
+ * between new sections and recompiles, so after a large block change the
+ * sections behind the player compete with the ones they are looking at.
+ * Instead every task falls into a tier, and the nearest task of the lowest
+ * tier runs first:
+ * </p>
+ * <ol start="0">
+ * <li>Recompiles of sections in view (changed terrain the player sees)</li>
+ * <li>First compiles of sections in view</li>
+ * <li>Everything else inside the render distance</li>
+ * <li>Sections outside {@link RenderFrameCache}'s ellipsoid</li>
+ * </ol>
+ * <p>
+ * Every {@value #NEAREST_POLL_INTERVAL}th poll takes the nearest task
+ * regardless of tier, so deferred sections still finish while the camera
+ * keeps moving.
+ * </p>
+ *
+ * <p>
+ * <strong>Workers:</strong> Vanilla runs as many compiles at once as it has
+ * buffer packs. The cap here is the smaller of that and the core count minus
+ * one (the render thread), shrunk by up to three quarters under adaptive
+ * limits stress, and never below half of it. Stress comes from render work
+ * time, so a frame rate cap or vsync alone does not shrink it.
+ * </p>
+ *
+ * <p>
+ * <strong>Threading:</strong> The camera snapshot and the cap are written by
+ * the render thread once per frame and read by whichever thread polls the
+ * compile queue. Both, and {@link RenderFrameCache}'s ellipsoid, are
+ * published as immutable values through volatile fields.
+ * </p>
+ */
+public class SectionCompileScheduler {
+
+    public static final int NEAREST_POLL_INTERVAL = 8;
+    // Extra angle around the field of view when deciding what is "in view"
+    private static final double VIEW_MARGIN_RADIANS = Math.toRadians(20);
+    // Sections this close count as in view; the camera may be inside them
+    private static final double ALWAYS_IN_VIEW_DISTANCE_SQR = 32.0 * 32.0;
+    private static final double TIER_STRIDE = 1.0e12;
+
+    private static final int TIER_VISIBLE_RECOMPILE = 0;
+    private static final int TIER_VISIBLE = 1;
+    private static final int TIER_DEFERRED = 2;
+    private static final int TIER_OUTSIDE_RENDER_DISTANCE = 3;
+
+    // Cached config values
+    private static boolean enabled = true;
+
+    // Render thread -> polling threads
+    private static volatile ViewCone view = ViewCone.EVERYWHERE;
+    private static volatile int allowedWorkers = Integer.MAX_VALUE;
+
+    // Statistics, approximate when several threads poll at once
+    private static long polls = 0;
+    private static long visiblePicks = 0;
+    private static long throttledRuns = 0;
+
+    /**
+     * Refresh configuration cache.
+     */
+    public static void refreshConfigCache() {
+        enabled = RenderingConfig.ENABLE_CHUNK_OPTIMIZATIONS.get()
+                && RenderingConfig.ENABLE_PRIORITY_COMPILE_QUEUE.get();
+        if (!enabled) {
+            allowedWorkers = Integer.MAX_VALUE;
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Refresh the camera snapshot and the worker cap. Called once per frame
+     * on the render thread.
+     *
+     * @param totalWorkers Compiles vanilla could run at once (its buffer packs)
+     */
+    public static void onFrameStart(int totalWorkers) {
+        if (!enabled) {
+            return;
+        }
+        view = ViewCone.capture(Minecraft.getInstance(), VIEW_MARGIN_RADIANS);
+
+        int cores = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        int workers = Math.min(totalWorkers, cores);
+        float headroom = 1.0f - 0.75f * AdaptiveLimitsManager.getStressFactor();
+        int floor = Math.max(1, (workers + 1) / 2);
+        allowedWorkers = Math.max(floor, Math.round(workers * headroom));
+    }
+
+    /**
+     * Sort key of a compile task; lower runs sooner.
+     *
+     * @param origin    Minimum corner of the task's section
+     * @param recompile Whether the section already has a mesh
+     * @param nearestOnly Ignore tiers (the anti-starvation poll)
+     */
+    public static double priority(@Nonnull BlockPos origin, boolean recompile, boolean nearestOnly) {
+        double x = origin.getX() + 8.0;
+        double y = origin.getY() + 8.0;
+        double z = origin.getZ() + 8.0;
+        ViewCone cone = view;
+        double distanceSqr = cone.distanceSqr(x, y, z);
+        if (nearestOnly) {
+            return distanceSqr;
+        }
+
+        int tier;
+        if (RenderFrameCache.shouldCullChunk(x, y, z)) {
+            tier = TIER_OUTSIDE_RENDER_DISTANCE;
+        } else if (distanceSqr < ALWAYS_IN_VIEW_DISTANCE_SQR || cone.contains(x, y, z, distanceSqr)) {
+            tier = recompile ? TIER_VISIBLE_RECOMPILE : TIER_VISIBLE;
+        } else {
+            tier = TIER_DEFERRED;
+        }
+        return tier * TIER_STRIDE + distanceSqr;
+    }
+
+    /**
+     * Record a task handed to a worker.
+     */
+    public static void recordPoll(double priority) {
+        polls++;
+        if (priority < TIER_DEFERRED * TIER_STRIDE) {
+            visiblePicks++;
+        }
+    }
+
+    /**
+     * Whether another compile may start.
+     *
+     * @param inFlight Compiles currently running
+     */
+    public static boolean canStartCompile(int inFlight) {
+        if (!enabled || inFlight < allowedWorkers) {
+            return true;
+        }
+        throttledRuns++;
+        return false;
+    }
+
+    public static int getAllowedWorkers() {
+        return allowedWorkers;
+    }
+
+    public static long getPolls() {
+        return polls;
+    }
+
+    public static long getVisiblePicks() {
+        return visiblePicks;
+    }
+
+    public static long getThrottledRuns() {
+        return throttledRuns;
+    }
+
+    /**
+     * Get debug statistics.
+     */
+    @Nonnull
+    public static String getDebugStats() {
+        return String.format("SectionCompile: %d workers allowed, %d/%d polls in view, %d starts deferred, enabled=%s",
+                allowedWorkers, visiblePicks, polls, throttledRuns, enabled);
+    }
+}
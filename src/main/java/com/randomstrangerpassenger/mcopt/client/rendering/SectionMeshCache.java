@@ -0,0 +1,242 @@
+package com.randomstrangerpassenger.mcopt.client.rendering;
+
+import com.mojang.blaze3d.buffers.GpuBuffer;
+import com.randomstrangerpassenger.mcopt.config.RenderingConfig;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.renderer.chunk.ChunkSectionLayer;
+import net.minecraft.client.renderer.chunk.SectionBuffers;
+import net.minecraft.client.renderer.chunk.SectionMesh;
+import net.minecraft.core.SectionPos;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Keeps the compiled meshes of sections that left the render distance, so
+ * they can be reused when the camera comes back.
+ *
+ * <p>
+ * Vanilla's view area is a fixed grid of render sections that wraps around
+ * the camera: when the camera crosses a section boundary, the sections on the
+ * far edge are moved to the new edge and their meshes are closed. Walking
+ * back and forth across that boundary therefore re-meshes and re-uploads the
+ * same terrain over and over. Instead, the mesh of a moved section is kept
+ * here (GPU buffers included) and handed back when a section is moved onto
+ * that position again.
+ * </p>
+ *
+ * <p>
+ * <strong>Validity:</strong> Every section has a modification counter,
+ * bumped whenever the level renderer marks it dirty (block and light changes,
+ * neighbour changes, chunk reloads). A mesh is only reused if the counter
+ * has not changed since it was retained and its chunk is still loaded.
+ * </p>
+ *
+ * <p>
+ * <strong>Budget:</strong> The least recently retained meshes are closed
+ * once the buffers exceed {@code sectionMeshCacheMb}.
+ * </p>
+ *
+ * <p>
+ * <strong>Threading:</strong> Render thread only; closing GPU buffers
+ * anywhere else is not allowed.
+ * </p>
+ */
+public class SectionMeshCache {
+
+    // Charged per entry on top of its buffers, so meshes without geometry are not free
+    private static final long ENTRY_OVERHEAD_BYTES = 256;
+    // Counters for sections without a retained mesh are pruned beyond this
+    private static final int MAX_TRACKED_COUNTERS = 1 << 16;
+
+    // Cached config values
+    private static boolean enabled = true;
+    private static long budgetBytes = 128L * 1024 * 1024;
+
+    private static final Long2ObjectLinkedOpenHashMap<Entry> entries = new Long2ObjectLinkedOpenHashMap<>();
+    private static final Long2IntOpenHashMap modificationCounts = new Long2IntOpenHashMap();
+    private static long usedBytes = 0;
+
+    // Statistics
+    private static long hits = 0;
+    private static long misses = 0;
+    private static long stale = 0;
+    private static long evicted = 0;
+
+    private record Entry(SectionMesh mesh, long bytes, int modificationCount) {
+    }
+
+    /**
+     * Refresh configuration cache.
+     */
+    public static void refreshConfigCache() {
+        enabled = RenderingConfig.ENABLE_CHUNK_OPTIMIZATIONS.get()
+                && RenderingConfig.ENABLE_SECTION_MESH_CACHE.get();
+        budgetBytes = RenderingConfig.SECTION_MESH_CACHE_MB.get() * 1024L * 1024L;
+        if (!enabled) {
+            clear();
+        } else {
+            evictOverBudget();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * A section's blocks, light or neighbours changed.
+     */
+    public static void onSectionDirty(int sectionX, int sectionY, int sectionZ) {
+        if (!enabled) {
+            return;
+        }
+        modificationCounts.addTo(SectionPos.asLong(sectionX, sectionY, sectionZ), 1);
+        if (modificationCounts.size() > MAX_TRACKED_COUNTERS) {
+            pruneCounters();
+        }
+    }
+
+    /**
+     * Keep the compiled mesh of a section that is being moved away. The caller
+     * gives up ownership of the mesh.
+     *
+     * @param sectionNode Section the mesh was compiled for
+     */
+    public static void retain(long sectionNode, @Nonnull SectionMesh mesh) {
+        Entry previous = entries.remove(sectionNode);
+        if (previous != null) {
+            release(previous);
+        }
+
+        Entry entry = new Entry(mesh, measure(mesh), modificationCounts.get(sectionNode));
+        entries.putAndMoveToLast(sectionNode, entry);
+        usedBytes += entry.bytes();
+        evictOverBudget();
+    }
+
+    /**
+     * Take back the mesh retained for a section, if it is still valid. The
+     * caller takes ownership of the mesh.
+     *
+     * @param sectionNode Section a render section is being moved onto
+     * @return The mesh, or null if the section has to be compiled
+     */
+    @Nullable
+    public static SectionMesh take(long sectionNode) {
+        Entry entry = entries.remove(sectionNode);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        usedBytes -= entry.bytes();
+
+        ClientLevel level = Minecraft.getInstance().level;
+        boolean loaded = level != null
+                && level.getChunkSource().hasChunk(SectionPos.x(sectionNode), SectionPos.z(sectionNode));
+        if (!loaded || entry.modificationCount() != modificationCounts.get(sectionNode)) {
+            entry.mesh().close();
+            stale++;
+            return null;
+        }
+        hits++;
+        return entry.mesh();
+    }
+
+    /**
+     * Whether a mesh is retained for a section, valid or not.
+     */
+    public static boolean contains(long sectionNode) {
+        return entries.containsKey(sectionNode);
+    }
+
+    private static long measure(SectionMesh mesh) {
+        long bytes = ENTRY_OVERHEAD_BYTES;
+        for (ChunkSectionLayer layer : ChunkSectionLayer.values()) {
+            SectionBuffers buffers = mesh.getBuffers(layer);
+            if (buffers == null) {
+                continue;
+            }
+            bytes += buffers.getVertexBuffer().size();
+            GpuBuffer indexBuffer = buffers.getIndexBuffer();
+            if (indexBuffer != null) {
+                bytes += indexBuffer.size();
+            }
+        }
+        return bytes;
+    }
+
+    private static void evictOverBudget() {
+        while (usedBytes > budgetBytes && !entries.isEmpty()) {
+            release(entries.removeFirst());
+            evicted++;
+        }
+    }
+
+    private static void release(Entry entry) {
+        usedBytes -= entry.bytes();
+        entry.mesh().close();
+    }
+
+    /**
+     * Forget the counters of sections without a retained mesh; nothing
+     * compares against them.
+     */
+    private static void pruneCounters() {
+        LongIterator iterator = modificationCounts.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (!entries.containsKey(iterator.nextLong())) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Close every retained mesh (level change, renderer reload).
+     */
+    public static void clear() {
+        for (Entry entry : entries.values()) {
+            entry.mesh().close();
+        }
+        entries.clear();
+        modificationCounts.clear();
+        usedBytes = 0;
+    }
+
+    public static int getSize() {
+        return entries.size();
+    }
+
+    public static long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public static long getHits() {
+        return hits;
+    }
+
+    public static long getMisses() {
+        return misses;
+    }
+
+    public static long getStale() {
+        return stale;
+    }
+
+    public static long getEvicted() {
+        return evicted;
+    }
+
+    /**
+     * Get debug statistics.
+     */
+    @Nonnull
+    public static String getDebugStats() {
+        return String.format("SectionMeshCache: %d meshes, %.1f/%.1f MB, %d hits, %d misses, %d stale, %d evicted",
+                entries.size(), usedBytes / 1048576.0, budgetBytes / 1048576.0, hits, misses, stale, evicted);
+    }
+}
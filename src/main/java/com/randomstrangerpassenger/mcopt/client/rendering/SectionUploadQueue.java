@@ -0,0 +1,214 @@
+package com.randomstrangerpassenger.mcopt.client.rendering;
+
+import it.unimi.dsi.fastutil.longs.Long2DoubleOpenHashMap;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.IntConsumer;
+
+/**
+ * Replacement for {@code SectionRenderDispatcher}'s upload queue that orders
+ * and budgets uploads (see {@link AdaptiveChunkUploader}).
+ *
+ * <p>
+ * Worker threads {@link #offer} uploads from any thread; each is tagged with
+ * the render section queueing it (see {@code RenderSectionMixin}). When the
+ * render thread starts a frame's drain ({@link #beginFrame}), new uploads are
+ * merged and everything pending is sorted by section priority. A section's
+ * priority is the best priority of its uploads, and uploads of one section
+ * stay in queue order, so an index buffer upload never overtakes the mesh it
+ * belongs to. During the drain, {@link #poll} measures the
+ * time since the previous poll (the previous upload's duration) and returns
+ * null once the budget is spent, which ends vanilla's drain loop, until
+ * {@link #endFrame}. Outside a drain, {@code poll} behaves like a plain
+ * queue, so vanilla code that empties the queue still works.
+ * </p>
+ */
+public class SectionUploadQueue extends AbstractQueue<Runnable> {
+
+    private static final Comparator<PendingUpload> BY_PRIORITY = Comparator
+            .comparingDouble(PendingUpload::priority)
+            .thenComparingLong(PendingUpload::sequence);
+
+    private final Queue<PendingUpload> incoming = new ConcurrentLinkedQueue<>();
+
+    // Render thread only
+    private final ArrayList<PendingUpload> pending = new ArrayList<>();
+    private final Long2DoubleOpenHashMap sectionPriorities = new Long2DoubleOpenHashMap();
+    private long nextSequence = 0;
+    private int next = 0;
+    private DrainState state = DrainState.IDLE;
+    private long drainStart;
+    private long lastPoll;
+    private int uploadsThisFrame;
+
+    private enum DrainState {
+        /** Not inside a frame's drain */
+        IDLE,
+        /** Handing out uploads within the budget */
+        DRAINING,
+        /** Budget spent; nothing more this frame */
+        EXHAUSTED
+    }
+
+    private static final class PendingUpload {
+        final Runnable upload;
+        final long sectionPos;
+        final long queuedFrame;
+        // Queue order, assigned on the render thread
+        long sequence;
+        double priority;
+
+        PendingUpload(Runnable upload, long sectionPos, long queuedFrame) {
+            this.upload = upload;
+            this.sectionPos = sectionPos;
+            this.queuedFrame = queuedFrame;
+        }
+
+        double priority() {
+            return priority;
+        }
+
+        long sequence() {
+            return sequence;
+        }
+    }
+
+    /**
+     * Start draining uploads for a new frame. Render thread only.
+     */
+    public void beginFrame() {
+        beginFrame(AdaptiveChunkUploader::onFrameStart);
+    }
+
+    /**
+     * Start draining uploads for a new frame.
+     *
+     * @param frameStart Receives the number of pending uploads and sets up the
+     *                   frame's camera and budget
+     */
+    void beginFrame(@Nonnull IntConsumer frameStart) {
+        finishDrain();
+        pending.subList(0, next).clear();
+        next = 0;
+
+        PendingUpload upload;
+        while ((upload = incoming.poll()) != null) {
+            upload.sequence = nextSequence++;
+            pending.add(upload);
+        }
+
+        frameStart.accept(pending.size());
+        sectionPriorities.clear();
+        for (int i = 0, size = pending.size(); i < size; i++) {
+            PendingUpload entry = pending.get(i);
+            double priority = AdaptiveChunkUploader.priority(entry.sectionPos, entry.queuedFrame);
+            sectionPriorities.mergeDouble(entry.sectionPos, priority, Math::min);
+        }
+        for (int i = 0, size = pending.size(); i < size; i++) {
+            PendingUpload entry = pending.get(i);
+            entry.priority = sectionPriorities.get(entry.sectionPos);
+        }
+        pending.sort(BY_PRIORITY);
+
+        state = DrainState.DRAINING;
+        uploadsThisFrame = 0;
+        drainStart = System.nanoTime();
+        lastPoll = drainStart;
+    }
+
+    /**
+     * End the frame's drain. Render thread only.
+     */
+    public void endFrame() {
+        finishDrain();
+        state = DrainState.IDLE;
+    }
+
+    private void finishDrain() {
+        if (state == DrainState.DRAINING) {
+            state = DrainState.EXHAUSTED;
+            AdaptiveChunkUploader.recordFrame(uploadsThisFrame, lastPoll - drainStart);
+        }
+    }
+
+    @Override
+    public boolean offer(@Nonnull Runnable upload) {
+        incoming.add(new PendingUpload(upload, AdaptiveChunkUploader.getUploadingSection(),
+                AdaptiveChunkUploader.getCurrentFrame()));
+        return true;
+    }
+
+    @Override
+    public Runnable poll() {
+        if (state == DrainState.EXHAUSTED) {
+            return null;
+        }
+        if (state == DrainState.IDLE) {
+            // Not inside a budgeted drain: hand out everything
+            if (next < pending.size()) {
+                return pending.get(next++).upload;
+            }
+            PendingUpload upload = incoming.poll();
+            return upload != null ? upload.upload : null;
+        }
+
+        long now = System.nanoTime();
+        if (uploadsThisFrame > 0) {
+            AdaptiveChunkUploader.recordUpload(now - lastPoll);
+        }
+        lastPoll = now;
+
+        if (next >= pending.size() || !AdaptiveChunkUploader.canUpload(uploadsThisFrame, now - drainStart)) {
+            finishDrain();
+            return null;
+        }
+        uploadsThisFrame++;
+        return pending.get(next++).upload;
+    }
+
+    @Override
+    public Runnable peek() {
+        if (next < pending.size()) {
+            return pending.get(next).upload;
+        }
+        PendingUpload upload = incoming.peek();
+        return upload != null ? upload.upload : null;
+    }
+
+    @Override
+    public int size() {
+        return pending.size() - next + incoming.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return next >= pending.size() && incoming.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        state = DrainState.IDLE;
+        pending.clear();
+        next = 0;
+        incoming.clear();
+    }
+
+    @Override
+    @Nonnull
+    public Iterator<Runnable> iterator() {
+        ArrayList<Runnable> snapshot = new ArrayList<>(size());
+        for (int i = next; i < pending.size(); i++) {
+            snapshot.add(pending.get(i).upload);
+        }
+        for (PendingUpload upload : incoming) {
+            snapshot.add(upload.upload);
+        }
+        return snapshot.iterator();
+    }
+}
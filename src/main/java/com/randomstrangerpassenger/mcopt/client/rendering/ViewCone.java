@@ -0,0 +1,73 @@
+package com.randomstrangerpassenger.mcopt.client.rendering;
+
+import net.minecraft.client.Camera;
+import net.minecraft.client.Minecraft;
+import net.minecraft.world.phys.Vec3;
+import org.joml.Vector3f;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Immutable snapshot of the camera as a cone: position, view direction and
+ * the cosine of half the diagonal field of view plus a margin. Cheap enough
+ * to rank thousands of sections, and safe to hand to other threads.
+ *
+ * @param x            Camera X
+ * @param y            Camera Y
+ * @param z            Camera Z
+ * @param lookX        View direction X (unit length)
+ * @param lookY        View direction Y
+ * @param lookZ        View direction Z
+ * @param cosHalfAngle Cosine of the cone's half angle; -1 accepts everything
+ */
+public record ViewCone(double x, double y, double z, double lookX, double lookY, double lookZ,
+        double cosHalfAngle) {
+
+    /** Looks everywhere; used before the first frame. */
+    public static final ViewCone EVERYWHERE = new ViewCone(0, 0, 0, 0, 0, 1, -1.0);
+
+    /**
+     * Capture the main camera.
+     *
+     * @param marginRadians Extra angle around the field of view
+     */
+    @Nonnull
+    public static ViewCone capture(@Nonnull Minecraft mc, double marginRadians) {
+        Camera camera = mc.gameRenderer.getMainCamera();
+        Vec3 position = camera.getPosition();
+        Vector3f look = camera.getLookVector();
+
+        double halfVertical = Math.toRadians(mc.options.fov().get()) * 0.5;
+        double aspect = mc.getWindow().getHeight() > 0
+                ? (double) mc.getWindow().getWidth() / mc.getWindow().getHeight()
+                : 1.0;
+        // Half of the diagonal field of view, so the corners of the screen are inside the cone
+        double halfAngle = Math.atan(Math.tan(halfVertical) * Math.sqrt(1.0 + aspect * aspect)) + marginRadians;
+        double cos = halfAngle >= Math.PI ? -1.0 : Math.cos(halfAngle);
+        return new ViewCone(position.x, position.y, position.z, look.x(), look.y(), look.z(), cos);
+    }
+
+    /**
+     * Squared distance from the camera.
+     */
+    public double distanceSqr(double px, double py, double pz) {
+        double dx = px - x;
+        double dy = py - y;
+        double dz = pz - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Whether a point lies inside the cone.
+     *
+     * @param distanceSqr Its squared distance, from {@link #distanceSqr}
+     */
+    public boolean contains(double px, double py, double pz, double distanceSqr) {
+        double dot = (px - x) * lookX + (py - y) * lookY + (pz - z) * lookZ;
+        if (cosHalfAngle >= 0 && dot <= 0) {
+            return false;
+        }
+        // cos(angle) >= cos(half angle), without a square root
+        return dot * Math.abs(dot) >= cosHalfAngle * Math.abs(cosHalfAngle) * distanceSqr;
+    }
+}
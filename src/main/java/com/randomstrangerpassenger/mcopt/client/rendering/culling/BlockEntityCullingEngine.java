@@ -0,0 +1,317 @@
+package com.randomstrangerpassenger.mcopt.client.rendering.culling;
+
+import com.randomstrangerpassenger.mcopt.MCOPT;
+import com.randomstrangerpassenger.mcopt.config.RenderingConfig;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.phys.Vec3;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Skips block entity renderers that are too far away or hidden behind
+ * opaque terrain.
+ *
+ * <p>
+ * <strong>Distance:</strong> Block entities farther than
+ * {@code blockEntityCullingDistance} from the camera are skipped outright,
+ * unless their renderer asks to be drawn off screen (beacon beams, end
+ * gateways, structure blocks).
+ * </p>
+ *
+ * <p>
+ * <strong>Occlusion:</strong> Visibility is cached per block entity
+ * position. An entry is re-tested on the {@link CullingWorker} only when the
+ * camera moves to another block or the {@link OcclusionGrid} changes (a block
+ * edit or chunk reload, i.e. whenever a section is rebuilt). A storage room
+ * seen from a standing player therefore costs one lookup per chest per frame
+ * after the first few frames. Like entities, a block entity must be found
+ * hidden {@value #HIDE_AFTER_RESULTS} times in a row before it is culled and
+ * is shown again on the first visible result.
+ * </p>
+ *
+ * <p>
+ * Positions that have not been rendered for {@value #FORGET_AFTER_FRAMES}
+ * frames are forgotten.
+ * </p>
+ */
+@SuppressWarnings("null")
+public class BlockEntityCullingEngine {
+
+    private static final int HIDE_AFTER_RESULTS = 3;
+    private static final int FORGET_AFTER_FRAMES = 40;
+    private static final double ALWAYS_VISIBLE_DISTANCE = 4.0;
+    private static final double BOX_MARGIN = 0.1;
+
+    // Cached config values
+    private static boolean enabled = true;
+    private static boolean cullBehindWalls = true;
+    private static double maxDistanceSqr = 64.0 * 64.0;
+    private static int maxDistance = 64;
+
+    // Client thread only
+    private static final Long2ObjectOpenHashMap<Visibility> states = new Long2ObjectOpenHashMap<>();
+    private static int frame = 0;
+    private static Vec3 camera = Vec3.ZERO;
+    private static long cameraCell = Long.MIN_VALUE;
+    private static int culledThisFrame = 0;
+    private static int culledLastFrame = 0;
+
+    // Worker -> client thread
+    private static final AtomicReference<JobResult> latest = new AtomicReference<>();
+    private static final AtomicBoolean jobRunning = new AtomicBoolean();
+
+    // Statistics
+    private static long distanceCulled = 0;
+    private static long occlusionCulled = 0;
+
+    /**
+     * Cached visibility of one block entity position.
+     */
+    private static final class Visibility {
+        int hiddenStreak;
+        boolean culled;
+        boolean pending;
+        // What the last result was computed against
+        long cameraCell = Long.MIN_VALUE;
+        int gridVersion = -1;
+        int lastQueriedFrame;
+    }
+
+    private record JobResult(long[] positions, boolean[] visible, int count, long cameraCell, int gridVersion) {
+    }
+
+    /**
+     * Refresh configuration cache.
+     */
+    public static void refreshConfigCache() {
+        enabled = RenderingConfig.ENABLE_BLOCK_ENTITY_CULLING.get();
+        cullBehindWalls = RenderingConfig.CULL_BLOCK_ENTITIES_BEHIND_WALLS.get();
+        maxDistance = RenderingConfig.BLOCK_ENTITY_CULLING_DISTANCE.get();
+        maxDistanceSqr = (double) maxDistance * maxDistance;
+        if (!enabled || !cullBehindWalls) {
+            clear();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Range the occlusion grid has to cover for block entity culling.
+     */
+    public static int getRange() {
+        return enabled && cullBehindWalls ? maxDistance : 0;
+    }
+
+    /**
+     * Whether a block entity's renderer should be skipped this frame.
+     *
+     * @param blockEntity      The block entity about to be rendered
+     * @param renderOffScreen  Whether its renderer asks to be drawn even when off screen
+     */
+    public static boolean isCulled(@Nonnull BlockEntity blockEntity, boolean renderOffScreen) {
+        if (renderOffScreen) {
+            return false;
+        }
+
+        BlockPos pos = blockEntity.getBlockPos();
+        double distanceSqr = camera.distanceToSqr(pos.getX() + 0.5, pos.getY() + 0.5, pos.getZ() + 0.5);
+        if (distanceSqr > maxDistanceSqr) {
+            distanceCulled++;
+            culledThisFrame++;
+            return true;
+        }
+        if (!cullBehindWalls || distanceSqr < ALWAYS_VISIBLE_DISTANCE * ALWAYS_VISIBLE_DISTANCE) {
+            return false;
+        }
+
+        long key = pos.asLong();
+        Visibility visibility = states.get(key);
+        if (visibility == null) {
+            // Visible until the worker says otherwise
+            visibility = new Visibility();
+            states.put(key, visibility);
+        }
+        visibility.lastQueriedFrame = frame;
+
+        if (visibility.culled) {
+            occlusionCulled++;
+            culledThisFrame++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Apply the latest worker result, forget stale positions and start the
+     * next job. Called at the start of every frame.
+     */
+    public static void onFrameStart() {
+        if (!enabled) {
+            return;
+        }
+
+        Minecraft mc = Minecraft.getInstance();
+        camera = mc.gameRenderer.getMainCamera().getPosition();
+        frame++;
+        culledLastFrame = culledThisFrame;
+        culledThisFrame = 0;
+
+        if (!cullBehindWalls) {
+            return;
+        }
+
+        cameraCell = BlockPos.asLong((int) Math.floor(camera.x), (int) Math.floor(camera.y),
+                (int) Math.floor(camera.z));
+
+        JobResult result = latest.getAndSet(null);
+        if (result != null) {
+            apply(result);
+        }
+
+        if (mc.level == null || !jobRunning.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            submit();
+        } catch (RuntimeException e) {
+            jobRunning.set(false);
+            MCOPT.LOGGER.debug("Failed to start block entity culling job", e);
+        }
+    }
+
+    private static void submit() {
+        int gridVersion = OcclusionGrid.getVersion();
+        long[] positions = new long[64];
+        int count = 0;
+
+        ObjectIterator<Long2ObjectMap.Entry<Visibility>> iterator = states.long2ObjectEntrySet().fastIterator();
+        while (iterator.hasNext()) {
+            Long2ObjectMap.Entry<Visibility> entry = iterator.next();
+            Visibility visibility = entry.getValue();
+            if (frame - visibility.lastQueriedFrame > FORGET_AFTER_FRAMES) {
+                iterator.remove();
+                continue;
+            }
+            if (visibility.pending || !needsTest(visibility, gridVersion)) {
+                continue;
+            }
+
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+            positions[count++] = entry.getLongKey();
+            visibility.pending = true;
+        }
+
+        if (count == 0) {
+            jobRunning.set(false);
+            return;
+        }
+
+        long[] jobPositions = positions;
+        int jobCount = count;
+        double camX = camera.x;
+        double camY = camera.y;
+        double camZ = camera.z;
+        long jobCell = cameraCell;
+        CullingWorker.execute(() -> {
+            try {
+                latest.set(new JobResult(jobPositions, test(camX, camY, camZ, jobPositions, jobCount), jobCount,
+                        jobCell, gridVersion));
+            } finally {
+                jobRunning.set(false);
+            }
+        });
+    }
+
+    private static boolean needsTest(Visibility visibility, int gridVersion) {
+        // Hidden but not yet culled: keep testing until the streak settles either way
+        boolean settling = !visibility.culled && visibility.hiddenStreak > 0;
+        return settling || visibility.cameraCell != cameraCell || visibility.gridVersion != gridVersion;
+    }
+
+    /**
+     * Worker side: visibility of every block in the job.
+     */
+    private static boolean[] test(double camX, double camY, double camZ, long[] positions, int count) {
+        boolean[] visible = new boolean[count];
+        if (VisibilityTracer.isInsideOpaque(camX, camY, camZ)) {
+            Arrays.fill(visible, true);
+            return visible;
+        }
+
+        for (int i = 0; i < count; i++) {
+            long pos = positions[i];
+            int x = BlockPos.getX(pos);
+            int y = BlockPos.getY(pos);
+            int z = BlockPos.getZ(pos);
+            visible[i] = VisibilityTracer.isBoxVisible(camX, camY, camZ,
+                    x - BOX_MARGIN, y - BOX_MARGIN, z - BOX_MARGIN,
+                    x + 1 + BOX_MARGIN, y + 1 + BOX_MARGIN, z + 1 + BOX_MARGIN);
+        }
+        return visible;
+    }
+
+    private static void apply(JobResult result) {
+        for (int i = 0; i < result.count(); i++) {
+            Visibility visibility = states.get(result.positions()[i]);
+            if (visibility == null) {
+                continue;
+            }
+            visibility.pending = false;
+            visibility.cameraCell = result.cameraCell();
+            visibility.gridVersion = result.gridVersion();
+            if (result.visible()[i]) {
+                visibility.hiddenStreak = 0;
+                visibility.culled = false;
+            } else {
+                visibility.hiddenStreak++;
+                visibility.culled = visibility.hiddenStreak >= HIDE_AFTER_RESULTS;
+            }
+        }
+    }
+
+    /**
+     * Forget every cached result (world unload, feature disabled).
+     */
+    public static void clear() {
+        states.clear();
+        latest.set(null);
+        culledThisFrame = 0;
+        culledLastFrame = 0;
+    }
+
+    /**
+     * Number of block entities skipped during the last complete frame.
+     */
+    public static int getCulledLastFrame() {
+        return culledLastFrame;
+    }
+
+    public static long getDistanceCulled() {
+        return distanceCulled;
+    }
+
+    public static long getOcclusionCulled() {
+        return occlusionCulled;
+    }
+
+    /**
+     * Get statistics for debugging.
+     */
+    public static String getDebugStats() {
+        return String.format("BlockEntityCulling: %d culled last frame, %d positions cached",
+                culledLastFrame, states.size());
+    }
+}
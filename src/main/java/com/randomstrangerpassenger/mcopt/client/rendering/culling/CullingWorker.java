@@ -0,0 +1,29 @@
+package com.randomstrangerpassenger.mcopt.client.rendering.culling;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Single background thread shared by the culling engines.
+ * <p>
+ * Jobs only read {@link OcclusionGrid} snapshots and their own copied inputs,
+ * never live level state.
+ * </p>
+ */
+final class CullingWorker {
+
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MCOPT-Culling");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+
+    private CullingWorker() {
+        // Utility class
+    }
+
+    static void execute(Runnable job) {
+        WORKER.execute(job);
+    }
+}
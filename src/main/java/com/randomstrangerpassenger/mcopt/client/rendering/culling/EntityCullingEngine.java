@@ -0,0 +1,271 @@
+package com.randomstrangerpassenger.mcopt.client.rendering.culling;
+
+import com.randomstrangerpassenger.mcopt.MCOPT;
+import com.randomstrangerpassenger.mcopt.config.RenderingConfig;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Skips rendering entities that are hidden behind opaque blocks.
+ *
+ * <p>
+ * Once per frame the render thread copies the culling boxes of nearby
+ * entities into a job and hands it to the {@link CullingWorker}, which tests
+ * each box against the {@link OcclusionGrid} with {@link VisibilityTracer}.
+ * The next frame picks up the finished result. Only one job is in flight at a
+ * time, so a slow worker lowers the update rate instead of queueing work.
+ * </p>
+ *
+ * <p>
+ * <strong>Hysteresis:</strong> An entity is culled only after
+ * {@value #HIDE_AFTER_RESULTS} results in a row found it hidden; a single
+ * visible result shows it again immediately. Together with a margin around
+ * every box this hides the one-frame lag of asynchronous results.
+ * </p>
+ *
+ * <p>
+ * Never culled: the camera entity, players (name tags show through walls),
+ * glowing entities, entities that opt out of culling, and anything within
+ * {@value #ALWAYS_VISIBLE_DISTANCE} blocks of the camera. Entities beyond
+ * {@code entityCullingDistance} are left to vanilla's frustum culling.
+ * </p>
+ */
+@SuppressWarnings("null")
+public class EntityCullingEngine {
+
+    private static final int HIDE_AFTER_RESULTS = 3;
+    private static final double ALWAYS_VISIBLE_DISTANCE = 4.0;
+    private static final double BOX_MARGIN = 0.5;
+
+    // Cached config values
+    private static boolean enabled = true;
+    private static int maxDistance = 64;
+
+    // Client thread only
+    private static final Int2ObjectOpenHashMap<Visibility> states = new Int2ObjectOpenHashMap<>();
+    private static int epoch = 0;
+    private static int culledCount = 0;
+
+    // Worker -> client thread
+    private static final AtomicReference<JobResult> latest = new AtomicReference<>();
+    private static final AtomicBoolean jobRunning = new AtomicBoolean();
+
+    // Statistics
+    private static long jobs = 0;
+
+    /**
+     * Render-thread view of one entity.
+     */
+    private static final class Visibility {
+        int hiddenStreak;
+        boolean culled;
+        int epoch;
+    }
+
+    private record JobResult(int[] ids, boolean[] visible, int count) {
+    }
+
+    /**
+     * Refresh configuration cache.
+     */
+    public static void refreshConfigCache() {
+        enabled = RenderingConfig.ENABLE_ENTITY_CULLING.get() && RenderingConfig.CULL_ENTITIES_BEHIND_WALLS.get();
+        maxDistance = RenderingConfig.ENTITY_CULLING_DISTANCE.get();
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Range the occlusion grid has to cover for entity culling.
+     */
+    public static int getRange() {
+        return enabled ? maxDistance : 0;
+    }
+
+    /**
+     * Whether an entity should be skipped this frame. Only reads the result of
+     * earlier jobs, so it is cheap enough for every render call.
+     */
+    public static boolean isCulled(@Nonnull Entity entity) {
+        Visibility visibility = states.get(entity.getId());
+        return visibility != null && visibility.culled;
+    }
+
+    /**
+     * Apply the latest worker result and start the next job. Called at the
+     * start of every frame.
+     */
+    public static void onFrameStart() {
+        if (!enabled) {
+            return;
+        }
+
+        JobResult result = latest.getAndSet(null);
+        if (result != null) {
+            apply(result);
+        }
+
+        Minecraft mc = Minecraft.getInstance();
+        ClientLevel level = mc.level;
+        if (level == null || !jobRunning.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            submit(mc, level);
+        } catch (RuntimeException e) {
+            jobRunning.set(false);
+            MCOPT.LOGGER.debug("Failed to start entity culling job", e);
+        }
+    }
+
+    private static void submit(Minecraft mc, ClientLevel level) {
+        Vec3 camera = mc.gameRenderer.getMainCamera().getPosition();
+        double camX = camera.x;
+        double camY = camera.y;
+        double camZ = camera.z;
+        Entity cameraEntity = mc.getCameraEntity();
+        double maxSqr = (double) maxDistance * maxDistance;
+        double minSqr = ALWAYS_VISIBLE_DISTANCE * ALWAYS_VISIBLE_DISTANCE;
+
+        int[] ids = new int[Math.max(16, states.size() + 16)];
+        double[] boxes = new double[ids.length * 6];
+        int count = 0;
+
+        for (Entity entity : level.entitiesForRendering()) {
+            if (entity == cameraEntity || entity instanceof Player || entity.noCulling
+                    || mc.shouldEntityAppearGlowing(entity)) {
+                continue;
+            }
+            double distanceSqr = entity.distanceToSqr(camX, camY, camZ);
+            if (distanceSqr > maxSqr || distanceSqr < minSqr) {
+                continue;
+            }
+
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                boxes = Arrays.copyOf(boxes, count * 12);
+            }
+            AABB box = entity.getBoundingBoxForCulling();
+            int offset = count * 6;
+            boxes[offset] = box.minX - BOX_MARGIN;
+            boxes[offset + 1] = box.minY - BOX_MARGIN;
+            boxes[offset + 2] = box.minZ - BOX_MARGIN;
+            boxes[offset + 3] = box.maxX + BOX_MARGIN;
+            boxes[offset + 4] = box.maxY + BOX_MARGIN;
+            boxes[offset + 5] = box.maxZ + BOX_MARGIN;
+            ids[count++] = entity.getId();
+        }
+
+        int[] jobIds = ids;
+        double[] jobBoxes = boxes;
+        int jobCount = count;
+        jobs++;
+        CullingWorker.execute(() -> {
+            try {
+                latest.set(new JobResult(jobIds, test(camX, camY, camZ, jobBoxes, jobCount), jobCount));
+            } finally {
+                jobRunning.set(false);
+            }
+        });
+    }
+
+    /**
+     * Worker side: visibility of every box in the job.
+     */
+    private static boolean[] test(double camX, double camY, double camZ, double[] boxes, int count) {
+        boolean[] visible = new boolean[count];
+        if (VisibilityTracer.isInsideOpaque(camX, camY, camZ)) {
+            Arrays.fill(visible, true);
+            return visible;
+        }
+
+        for (int i = 0; i < count; i++) {
+            int offset = i * 6;
+            visible[i] = VisibilityTracer.isBoxVisible(camX, camY, camZ,
+                    boxes[offset], boxes[offset + 1], boxes[offset + 2],
+                    boxes[offset + 3], boxes[offset + 4], boxes[offset + 5]);
+        }
+        return visible;
+    }
+
+    private static void apply(JobResult result) {
+        epoch++;
+        for (int i = 0; i < result.count(); i++) {
+            Visibility visibility = states.get(result.ids()[i]);
+            if (visibility == null) {
+                visibility = new Visibility();
+                states.put(result.ids()[i], visibility);
+            }
+            visibility.epoch = epoch;
+            if (result.visible()[i]) {
+                visibility.hiddenStreak = 0;
+                visibility.culled = false;
+            } else {
+                visibility.hiddenStreak++;
+                visibility.culled = visibility.hiddenStreak >= HIDE_AFTER_RESULTS;
+            }
+        }
+
+        // Entities that were not part of the job (out of range, removed, now exempt) render normally
+        int culled = 0;
+        ObjectIterator<Int2ObjectOpenHashMap.Entry<Visibility>> iterator = states.int2ObjectEntrySet().fastIterator();
+        while (iterator.hasNext()) {
+            Visibility visibility = iterator.next().getValue();
+            if (visibility.epoch != epoch) {
+                iterator.remove();
+            } else if (visibility.culled) {
+                culled++;
+            }
+        }
+        culledCount = culled;
+    }
+
+    /**
+     * Forget every result (world unload, feature disabled).
+     */
+    public static void clear() {
+        states.clear();
+        latest.set(null);
+        culledCount = 0;
+    }
+
+    /**
+     * Number of entities culled by the latest result.
+     */
+    public static int getCulledCount() {
+        return culledCount;
+    }
+
+    public static int getTrackedCount() {
+        return states.size();
+    }
+
+    public static long getJobs() {
+        return jobs;
+    }
+
+    /**
+     * Get statistics for debugging.
+     */
+    public static String getDebugStats() {
+        return String.format("EntityCulling: %d/%d culled, %d jobs, %d grid sections",
+                culledCount, states.size(), jobs, OcclusionGrid.getSize());
+    }
+}
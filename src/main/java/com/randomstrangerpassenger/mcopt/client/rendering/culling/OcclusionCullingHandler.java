@@ -0,0 +1,46 @@
+package com.randomstrangerpassenger.mcopt.client.rendering.culling;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.client.event.ClientTickEvent;
+import net.neoforged.neoforge.client.event.RenderFrameEvent;
+import net.neoforged.neoforge.event.level.ChunkEvent;
+import net.neoforged.neoforge.event.level.LevelEvent;
+
+/**
+ * Drives the {@link OcclusionGrid} and the culling engines from client events.
+ */
+public class OcclusionCullingHandler {
+
+    @SubscribeEvent
+    public void onRenderFrame(RenderFrameEvent.Pre event) {
+        EntityCullingEngine.onFrameStart();
+        BlockEntityCullingEngine.onFrameStart();
+    }
+
+    @SubscribeEvent
+    public void onClientTick(ClientTickEvent.Post event) {
+        Minecraft mc = Minecraft.getInstance();
+        int range = Math.max(EntityCullingEngine.getRange(), BlockEntityCullingEngine.getRange());
+        if (mc.level != null && range > 0) {
+            OcclusionGrid.tick(mc.level, mc.gameRenderer.getMainCamera().getPosition(), range);
+        }
+    }
+
+    @SubscribeEvent
+    public void onChunkLoad(ChunkEvent.Load event) {
+        if (event.getLevel() instanceof ClientLevel level) {
+            OcclusionGrid.onChunkLoaded(level, event.getChunk().getPos().x, event.getChunk().getPos().z);
+        }
+    }
+
+    @SubscribeEvent
+    public void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel().isClientSide()) {
+            OcclusionGrid.clear();
+            EntityCullingEngine.clear();
+            BlockEntityCullingEngine.clear();
+        }
+    }
+}
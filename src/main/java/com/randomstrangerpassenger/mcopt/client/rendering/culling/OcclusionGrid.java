@@ -0,0 +1,282 @@
+package com.randomstrangerpassenger.mcopt.client.rendering.culling;
+
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.phys.Vec3;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Occupancy grid of opaque blocks around the camera, shared by the culling
+ * engines.
+ * <p>
+ * Each chunk section is stored as an immutable 4096-bit set (64 longs) of
+ * blocks that fully hide what is behind them. The grid is maintained on the
+ * client thread: missing sections are snapshotted a few per tick, block
+ * changes replace the affected section with an updated copy, and sections
+ * that fall out of range are dropped. Because published arrays are never
+ * written again, the culling worker can read them without locking.
+ * </p>
+ * <p>
+ * Sections that were never snapshotted read as empty, so a culling test can
+ * only ever err towards "visible".
+ * </p>
+ */
+public final class OcclusionGrid {
+
+    // Snapshots per tick; a full rebuild around a fresh camera takes a few seconds at most
+    private static final int BUILD_BUDGET = 32;
+    private static final int CLEANUP_INTERVAL_TICKS = 40;
+
+    // Marker for sections that were snapshotted and contain no opaque block
+    static final long[] EMPTY = new long[0];
+
+    private static final Map<Long, long[]> sections = new ConcurrentHashMap<>();
+
+    private static int radiusSections = 0;
+    private static int ticksUntilCleanup = 0;
+    private static long lastCenter = Long.MIN_VALUE;
+    // Set once every loaded section in range has a snapshot
+    private static boolean complete;
+    // Bumped whenever a snapshot is added or changed, so cached visibility can tell it is stale
+    private static int version = 0;
+
+    private OcclusionGrid() {
+        // Utility class
+    }
+
+    /**
+     * Whether a block state hides everything behind it.
+     */
+    public static boolean isOccluder(@Nonnull BlockState state) {
+        return state.isSolidRender();
+    }
+
+    /**
+     * Snapshot missing sections around the camera and drop distant ones. Client
+     * thread only.
+     *
+     * @param level       The client level
+     * @param camera      Camera position
+     * @param radiusBlocks Range the culling engines need
+     */
+    public static void tick(@Nonnull ClientLevel level, @Nonnull Vec3 camera, int radiusBlocks) {
+        radiusSections = (radiusBlocks >> 4) + 1;
+        int centerX = SectionPos.blockToSectionCoord(camera.x);
+        int centerY = SectionPos.blockToSectionCoord(camera.y);
+        int centerZ = SectionPos.blockToSectionCoord(camera.z);
+
+        long center = SectionPos.asLong(centerX, centerY, centerZ);
+        if (center != lastCenter) {
+            lastCenter = center;
+            complete = false;
+        }
+
+        if (!complete) {
+            complete = buildMissing(level, centerX, centerY, centerZ);
+        }
+
+        if (--ticksUntilCleanup <= 0) {
+            ticksUntilCleanup = CLEANUP_INTERVAL_TICKS;
+            cleanupFarAway(centerX, centerY, centerZ);
+            // Chunks that were not loaded during the last pass may be by now
+            complete = false;
+        }
+    }
+
+    /**
+     * Snapshot up to {@value #BUILD_BUDGET} missing sections, nearest shells first.
+     *
+     * @return true if nothing within range is missing any more
+     */
+    private static boolean buildMissing(ClientLevel level, int centerX, int centerY, int centerZ) {
+        int minY = level.getMinSectionY();
+        int maxY = level.getMaxSectionY();
+        int budget = BUILD_BUDGET;
+
+        for (int ring = 0; ring <= radiusSections; ring++) {
+            for (int dx = -ring; dx <= ring; dx++) {
+                for (int dz = -ring; dz <= ring; dz++) {
+                    // Only the shell of this ring: inside the X/Z boundary just its top and bottom
+                    boolean edge = Math.abs(dx) == ring || Math.abs(dz) == ring;
+                    int dyStep = edge || ring == 0 ? 1 : 2 * ring;
+                    for (int dy = -ring; dy <= ring; dy += dyStep) {
+                        int sy = centerY + dy;
+                        if (sy < minY || sy > maxY) {
+                            continue;
+                        }
+                        long key = SectionPos.asLong(centerX + dx, sy, centerZ + dz);
+                        if (sections.containsKey(key)) {
+                            continue;
+                        }
+                        long[] bits = snapshot(level, key);
+                        if (bits == null) {
+                            continue;
+                        }
+                        put(key, bits);
+                        if (--budget == 0) {
+                            return false;
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies the opaque blocks of one section, or returns null if its chunk is
+     * not loaded yet.
+     */
+    @Nullable
+    private static long[] snapshot(ClientLevel level, long sectionPos) {
+        int sectionX = SectionPos.x(sectionPos);
+        int sectionZ = SectionPos.z(sectionPos);
+        LevelChunk chunk = level.getChunkSource().getChunk(sectionX, sectionZ, false);
+        if (chunk == null) {
+            return null;
+        }
+
+        int index = chunk.getSectionIndexFromSectionY(SectionPos.y(sectionPos));
+        if (index < 0 || index >= chunk.getSectionsCount()) {
+            return EMPTY;
+        }
+
+        LevelChunkSection section = chunk.getSection(index);
+        // The palette check skips the 4096 lookups for air, water and most plant sections
+        if (section.hasOnlyAir() || !section.maybeHas(OcclusionGrid::isOccluder)) {
+            return EMPTY;
+        }
+
+        long[] bits = new long[64];
+        boolean any = false;
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    if (isOccluder(section.getBlockState(x, y, z))) {
+                        setOpaque(bits, x, y, z, true);
+                        any = true;
+                    }
+                }
+            }
+        }
+        return any ? bits : EMPTY;
+    }
+
+    private static void cleanupFarAway(int centerX, int centerY, int centerZ) {
+        int limit = radiusSections + 1;
+        Iterator<Long> iterator = sections.keySet().iterator();
+        while (iterator.hasNext()) {
+            long key = iterator.next();
+            if (Math.abs(SectionPos.x(key) - centerX) > limit
+                    || Math.abs(SectionPos.y(key) - centerY) > limit
+                    || Math.abs(SectionPos.z(key) - centerZ) > limit) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Apply a block change to the affected section. Client thread only.
+     */
+    public static void onBlockChanged(@Nonnull BlockPos pos, @Nonnull BlockState oldState,
+            @Nonnull BlockState newState) {
+        boolean opaque = isOccluder(newState);
+        if (isOccluder(oldState) == opaque) {
+            return;
+        }
+
+        long key = SectionPos.asLong(pos);
+        long[] current = sections.get(key);
+        if (current == null) {
+            // Not snapshotted yet; the next snapshot sees the new state
+            return;
+        }
+
+        // Published arrays are read by the worker, so replace instead of editing in place
+        long[] updated = current == EMPTY ? new long[64] : current.clone();
+        setOpaque(updated, pos.getX(), pos.getY(), pos.getZ(), opaque);
+        put(key, updated);
+    }
+
+    /**
+     * Publish the bits of a section. The array must not be written afterwards.
+     */
+    static void put(long sectionKey, @Nonnull long[] sectionBits) {
+        sections.put(sectionKey, sectionBits);
+        version++;
+    }
+
+    /**
+     * Forget the sections of a chunk that was (re)loaded; its contents may
+     * differ from the snapshots. Client thread only.
+     */
+    public static void onChunkLoaded(@Nonnull ClientLevel level, int chunkX, int chunkZ) {
+        for (int sy = level.getMinSectionY(); sy <= level.getMaxSectionY(); sy++) {
+            sections.remove(SectionPos.asLong(chunkX, sy, chunkZ));
+        }
+        complete = false;
+        version++;
+    }
+
+    /**
+     * Get the opaque bits of a section; {@link #EMPTY} if unknown or empty.
+     * Safe from any thread.
+     */
+    static long[] section(long sectionKey) {
+        long[] bits = sections.get(sectionKey);
+        return bits != null ? bits : EMPTY;
+    }
+
+    static boolean isOpaque(long[] sectionBits, int x, int y, int z) {
+        if (sectionBits.length == 0) {
+            return false;
+        }
+        int i = localIndex(x, y, z);
+        return (sectionBits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * Set or clear a block in a section's bits that is not published yet.
+     */
+    static void setOpaque(long[] sectionBits, int x, int y, int z, boolean opaque) {
+        int i = localIndex(x, y, z);
+        if (opaque) {
+            sectionBits[i >>> 6] |= 1L << i;
+        } else {
+            sectionBits[i >>> 6] &= ~(1L << i);
+        }
+    }
+
+    static int localIndex(int x, int y, int z) {
+        return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+    }
+
+    /**
+     * Drop every snapshot (world unload).
+     */
+    public static void clear() {
+        sections.clear();
+        complete = false;
+        version++;
+    }
+
+    /**
+     * Counter that changes whenever the grid content changes. Client thread only.
+     */
+    public static int getVersion() {
+        return version;
+    }
+
+    public static int getSize() {
+        return sections.size();
+    }
+}
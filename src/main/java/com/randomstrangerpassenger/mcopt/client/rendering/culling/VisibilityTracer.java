@@ -0,0 +1,114 @@
+package com.randomstrangerpassenger.mcopt.client.rendering.culling;
+
+import net.minecraft.core.SectionPos;
+
+/**
+ * Box visibility tests against the {@link OcclusionGrid}.
+ * <p>
+ * A box is visible if any of nine sample points (its eight corners and its
+ * centre) can be reached from the camera without passing through an opaque
+ * block. The camera's own block and the sample point's block are ignored, so
+ * a box poking into a wall or a camera clipping into one never hides
+ * anything. Safe to call from any thread.
+ * </p>
+ */
+final class VisibilityTracer {
+
+    private VisibilityTracer() {
+        // Utility class
+    }
+
+    /**
+     * Whether the camera itself sits inside an opaque block (spectators,
+     * suffocation); nothing can be culled reliably from there.
+     */
+    static boolean isInsideOpaque(double x, double y, double z) {
+        int bx = floor(x);
+        int by = floor(y);
+        int bz = floor(z);
+        long[] bits = OcclusionGrid.section(SectionPos.asLong(bx >> 4, by >> 4, bz >> 4));
+        return OcclusionGrid.isOpaque(bits, bx, by, bz);
+    }
+
+    static boolean isBoxVisible(double camX, double camY, double camZ,
+            double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        // Centre first: it is the point most likely to be visible
+        if (isRayClear(camX, camY, camZ, (minX + maxX) * 0.5, (minY + maxY) * 0.5, (minZ + maxZ) * 0.5)) {
+            return true;
+        }
+        for (int corner = 0; corner < 8; corner++) {
+            double x = (corner & 1) == 0 ? minX : maxX;
+            double y = (corner & 2) == 0 ? minY : maxY;
+            double z = (corner & 4) == 0 ? minZ : maxZ;
+            if (isRayClear(camX, camY, camZ, x, y, z)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 3D DDA from the camera to a point; false as soon as an opaque block is
+     * crossed.
+     */
+    static boolean isRayClear(double fromX, double fromY, double fromZ, double toX, double toY, double toZ) {
+        int x = floor(fromX);
+        int y = floor(fromY);
+        int z = floor(fromZ);
+        int endX = floor(toX);
+        int endY = floor(toY);
+        int endZ = floor(toZ);
+
+        double dx = toX - fromX;
+        double dy = toY - fromY;
+        double dz = toZ - fromZ;
+
+        int stepX = Integer.signum(endX - x);
+        int stepY = Integer.signum(endY - y);
+        int stepZ = Integer.signum(endZ - z);
+
+        // Ray parameter at which the next cell boundary is crossed, and per-cell increment
+        double deltaX = stepX == 0 ? Double.MAX_VALUE : Math.abs(1.0 / dx);
+        double deltaY = stepY == 0 ? Double.MAX_VALUE : Math.abs(1.0 / dy);
+        double deltaZ = stepZ == 0 ? Double.MAX_VALUE : Math.abs(1.0 / dz);
+        double maxX = stepX == 0 ? Double.MAX_VALUE : deltaX * (stepX > 0 ? (x + 1 - fromX) : (fromX - x));
+        double maxY = stepY == 0 ? Double.MAX_VALUE : deltaY * (stepY > 0 ? (y + 1 - fromY) : (fromY - y));
+        double maxZ = stepZ == 0 ? Double.MAX_VALUE : deltaZ * (stepZ > 0 ? (z + 1 - fromZ) : (fromZ - z));
+
+        // Most steps stay in the same section; only look the section up again when leaving it
+        long sectionKey = Long.MIN_VALUE;
+        long[] bits = OcclusionGrid.EMPTY;
+
+        int steps = Math.abs(endX - x) + Math.abs(endY - y) + Math.abs(endZ - z);
+        for (int i = 0; i < steps; i++) {
+            if (maxX < maxY && maxX < maxZ) {
+                x += stepX;
+                maxX += deltaX;
+            } else if (maxY < maxZ) {
+                y += stepY;
+                maxY += deltaY;
+            } else {
+                z += stepZ;
+                maxZ += deltaZ;
+            }
+
+            if (x == endX && y == endY && z == endZ) {
+                break;
+            }
+
+            long key = SectionPos.asLong(x >> 4, y >> 4, z >> 4);
+            if (key != sectionKey) {
+                sectionKey = key;
+                bits = OcclusionGrid.section(key);
+            }
+            if (OcclusionGrid.isOpaque(bits, x, y, z)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int floor(double value) {
+        return (int) Math.floor(value);
+    }
+}
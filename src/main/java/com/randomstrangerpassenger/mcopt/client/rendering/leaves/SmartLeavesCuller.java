@@ -0,0 +1,255 @@
+package com.randomstrangerpassenger.mcopt.client.rendering.leaves;
+
+import com.randomstrangerpassenger.mcopt.config.RenderingConfig;
+import com.randomstrangerpassenger.mcopt.util.FeatureKey;
+import com.randomstrangerpassenger.mcopt.util.FeatureToggles;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.BlockAndTintGetter;
+import net.minecraft.world.level.block.LeavesBlock;
+import net.minecraft.world.level.block.state.BlockState;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Culls leaf faces buried inside dense canopies while sections are meshed.
+ *
+ * <p>
+ * When a section compile starts, every block of the section plus a margin is
+ * classified as leaves or not, and a city-block distance transform gives each
+ * leaf its depth: 1 at the canopy surface, 2 one block further in, and so on
+ * (capped just above {@code leavesCullingDepth}). A face between two leaf
+ * blocks is skipped when both sides are deeper than
+ * {@code leavesCullingDepth}. Faces at the surface of a tree are never
+ * touched, so the canopy keeps its silhouette and the see-through look of
+ * fancy leaves near its edges.
+ * </p>
+ *
+ * <p>
+ * <strong>Threading:</strong> Sections compile on several worker threads, so
+ * each thread has its own depth buffer. The buffer only lives between the
+ * start and end of one section compile.
+ * </p>
+ */
+public final class SmartLeavesCuller {
+
+    // Enough margin for the deepest configurable depth plus one
+    private static final int MAX_PADDING = 6;
+
+    private static final ThreadLocal<DepthBuffer> BUFFERS = ThreadLocal.withInitial(DepthBuffer::new);
+
+    // Cached config values
+    private static int cullingDepth = 2;
+
+    // Statistics
+    private static final LongAdder facesCulled = new LongAdder();
+    private static final LongAdder sectionsAnalyzed = new LongAdder();
+
+    private SmartLeavesCuller() {
+        // Utility class
+    }
+
+    /**
+     * Refresh configuration cache.
+     */
+    public static void refreshConfigCache() {
+        cullingDepth = RenderingConfig.LEAVES_CULLING_DEPTH.get();
+    }
+
+    public static boolean isEnabled() {
+        return FeatureToggles.isEnabled(FeatureKey.SMART_LEAVES);
+    }
+
+    /**
+     * Build the depth buffer for a section about to be compiled.
+     */
+    public static void beginSection(@Nonnull SectionPos sectionPos, @Nonnull BlockAndTintGetter region) {
+        DepthBuffer buffer = BUFFERS.get();
+        buffer.active = false;
+        if (!isEnabled()) {
+            return;
+        }
+        if (buffer.build(sectionPos, region, cullingDepth + 1)) {
+            sectionsAnalyzed.increment();
+        }
+    }
+
+    /**
+     * Drop the depth buffer once the section compile is done.
+     */
+    public static void endSection() {
+        DepthBuffer buffer = BUFFERS.get();
+        if (buffer.active) {
+            facesCulled.add(buffer.culled);
+            buffer.active = false;
+        }
+    }
+
+    /**
+     * Whether a leaf face is buried deep enough inside the canopy to skip.
+     *
+     * @param state       The block being meshed
+     * @param face        The face being tested
+     * @param neighborPos The block the face points at
+     */
+    public static boolean shouldCullFace(@Nonnull BlockState state, @Nonnull Direction face,
+            @Nonnull BlockPos neighborPos) {
+        if (!(state.getBlock() instanceof LeavesBlock)) {
+            return false;
+        }
+        DepthBuffer buffer = BUFFERS.get();
+        if (!buffer.active) {
+            return false;
+        }
+
+        int nx = neighborPos.getX();
+        int ny = neighborPos.getY();
+        int nz = neighborPos.getZ();
+        // Depths are capped at the threshold, so "deeper than the setting" means "at the cap"
+        if (buffer.depth(nx, ny, nz) < buffer.cap
+                || buffer.depth(nx - face.getStepX(), ny - face.getStepY(), nz - face.getStepZ()) < buffer.cap) {
+            return false;
+        }
+        buffer.culled++;
+        return true;
+    }
+
+    public static long getFacesCulled() {
+        return facesCulled.sum();
+    }
+
+    public static long getSectionsAnalyzed() {
+        return sectionsAnalyzed.sum();
+    }
+
+    /**
+     * Two-pass city-block distance transform to the nearest non-leaf block, in
+     * place. Leaves start at the depth cap and everything else at 0; the first
+     * {@code size}^3 cells form a cube indexed x-fastest. Cells on the border
+     * cannot see past the cube and may read too deep, which only affects the
+     * margin, never the section itself.
+     */
+    static void distanceTransform(byte[] depths, int size) {
+        int strideY = size * size;
+        int strideZ = size;
+        for (int y = 0; y < size; y++) {
+            for (int z = 0; z < size; z++) {
+                for (int x = 0; x < size; x++) {
+                    int i = y * strideY + z * strideZ + x;
+                    int d = depths[i];
+                    if (d == 0) {
+                        continue;
+                    }
+                    if (x > 0) {
+                        d = Math.min(d, depths[i - 1] + 1);
+                    }
+                    if (z > 0) {
+                        d = Math.min(d, depths[i - strideZ] + 1);
+                    }
+                    if (y > 0) {
+                        d = Math.min(d, depths[i - strideY] + 1);
+                    }
+                    depths[i] = (byte) d;
+                }
+            }
+        }
+        for (int y = size - 1; y >= 0; y--) {
+            for (int z = size - 1; z >= 0; z--) {
+                for (int x = size - 1; x >= 0; x--) {
+                    int i = y * strideY + z * strideZ + x;
+                    int d = depths[i];
+                    if (d == 0) {
+                        continue;
+                    }
+                    if (x < size - 1) {
+                        d = Math.min(d, depths[i + 1] + 1);
+                    }
+                    if (z < size - 1) {
+                        d = Math.min(d, depths[i + strideZ] + 1);
+                    }
+                    if (y < size - 1) {
+                        d = Math.min(d, depths[i + strideY] + 1);
+                    }
+                    depths[i] = (byte) d;
+                }
+            }
+        }
+    }
+
+    /**
+     * Leaf depths of one section plus a margin, indexed x-fastest.
+     */
+    private static final class DepthBuffer {
+        private final byte[] depths;
+        private boolean active;
+        private int minX;
+        private int minY;
+        private int minZ;
+        private int size;
+        private byte cap;
+        private int culled;
+
+        DepthBuffer() {
+            int maxSize = 16 + 2 * MAX_PADDING;
+            depths = new byte[maxSize * maxSize * maxSize];
+        }
+
+        /**
+         * @return true if the section contains leaves and the buffer is active
+         */
+        boolean build(SectionPos sectionPos, BlockAndTintGetter region, int depthCap) {
+            int originX = sectionPos.minBlockX();
+            int originY = sectionPos.minBlockY();
+            int originZ = sectionPos.minBlockZ();
+            BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+
+            // Most sections have no leaves at all; find out before touching the margin
+            boolean anyLeaves = false;
+            for (int i = 0; i < 4096 && !anyLeaves; i++) {
+                pos.set(originX + (i & 15), originY + (i >> 8), originZ + ((i >> 4) & 15));
+                anyLeaves = isLeaves(region.getBlockState(pos));
+            }
+            if (!anyLeaves) {
+                return false;
+            }
+
+            int padding = depthCap;
+            cap = (byte) depthCap;
+            size = 16 + 2 * padding;
+            minX = originX - padding;
+            minY = originY - padding;
+            minZ = originZ - padding;
+            culled = 0;
+
+            int index = 0;
+            for (int y = 0; y < size; y++) {
+                for (int z = 0; z < size; z++) {
+                    for (int x = 0; x < size; x++) {
+                        pos.set(minX + x, minY + y, minZ + z);
+                        depths[index++] = isLeaves(region.getBlockState(pos)) ? cap : 0;
+                    }
+                }
+            }
+
+            distanceTransform(depths, size);
+            active = true;
+            return true;
+        }
+
+        int depth(int x, int y, int z) {
+            int lx = x - minX;
+            int ly = y - minY;
+            int lz = z - minZ;
+            if (lx < 0 || ly < 0 || lz < 0 || lx >= size || ly >= size || lz >= size) {
+                return 0;
+            }
+            return depths[(ly * size + lz) * size + lx];
+        }
+
+        private static boolean isLeaves(BlockState state) {
+            return state.getBlock() instanceof LeavesBlock;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.randomstrangerpassenger.mcopt.client.rendering.particle;
+
+import com.randomstrangerpassenger.mcopt.client.rendering.ViewCone;
+
+/**
+ * Culling state mixed into every {@link net.minecraft.client.particle.Particle}.
+ * <p>
+ * Lives outside the mixin package because it is loaded as a regular class
+ * by the transformed particle classes.
+ * </p>
+ */
+public interface MCOptCulledParticle {
+    double mcopt$distanceSquared(ViewCone view);
+    boolean mcopt$isOutsideView();
+    void mcopt$setCulled(boolean culled);
+    boolean mcopt$isCulled();
+}
@@ -0,0 +1,48 @@
+package com.randomstrangerpassenger.mcopt.client.rendering.particle;
+
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.core.particles.ParticleOptions;
+import net.minecraft.core.particles.ParticleType;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Pooling state mixed into every {@link net.minecraft.client.particle.Particle}.
+ * <p>
+ * Lives outside the mixin package for the same reason as
+ * {@link MCOptCulledParticle}.
+ * </p>
+ */
+public interface MCOptPooledParticle {
+    /**
+     * The type this particle is pooled under, or null if it is never reused.
+     */
+    @Nullable
+    ParticleType<?> mcopt$getPoolType();
+
+    void mcopt$setPoolType(@Nullable ParticleType<?> type);
+
+    boolean mcopt$isInLevel(@Nonnull ClientLevel level);
+
+    /**
+     * Bring a removed particle back to the state its constructor would have
+     * produced for these arguments.
+     */
+    void mcopt$reinit(@Nonnull ParticleOptions options, double x, double y, double z,
+            double xd, double yd, double zd);
+
+    /**
+     * Quad fields, mixed into {@link net.minecraft.client.particle.SingleQuadParticle}.
+     */
+    interface Quad {
+        void mcopt$resetQuad(float quadSize, float red, float green, float blue);
+    }
+
+    /**
+     * Final start position of {@link net.minecraft.client.particle.PortalParticle}.
+     */
+    interface Portal {
+        void mcopt$setStart(double x, double y, double z);
+    }
+}
@@ -0,0 +1,16 @@
+package com.randomstrangerpassenger.mcopt.client.rendering.particle;
+
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.client.event.RenderFrameEvent;
+
+/**
+ * Refreshes the camera snapshot {@link ParticleCullingManager} culls against
+ * at the start of every frame.
+ */
+public class ParticleCullingHandler {
+
+    @SubscribeEvent
+    public void onRenderFrame(RenderFrameEvent.Pre event) {
+        ParticleCullingManager.onFrameStart();
+    }
+}
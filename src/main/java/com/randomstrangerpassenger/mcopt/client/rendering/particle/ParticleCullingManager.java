@@ -0,0 +1,264 @@
+package com.randomstrangerpassenger.mcopt.client.rendering.particle;
+
+import com.randomstrangerpassenger.mcopt.client.manager.AdaptiveLimitsManager;
+import com.randomstrangerpassenger.mcopt.client.rendering.ViewCone;
+import com.randomstrangerpassenger.mcopt.config.RenderingConfig;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.particle.Particle;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Frustum/distance culling and live particle budgets.
+ *
+ * <p>
+ * <strong>Culling:</strong> A particle is culled when it is farther than
+ * {@code particleCullingRange} from the camera or outside a cone around the
+ * view direction that covers the current field of view plus a margin. Culled
+ * particles are not drawn, and culled particles without collision skip most
+ * of their tick (see {@code ParticleCullingMixin}).
+ * </p>
+ *
+ * <p>
+ * <strong>Budgets:</strong> Every particle added to the engine is tracked by
+ * its class, which is the closest thing a live particle has to a type (mods
+ * usually have one class per particle). Once per tick, before the engine
+ * ticks, each class is trimmed to {@code particleBudgetPerType} and the total
+ * to {@code particleGlobalBudget}, shrunk by up to half under adaptive
+ * limits stress. The particles farthest from the camera are removed first.
+ * </p>
+ *
+ * <p>
+ * <strong>Threading:</strong> Client thread only, like the particle engine.
+ * </p>
+ */
+@SuppressWarnings("null")
+public class ParticleCullingManager {
+
+    // Anything this close is never culled; large particles still overlap the view
+    private static final double ALWAYS_VISIBLE_DISTANCE_SQR = 2.0 * 2.0;
+    // Extra angle around the field of view, for FOV effects and particle size
+    private static final double VIEW_MARGIN_RADIANS = Math.toRadians(15);
+
+    // Cached config values
+    private static boolean cullingEnabled = true;
+    private static double cullingRangeSqr = 48.0 * 48.0;
+    private static boolean budgetEnabled = true;
+    private static int perTypeBudget = 2000;
+    private static int globalBudget = 8000;
+
+    // Camera snapshot, refreshed every frame and every tick
+    private static ViewCone view = ViewCone.EVERYWHERE;
+
+    // Live particles by class
+    private static final Reference2ObjectOpenHashMap<Class<?>, ArrayList<Particle>> tracked = new Reference2ObjectOpenHashMap<>();
+    private static int trackedCount = 0;
+
+    // Scratch buffers for trimming
+    private static Particle[] scratchParticles = new Particle[256];
+    private static double[] scratchDistances = new double[256];
+    private static double[] scratchSorted = new double[256];
+
+    // Statistics
+    private static int culledLastTick = 0;
+    private static long droppedByBudget = 0;
+
+    /**
+     * Refresh configuration cache.
+     */
+    public static void refreshConfigCache() {
+        cullingEnabled = RenderingConfig.ENABLE_PARTICLE_CULLING.get();
+        double range = RenderingConfig.PARTICLE_CULLING_RANGE.get();
+        cullingRangeSqr = range * range;
+        budgetEnabled = RenderingConfig.ENABLE_PARTICLE_OPTIMIZATIONS.get();
+        perTypeBudget = RenderingConfig.PARTICLE_BUDGET_PER_TYPE.get();
+        globalBudget = RenderingConfig.PARTICLE_GLOBAL_BUDGET.get();
+    }
+
+    public static boolean isCullingEnabled() {
+        return cullingEnabled;
+    }
+
+    public static boolean isEnabled() {
+        return cullingEnabled || budgetEnabled;
+    }
+
+    /**
+     * Refresh the camera snapshot used by render-time culling.
+     */
+    public static void onFrameStart() {
+        if (cullingEnabled) {
+            updateCamera(Minecraft.getInstance());
+        }
+    }
+
+    private static void updateCamera(Minecraft mc) {
+        view = ViewCone.capture(mc, VIEW_MARGIN_RADIANS);
+    }
+
+    /**
+     * Whether a particle at this position should not be drawn.
+     */
+    public static boolean isOutsideView(double x, double y, double z) {
+        ViewCone cone = view;
+        double distanceSqr = cone.distanceSqr(x, y, z);
+        if (distanceSqr > cullingRangeSqr) {
+            return true;
+        }
+        if (distanceSqr < ALWAYS_VISIBLE_DISTANCE_SQR) {
+            return false;
+        }
+        return !cone.contains(x, y, z, distanceSqr);
+    }
+
+    /**
+     * Start tracking a particle that was just added to the engine.
+     */
+    public static void track(@Nonnull Particle particle) {
+        if (!isEnabled()) {
+            return;
+        }
+        tracked.computeIfAbsent(particle.getClass(), type -> new ArrayList<>()).add(particle);
+        trackedCount++;
+    }
+
+    /**
+     * Refresh culled flags and enforce the budgets. Called before the particle
+     * engine ticks.
+     */
+    public static void onEngineTick() {
+        if (!isEnabled() || tracked.isEmpty()) {
+            return;
+        }
+
+        Minecraft mc = Minecraft.getInstance();
+        updateCamera(mc);
+
+        int culled = 0;
+        int total = 0;
+        for (ArrayList<Particle> particles : tracked.values()) {
+            compact(particles);
+
+            if (budgetEnabled && particles.size() > perTypeBudget) {
+                dropFarthest(particles, particles.size() - perTypeBudget);
+            }
+
+            if (cullingEnabled) {
+                for (int i = 0, size = particles.size(); i < size; i++) {
+                    MCOptCulledParticle particle = (MCOptCulledParticle) particles.get(i);
+                    boolean outside = particle.mcopt$isOutsideView();
+                    particle.mcopt$setCulled(outside);
+                    if (outside) {
+                        culled++;
+                    }
+                }
+            }
+            total += particles.size();
+        }
+        tracked.values().removeIf(ArrayList::isEmpty);
+
+        if (budgetEnabled) {
+            int limit = (int) (globalBudget * (1.0f - 0.5f * AdaptiveLimitsManager.getStressFactor()));
+            if (total > limit) {
+                ArrayList<Particle> all = new ArrayList<>(total);
+                for (ArrayList<Particle> particles : tracked.values()) {
+                    all.addAll(particles);
+                }
+                dropFarthest(all, total - limit);
+                // The removed particles leave their class lists on the next compaction
+                total = limit;
+            }
+        }
+
+        trackedCount = total;
+        culledLastTick = culled;
+    }
+
+    /**
+     * Remove dead particles, keeping the list dense.
+     */
+    private static void compact(ArrayList<Particle> particles) {
+        int write = 0;
+        for (int read = 0, size = particles.size(); read < size; read++) {
+            Particle particle = particles.get(read);
+            if (particle.isAlive()) {
+                particles.set(write++, particle);
+            }
+        }
+        particles.subList(write, particles.size()).clear();
+    }
+
+    /**
+     * Remove the {@code count} particles farthest from the camera.
+     */
+    private static void dropFarthest(ArrayList<Particle> particles, int count) {
+        int size = particles.size();
+        if (count <= 0 || size == 0) {
+            return;
+        }
+        ensureScratch(size);
+
+        for (int i = 0; i < size; i++) {
+            Particle particle = particles.get(i);
+            scratchParticles[i] = particle;
+            scratchDistances[i] = ((MCOptCulledParticle) particle).mcopt$distanceSquared(view);
+        }
+        System.arraycopy(scratchDistances, 0, scratchSorted, 0, size);
+        Arrays.sort(scratchSorted, 0, size);
+        double threshold = scratchSorted[size - Math.min(count, size)];
+
+        int removed = 0;
+        for (int i = 0; i < size && removed < count; i++) {
+            if (scratchDistances[i] >= threshold) {
+                scratchParticles[i].remove();
+                removed++;
+            }
+        }
+        droppedByBudget += removed;
+
+        Arrays.fill(scratchParticles, 0, size, null);
+        compact(particles);
+    }
+
+    private static void ensureScratch(int size) {
+        if (scratchParticles.length < size) {
+            int capacity = Math.max(size, scratchParticles.length * 2);
+            scratchParticles = new Particle[capacity];
+            scratchDistances = new double[capacity];
+            scratchSorted = new double[capacity];
+        }
+    }
+
+    /**
+     * Forget every tracked particle (the engine was cleared).
+     */
+    public static void clear() {
+        tracked.clear();
+        trackedCount = 0;
+        culledLastTick = 0;
+    }
+
+    public static int getTrackedCount() {
+        return trackedCount;
+    }
+
+    public static int getCulledLastTick() {
+        return culledLastTick;
+    }
+
+    public static long getDroppedByBudget() {
+        return droppedByBudget;
+    }
+
+    /**
+     * Get debug statistics.
+     */
+    @Nonnull
+    public static String getDebugStats() {
+        return String.format("ParticleCulling: %d live, %d culled, %d dropped by budget",
+                trackedCount, culledLastTick, droppedByBudget);
+    }
+}
@@ -2,12 +2,19 @@ package com.randomstrangerpassenger.mcopt.client.rendering.particle;
 
 import com.randomstrangerpassenger.mcopt.client.manager.AdaptiveLimitsManager;
 import com.randomstrangerpassenger.mcopt.config.PerformanceConfig;
+import it.unimi.dsi.fastutil.HashCommon;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.client.player.LocalPlayer;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.levelgen.Heightmap;
 import net.minecraft.world.phys.Vec3;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Arrays;
 
 /**
  * Optimizes particle physics calculations based on distance from player.
@@ -22,8 +29,18 @@ import javax.annotation.Nullable;
  * </p>
  * <ul>
  * <li>Full: All collision checks (near particles)</li>
- * <li>Simplified: Height check only or no-clip (distant particles)</li>
+ * <li>Height-only: Particles land on the ground surface of their column, read
+ * from the chunk's {@code MOTION_BLOCKING} heightmap (up to
+ * {@value #NO_CLIP_DISTANCE_FACTOR}x the simplify distance)</li>
+ * <li>No-clip: No collision at all (farther than that)</li>
  * </ul>
+ *
+ * <p>
+ * Ground heights are kept in a small direct-mapped column cache that is
+ * invalidated every particle tick, so a burst of particles over the same
+ * blocks costs one heightmap read per column instead of a voxel shape
+ * collision query per particle.
+ * </p>
  * 
  * <p>
  * <strong>Immersion First:</strong> Visual particle behavior remains natural.
@@ -33,10 +50,40 @@ import javax.annotation.Nullable;
 @SuppressWarnings("null")
 public class ParticlePhysicsOptimizer {
 
+    // Height-only up to this multiple of the simplify distance, no-clip beyond
+    private static final int NO_CLIP_DISTANCE_FACTOR = 2;
+    // Power of two; comfortably more columns than particles usually cover
+    private static final int COLUMN_CACHE_SIZE = 1024;
+    private static final int COLUMN_CACHE_MASK = COLUMN_CACHE_SIZE - 1;
+    /** Ground height of a column whose chunk is not loaded. */
+    public static final int NO_GROUND = Integer.MIN_VALUE;
+
     // Cached config values
     private static boolean enabled = true;
     private static int simplifyDistance = 16;
 
+    // Per-tick snapshot
+    @Nullable
+    private static ClientLevel level;
+    private static Vec3 playerPos = Vec3.ZERO;
+    private static boolean hasPlayer = false;
+    private static double fullPhysicsDistSq = 16.0 * 16.0;
+    private static double heightOnlyDistSq = 32.0 * 32.0;
+
+    // Column cache: packed x/z, ground height and the tick it was read in
+    private static final long[] columnKeys = new long[COLUMN_CACHE_SIZE];
+    private static final int[] columnHeights = new int[COLUMN_CACHE_SIZE];
+    private static final int[] columnStamps = new int[COLUMN_CACHE_SIZE];
+    private static int stamp = 1;
+    // Slots filled under the current stamp
+    private static int columnEntries = 0;
+    // Slots filled during the last complete tick, read by the metrics thread
+    private static volatile int columnEntriesLastTick = 0;
+
+    // Statistics
+    private static long columnHits = 0;
+    private static long columnMisses = 0;
+
     /**
      * Physics mode for particles.
      */
@@ -65,20 +112,21 @@ public class ParticlePhysicsOptimizer {
     }
 
     /**
-     * Get the physics mode for a particle at the given position.
-     * 
-     * @param x Particle X position
-     * @param y Particle Y position
-     * @param z Particle Z position
-     * @return The appropriate physics mode
+     * Take the per-tick snapshot (player position, distance tiers) and
+     * invalidate the column cache. Called before the particle engine ticks.
      */
-    @Nonnull
-    public static PhysicsMode getPhysicsMode(double x, double y, double z) {
+    public static void onTick() {
         if (!enabled) {
-            return PhysicsMode.FULL;
+            return;
         }
 
-        double distanceSq = getDistanceToPlayerSq(x, y, z);
+        Minecraft mc = Minecraft.getInstance();
+        level = mc.level;
+        LocalPlayer player = mc.player;
+        hasPlayer = player != null;
+        if (player != null) {
+            playerPos = player.position();
+        }
 
         // Dynamically adjust distance if adaptive limits are enabled
         int effectiveDistance = simplifyDistance;
@@ -88,16 +136,78 @@ public class ParticlePhysicsOptimizer {
             effectiveDistance = (int) (simplifyDistance * (1.0f - (stress * 0.5f)));
             effectiveDistance = Math.max(8, effectiveDistance); // Minimum 8 blocks
         }
+        fullPhysicsDistSq = (double) effectiveDistance * effectiveDistance;
+        double heightOnlyDistance = (double) effectiveDistance * NO_CLIP_DISTANCE_FACTOR;
+        heightOnlyDistSq = heightOnlyDistance * heightOnlyDistance;
 
-        int simplifyDistSq = effectiveDistance * effectiveDistance;
+        // Blocks may have changed since the last tick; a new stamp empties the cache
+        columnEntriesLastTick = columnEntries;
+        columnEntries = 0;
+        if (++stamp == 0) {
+            Arrays.fill(columnStamps, 0);
+            stamp = 1;
+        }
+    }
 
-        if (distanceSq <= simplifyDistSq) {
+    /**
+     * Get the physics mode for a particle at the given position.
+     * 
+     * @param x Particle X position
+     * @param y Particle Y position
+     * @param z Particle Z position
+     * @return The appropriate physics mode
+     */
+    @Nonnull
+    public static PhysicsMode getPhysicsMode(double x, double y, double z) {
+        if (!enabled || !hasPlayer) {
             return PhysicsMode.FULL;
         }
 
-        // For distant particles, use simplified physics
-        // Height-only is a good balance between performance and visual quality
-        return PhysicsMode.HEIGHT_ONLY;
+        double distanceSq = getDistanceToPlayerSq(x, y, z);
+        if (distanceSq <= fullPhysicsDistSq) {
+            return PhysicsMode.FULL;
+        }
+        if (distanceSq <= heightOnlyDistSq) {
+            return PhysicsMode.HEIGHT_ONLY;
+        }
+        return PhysicsMode.NO_CLIP;
+    }
+
+    /**
+     * Ground surface height of a block column: the Y just above the highest
+     * motion-blocking block, or {@link #NO_GROUND} if its chunk is not loaded.
+     */
+    public static int getGroundHeight(int blockX, int blockZ) {
+        long key = ChunkPos.asLong(blockX, blockZ);
+        int index = (int) HashCommon.mix(key) & COLUMN_CACHE_MASK;
+        if (columnStamps[index] == stamp && columnKeys[index] == key) {
+            columnHits++;
+            return columnHeights[index];
+        }
+
+        columnMisses++;
+        int height = readGroundHeight(blockX, blockZ);
+        if (columnStamps[index] != stamp) {
+            columnEntries++;
+        }
+        columnKeys[index] = key;
+        columnHeights[index] = height;
+        columnStamps[index] = stamp;
+        return height;
+    }
+
+    private static int readGroundHeight(int blockX, int blockZ) {
+        ClientLevel currentLevel = level;
+        if (currentLevel == null) {
+            return NO_GROUND;
+        }
+        LevelChunk chunk = currentLevel.getChunkSource().getChunk(SectionPos.blockToSectionCoord(blockX),
+                SectionPos.blockToSectionCoord(blockZ), false);
+        if (chunk == null) {
+            return NO_GROUND;
+        }
+        // getHeight returns the highest block itself; particles rest on top of it
+        return chunk.getHeight(Heightmap.Types.MOTION_BLOCKING, blockX & 15, blockZ & 15) + 1;
     }
 
     /**
@@ -155,39 +265,61 @@ public class ParticlePhysicsOptimizer {
     }
 
     /**
-     * Simple ground level estimation.
-     * Uses current Y minus some offset as a quick approximation.
+     * Ground level below a position, from the column cache.
+     * Positions below the surface (caves, under overhangs) have no ground;
+     * they fall freely, which is imperceptible at simplified-physics distances.
      */
     public static double estimateGroundLevel(double x, double y, double z) {
-        // Rough estimate: assume ground is at Y=64 (sea level) or lower
-        // This is intentionally simple for performance
-        return Math.min(64.0, y - 16.0);
+        int ground = getGroundHeight((int) Math.floor(x), (int) Math.floor(z));
+        if (ground == NO_GROUND || y < ground) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return ground;
     }
 
     /**
-     * Get squared distance from position to local player.
+     * Get squared distance from position to the local player as of this tick.
      */
     private static double getDistanceToPlayerSq(double x, double y, double z) {
-        Minecraft mc = Minecraft.getInstance();
-        @Nullable
-        LocalPlayer player = mc.player;
-        if (player == null) {
-            return 0;
-        }
-
-        @Nonnull
-        Vec3 playerPos = player.position();
         double dx = x - playerPos.x;
         double dy = y - playerPos.y;
         double dz = z - playerPos.z;
         return dx * dx + dy * dy + dz * dz;
     }
 
+    /**
+     * Forget the level snapshot (the particle engine was cleared).
+     */
+    public static void clear() {
+        level = null;
+        hasPlayer = false;
+        Arrays.fill(columnStamps, 0);
+        columnEntries = 0;
+        columnEntriesLastTick = 0;
+    }
+
+    public static long getColumnHits() {
+        return columnHits;
+    }
+
+    public static long getColumnMisses() {
+        return columnMisses;
+    }
+
+    /**
+     * Columns cached during the last particle tick (the cache is emptied
+     * every tick). Safe to call from any thread.
+     */
+    public static int getColumnCacheSize() {
+        return columnEntriesLastTick;
+    }
+
     /**
      * Get debug statistics.
      */
     @Nonnull
     public static String getDebugStats() {
-        return "ParticlePhysics: simplified beyond " + simplifyDistance + " blocks, enabled=" + enabled;
+        return "ParticlePhysics: simplified beyond " + simplifyDistance + " blocks, no-clip beyond "
+                + simplifyDistance * NO_CLIP_DISTANCE_FACTOR + " blocks, enabled=" + enabled;
     }
 }
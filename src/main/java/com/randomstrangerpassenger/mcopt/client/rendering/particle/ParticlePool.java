@@ -0,0 +1,215 @@
+package com.randomstrangerpassenger.mcopt.client.rendering.particle;
+
+import com.randomstrangerpassenger.mcopt.config.PerformanceConfig;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.particle.CritParticle;
+import net.minecraft.client.particle.DustParticle;
+import net.minecraft.client.particle.FlameParticle;
+import net.minecraft.client.particle.Particle;
+import net.minecraft.client.particle.PortalParticle;
+import net.minecraft.client.particle.SmokeParticle;
+import net.minecraft.client.particle.SplashParticle;
+import net.minecraft.core.particles.ParticleOptions;
+import net.minecraft.core.particles.ParticleType;
+import net.minecraft.core.particles.ParticleTypes;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * Recycles removed particles of the highest-volume vanilla types.
+ *
+ * <p>
+ * Smoke, flame, splash, dust, crit and portal particles make up most of what
+ * rain, fires, explosions and portals spawn. Instead of allocating a new
+ * object for each, {@code ParticleEngine} takes a removed instance of the same
+ * type from here and re-initializes it (see {@code ParticlePoolMixin}, which
+ * mirrors the vanilla constructors).
+ * </p>
+ *
+ * <p>
+ * <strong>Safety:</strong> Only particles whose class is exactly the vanilla
+ * class for their type are pooled, so particles from replaced providers are
+ * never touched. A removed particle waits two engine ticks before it can be
+ * reused; by then the engine has dropped it from its lists. Pools are emptied when the engine is cleared for a new level, since a
+ * particle cannot move to another level.
+ * </p>
+ *
+ * <p>
+ * <strong>Threading:</strong> Client thread only, like the particle engine,
+ * except {@link #getPooledCount()} which the metrics exporter reads.
+ * </p>
+ */
+@SuppressWarnings("null")
+public class ParticlePool {
+
+    private static final int MAX_POOLED_PER_TYPE = 1024;
+
+    /**
+     * Holder for the pooled vanilla classes, so the particle classes are only
+     * loaded once a particle is actually created on the client.
+     */
+    private static final class VanillaClasses {
+        static final Map<ParticleType<?>, Class<?>> BY_TYPE = Map.of(
+                ParticleTypes.SMOKE, SmokeParticle.class,
+                ParticleTypes.FLAME, FlameParticle.class,
+                ParticleTypes.SPLASH, SplashParticle.class,
+                ParticleTypes.DUST, DustParticle.class,
+                ParticleTypes.CRIT, CritParticle.class,
+                ParticleTypes.PORTAL, PortalParticle.class);
+    }
+
+    // Cached config values
+    private static boolean enabled = true;
+
+    private static final Reference2ObjectOpenHashMap<ParticleType<?>, ArrayDeque<Particle>> pools = new Reference2ObjectOpenHashMap<>();
+    // Removed this tick / last tick; promoted to the pools once the engine has dropped them
+    private static ArrayList<Particle> pending = new ArrayList<>();
+    private static ArrayList<Particle> cooling = new ArrayList<>();
+    // Total size of all pools; written by the client thread, read by the metrics thread
+    private static volatile int pooledCount = 0;
+
+    // Statistics
+    private static long reused = 0;
+    private static long allocated = 0;
+    private static long discarded = 0;
+
+    /**
+     * Refresh configuration cache.
+     */
+    public static void refreshConfigCache() {
+        enabled = PerformanceConfig.ENABLE_OBJECT_POOLING.get();
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Take a pooled particle for these options and re-initialize it.
+     *
+     * @return The recycled particle, or null if the engine should create one
+     */
+    @Nullable
+    public static Particle acquire(@Nonnull ParticleOptions options, double x, double y, double z,
+            double xd, double yd, double zd) {
+        if (!enabled) {
+            return null;
+        }
+        ArrayDeque<Particle> pool = pools.get(options.getType());
+        if (pool == null) {
+            return null;
+        }
+
+        Particle particle = pool.pollLast();
+        if (particle == null) {
+            return null;
+        }
+        pooledCount--;
+        ((MCOptPooledParticle) particle).mcopt$reinit(options, x, y, z, xd, yd, zd);
+        reused++;
+        return particle;
+    }
+
+    /**
+     * Mark a particle the engine just created as poolable if it is a plain
+     * vanilla particle of a pooled type.
+     */
+    public static void onCreated(@Nonnull ParticleOptions options, @Nonnull Particle particle) {
+        if (!enabled) {
+            return;
+        }
+        ParticleType<?> type = options.getType();
+        if (VanillaClasses.BY_TYPE.get(type) == particle.getClass()) {
+            ((MCOptPooledParticle) particle).mcopt$setPoolType(type);
+            allocated++;
+        }
+    }
+
+    /**
+     * A poolable particle was removed. It becomes reusable after the
+     * quarantine.
+     */
+    public static void release(@Nonnull Particle particle) {
+        if (enabled) {
+            pending.add(particle);
+        }
+    }
+
+    /**
+     * Move particles that finished their quarantine into the pools. Called
+     * before the particle engine ticks.
+     */
+    public static void onEngineTick() {
+        if (!cooling.isEmpty()) {
+            ClientLevel level = Minecraft.getInstance().level;
+            for (int i = 0, size = cooling.size(); i < size; i++) {
+                Particle particle = cooling.get(i);
+                ParticleType<?> type = ((MCOptPooledParticle) particle).mcopt$getPoolType();
+                ArrayDeque<Particle> pool = pools.computeIfAbsent(type, t -> new ArrayDeque<>());
+                // Reinitializing keeps the level, so only particles of the current level are kept
+                if (pool.size() < MAX_POOLED_PER_TYPE && !particle.isAlive() && isInLevel(particle, level)) {
+                    pool.addLast(particle);
+                    pooledCount++;
+                } else {
+                    discarded++;
+                }
+            }
+            cooling.clear();
+        }
+
+        ArrayList<Particle> swap = cooling;
+        cooling = pending;
+        pending = swap;
+    }
+
+    private static boolean isInLevel(Particle particle, @Nullable ClientLevel level) {
+        return level != null && ((MCOptPooledParticle) particle).mcopt$isInLevel(level);
+    }
+
+    /**
+     * Drop every pooled and quarantined particle (level change, feature disabled).
+     */
+    public static void clear() {
+        pools.clear();
+        pending.clear();
+        cooling.clear();
+        pooledCount = 0;
+    }
+
+    /**
+     * Number of particles waiting in the pools. Safe to call from any thread.
+     */
+    public static int getPooledCount() {
+        return pooledCount;
+    }
+
+    public static long getReused() {
+        return reused;
+    }
+
+    public static long getAllocated() {
+        return allocated;
+    }
+
+    public static long getDiscarded() {
+        return discarded;
+    }
+
+    /**
+     * Get debug statistics.
+     */
+    @Nonnull
+    public static String getDebugStats() {
+        return String.format("ParticlePool: %d pooled, %d reused, %d allocated", getPooledCount(), reused,
+                allocated);
+    }
+}
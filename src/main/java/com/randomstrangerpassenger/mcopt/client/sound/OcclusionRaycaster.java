@@ -0,0 +1,223 @@
+package com.randomstrangerpassenger.mcopt.client.sound;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.core.SectionPos;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+import javax.annotation.Nullable;
+
+/**
+ * Voxel ray attenuation between a listener and a sound source.
+ * <p>
+ * Split in two halves so the expensive part can run off the render thread:
+ * {@link #weighSection} turns a live chunk section into an immutable array of
+ * per-block occlusion weights (client thread only), and {@link #trace} walks
+ * the ray through those arrays with a 3D DDA (any thread).
+ * </p>
+ * <p>
+ * Weights are in quarter blocks: an opaque full block is 4, wool is 6 since it
+ * is made to absorb sound, glass-like solids are 2, leaves and liquids 1.
+ * </p>
+ */
+final class OcclusionRaycaster {
+
+    static final int OPAQUE_WEIGHT = 4;
+
+    // Returned by weighSection for loaded sections that contain nothing that occludes
+    static final byte[] AIR_SECTION = new byte[0];
+
+    // Fraction of loudness that passes through one opaque block
+    private static final double BLOCK_TRANSMISSION = 0.7;
+
+    // Never fully silence a sound; completely muted sources read as bugs
+    private static final float MIN_FACTOR = 0.2f;
+
+    private OcclusionRaycaster() {
+        // Utility class
+    }
+
+    /**
+     * Immutable view of the section weights covering a ray.
+     *
+     * @param minSectionX lowest section X in {@code sections}
+     * @param minSectionY lowest section Y in {@code sections}
+     * @param minSectionZ lowest section Z in {@code sections}
+     * @param sizeX       sections along X
+     * @param sizeY       sections along Y
+     * @param sizeZ       sections along Z
+     * @param sections    weights per section (x-major, then y, then z); null entries are
+     *                    air or sections the ray does not cross
+     */
+    record Snapshot(int minSectionX, int minSectionY, int minSectionZ, int sizeX, int sizeY, int sizeZ,
+            byte[][] sections) {
+
+        int weightAt(int x, int y, int z) {
+            int sx = SectionPos.blockToSectionCoord(x) - minSectionX;
+            int sy = SectionPos.blockToSectionCoord(y) - minSectionY;
+            int sz = SectionPos.blockToSectionCoord(z) - minSectionZ;
+            if (sx < 0 || sy < 0 || sz < 0 || sx >= sizeX || sy >= sizeY || sz >= sizeZ) {
+                return 0;
+            }
+
+            byte[] weights = sections[(sx * sizeY + sy) * sizeZ + sz];
+            return weights == null || weights.length == 0 ? 0 : weights[localIndex(x, y, z)];
+        }
+    }
+
+    static int localIndex(int x, int y, int z) {
+        return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+    }
+
+    /**
+     * Visits the voxels between two points.
+     */
+    @FunctionalInterface
+    interface VoxelVisitor {
+        void visit(int x, int y, int z);
+    }
+
+    /**
+     * Copies the occlusion weights of one section. Must run on the client thread.
+     *
+     * @return the weights, {@link #AIR_SECTION} if the section is only air, or
+     *         null if its chunk is not loaded yet
+     */
+    @Nullable
+    static byte[] weighSection(ClientLevel level, long sectionPos) {
+        int sectionX = SectionPos.x(sectionPos);
+        int sectionY = SectionPos.y(sectionPos);
+        int sectionZ = SectionPos.z(sectionPos);
+
+        LevelChunk chunk = level.getChunkSource().getChunk(sectionX, sectionZ, false);
+        if (chunk == null) {
+            return null;
+        }
+
+        int index = chunk.getSectionIndexFromSectionY(sectionY);
+        if (index < 0 || index >= chunk.getSectionsCount()) {
+            return AIR_SECTION;
+        }
+
+        LevelChunkSection section = chunk.getSection(index);
+        if (section.hasOnlyAir()) {
+            return AIR_SECTION;
+        }
+
+        byte[] weights = new byte[16 * 16 * 16];
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    weights[localIndex(x, y, z)] = (byte) weightOf(section.getBlockState(x, y, z));
+                }
+            }
+        }
+        return weights;
+    }
+
+    static int weightOf(BlockState state) {
+        if (state.isAir()) {
+            return 0;
+        }
+        if (state.is(BlockTags.WOOL)) {
+            return 6;
+        }
+        if (state.canOcclude()) {
+            return OPAQUE_WEIGHT;
+        }
+        if (state.is(BlockTags.LEAVES) || !state.getFluidState().isEmpty()) {
+            return 1;
+        }
+        return state.blocksMotion() ? 2 : 0;
+    }
+
+    /**
+     * Walks the voxels between listener and source and turns the summed weight
+     * into a volume multiplier. The listener's and the source's own blocks are
+     * not counted, so a sound emitted by a block is not muffled by that block.
+     *
+     * @return volume multiplier in [{@value #MIN_FACTOR}, 1]
+     */
+    static float trace(Snapshot snapshot, double fromX, double fromY, double fromZ,
+            double toX, double toY, double toZ) {
+        int[] weight = new int[1];
+        walk(fromX, fromY, fromZ, toX, toY, toZ, (x, y, z) -> weight[0] += snapshot.weightAt(x, y, z));
+
+        if (weight[0] == 0) {
+            return 1.0f;
+        }
+        return (float) Math.max(MIN_FACTOR, Math.pow(BLOCK_TRANSMISSION, weight[0] / (double) OPAQUE_WEIGHT));
+    }
+
+    /**
+     * The sections {@link #trace} reads for this ray, in walk order and without
+     * duplicates (a DDA walk never returns to a section it left).
+     */
+    static LongArrayList sectionsOnRay(double fromX, double fromY, double fromZ,
+            double toX, double toY, double toZ) {
+        LongArrayList sections = new LongArrayList();
+        walk(fromX, fromY, fromZ, toX, toY, toZ, (x, y, z) -> {
+            long section = SectionPos.asLong(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(y),
+                    SectionPos.blockToSectionCoord(z));
+            if (sections.isEmpty() || sections.getLong(sections.size() - 1) != section) {
+                sections.add(section);
+            }
+        });
+        return sections;
+    }
+
+    /**
+     * 3D DDA over the voxels strictly between the start and end voxels.
+     */
+    static void walk(double fromX, double fromY, double fromZ, double toX, double toY, double toZ,
+            VoxelVisitor visitor) {
+        int x = floor(fromX);
+        int y = floor(fromY);
+        int z = floor(fromZ);
+        int endX = floor(toX);
+        int endY = floor(toY);
+        int endZ = floor(toZ);
+
+        double dx = toX - fromX;
+        double dy = toY - fromY;
+        double dz = toZ - fromZ;
+
+        int stepX = Integer.signum(endX - x);
+        int stepY = Integer.signum(endY - y);
+        int stepZ = Integer.signum(endZ - z);
+
+        // Ray parameter at which the next cell boundary is crossed, and per-cell increment
+        double deltaX = stepX == 0 ? Double.MAX_VALUE : Math.abs(1.0 / dx);
+        double deltaY = stepY == 0 ? Double.MAX_VALUE : Math.abs(1.0 / dy);
+        double deltaZ = stepZ == 0 ? Double.MAX_VALUE : Math.abs(1.0 / dz);
+        double maxX = stepX == 0 ? Double.MAX_VALUE : deltaX * (stepX > 0 ? (x + 1 - fromX) : (fromX - x));
+        double maxY = stepY == 0 ? Double.MAX_VALUE : deltaY * (stepY > 0 ? (y + 1 - fromY) : (fromY - y));
+        double maxZ = stepZ == 0 ? Double.MAX_VALUE : deltaZ * (stepZ > 0 ? (z + 1 - fromZ) : (fromZ - z));
+
+        int steps = Math.abs(endX - x) + Math.abs(endY - y) + Math.abs(endZ - z);
+        for (int i = 0; i < steps; i++) {
+            if (maxX < maxY && maxX < maxZ) {
+                x += stepX;
+                maxX += deltaX;
+            } else if (maxY < maxZ) {
+                y += stepY;
+                maxY += deltaY;
+            } else {
+                z += stepZ;
+                maxZ += deltaZ;
+            }
+
+            if (x == endX && y == endY && z == endZ) {
+                break;
+            }
+            visitor.visit(x, y, z);
+        }
+    }
+
+    private static int floor(double value) {
+        return (int) Math.floor(value);
+    }
+}
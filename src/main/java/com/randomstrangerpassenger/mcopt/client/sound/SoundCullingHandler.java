@@ -1,12 +1,12 @@
 package com.randomstrangerpassenger.mcopt.client.sound;
 
-import com.randomstrangerpassenger.mcopt.MCOPT;
 import com.randomstrangerpassenger.mcopt.config.SoundConfig;
 import net.minecraft.client.resources.sounds.SoundInstance;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.phys.Vec3;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -17,6 +17,12 @@ import java.util.concurrent.ConcurrentHashMap;
  * redundant,
  * preserving the vanilla audio experience while reducing processing overhead.
  * </p>
+ * <p>
+ * <strong>Allocation-free:</strong> Recent sounds are kept per sound id in a
+ * fixed-size ring of primitive arrays. A duplicate check is a bounded loop over
+ * at most {@link #RING_SIZE} slots, and expired slots are simply overwritten,
+ * so redstone clocks and mob farms cost no garbage on the client thread.
+ * </p>
  */
 @SuppressWarnings("null")
 public final class SoundCullingHandler {
@@ -25,25 +31,39 @@ public final class SoundCullingHandler {
         // Utility class
     }
 
+    // Recent sounds per id. Must hold at least the max of maxDuplicates (16); when
+    // more distinct sounds than this play within the window, the oldest are forgotten
+    private static final int RING_SIZE = 16;
+
+    // A registered sound counts toward the duplicate limit for 1 second
+    private static final long DUPLICATE_WINDOW_TICKS = 20;
+
     // Track active sounds by type for duplicate limiting
-    private static final Map<ResourceLocation, List<SoundEntry>> activeSounds = new ConcurrentHashMap<>();
-    private static long lastCleanupTick = 0;
+    private static final Map<ResourceLocation, SoundRing> activeSounds = new ConcurrentHashMap<>();
 
     // Cached config values
+    private static boolean enabled = true;
     private static double minVolume = 0.01;
     private static int maxDuplicates = 4;
-    private static double duplicateRadius = 16.0;
-    private static int cleanupInterval = 10;
+    private static double duplicateRadiusSqr = 16.0 * 16.0;
 
     /**
      * Refresh cached config values.
      * Call this when config is reloaded.
      */
     public static void refreshConfigCache() {
+        enabled = SoundConfig.ENABLE_SOUND_OPTIMIZATIONS.get();
         minVolume = SoundConfig.MINIMUM_AUDIBLE_VOLUME.get();
         maxDuplicates = SoundConfig.MAX_DUPLICATE_SOUNDS.get();
-        duplicateRadius = SoundConfig.DUPLICATE_SOUND_RADIUS.get();
-        cleanupInterval = SoundConfig.DUPLICATE_CHECK_INTERVAL_TICKS.get();
+        double duplicateRadius = SoundConfig.DUPLICATE_SOUND_RADIUS.get();
+        duplicateRadiusSqr = duplicateRadius * duplicateRadius;
+    }
+
+    /**
+     * Check if sound optimizations are enabled.
+     */
+    public static boolean isEnabled() {
+        return enabled;
     }
 
     /**
@@ -55,39 +75,37 @@ public final class SoundCullingHandler {
      * @return true if sound should be culled (not played), false otherwise
      */
     public static boolean shouldCullSound(SoundInstance sound, Vec3 listenerPos, long currentTick) {
-        if (!SoundConfig.ENABLE_SOUND_OPTIMIZATIONS.get()) {
+        if (!enabled) {
             return false;
         }
 
-        // Periodic cleanup of old sound entries
-        if (currentTick - lastCleanupTick >= cleanupInterval) {
-            cleanupOldEntries(currentTick);
-            lastCleanupTick = currentTick;
-        }
+        double x = sound.getX();
+        double y = sound.getY();
+        double z = sound.getZ();
+        double dx = x - listenerPos.x;
+        double dy = y - listenerPos.y;
+        double dz = z - listenerPos.z;
+        double listenerDistSqr = dx * dx + dy * dy + dz * dz;
 
         // 1. Volume-based culling: skip sounds that are too quiet to hear
-        if (shouldCullByVolume(sound, listenerPos)) {
-            MCOPT.LOGGER.debug("[SoundCull] Culled inaudible sound: {} (volume too low)",
-                    sound.getLocation());
+        if (shouldCullByVolume(sound, listenerDistSqr)) {
             return true;
         }
 
-        // 2. Duplicate sound limiting: limit identical sounds in same area
-        if (shouldCullAsDuplicate(sound, listenerPos, currentTick)) {
-            MCOPT.LOGGER.debug("[SoundCull] Culled duplicate sound: {} (max {} reached)",
-                    sound.getLocation(), maxDuplicates);
-            return true;
+        // 2. Duplicate sound limiting: limit identical sounds in same area.
+        // Sounds that pass are registered in the same locked pass.
+        ResourceLocation soundId = sound.getLocation();
+        SoundRing ring = activeSounds.get(soundId);
+        if (ring == null) {
+            ring = activeSounds.computeIfAbsent(soundId, id -> new SoundRing());
         }
-
-        // Sound passed all checks - register it for duplicate tracking
-        registerSound(sound, listenerPos, currentTick);
-        return false;
+        return ring.cullOrRegister(x, y, z, listenerPos, listenerDistSqr, currentTick);
     }
 
     /**
      * Check if sound should be culled due to effectively zero volume.
      */
-    private static boolean shouldCullByVolume(SoundInstance sound, Vec3 listenerPos) {
+    private static boolean shouldCullByVolume(SoundInstance sound, double listenerDistSqr) {
         float volume = sound.getVolume();
 
         // Base volume check
@@ -97,97 +115,85 @@ public final class SoundCullingHandler {
 
         // Distance attenuation check
         // Minecraft uses linear attenuation: volume decreases with distance
-        double distance = listenerPos.distanceTo(new Vec3(sound.getX(), sound.getY(), sound.getZ()));
         float attenuationDistance = sound.getAttenuation() == SoundInstance.Attenuation.LINEAR
                 ? 16.0f // Default attenuation distance
                 : 1.0f;
 
         // Calculate effective volume after distance attenuation
-        double effectiveVolume = volume * Math.max(0, 1.0 - (distance / attenuationDistance));
+        double effectiveVolume = volume * Math.max(0, 1.0 - (Math.sqrt(listenerDistSqr) / attenuationDistance));
 
         return effectiveVolume < minVolume;
     }
 
     /**
-     * Check if sound should be culled as a duplicate.
-     * Limits the number of identical sounds playing simultaneously in an area.
+     * Clear all tracked sounds. Called when world unloads.
      */
-    private static boolean shouldCullAsDuplicate(SoundInstance sound, Vec3 listenerPos, long currentTick) {
-        ResourceLocation soundId = sound.getLocation();
-        List<SoundEntry> entries = activeSounds.get(soundId);
+    public static void clearAllSounds() {
+        activeSounds.clear();
+    }
 
-        if (entries == null || entries.isEmpty()) {
-            return false;
+    /**
+     * Fixed-size ring of recent sound positions and ticks for one sound id.
+     * <p>
+     * Parallel primitive arrays instead of entry objects; the oldest slot is
+     * overwritten on every registration, so no cleanup pass is needed.
+     * </p>
+     */
+    private static final class SoundRing {
+        private final double[] x = new double[RING_SIZE];
+        private final double[] y = new double[RING_SIZE];
+        private final double[] z = new double[RING_SIZE];
+        private final long[] tick = new long[RING_SIZE];
+        private int head;
+
+        SoundRing() {
+            // Mark every slot as expired
+            Arrays.fill(tick, Long.MIN_VALUE / 2);
         }
 
-        Vec3 soundPos = new Vec3(sound.getX(), sound.getY(), sound.getZ());
-
-        // Count how many of this sound type are playing nearby
-        int nearbyCount = 0;
-        double closestDistance = Double.MAX_VALUE;
-
-        synchronized (entries) {
-            for (SoundEntry entry : entries) {
+        /**
+         * Limits the number of identical sounds playing simultaneously in an area.
+         * If the limit is reached, the new sound is culled when it is farther from
+         * the listener than the closest tracked one; otherwise it is recorded.
+         *
+         * @return true if the sound should be culled
+         */
+        synchronized boolean cullOrRegister(double sx, double sy, double sz, Vec3 listenerPos,
+                double listenerDistSqr, long currentTick) {
+            // Count how many of this sound type are playing nearby
+            int nearbyCount = 0;
+            double closestDistSqr = Double.MAX_VALUE;
+
+            for (int i = 0; i < RING_SIZE; i++) {
                 // Skip expired entries
-                if (currentTick - entry.tick > 20) { // 1 second expiry
+                if (currentTick - tick[i] > DUPLICATE_WINDOW_TICKS) {
                     continue;
                 }
 
-                Vec3 entryPos = java.util.Objects.requireNonNull(entry.position, "Entry position cannot be null");
-                double dist = entryPos.distanceTo(soundPos);
-                if (dist < duplicateRadius) {
+                double dx = x[i] - sx;
+                double dy = y[i] - sy;
+                double dz = z[i] - sz;
+                if (dx * dx + dy * dy + dz * dz < duplicateRadiusSqr) {
                     nearbyCount++;
-                    closestDistance = Math.min(closestDistance, entry.position.distanceTo(listenerPos));
+                    double lx = x[i] - listenerPos.x;
+                    double ly = y[i] - listenerPos.y;
+                    double lz = z[i] - listenerPos.z;
+                    closestDistSqr = Math.min(closestDistSqr, lx * lx + ly * ly + lz * lz);
                 }
             }
-        }
-
-        // If we've reached max duplicates, cull sounds farther from player
-        if (nearbyCount >= maxDuplicates) {
-            double newSoundDistance = listenerPos.distanceTo(soundPos);
-            // Only cull if this sound is farther than the closest existing one
-            return newSoundDistance > closestDistance;
-        }
-
-        return false;
-    }
-
-    /**
-     * Register a sound for duplicate tracking.
-     */
-    private static void registerSound(SoundInstance sound, Vec3 listenerPos, long currentTick) {
-        ResourceLocation soundId = sound.getLocation();
-        Vec3 soundPos = new Vec3(sound.getX(), sound.getY(), sound.getZ());
-
-        activeSounds.computeIfAbsent(soundId, k -> Collections.synchronizedList(new ArrayList<>()))
-                .add(new SoundEntry(soundPos, currentTick));
-    }
 
-    /**
-     * Clean up old sound entries to prevent memory leaks.
-     */
-    private static void cleanupOldEntries(long currentTick) {
-        activeSounds.forEach((id, entries) -> {
-            synchronized (entries) {
-                entries.removeIf(entry -> currentTick - entry.tick > 40); // 2 second expiry
+            // If we've reached max duplicates, cull sounds farther from player
+            if (nearbyCount >= maxDuplicates && listenerDistSqr > closestDistSqr) {
+                return true;
             }
-        });
-
-        // Remove empty lists
-        activeSounds.entrySet().removeIf(entry -> entry.getValue().isEmpty());
-    }
-
-    /**
-     * Clear all tracked sounds. Called when world unloads.
-     */
-    public static void clearAllSounds() {
-        activeSounds.clear();
-        lastCleanupTick = 0;
-    }
 
-    /**
-     * Simple record to track sound positions and timing.
-     */
-    private record SoundEntry(Vec3 position, long tick) {
+            // Sound passed all checks - register it for duplicate tracking
+            x[head] = sx;
+            y[head] = sy;
+            z[head] = sz;
+            tick[head] = currentTick;
+            head = (head + 1) % RING_SIZE;
+            return false;
+        }
     }
 }
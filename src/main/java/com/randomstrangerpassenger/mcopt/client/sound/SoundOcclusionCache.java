@@ -1,246 +1,433 @@
 package com.randomstrangerpassenger.mcopt.client.sound;
 
 import com.randomstrangerpassenger.mcopt.config.SoundConfig;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
 import net.minecraft.client.Minecraft;
-import net.minecraft.client.player.LocalPlayer;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.resources.sounds.SoundInstance;
 import net.minecraft.core.BlockPos;
-import net.minecraft.resources.ResourceLocation;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.Vec3;
 
 import javax.annotation.Nonnull;
-import javax.annotation.Nullable;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
- * Caches sound occlusion calculation results to reduce raycast overhead.
+ * Computes sound occlusion asynchronously and caches the result per source
+ * position.
  * 
  * <p>
- * Repeated sounds at the same position (water, lava, fire, etc.) reuse
- * cached occlusion values instead of recalculating each time.
+ * The occlusion factor is a volume multiplier from a voxel ray between the
+ * listener and the source ({@link OcclusionRaycaster}). The ray is traced on a
+ * worker thread against immutable snapshots of the chunk sections its DDA walk
+ * visits; the sound engine only ever reads the latest known factor, so
+ * playing a sound never waits for a raycast. A source without a result yet plays at
+ * full volume, exactly like vanilla.
  * </p>
  * 
  * <p>
  * <strong>Cache Invalidation:</strong>
  * </p>
  * <ul>
- * <li>Player moves more than 2 blocks</li>
- * <li>Cache entry older than 20 ticks</li>
+ * <li>A block changes within a block of the cached ray (and its section snapshot is dropped)</li>
+ * <li>A chunk under the cached ray loads (and its section snapshots are dropped)</li>
+ * <li>The listener moves to a different cell ({@code invalidateDistance} blocks wide)</li>
+ * <li>Cache entry older than {@code cacheDurationTicks} (safety net for missed updates)</li>
  * <li>World unload</li>
  * </ul>
+ * Stale entries keep serving their last factor while a new one is computed.
  * 
  * <p>
- * <strong>Immersion First:</strong> Occlusion results are cached, not skipped.
- * Sound behavior is identical to vanilla, just computed less frequently.
+ * <strong>Threading:</strong> Everything except the trace itself runs on the
+ * client thread; finished traces come back through a queue drained there.
  * </p>
  */
 @SuppressWarnings("null")
 public class SoundOcclusionCache {
 
+    // Sounds farther than this are quiet enough that occlusion is not worth a trace
+    private static final int MAX_RANGE = 48;
+    private static final int MAX_ENTRIES = 2048;
+    private static final int MAX_PENDING = 64;
+
     // Cached config values
     private static boolean enabled = true;
+    private static boolean cachingEnabled = true;
     private static int cacheDurationTicks = 20;
     private static double invalidateDistance = 2.0;
 
-    // Cache storage
-    private static final Map<CacheKey, OcclusionResult> cache = new ConcurrentHashMap<>();
-
-    // Player position tracking for invalidation
-    private static double lastPlayerX = 0;
-    private static double lastPlayerY = 0;
-    private static double lastPlayerZ = 0;
-    private static long lastCheckTick = 0;
+    // Client thread only
+    private static final Long2ObjectOpenHashMap<OcclusionEntry> cache = new Long2ObjectOpenHashMap<>();
+    private static final Long2ObjectOpenHashMap<byte[]> sectionWeights = new Long2ObjectOpenHashMap<>();
+    private static int pendingCount = 0;
+    private static long lastCleanupTick = 0;
+
+    // Worker -> client thread
+    private static final ConcurrentLinkedQueue<TraceResult> completed = new ConcurrentLinkedQueue<>();
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MCOPT-SoundOcclusion");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    // Statistics
+    private static long hits = 0;
+    private static long misses = 0;
 
     /**
-     * Cache key combining sound position and type.
+     * Cached occlusion for one source block.
      */
-    private record CacheKey(BlockPos pos, ResourceLocation soundId) {
+    private static final class OcclusionEntry {
+        float factor = 1.0f;
+        boolean hasResult;
+        long listenerCell;
+        long computedTick;
+
+        // Bumped on every invalidation so results of in-flight traces can be recognised as stale
+        int generation;
+        boolean dirty;
+        boolean pending;
+
+        // Ray of the last request, for block change checks
+        double sourceX, sourceY, sourceZ;
+        double listenerX, listenerY, listenerZ;
     }
 
-    /**
-     * Cached occlusion result.
-     */
-    private static class OcclusionResult {
-        final float occlusionFactor;
-        final long cacheTick;
-
-        OcclusionResult(float factor, long tick) {
-            this.occlusionFactor = factor;
-            this.cacheTick = tick;
-        }
-
-        boolean isExpired(long currentTick) {
-            return (currentTick - cacheTick) > cacheDurationTicks;
-        }
+    private record TraceResult(long sourceKey, long listenerCell, int generation, float factor) {
     }
 
     /**
      * Refresh configuration cache.
      */
     public static void refreshConfigCache() {
-        enabled = SoundConfig.ENABLE_OCCLUSION_CACHING.get();
+        enabled = SoundConfig.ENABLE_SOUND_OCCLUSION.get();
+        cachingEnabled = SoundConfig.ENABLE_OCCLUSION_CACHING.get();
         cacheDurationTicks = SoundConfig.OCCLUSION_CACHE_DURATION_TICKS.get();
         invalidateDistance = SoundConfig.OCCLUSION_CACHE_INVALIDATE_DISTANCE.get();
     }
 
     /**
-     * Check if occlusion caching is enabled.
+     * Check if sound occlusion is enabled.
      */
     public static boolean isEnabled() {
         return enabled;
     }
 
     /**
-     * Get cached occlusion factor for a sound, or null if not cached.
+     * Get the latest known occlusion factor for a sound, scheduling a new trace
+     * if there is none or it is stale. Never blocks.
      * 
-     * @param pos     Sound block position
-     * @param soundId Sound resource location
-     * @return Cached occlusion factor (0.0-1.0), or null if not cached/expired
+     * @param sound The sound whose volume is being calculated
+     * @return Volume multiplier (0.0-1.0); 1.0 when unknown or not applicable
      */
-    @Nullable
-    public static Float getCachedOcclusion(@Nonnull BlockPos pos, @Nonnull ResourceLocation soundId) {
-        if (!enabled) {
-            return null;
+    public static float getOcclusionFactor(@Nonnull SoundInstance sound) {
+        if (!enabled || sound.isRelative() || sound.getAttenuation() == SoundInstance.Attenuation.NONE) {
+            return 1.0f;
         }
 
         Minecraft mc = Minecraft.getInstance();
-        if (mc.level == null) {
-            return null;
+        ClientLevel level = mc.level;
+        if (level == null || !mc.isSameThread()) {
+            return 1.0f;
         }
 
-        long currentTick = mc.level.getGameTime();
+        drainCompleted(level.getGameTime());
+
+        Vec3 listener = mc.gameRenderer.getMainCamera().getPosition();
+        double sx = sound.getX();
+        double sy = sound.getY();
+        double sz = sound.getZ();
+        double dx = sx - listener.x;
+        double dy = sy - listener.y;
+        double dz = sz - listener.z;
+        if (dx * dx + dy * dy + dz * dz > MAX_RANGE * MAX_RANGE) {
+            return 1.0f;
+        }
 
-        // Check if player moved too much (invalidates all cache)
-        if (hasPlayerMovedTooMuch()) {
-            clearCache();
-            updatePlayerPosition();
-            return null;
+        long sourceKey = BlockPos.asLong(floor(sx), floor(sy), floor(sz));
+        long listenerCell = listenerCell(listener);
+        long currentTick = level.getGameTime();
+
+        OcclusionEntry entry = cache.get(sourceKey);
+        if (entry == null) {
+            if (cache.size() >= MAX_ENTRIES) {
+                misses++;
+                return 1.0f;
+            }
+            entry = new OcclusionEntry();
+            cache.put(sourceKey, entry);
         }
 
-        // Look up cached result
-        CacheKey key = new CacheKey(pos, soundId);
-        @Nullable
-        OcclusionResult result = cache.get(key);
+        boolean fresh = entry.hasResult && !entry.dirty && entry.listenerCell == listenerCell
+                && currentTick - entry.computedTick <= effectiveDurationTicks();
+        if (fresh) {
+            hits++;
+        } else {
+            misses++;
+            if (!entry.pending) {
+                requestTrace(level, entry, sourceKey, listenerCell, listener, sx, sy, sz);
+            }
+        }
 
-        if (result == null) {
-            return null;
+        return entry.factor;
+    }
+
+    /**
+     * Called on the client thread when a block changes. Drops the section
+     * snapshot and invalidates every cached ray passing near the block.
+     */
+    public static void onBlockChanged(@Nonnull BlockPos pos, @Nonnull BlockState oldState,
+            @Nonnull BlockState newState) {
+        if (!enabled || OcclusionRaycaster.weightOf(oldState) == OcclusionRaycaster.weightOf(newState)) {
+            return;
         }
 
-        // Check if expired
-        if (result.isExpired(currentTick)) {
-            cache.remove(key);
-            return null;
+        sectionWeights.remove(SectionPos.asLong(pos));
+
+        double px = pos.getX() + 0.5;
+        double py = pos.getY() + 0.5;
+        double pz = pos.getZ() + 0.5;
+        for (OcclusionEntry entry : cache.values()) {
+            if (segmentDistanceSqr(entry, px, py, pz) <= 1.0) {
+                invalidate(entry);
+            }
         }
+    }
 
-        return result.occlusionFactor;
+    /**
+     * Called on the client thread when a chunk arrives. Rays that were traced
+     * before it was loaded treated it as air, so they are traced again.
+     */
+    public static void onChunkLoaded(@Nonnull ClientLevel level, int chunkX, int chunkZ) {
+        if (!enabled) {
+            return;
+        }
+
+        for (int sy = level.getMinSectionY(); sy <= level.getMaxSectionY(); sy++) {
+            sectionWeights.remove(SectionPos.asLong(chunkX, sy, chunkZ));
+        }
+
+        // Conservative: any ray whose horizontal bounding box overlaps the chunk
+        double minX = SectionPos.sectionToBlockCoord(chunkX);
+        double minZ = SectionPos.sectionToBlockCoord(chunkZ);
+        for (OcclusionEntry entry : cache.values()) {
+            boolean overlapsX = Math.max(entry.sourceX, entry.listenerX) >= minX
+                    && Math.min(entry.sourceX, entry.listenerX) < minX + 16;
+            boolean overlapsZ = Math.max(entry.sourceZ, entry.listenerZ) >= minZ
+                    && Math.min(entry.sourceZ, entry.listenerZ) < minZ + 16;
+            if (overlapsX && overlapsZ) {
+                invalidate(entry);
+            }
+        }
+    }
+
+    private static void invalidate(OcclusionEntry entry) {
+        entry.dirty = true;
+        entry.generation++;
     }
 
     /**
-     * Store occlusion result in cache.
-     * 
-     * @param pos             Sound block position
-     * @param soundId         Sound resource location
-     * @param occlusionFactor Calculated occlusion factor (0.0-1.0)
+     * Per-tick maintenance: apply finished traces and evict far-away state.
      */
-    public static void cacheOcclusion(@Nonnull BlockPos pos, @Nonnull ResourceLocation soundId,
-            float occlusionFactor) {
+    public static void onClientTick() {
         if (!enabled) {
             return;
         }
 
         Minecraft mc = Minecraft.getInstance();
-        if (mc.level == null) {
+        ClientLevel level = mc.level;
+        if (level == null) {
             return;
         }
 
-        long currentTick = mc.level.getGameTime();
-        CacheKey key = new CacheKey(pos, soundId);
-        cache.put(key, new OcclusionResult(occlusionFactor, currentTick));
+        long currentTick = level.getGameTime();
+        drainCompleted(currentTick);
+
+        // Only cleanup every 40 ticks (2 seconds)
+        if (currentTick - lastCleanupTick < 40) {
+            return;
+        }
+        lastCleanupTick = currentTick;
+        cleanupFarAway(mc.gameRenderer.getMainCamera().getPosition());
     }
 
-    /**
-     * Check if an occlusion calculation can be skipped for static sounds.
-     * Static sounds (water, lava, fire) at the same position benefit most from
-     * caching.
-     */
-    public static boolean isStaticSound(@Nonnull ResourceLocation soundId) {
-        String path = soundId.getPath();
-        return path.contains("water") ||
-                path.contains("lava") ||
-                path.contains("fire") ||
-                path.contains("ambient") ||
-                path.contains("portal");
+    private static void requestTrace(ClientLevel level, OcclusionEntry entry, long sourceKey, long listenerCell,
+            Vec3 listener, double sx, double sy, double sz) {
+        if (pendingCount >= MAX_PENDING) {
+            return;
+        }
+
+        entry.pending = true;
+        entry.sourceX = sx;
+        entry.sourceY = sy;
+        entry.sourceZ = sz;
+        entry.listenerX = listener.x;
+        entry.listenerY = listener.y;
+        entry.listenerZ = listener.z;
+        pendingCount++;
+
+        OcclusionRaycaster.Snapshot snapshot = snapshot(level, listener.x, listener.y, listener.z, sx, sy, sz);
+        int generation = entry.generation;
+        double lx = listener.x;
+        double ly = listener.y;
+        double lz = listener.z;
+        WORKER.execute(() -> completed.add(new TraceResult(sourceKey, listenerCell, generation,
+                OcclusionRaycaster.trace(snapshot, lx, ly, lz, sx, sy, sz))));
     }
 
     /**
-     * Check if player has moved beyond the invalidation threshold.
+     * Collects (and if needed creates) the weights of the sections the ray's
+     * DDA walk visits. Sections of chunks that are not loaded yet are traced
+     * as air but not cached, so the next trace picks them up.
      */
-    private static boolean hasPlayerMovedTooMuch() {
-        Minecraft mc = Minecraft.getInstance();
-        @Nullable
-        LocalPlayer player = mc.player;
-        if (player == null) {
-            return false;
+    private static OcclusionRaycaster.Snapshot snapshot(ClientLevel level, double x1, double y1, double z1,
+            double x2, double y2, double z2) {
+        int minX = SectionPos.blockToSectionCoord(floor(Math.min(x1, x2)));
+        int minY = SectionPos.blockToSectionCoord(floor(Math.min(y1, y2)));
+        int minZ = SectionPos.blockToSectionCoord(floor(Math.min(z1, z2)));
+        int sizeX = SectionPos.blockToSectionCoord(floor(Math.max(x1, x2))) - minX + 1;
+        int sizeY = SectionPos.blockToSectionCoord(floor(Math.max(y1, y2))) - minY + 1;
+        int sizeZ = SectionPos.blockToSectionCoord(floor(Math.max(z1, z2))) - minZ + 1;
+
+        byte[][] sections = new byte[sizeX * sizeY * sizeZ][];
+        LongArrayList visited = OcclusionRaycaster.sectionsOnRay(x1, y1, z1, x2, y2, z2);
+        for (int i = 0, size = visited.size(); i < size; i++) {
+            long sectionPos = visited.getLong(i);
+            byte[] weights = sectionWeights.get(sectionPos);
+            if (weights == null) {
+                weights = OcclusionRaycaster.weighSection(level, sectionPos);
+                if (weights == null) {
+                    continue;
+                }
+                sectionWeights.put(sectionPos, weights);
+            }
+            int x = SectionPos.x(sectionPos) - minX;
+            int y = SectionPos.y(sectionPos) - minY;
+            int z = SectionPos.z(sectionPos) - minZ;
+            sections[(x * sizeY + y) * sizeZ + z] = weights;
+        }
+        return new OcclusionRaycaster.Snapshot(minX, minY, minZ, sizeX, sizeY, sizeZ, sections);
+    }
+
+    private static void drainCompleted(long currentTick) {
+        TraceResult result;
+        while ((result = completed.poll()) != null) {
+            pendingCount--;
+            OcclusionEntry entry = cache.get(result.sourceKey());
+            if (entry == null) {
+                // Evicted while the trace was running
+                continue;
+            }
+
+            entry.pending = false;
+            entry.hasResult = true;
+            entry.factor = result.factor();
+            entry.listenerCell = result.listenerCell();
+            entry.computedTick = currentTick;
+            entry.dirty = result.generation() != entry.generation;
+        }
+    }
+
+    private static void cleanupFarAway(Vec3 listener) {
+        double maxDistSqr = (MAX_RANGE + 16.0) * (MAX_RANGE + 16.0);
+        ObjectIterator<Long2ObjectMap.Entry<OcclusionEntry>> entries = cache.long2ObjectEntrySet().fastIterator();
+        while (entries.hasNext()) {
+            Long2ObjectMap.Entry<OcclusionEntry> next = entries.next();
+            OcclusionEntry entry = next.getValue();
+            if (entry.pending) {
+                continue;
+            }
+            long pos = next.getLongKey();
+            double dx = BlockPos.getX(pos) + 0.5 - listener.x;
+            double dy = BlockPos.getY(pos) + 0.5 - listener.y;
+            double dz = BlockPos.getZ(pos) + 0.5 - listener.z;
+            if (dx * dx + dy * dy + dz * dz > maxDistSqr) {
+                entries.remove();
+            }
         }
 
-        @Nonnull
-        Vec3 pos = player.position();
-        double dx = pos.x - lastPlayerX;
-        double dy = pos.y - lastPlayerY;
-        double dz = pos.z - lastPlayerZ;
-        double distSq = dx * dx + dy * dy + dz * dz;
+        int maxSectionDistance = MAX_RANGE / 16 + 2;
+        int listenerSectionX = SectionPos.blockToSectionCoord(floor(listener.x));
+        int listenerSectionY = SectionPos.blockToSectionCoord(floor(listener.y));
+        int listenerSectionZ = SectionPos.blockToSectionCoord(floor(listener.z));
+        sectionWeights.long2ObjectEntrySet().removeIf(section -> {
+            long pos = section.getLongKey();
+            return Math.abs(SectionPos.x(pos) - listenerSectionX) > maxSectionDistance
+                    || Math.abs(SectionPos.y(pos) - listenerSectionY) > maxSectionDistance
+                    || Math.abs(SectionPos.z(pos) - listenerSectionZ) > maxSectionDistance;
+        });
+    }
+
+    private static long listenerCell(Vec3 listener) {
+        return BlockPos.asLong(
+                floor(listener.x / invalidateDistance),
+                floor(listener.y / invalidateDistance),
+                floor(listener.z / invalidateDistance));
+    }
 
-        return distSq > (invalidateDistance * invalidateDistance);
+    private static int effectiveDurationTicks() {
+        // Without caching every play asks for a fresh trace (the last factor is still used meanwhile)
+        return cachingEnabled ? cacheDurationTicks : -1;
     }
 
     /**
-     * Update stored player position.
+     * Squared distance from a point to the entry's last listener-source segment.
      */
-    private static void updatePlayerPosition() {
-        Minecraft mc = Minecraft.getInstance();
-        @Nullable
-        LocalPlayer player = mc.player;
-        if (player == null) {
-            return;
-        }
+    private static double segmentDistanceSqr(OcclusionEntry entry, double px, double py, double pz) {
+        double vx = entry.sourceX - entry.listenerX;
+        double vy = entry.sourceY - entry.listenerY;
+        double vz = entry.sourceZ - entry.listenerZ;
+        double wx = px - entry.listenerX;
+        double wy = py - entry.listenerY;
+        double wz = pz - entry.listenerZ;
+
+        double lengthSqr = vx * vx + vy * vy + vz * vz;
+        double t = lengthSqr == 0 ? 0 : Math.max(0, Math.min(1, (wx * vx + wy * vy + wz * vz) / lengthSqr));
+        double cx = wx - t * vx;
+        double cy = wy - t * vy;
+        double cz = wz - t * vz;
+        return cx * cx + cy * cy + cz * cz;
+    }
 
-        @Nonnull
-        Vec3 pos = player.position();
-        lastPlayerX = pos.x;
-        lastPlayerY = pos.y;
-        lastPlayerZ = pos.z;
+    private static int floor(double value) {
+        return (int) Math.floor(value);
     }
 
     /**
-     * Clear all cached occlusion results.
+     * Clear all cached occlusion results and section snapshots.
      */
     public static void clearCache() {
         cache.clear();
+        sectionWeights.clear();
+        // In-flight results find no entry and are dropped by drainCompleted
     }
 
     /**
-     * Periodic cleanup of expired entries.
-     * Call this every few ticks to prevent memory buildup.
+     * Get total cache hits.
      */
-    public static void cleanupExpired() {
-        if (!enabled) {
-            return;
-        }
-
-        Minecraft mc = Minecraft.getInstance();
-        if (mc.level == null) {
-            return;
-        }
-
-        long currentTick = mc.level.getGameTime();
+    public static long getHits() {
+        return hits;
+    }
 
-        // Only cleanup every 40 ticks (2 seconds)
-        if (currentTick - lastCheckTick < 40) {
-            return;
-        }
-        lastCheckTick = currentTick;
+    /**
+     * Get total cache misses.
+     */
+    public static long getMisses() {
+        return misses;
+    }
 
-        cache.entrySet().removeIf(entry -> entry.getValue().isExpired(currentTick));
+    /**
+     * Get number of cached occlusion results.
+     */
+    public static int getSize() {
+        return cache.size();
     }
 
     /**
@@ -248,6 +435,7 @@ public class SoundOcclusionCache {
      */
     @Nonnull
     public static String getDebugStats() {
-        return "SoundOcclusionCache: " + cache.size() + " entries, enabled=" + enabled;
+        return "SoundOcclusionCache: " + cache.size() + " entries, " + sectionWeights.size()
+                + " section snapshots, " + pendingCount + " pending, enabled=" + enabled;
     }
 }
@@ -0,0 +1,32 @@
+package com.randomstrangerpassenger.mcopt.client.sound;
+
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.client.event.ClientTickEvent;
+import net.neoforged.neoforge.event.level.ChunkEvent;
+import net.neoforged.neoforge.event.level.LevelEvent;
+
+/**
+ * Drives {@link SoundOcclusionCache} maintenance from client events.
+ */
+public class SoundOcclusionHandler {
+
+    @SubscribeEvent
+    public void onClientTick(ClientTickEvent.Post event) {
+        SoundOcclusionCache.onClientTick();
+    }
+
+    @SubscribeEvent
+    public void onChunkLoad(ChunkEvent.Load event) {
+        if (event.getLevel() instanceof ClientLevel level) {
+            SoundOcclusionCache.onChunkLoaded(level, event.getChunk().getPos().x, event.getChunk().getPos().z);
+        }
+    }
+
+    @SubscribeEvent
+    public void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel().isClientSide()) {
+            SoundOcclusionCache.clearCache();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.randomstrangerpassenger.mcopt.client.sound;
+
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.client.event.ClientTickEvent;
+import net.neoforged.neoforge.event.level.LevelEvent;
+
+/**
+ * Drives {@link SoundPredecoder} scanning and eviction from client events.
+ */
+public class SoundPredecodeHandler {
+
+    @SubscribeEvent
+    public void onClientTick(ClientTickEvent.Post event) {
+        SoundPredecoder.onClientTick();
+    }
+
+    @SubscribeEvent
+    public void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel().isClientSide()) {
+            SoundPredecoder.onLevelUnload();
+        }
+    }
+}
@@ -0,0 +1,583 @@
+package com.randomstrangerpassenger.mcopt.client.sound;
+
+import com.mojang.blaze3d.audio.Channel;
+import com.mojang.blaze3d.audio.SoundBuffer;
+import com.randomstrangerpassenger.mcopt.config.SoundConfig;
+import com.randomstrangerpassenger.mcopt.mixin.accessor.SoundBufferAccessor;
+import com.randomstrangerpassenger.mcopt.mixin.accessor.SoundBufferLibraryAccessor;
+import com.randomstrangerpassenger.mcopt.mixin.accessor.SoundChannelAccessor;
+import com.randomstrangerpassenger.mcopt.mixin.accessor.SoundEngineAccessor;
+import com.randomstrangerpassenger.mcopt.mixin.accessor.SoundManagerAccessor;
+import com.randomstrangerpassenger.mcopt.mixin.accessor.WeighedSoundEventsAccessor;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.player.LocalPlayer;
+import net.minecraft.client.resources.sounds.Sound;
+import net.minecraft.client.sounds.ChannelAccess;
+import net.minecraft.client.sounds.SoundBufferLibrary;
+import net.minecraft.client.sounds.SoundManager;
+import net.minecraft.client.sounds.WeighedSoundEvents;
+import net.minecraft.client.sounds.Weighted;
+import net.minecraft.core.Holder;
+import net.minecraft.core.SectionPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.sounds.SoundEvent;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.level.biome.BiomeSpecialEffects;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.SoundType;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import org.lwjgl.openal.AL10;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Decodes sounds before they are first played and keeps the sound buffer
+ * library within a byte budget.
+ *
+ * <p>
+ * Vanilla decodes a sound's OGG file the first time it is played and keeps
+ * every decoded buffer until the next resource reload. This class:
+ * </p>
+ * <ul>
+ * <li>Every {@value #SCAN_INTERVAL_TICKS} ticks, looks at the entity types
+ * near the player, the blocks in the surrounding chunk sections and the
+ * current biome, and queues the sounds they are likely to play.</li>
+ * <li>Requests those buffers from the library a few at a time. The library
+ * decodes on the background executor, so the render thread never waits.</li>
+ * <li>Tracks every buffer the library hands out, predecoded or not, in an LRU
+ * ordered by last use, and evicts the least recently used ones once the
+ * decoded bytes exceed {@code bufferBudgetMb}.</li>
+ * </ul>
+ *
+ * <p>
+ * A buffer is never evicted within {@code 30} seconds of its last use. An
+ * evicted buffer leaves the library right away, so no new sound can pick it
+ * up, but its OpenAL buffer is only deleted once no source has it attached
+ * any more: a looping or long sound keeps playing from it until it ends. The
+ * sounds evicted most often are kept as statistics: if the same sounds keep
+ * showing up there, the budget is too small for the current area.
+ * </p>
+ *
+ * <p>
+ * <strong>Threading:</strong> All bookkeeping, including the library cache,
+ * runs on the client thread. Every OpenAL call (buffer sizes, source
+ * attachments, deletes) runs on the sound engine's executor, through
+ * {@link ChannelAccess#executeOnChannels}. Results come back to the client
+ * thread through a queue.
+ * </p>
+ */
+@SuppressWarnings("null")
+public class SoundPredecoder {
+
+    private static final int SCAN_INTERVAL_TICKS = 40;
+    private static final double ENTITY_SCAN_RADIUS = 48.0;
+    private static final int SECTION_SCAN_RADIUS = 2;
+    private static final int MAX_IN_FLIGHT = 8;
+    private static final int MAX_QUEUED = 256;
+    private static final int MAX_NESTING = 4;
+    private static final int TOP_EVICTED = 10;
+    private static final long EVICTION_GRACE_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    // Cached config values
+    private static boolean enabled = true;
+    private static long budgetBytes = 64L * 1024 * 1024;
+
+    // Client thread only; insertion order is kept equal to last-use order
+    private static final LinkedHashMap<ResourceLocation, BufferEntry> buffers = new LinkedHashMap<>(256);
+    private static final ArrayDeque<ResourceLocation> queue = new ArrayDeque<>();
+    private static final Set<ResourceLocation> queued = new HashSet<>();
+    private static final Object2IntOpenHashMap<ResourceLocation> evictionCounts = new Object2IntOpenHashMap<>();
+    private static Map<String, List<ResourceLocation>> eventsByPrefix;
+    private static long usedBytes = 0;
+    private static int inFlight = 0;
+    private static int ticksUntilScan = 0;
+    private static boolean issuing;
+
+    // Decoding and sound threads -> client thread
+    private static final ConcurrentLinkedQueue<DecodeResult> decoded = new ConcurrentLinkedQueue<>();
+
+    // Sound thread only: evicted buffers still attached to a source
+    private static final ArrayList<SoundBuffer> pendingReleases = new ArrayList<>();
+    // Published for the client thread
+    private static volatile int pendingReleaseCount = 0;
+
+    // Statistics
+    private static long hits = 0;
+    private static long misses = 0;
+    private static long predecoded = 0;
+    private static long predecodeHits = 0;
+    private static long evictions = 0;
+    // Published for readers off the client thread
+    private static volatile List<EvictionCount> mostEvicted = List.of();
+
+    /**
+     * A buffer handed out by the library.
+     */
+    private static final class BufferEntry {
+        // -1 until the decoded size is known
+        long bytes = -1;
+        long lastUsedNanos;
+        boolean predecoded;
+    }
+
+    private record DecodeResult(ResourceLocation path, long bytes, boolean predecode) {
+    }
+
+    /**
+     * How often one sound file has been evicted.
+     */
+    public record EvictionCount(ResourceLocation path, int count) {
+    }
+
+    /**
+     * Refresh configuration cache.
+     */
+    public static void refreshConfigCache() {
+        enabled = SoundConfig.ENABLE_SOUND_PREDECODE.get();
+        budgetBytes = SoundConfig.SOUND_BUFFER_BUDGET_MB.get() * 1024L * 1024L;
+    }
+
+    /**
+     * Check if predecoding and buffer budgeting are enabled.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records a buffer request from the library.
+     *
+     * @param path   Sound file location
+     * @param future The library's future for the decoded buffer
+     */
+    public static void onBufferRequested(@Nonnull ResourceLocation path,
+            @Nullable CompletableFuture<SoundBuffer> future) {
+        // Our own requests are tracked by issuePredecodes; preloads during a reload run elsewhere
+        Minecraft mc = Minecraft.getInstance();
+        if (issuing || future == null || !mc.isSameThread()) {
+            return;
+        }
+
+        BufferEntry entry = buffers.remove(path);
+        if (entry != null) {
+            hits++;
+            if (entry.predecoded) {
+                // First play of a sound we decoded ahead of time
+                predecodeHits++;
+                entry.predecoded = false;
+            }
+        } else {
+            misses++;
+            entry = new BufferEntry();
+            measure(path, future, false, getChannelAccess(mc.getSoundManager()));
+        }
+        entry.lastUsedNanos = System.nanoTime();
+        buffers.put(path, entry);
+    }
+
+    /**
+     * Forgets every tracked buffer; the library is about to discard them.
+     */
+    public static void onLibraryCleared() {
+        buffers.clear();
+        queue.clear();
+        queued.clear();
+        usedBytes = 0;
+        inFlight = 0;
+        // The sound registry is rebuilt as well
+        eventsByPrefix = null;
+    }
+
+    /**
+     * Drop queued work for the old level. Decoded buffers are kept; they belong
+     * to the sound engine, not the level.
+     */
+    public static void onLevelUnload() {
+        queue.clear();
+        queued.clear();
+        ticksUntilScan = 0;
+    }
+
+    /**
+     * Per-tick maintenance: collect decode results, scan the surroundings,
+     * start new predecodes and enforce the byte budget.
+     */
+    public static void onClientTick() {
+        if (!enabled) {
+            return;
+        }
+
+        Minecraft mc = Minecraft.getInstance();
+        SoundBufferLibrary library = getLibrary(mc.getSoundManager());
+        ChannelAccess channelAccess = getChannelAccess(mc.getSoundManager());
+
+        drainDecoded();
+
+        if (--ticksUntilScan <= 0) {
+            ticksUntilScan = SCAN_INTERVAL_TICKS;
+            if (mc.level != null && mc.player != null) {
+                scan(mc.getSoundManager(), mc.level, mc.player);
+            }
+        }
+
+        issuePredecodes(library, channelAccess);
+        evictOverBudget(library, channelAccess);
+
+        if (pendingReleaseCount > 0 && ticksUntilScan == SCAN_INTERVAL_TICKS) {
+            // Retry buffers whose sounds were still playing, once per scan
+            channelAccess.executeOnChannels(SoundPredecoder::releasePending);
+        }
+    }
+
+    private static SoundBufferLibrary getLibrary(SoundManager soundManager) {
+        return ((SoundEngineAccessor) ((SoundManagerAccessor) soundManager).getSoundEngine()).getSoundBuffers();
+    }
+
+    private static ChannelAccess getChannelAccess(SoundManager soundManager) {
+        return ((SoundEngineAccessor) ((SoundManagerAccessor) soundManager).getSoundEngine()).getChannelAccess();
+    }
+
+    private static void measure(ResourceLocation path, CompletableFuture<SoundBuffer> future, boolean predecode,
+            ChannelAccess channelAccess) {
+        // Runs on the decoding thread, or right here if the buffer is already done
+        future.whenComplete((buffer, error) -> {
+            if (buffer == null) {
+                decoded.add(new DecodeResult(path, 0, predecode));
+                return;
+            }
+            ByteBuffer data = ((SoundBufferAccessor) buffer).getDecodedData();
+            if (data != null) {
+                decoded.add(new DecodeResult(path, data.remaining(), predecode));
+            } else {
+                // Already uploaded, so the PCM now lives in OpenAL; ask it on the sound thread
+                channelAccess.executeOnChannels(channels -> decoded.add(
+                        new DecodeResult(path, uploadedSize(buffer), predecode)));
+            }
+        });
+    }
+
+    /**
+     * Size of an uploaded buffer. Sound thread only.
+     */
+    private static long uploadedSize(SoundBuffer buffer) {
+        SoundBufferAccessor accessor = (SoundBufferAccessor) buffer;
+        return accessor.isAlBufferCreated() ? AL10.alGetBufferi(accessor.getAlBufferId(), AL10.AL_SIZE) : 0;
+    }
+
+    private static void drainDecoded() {
+        DecodeResult result;
+        while ((result = decoded.poll()) != null) {
+            if (result.predecode()) {
+                inFlight = Math.max(0, inFlight - 1);
+            }
+
+            BufferEntry entry = buffers.get(result.path());
+            if (entry != null && entry.bytes < 0) {
+                entry.bytes = result.bytes();
+                usedBytes += result.bytes();
+            }
+        }
+    }
+
+    // --- Scanning ---
+
+    private static void scan(SoundManager soundManager, ClientLevel level, LocalPlayer player) {
+        if (eventsByPrefix == null) {
+            eventsByPrefix = indexEvents(soundManager);
+        }
+
+        Set<ResourceLocation> events = new HashSet<>();
+
+        // Entity types loaded nearby: their sounds share the "entity.<type>." prefix
+        Set<EntityType<?>> types = new HashSet<>();
+        double radiusSqr = ENTITY_SCAN_RADIUS * ENTITY_SCAN_RADIUS;
+        for (Entity entity : level.entitiesForRendering()) {
+            if (entity.distanceToSqr(player) <= radiusSqr && types.add(entity.getType())) {
+                ResourceLocation id = BuiltInRegistries.ENTITY_TYPE.getKey(entity.getType());
+                addPrefix(events, id.getNamespace() + ":entity." + id.getPath());
+            }
+        }
+
+        // Blocks in the surrounding sections; only the palettes are read
+        Set<Block> blocks = new HashSet<>();
+        Set<SoundType> soundTypes = Collections.newSetFromMap(new IdentityHashMap<>());
+        int centerX = SectionPos.blockToSectionCoord(player.getBlockX());
+        int centerY = SectionPos.blockToSectionCoord(player.getBlockY());
+        int centerZ = SectionPos.blockToSectionCoord(player.getBlockZ());
+        for (int cx = centerX - SECTION_SCAN_RADIUS; cx <= centerX + SECTION_SCAN_RADIUS; cx++) {
+            for (int cz = centerZ - SECTION_SCAN_RADIUS; cz <= centerZ + SECTION_SCAN_RADIUS; cz++) {
+                LevelChunk chunk = level.getChunkSource().getChunk(cx, cz, false);
+                if (chunk == null) {
+                    continue;
+                }
+                for (int sy = centerY - 1; sy <= centerY + 1; sy++) {
+                    int index = chunk.getSectionIndexFromSectionY(sy);
+                    if (index < 0 || index >= chunk.getSectionsCount()) {
+                        continue;
+                    }
+                    LevelChunkSection section = chunk.getSection(index);
+                    if (section.hasOnlyAir()) {
+                        continue;
+                    }
+                    // maybeHas walks the palette, not the 4096 states
+                    section.maybeHas(state -> {
+                        if (blocks.add(state.getBlock())) {
+                            soundTypes.add(state.getSoundType());
+                        }
+                        return false;
+                    });
+                }
+            }
+        }
+        for (Block block : blocks) {
+            ResourceLocation id = BuiltInRegistries.BLOCK.getKey(block);
+            addPrefix(events, id.getNamespace() + ":block." + id.getPath());
+        }
+        for (SoundType type : soundTypes) {
+            events.add(type.getBreakSound().location());
+            events.add(type.getStepSound().location());
+            events.add(type.getPlaceSound().location());
+            events.add(type.getHitSound().location());
+            events.add(type.getFallSound().location());
+        }
+
+        // Current biome's ambience
+        BiomeSpecialEffects effects = level.getBiome(player.blockPosition()).value().getSpecialEffects();
+        effects.getAmbientLoopSoundEvent().ifPresent(sound -> addHolder(events, sound));
+        effects.getAmbientMoodSettings().ifPresent(mood -> addHolder(events, mood.getSoundEvent()));
+        effects.getAmbientAdditionsSettings().ifPresent(additions -> addHolder(events, additions.getSoundEvent()));
+
+        for (ResourceLocation event : events) {
+            WeighedSoundEvents sounds = soundManager.getSoundEvent(event);
+            if (sounds != null) {
+                enqueue(sounds, 0);
+            }
+        }
+    }
+
+    private static void addPrefix(Set<ResourceLocation> events, String prefix) {
+        List<ResourceLocation> matches = eventsByPrefix.get(prefix);
+        if (matches != null) {
+            events.addAll(matches);
+        }
+    }
+
+    private static void addHolder(Set<ResourceLocation> events, Holder<SoundEvent> holder) {
+        events.add(holder.value().location());
+    }
+
+    /**
+     * Groups every registered sound event by its first two path segments,
+     * e.g. {@code minecraft:entity.zombie}.
+     */
+    private static Map<String, List<ResourceLocation>> indexEvents(SoundManager soundManager) {
+        Map<String, List<ResourceLocation>> index = new HashMap<>();
+        for (ResourceLocation event : soundManager.getAvailableSounds()) {
+            String path = event.getPath();
+            int first = path.indexOf('.');
+            int second = first < 0 ? -1 : path.indexOf('.', first + 1);
+            if (second < 0) {
+                continue;
+            }
+            String prefix = event.getNamespace() + ":" + path.substring(0, second);
+            index.computeIfAbsent(prefix, key -> new ArrayList<>()).add(event);
+        }
+        return index;
+    }
+
+    private static void enqueue(WeighedSoundEvents sounds, int depth) {
+        for (Weighted<Sound> variant : ((WeighedSoundEventsAccessor) sounds).getList()) {
+            if (variant instanceof Sound sound) {
+                // Streamed sounds (music, records) never go through the buffer cache
+                if (sound.shouldStream() || queue.size() >= MAX_QUEUED) {
+                    continue;
+                }
+                ResourceLocation path = sound.getPath();
+                if (!buffers.containsKey(path) && queued.add(path)) {
+                    queue.add(path);
+                }
+            } else if (variant instanceof WeighedSoundEvents nested && depth < MAX_NESTING) {
+                enqueue(nested, depth + 1);
+            }
+        }
+    }
+
+    // --- Decoding and eviction ---
+
+    private static void issuePredecodes(SoundBufferLibrary library, ChannelAccess channelAccess) {
+        while (inFlight < MAX_IN_FLIGHT && !queue.isEmpty()) {
+            ResourceLocation path = queue.poll();
+            queued.remove(path);
+            if (buffers.containsKey(path)) {
+                continue;
+            }
+
+            CompletableFuture<SoundBuffer> future;
+            issuing = true;
+            try {
+                // Decodes on the background executor; returns the cached future if vanilla already has it
+                future = library.getCompleteBuffer(path);
+            } finally {
+                issuing = false;
+            }
+
+            BufferEntry entry = new BufferEntry();
+            entry.predecoded = true;
+            entry.lastUsedNanos = System.nanoTime();
+            buffers.put(path, entry);
+            inFlight++;
+            predecoded++;
+            measure(path, future, true, channelAccess);
+        }
+    }
+
+    private static void evictOverBudget(SoundBufferLibrary library, ChannelAccess channelAccess) {
+        if (usedBytes <= budgetBytes) {
+            return;
+        }
+
+        Map<ResourceLocation, CompletableFuture<SoundBuffer>> cache = ((SoundBufferLibraryAccessor) library)
+                .getCache();
+        long now = System.nanoTime();
+        List<CompletableFuture<SoundBuffer>> released = new ArrayList<>();
+
+        Iterator<Map.Entry<ResourceLocation, BufferEntry>> iterator = buffers.entrySet().iterator();
+        while (usedBytes > budgetBytes && iterator.hasNext()) {
+            Map.Entry<ResourceLocation, BufferEntry> next = iterator.next();
+            BufferEntry entry = next.getValue();
+            // Entries are in last-use order, so everything after this one is recent too
+            if (now - entry.lastUsedNanos < EVICTION_GRACE_NANOS) {
+                break;
+            }
+
+            iterator.remove();
+            usedBytes -= Math.max(0, entry.bytes);
+
+            // Out of the library first, so no new sound can pick the buffer up
+            CompletableFuture<SoundBuffer> future = cache.remove(next.getKey());
+            if (future != null) {
+                released.add(future);
+            }
+
+            evictions++;
+            evictionCounts.addTo(next.getKey(), 1);
+        }
+
+        if (released.isEmpty()) {
+            return;
+        }
+        publishMostEvicted();
+        for (CompletableFuture<SoundBuffer> future : released) {
+            // Decoding finished long ago for anything past the grace period, so this hands off right away
+            future.thenAccept(buffer -> channelAccess.executeOnChannels(channels -> {
+                pendingReleases.add(buffer);
+                releasePending(channels);
+            }));
+        }
+    }
+
+    /**
+     * Delete the OpenAL buffers of evicted sounds that no source has attached
+     * any more; the rest wait for the next attempt. Sound thread only.
+     */
+    private static void releasePending(Stream<Channel> channels) {
+        IntOpenHashSet attached = new IntOpenHashSet();
+        channels.forEach(channel -> {
+            int buffer = AL10.alGetSourcei(((SoundChannelAccessor) channel).getSource(), AL10.AL_BUFFER);
+            if (buffer != 0) {
+                attached.add(buffer);
+            }
+        });
+
+        Iterator<SoundBuffer> iterator = pendingReleases.iterator();
+        while (iterator.hasNext()) {
+            SoundBufferAccessor buffer = (SoundBufferAccessor) iterator.next();
+            if (!buffer.isAlBufferCreated() || !attached.contains(buffer.getAlBufferId())) {
+                ((SoundBuffer) buffer).discardAlBuffer();
+                iterator.remove();
+            }
+        }
+        pendingReleaseCount = pendingReleases.size();
+    }
+
+    private static void publishMostEvicted() {
+        List<EvictionCount> counts = new ArrayList<>(evictionCounts.size());
+        for (Object2IntMap.Entry<ResourceLocation> entry : evictionCounts.object2IntEntrySet()) {
+            counts.add(new EvictionCount(entry.getKey(), entry.getIntValue()));
+        }
+        counts.sort((a, b) -> Integer.compare(b.count(), a.count()));
+        mostEvicted = List.copyOf(counts.subList(0, Math.min(TOP_EVICTED, counts.size())));
+    }
+
+    // --- Statistics ---
+
+    public static long getHits() {
+        return hits;
+    }
+
+    public static long getMisses() {
+        return misses;
+    }
+
+    public static int getSize() {
+        return buffers.size();
+    }
+
+    public static long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public static long getPredecoded() {
+        return predecoded;
+    }
+
+    public static long getPredecodeHits() {
+        return predecodeHits;
+    }
+
+    public static long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * The sound files evicted most often, most evicted first.
+     */
+    public static List<EvictionCount> getMostEvicted() {
+        return mostEvicted;
+    }
+
+    /**
+     * Get statistics for debugging.
+     */
+    public static String getDebugStats() {
+        long total = hits + misses;
+        double hitRate = total > 0 ? (hits * 100.0 / total) : 0.0;
+        return String.format("SoundBuffers: %d buffers, %.1f/%d MB, %.1f%% hit rate, %d/%d predecoded used, %d evicted",
+                buffers.size(), usedBytes / (1024.0 * 1024.0), budgetBytes / (1024 * 1024), hitRate,
+                predecodeHits, predecoded, evictions);
+    }
+}
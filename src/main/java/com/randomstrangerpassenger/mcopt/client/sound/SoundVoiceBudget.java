@@ -0,0 +1,191 @@
+package com.randomstrangerpassenger.mcopt.client.sound;
+
+import com.randomstrangerpassenger.mcopt.client.manager.AdaptiveLimitsManager;
+import com.randomstrangerpassenger.mcopt.config.SoundConfig;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import net.minecraft.client.resources.sounds.SoundInstance;
+import net.minecraft.client.sounds.SoundEngine;
+import net.minecraft.sounds.SoundSource;
+import net.minecraft.world.phys.Vec3;
+
+import javax.annotation.Nullable;
+import java.util.Set;
+
+/**
+ * Global, priority-ordered cap on concurrently playing sounds.
+ * <p>
+ * Every playing and incoming sound gets a priority from its effective volume
+ * at the listener, its category and its age. When the budget is full, an
+ * incoming sound either steals the channel of the lowest-priority playing
+ * sound or is not started at all. This bounds OpenAL source usage and the
+ * per-source update cost in large bases.
+ * </p>
+ * <p>
+ * The budget shrinks by up to half as {@link AdaptiveLimitsManager#getStressFactor()}
+ * rises. Music, records (jukeboxes are positional), relative sounds (UI) and
+ * sounds without attenuation are never counted, culled or stolen.
+ * </p>
+ * <p>
+ * Client thread only.
+ * </p>
+ */
+public final class SoundVoiceBudget {
+
+    // Playing sounds lose priority as they age; after 4 seconds they are worth half
+    private static final double AGE_HALF_PRIORITY_TICKS = 80.0;
+
+    // An incoming sound must beat the weakest playing one by this much to steal it
+    private static final double STEAL_MARGIN = 1.1;
+
+    // Cached config values
+    private static boolean enabled = true;
+    private static int maxSounds = 48;
+
+    // Tick each tracked sound was admitted at
+    private static final Reference2LongOpenHashMap<SoundInstance> startTicks = new Reference2LongOpenHashMap<>();
+
+    // Statistics
+    private static long rejected = 0;
+    private static long stolen = 0;
+
+    private SoundVoiceBudget() {
+        // Utility class
+    }
+
+    /**
+     * Refresh cached config values.
+     */
+    public static void refreshConfigCache() {
+        enabled = SoundConfig.ENABLE_VOICE_BUDGET.get();
+        maxSounds = SoundConfig.MAX_CONCURRENT_SOUNDS.get();
+    }
+
+    /**
+     * Check if the voice budget is enabled.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Current budget after stress adaptation.
+     */
+    public static int getBudget() {
+        float stress = AdaptiveLimitsManager.getStressFactor();
+        return Math.max(1, Math.round(maxSounds * (1.0f - 0.5f * stress)));
+    }
+
+    /**
+     * Decides whether an incoming sound may start, stopping the weakest playing
+     * sound if the incoming one outranks it.
+     *
+     * @param engine      The sound engine
+     * @param playing     Sounds currently holding a channel
+     * @param sound       The incoming sound
+     * @param listenerPos The listener position
+     * @param currentTick Current game tick
+     * @return true if the sound may start
+     */
+    public static boolean admit(SoundEngine engine, Set<SoundInstance> playing, SoundInstance sound,
+            Vec3 listenerPos, long currentTick) {
+        if (isExempt(sound)) {
+            return true;
+        }
+
+        int budget = getBudget();
+        int counted = 0;
+        SoundInstance weakest = null;
+        double weakestPriority = Double.MAX_VALUE;
+
+        for (SoundInstance other : playing) {
+            if (isExempt(other)) {
+                continue;
+            }
+            counted++;
+
+            double priority = priority(other, listenerPos, currentTick - startTicks.getOrDefault(other, currentTick));
+            if (priority < weakestPriority) {
+                weakestPriority = priority;
+                weakest = other;
+            }
+        }
+
+        if (startTicks.size() > counted * 2 + 32) {
+            // Drop bookkeeping for sounds that finished on their own
+            startTicks.keySet().retainAll(playing);
+        }
+
+        if (counted < budget) {
+            startTicks.put(sound, currentTick);
+            return true;
+        }
+
+        double incomingPriority = priority(sound, listenerPos, 0);
+        if (weakest != null && incomingPriority > weakestPriority * STEAL_MARGIN) {
+            startTicks.removeLong(weakest);
+            engine.stop(weakest);
+            stolen++;
+            startTicks.put(sound, currentTick);
+            return true;
+        }
+
+        rejected++;
+        return false;
+    }
+
+    private static boolean isExempt(SoundInstance sound) {
+        SoundSource source = sound.getSource();
+        return source == SoundSource.MUSIC || source == SoundSource.RECORDS
+                || sound.isRelative() || sound.getAttenuation() == SoundInstance.Attenuation.NONE;
+    }
+
+    /**
+     * Priority score: effective volume at the listener, weighted by category and
+     * decayed by age.
+     */
+    static double priority(SoundInstance sound, Vec3 listenerPos, long ageTicks) {
+        // Incoming sounds are not resolved yet; treat their volume as nominal
+        float volume = sound.getSound() != null ? sound.getVolume() : 1.0f;
+
+        double dx = sound.getX() - listenerPos.x;
+        double dy = sound.getY() - listenerPos.y;
+        double dz = sound.getZ() - listenerPos.z;
+        double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+
+        // Vanilla linear attenuation: audible range grows with volume above 1
+        double range = 16.0 * Math.max(1.0f, volume);
+        double effectiveVolume = Math.min(volume, 1.0f) * Math.max(0.0, 1.0 - distance / range);
+
+        return effectiveVolume * categoryWeight(sound.getSource()) * (AGE_HALF_PRIORITY_TICKS
+                / (AGE_HALF_PRIORITY_TICKS + Math.max(0, ageTicks)));
+    }
+
+    private static double categoryWeight(@Nullable SoundSource source) {
+        if (source == null) {
+            return 1.0;
+        }
+        return switch (source) {
+            // Gameplay feedback the player acts on
+            case PLAYERS, HOSTILE, VOICE -> 1.5;
+            case RECORDS, MUSIC -> 2.0;
+            case NEUTRAL -> 0.8;
+            case AMBIENT -> 0.6;
+            default -> 1.0;
+        };
+    }
+
+    /**
+     * Clear tracked sounds. Called when the engine stops all sounds (world change).
+     */
+    public static void clear() {
+        startTicks.clear();
+    }
+
+    public static long getRejected() {
+        return rejected;
+    }
+
+    public static long getStolen() {
+        return stolen;
+    }
+}
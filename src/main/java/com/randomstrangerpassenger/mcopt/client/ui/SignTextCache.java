@@ -1,33 +1,56 @@
 package com.randomstrangerpassenger.mcopt.client.ui;
 
 import com.randomstrangerpassenger.mcopt.config.RenderingConfig;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.Font;
 import net.minecraft.client.player.LocalPlayer;
 import net.minecraft.core.BlockPos;
-import net.minecraft.world.level.block.entity.SignBlockEntity;
+import net.minecraft.network.chat.Component;
+import net.minecraft.util.FormattedCharSequence;
+import net.minecraft.world.level.block.entity.SignText;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Arrays;
 
 /**
- * Caches sign text rendering to reduce font rendering overhead.
- * 
+ * Caches sign text layout and skips text that does not need to be drawn.
+ *
  * <p>
- * Signs contain text that rarely changes but is rendered every frame.
- * This cache stores rendering state and provides LOD based on distance.
+ * Signs contain text that rarely changes but is laid out every frame. A
+ * {@link SignText} is immutable: editing a sign or receiving a sign update
+ * packet always installs a new one. The cache is therefore keyed by the
+ * {@code SignText} instance itself, and a content change invalidates the
+ * entry without hashing or comparing any string. Per sign side it keeps:
  * </p>
- * 
+ * <ul>
+ * <li>Whether the side has any text at all; blank sides (the back of most
+ * signs) submit nothing</li>
+ * <li>The centering width of every line, measured once instead of walking the
+ * glyphs of every line every frame</li>
+ * </ul>
+ *
  * <p>
  * <strong>LOD Tiers:</strong>
  * </p>
  * <ul>
  * <li>Near: Full text rendering</li>
- * <li>Mid: Simplified text (no formatting)</li>
+ * <li>Mid: Glowing text without its outline (vanilla draws the outline as
+ * eight extra copies of every line)</li>
  * <li>Far: Skip text entirely (just sign block)</li>
  * </ul>
- * 
+ *
+ * <p>
+ * That is all this cache provides: widths, blank skipping and the tiers. The
+ * text is still tessellated every frame by the shared text renderer, and
+ * colors and styles are kept at every distance.
+ * </p>
+ *
+ * <p>
+ * <strong>Threading:</strong> Render thread only.
+ * </p>
+ *
  * <p>
  * <strong>Sodium Synergy:</strong> Text/UI rendering is not covered by Sodium.
  * </p>
@@ -40,40 +63,51 @@ public class SignTextCache {
     private static int nearDistance = 16;
     private static int farDistance = 32;
 
-    // Cache storage: BlockPos -> CachedSignData
-    private static final Map<BlockPos, CachedSignData> cache = new ConcurrentHashMap<>();
+    // Cache storage: SignText (by identity) -> its layout
+    private static final Reference2ObjectOpenHashMap<SignText, CachedSignData> cache = new Reference2ObjectOpenHashMap<>();
+
+    // Layout of the sign side currently being submitted
+    @Nullable
+    private static CachedSignData current;
+    // Whether the sign being submitted is in the simplified tier
+    private static boolean simplified = false;
 
     // Cleanup tracking
     private static long lastCleanupTick = 0;
     private static final int CLEANUP_INTERVAL = 200; // 10 seconds
+    private static final int MAX_UNUSED_TICKS = 200;
+
+    // Statistics
+    private static long hits = 0;
+    private static long misses = 0;
+    private static long blankSkipped = 0;
+    private static long outlinesSkipped = 0;
 
     /**
      * LOD tier for sign rendering.
      */
     public enum SignLOD {
-        /** Full text with formatting */
+        /** Full text, glow outline included */
         FULL,
-        /** Simplified text without formatting */
+        /** Text without the glow outline */
         SIMPLIFIED,
         /** Skip text rendering entirely */
         SKIP
     }
 
     /**
-     * Cached data for a sign.
+     * Cached layout of one sign side.
      */
     private static class CachedSignData {
-        final int contentHash;
-        final long cacheTick;
-
-        CachedSignData(int hash, long tick, SignLOD lod) {
-            this.contentHash = hash;
-            this.cacheTick = tick;
-
-        }
-
-        boolean isContentChanged(int newHash) {
-            return contentHash != newHash;
+        final boolean blank;
+        // The line sequences the widths were measured for, compared by identity
+        final FormattedCharSequence[] lines = new FormattedCharSequence[SignText.LINES];
+        final int[] widths = new int[SignText.LINES];
+        long lastUsedTick;
+
+        CachedSignData(boolean blank, long tick) {
+            this.blank = blank;
+            this.lastUsedTick = tick;
         }
     }
 
@@ -84,6 +118,9 @@ public class SignTextCache {
         enabled = RenderingConfig.ENABLE_TEXT_CACHING.get();
         nearDistance = RenderingConfig.SIGN_RENDER_DISTANCE_NEAR.get();
         farDistance = RenderingConfig.SIGN_RENDER_DISTANCE_FAR.get();
+        if (!enabled) {
+            clearAll();
+        }
     }
 
     /**
@@ -95,7 +132,7 @@ public class SignTextCache {
 
     /**
      * Get the LOD tier for a sign at the given position.
-     * 
+     *
      * @param signPos Sign block position
      * @return Appropriate LOD tier
      */
@@ -120,7 +157,7 @@ public class SignTextCache {
 
     /**
      * Check if sign text should be rendered.
-     * 
+     *
      * @param signPos Sign block position
      * @return true if text should be rendered
      */
@@ -133,10 +170,10 @@ public class SignTextCache {
     }
 
     /**
-     * Check if sign needs full text formatting.
-     * 
+     * Check if sign text is drawn in full, glow outline included.
+     *
      * @param signPos Sign block position
-     * @return true if full formatting is needed
+     * @return true if the sign is in the full tier
      */
     public static boolean needsFullFormatting(@Nonnull BlockPos signPos) {
         if (!enabled) {
@@ -147,65 +184,107 @@ public class SignTextCache {
     }
 
     /**
-     * Register a sign in the cache.
-     * 
-     * @param signPos     Sign position
-     * @param contentHash Hash of sign content
+     * Start submitting one side of a sign.
+     *
+     * @param text The side's text
+     * @param lod  The sign's tier, from {@link #getSignLOD}
+     * @return false if the side has no text and nothing needs to be submitted
      */
-    public static void cacheSign(@Nonnull BlockPos signPos, int contentHash) {
+    public static boolean beginText(@Nonnull SignText text, @Nonnull SignLOD lod) {
+        current = null;
+        simplified = false;
         if (!enabled) {
-            return;
+            return true;
         }
 
         Minecraft mc = Minecraft.getInstance();
-        if (mc.level == null) {
-            return;
-        }
+        long currentTick = mc.level != null ? mc.level.getGameTime() : 0;
 
-        long currentTick = mc.level.getGameTime();
-        SignLOD lod = getSignLOD(signPos);
-        cache.put(signPos.immutable(), new CachedSignData(contentHash, currentTick, lod));
+        CachedSignData data = cache.get(text);
+        if (data == null) {
+            data = new CachedSignData(isBlank(text), currentTick);
+            cache.put(text, data);
+        }
+        data.lastUsedTick = currentTick;
 
         // Periodic cleanup
         if (currentTick - lastCleanupTick > CLEANUP_INTERVAL) {
             cleanup(currentTick);
         }
+
+        if (data.blank) {
+            blankSkipped++;
+            return false;
+        }
+        current = data;
+        simplified = lod == SignLOD.SIMPLIFIED;
+        return true;
     }
 
     /**
-     * Check if sign content has changed.
-     * 
-     * @param signPos     Sign position
-     * @param contentHash Current content hash
-     * @return true if content changed or not cached
+     * Finish submitting the current sign side.
      */
-    public static boolean hasContentChanged(@Nonnull BlockPos signPos, int contentHash) {
-        if (!enabled) {
-            return true;
+    public static void endText() {
+        current = null;
+        simplified = false;
+    }
+
+    /**
+     * Whether the glow outline of the sign side being submitted is left out.
+     */
+    public static boolean skipOutline() {
+        if (!simplified) {
+            return false;
         }
+        outlinesSkipped++;
+        return true;
+    }
 
-        @Nullable
-        CachedSignData data = cache.get(signPos);
+    /**
+     * Width of a line of the sign side being submitted, measured once per
+     * sign text.
+     */
+    public static int lineWidth(@Nonnull Font font, @Nonnull FormattedCharSequence line) {
+        CachedSignData data = current;
         if (data == null) {
-            return true;
+            return font.width(line);
+        }
+
+        FormattedCharSequence[] lines = data.lines;
+        for (int i = 0; i < lines.length; i++) {
+            if (lines[i] == line) {
+                hits++;
+                return data.widths[i];
+            }
         }
 
-        return data.isContentChanged(contentHash);
+        misses++;
+        int width = font.width(line);
+        int slot = 0;
+        while (slot < lines.length && lines[slot] != null) {
+            slot++;
+        }
+        if (slot == lines.length) {
+            // The text filter setting changed and the lines were laid out again
+            Arrays.fill(lines, null);
+            slot = 0;
+        }
+        lines[slot] = line;
+        data.widths[slot] = width;
+        return width;
     }
 
-    /**
-     * Calculate content hash for a sign.
-     */
-    public static int calculateContentHash(@Nonnull SignBlockEntity sign) {
-        // Simple hash based on all text lines
-        int hash = 17;
-        for (int i = 0; i < 4; i++) {
-            String frontText = sign.getFrontText().getMessage(i, false).getString();
-            String backText = sign.getBackText().getMessage(i, false).getString();
-            hash = 31 * hash + frontText.hashCode();
-            hash = 31 * hash + backText.hashCode();
+    private static boolean isBlank(SignText text) {
+        return isBlank(text.getMessages(false)) && isBlank(text.getMessages(true));
+    }
+
+    private static boolean isBlank(Component[] messages) {
+        for (Component message : messages) {
+            if (!message.getString().isEmpty()) {
+                return false;
+            }
         }
-        return hash;
+        return true;
     }
 
     /**
@@ -223,28 +302,57 @@ public class SignTextCache {
     }
 
     /**
-     * Remove stale cache entries.
+     * Remove entries of signs that were not drawn recently (unloaded, out of
+     * range or replaced by newer text).
      */
     private static void cleanup(long currentTick) {
         lastCleanupTick = currentTick;
+        cache.values().removeIf(data -> currentTick - data.lastUsedTick > MAX_UNUSED_TICKS);
+    }
+
+    /**
+     * Clear all cached sign data.
+     */
+    public static void clearAll() {
+        cache.clear();
+        current = null;
+        simplified = false;
+        lastCleanupTick = 0;
+    }
 
-        // Remove entries older than 5 minutes
-        long maxAge = 6000; // 5 minutes in ticks
-        cache.entrySet().removeIf(entry -> (currentTick - entry.getValue().cacheTick) > maxAge);
+    /**
+     * Get total cache hits (line widths reused).
+     */
+    public static long getHits() {
+        return hits;
     }
 
     /**
-     * Clear cache for a specific sign.
+     * Get total cache misses (line widths measured).
      */
-    public static void invalidate(@Nonnull BlockPos signPos) {
-        cache.remove(signPos);
+    public static long getMisses() {
+        return misses;
     }
 
     /**
-     * Clear all cached sign data.
+     * Get total blank sign sides skipped.
      */
-    public static void clearAll() {
-        cache.clear();
+    public static long getBlankSkipped() {
+        return blankSkipped;
+    }
+
+    /**
+     * Get total glow outlines left out in the simplified tier.
+     */
+    public static long getOutlinesSkipped() {
+        return outlinesSkipped;
+    }
+
+    /**
+     * Get number of cached sign sides.
+     */
+    public static int getSize() {
+        return cache.size();
     }
 
     /**
@@ -252,6 +360,7 @@ public class SignTextCache {
      */
     @Nonnull
     public static String getDebugStats() {
-        return "SignTextCache: " + cache.size() + " signs cached, enabled=" + enabled;
+        return "SignTextCache: " + cache.size() + " sign sides cached, " + blankSkipped
+                + " blank sides skipped, " + outlinesSkipped + " outlines skipped, enabled=" + enabled;
     }
 }
@@ -2,6 +2,7 @@ package com.randomstrangerpassenger.mcopt.common;
 
 import com.randomstrangerpassenger.mcopt.MCOPT;
 import com.randomstrangerpassenger.mcopt.config.SafetyConfig;
+import com.randomstrangerpassenger.mcopt.metrics.MetricsExporter;
 import com.randomstrangerpassenger.mcopt.safety.ActionGuardHandler;
 import com.randomstrangerpassenger.mcopt.safety.LeakGuardModule;
 import com.randomstrangerpassenger.mcopt.safety.ResourceCleanupModule;
@@ -9,6 +10,7 @@ import com.randomstrangerpassenger.mcopt.safety.SafetyModuleRegistry;
 import com.randomstrangerpassenger.mcopt.server.entity.clearlag.ClearLagManager;
 import com.randomstrangerpassenger.mcopt.server.entity.golem.GolemSpawnFixHandler;
 import com.randomstrangerpassenger.mcopt.server.entity.limiter.PerChunkEntityLimiter;
+import com.randomstrangerpassenger.mcopt.server.network.PacketCoalescingHandler;
 import com.randomstrangerpassenger.mcopt.command.MCOPTStatusCommand;
 import com.randomstrangerpassenger.mcopt.util.HandlerRegistry;
 
@@ -61,6 +63,10 @@ public class EventRegistrar {
                 ClearLagManager::new,
                 "ClearLagManager");
 
+        HandlerRegistry.registerAlways(
+                PacketCoalescingHandler::new,
+                "PacketCoalescingHandler");
+
         // Conditional registration based on config
         HandlerRegistry.registerWithDetails(
                 SafetyConfig.ENABLE_PER_CHUNK_ENTITY_LIMIT::get,
@@ -71,6 +77,20 @@ public class EventRegistrar {
         MCOPT.LOGGER.info("Server-side event handlers registered");
     }
 
+    /**
+     * Register the local Prometheus metrics exporter.
+     * <p>
+     * Config is not loaded yet at this point, so the exporter decides on
+     * {@code ServerStartingEvent} whether to start the HTTP endpoint; it is
+     * bound to 127.0.0.1 so it is never reachable from outside the host.
+     * </p>
+     */
+    public static void registerMetricsExporter() {
+        HandlerRegistry.registerAlways(
+                MetricsExporter::new,
+                "MetricsExporter");
+    }
+
     /**
      * Register command handlers.
      * <p>
@@ -149,6 +149,20 @@ public class BiomeLookupCache {
         return cache.size();
     }
 
+    /**
+     * Get total cache hits since the last reset.
+     */
+    public static long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get total cache misses since the last reset.
+     */
+    public static long getMisses() {
+        return misses;
+    }
+
     /**
      * Get cache hit rate.
      */
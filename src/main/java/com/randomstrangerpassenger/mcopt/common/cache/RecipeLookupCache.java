@@ -100,8 +100,23 @@ public class RecipeLookupCache {
             return null;
         }
 
-        int hash = calculateInputHash(inputs);
-        CacheKey key = new CacheKey(type, hash);
+        return getCachedRecipe(type, calculateInputHash(inputs));
+    }
+
+    /**
+     * Get cached recipe for a precomputed input pattern hash.
+     * 
+     * @param type        Recipe type
+     * @param patternHash Input pattern hash
+     * @return Cached recipe holder, or null if not cached
+     */
+    @Nullable
+    public static RecipeHolder<?> getCachedRecipe(@Nonnull RecipeType<?> type, int patternHash) {
+        if (!enabled) {
+            return null;
+        }
+
+        CacheKey key = new CacheKey(type, patternHash);
 
         @Nullable
         CachedRecipe cached = cache.get(key);
@@ -127,8 +142,23 @@ public class RecipeLookupCache {
             return;
         }
 
-        int hash = calculateInputHash(inputs);
-        CacheKey key = new CacheKey(type, hash);
+        cacheRecipe(type, calculateInputHash(inputs), result);
+    }
+
+    /**
+     * Store a recipe lookup result for a precomputed input pattern hash.
+     * 
+     * @param type        Recipe type
+     * @param patternHash Input pattern hash
+     * @param result      Recipe holder (can be null for "no match")
+     */
+    public static void cacheRecipe(@Nonnull RecipeType<?> type, int patternHash,
+            @Nullable RecipeHolder<?> result) {
+        if (!enabled) {
+            return;
+        }
+
+        CacheKey key = new CacheKey(type, patternHash);
         cache.put(key, new CachedRecipe(result, System.currentTimeMillis()));
     }
 
@@ -180,6 +210,27 @@ public class RecipeLookupCache {
         cache.entrySet().removeIf(entry -> entry.getKey().type() == type);
     }
 
+    /**
+     * Get total cache hits since the last reset.
+     */
+    public static long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get total cache misses since the last reset.
+     */
+    public static long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Get number of cached entries.
+     */
+    public static int getSize() {
+        return cache.size();
+    }
+
     /**
      * Get cache hit rate.
      */
@@ -152,6 +152,27 @@ public class TagLookupCache {
         misses = 0;
     }
 
+    /**
+     * Get total cache hits since the last reset.
+     */
+    public static long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get total cache misses since the last reset.
+     */
+    public static long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Get number of cached entries.
+     */
+    public static int getSize() {
+        return cache.size();
+    }
+
     /**
      * Get cache hit rate.
      */
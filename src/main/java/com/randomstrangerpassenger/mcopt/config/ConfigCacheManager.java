@@ -2,7 +2,26 @@ package com.randomstrangerpassenger.mcopt.config;
 
 import com.randomstrangerpassenger.mcopt.MCOPT;
 import com.randomstrangerpassenger.mcopt.client.manager.AdaptiveLimitsManager;
+import com.randomstrangerpassenger.mcopt.client.sound.SoundCullingHandler;
+import com.randomstrangerpassenger.mcopt.client.sound.SoundOcclusionCache;
+import com.randomstrangerpassenger.mcopt.client.sound.SoundPredecoder;
+import com.randomstrangerpassenger.mcopt.client.sound.SoundVoiceBudget;
+import com.randomstrangerpassenger.mcopt.client.rendering.AdaptiveChunkUploader;
+import com.randomstrangerpassenger.mcopt.client.rendering.AnimatedTextureOptimizer;
+import com.randomstrangerpassenger.mcopt.client.rendering.AtlasUploadBatcher;
+import com.randomstrangerpassenger.mcopt.client.rendering.AnimationLODHandler;
+import com.randomstrangerpassenger.mcopt.client.rendering.ItemEntityBatcher;
+import com.randomstrangerpassenger.mcopt.client.rendering.MapUpdateThrottler;
+import com.randomstrangerpassenger.mcopt.client.rendering.RenderFeatureLOD;
+import com.randomstrangerpassenger.mcopt.client.rendering.RenderFrameCache;
+import com.randomstrangerpassenger.mcopt.client.rendering.SectionCompileScheduler;
+import com.randomstrangerpassenger.mcopt.client.rendering.SectionMeshCache;
+import com.randomstrangerpassenger.mcopt.client.rendering.culling.BlockEntityCullingEngine;
+import com.randomstrangerpassenger.mcopt.client.rendering.culling.EntityCullingEngine;
+import com.randomstrangerpassenger.mcopt.client.rendering.leaves.SmartLeavesCuller;
+import com.randomstrangerpassenger.mcopt.client.rendering.particle.ParticleCullingManager;
 import com.randomstrangerpassenger.mcopt.client.rendering.particle.ParticlePhysicsOptimizer;
+import com.randomstrangerpassenger.mcopt.client.rendering.particle.ParticlePool;
 import com.randomstrangerpassenger.mcopt.client.ui.HUDCache;
 import com.randomstrangerpassenger.mcopt.client.ui.SignTextCache;
 import com.randomstrangerpassenger.mcopt.common.cache.BiomeLookupCache;
@@ -12,8 +31,10 @@ import com.randomstrangerpassenger.mcopt.server.entity.ai.BrainOptimizer;
 import com.randomstrangerpassenger.mcopt.server.entity.ai.EntitySleepManager;
 import com.randomstrangerpassenger.mcopt.server.entity.ai.PathfindingCache;
 import com.randomstrangerpassenger.mcopt.server.entity.xp.XpOrbHandler;
+import com.randomstrangerpassenger.mcopt.server.network.PacketCoalescer;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.event.config.ModConfigEvent;
+import net.neoforged.fml.loading.FMLEnvironment;
 
 /**
  * Centralized config cache manager that refreshes all cached config values
@@ -44,28 +65,77 @@ public final class ConfigCacheManager {
         }
 
         MCOPT.LOGGER.info("Config loaded/reloaded, refreshing cached values...");
+        refreshAll();
+    }
 
-        // Phase 1: Entity & Physics
-        XpOrbHandler.refreshConfigCache();
-        ParticlePhysicsOptimizer.refreshConfigCache();
+    /**
+     * Re-reads every cached config value.
+     * <p>
+     * Client caches are only refreshed on the physical client: they read
+     * CLIENT specs and load client-only classes, neither of which exist on a
+     * dedicated server.
+     */
+    public static void refreshAll() {
+        refreshServerCaches();
+        if (FMLEnvironment.getDist().isClient()) {
+            refreshClientCaches();
+        }
 
-        // Phase 2: Rendering Cache
-        SignTextCache.refreshConfigCache();
-        HUDCache.refreshConfigCache();
+        MCOPT.LOGGER.info("Config cache refresh complete");
+    }
+
+    /**
+     * Re-reads cached config values of server-side handlers.
+     * <p>
+     * These only read COMMON specs, so this is safe on a dedicated server.
+     * Also used by the game test harness after flipping config values in memory.
+     */
+    public static void refreshServerCaches() {
+        // Entity
+        XpOrbHandler.refreshConfigCache();
 
-        // Phase 3: Data Caching
+        // Data Caching
         RecipeLookupCache.refreshConfigCache();
         TagLookupCache.refreshConfigCache();
         BiomeLookupCache.refreshConfigCache();
 
-        // Phase 4: AI Optimization
+        // AI Optimization
         BrainOptimizer.refreshConfigCache();
         EntitySleepManager.refreshConfigCache();
         PathfindingCache.refreshConfigCache();
 
-        // Phase 5: Adaptive Systems
-        AdaptiveLimitsManager.refreshConfigCache();
+        // Networking
+        PacketCoalescer.refreshConfigCache();
+    }
 
-        MCOPT.LOGGER.info("Config cache refresh complete");
+    private static void refreshClientCaches() {
+        // Physics
+        ParticlePhysicsOptimizer.refreshConfigCache();
+        ParticleCullingManager.refreshConfigCache();
+        ParticlePool.refreshConfigCache();
+
+        // Rendering Cache
+        RenderFrameCache.refreshConfigCache();
+        AdaptiveChunkUploader.refreshConfigCache();
+        SectionCompileScheduler.refreshConfigCache();
+        SectionMeshCache.refreshConfigCache();
+        ItemEntityBatcher.refreshConfigCache();
+        AnimationLODHandler.refreshConfigCache();
+        RenderFeatureLOD.refreshConfigCache();
+        AnimatedTextureOptimizer.refreshConfigCache();
+        AtlasUploadBatcher.refreshConfigCache();
+        MapUpdateThrottler.refreshConfigCache();
+        SmartLeavesCuller.refreshConfigCache();
+        SignTextCache.refreshConfigCache();
+        HUDCache.refreshConfigCache();
+        EntityCullingEngine.refreshConfigCache();
+        BlockEntityCullingEngine.refreshConfigCache();
+        SoundCullingHandler.refreshConfigCache();
+        SoundOcclusionCache.refreshConfigCache();
+        SoundVoiceBudget.refreshConfigCache();
+        SoundPredecoder.refreshConfigCache();
+
+        // Adaptive Systems
+        AdaptiveLimitsManager.refreshConfigCache();
     }
 }
@@ -17,11 +17,17 @@ public class ConfigRegistrar {
         /**
          * Register all MCOPT configuration files.
          * <p>
-         * Registers four separate config files for different domains:
+         * Registers separate config files for different domains:
          * - Rendering optimizations (mcopt-rendering.toml)
-         * - Performance optimizations (mcopt-performance.toml)
-         * - Gameplay modifications (mcopt-gameplay.toml)
+         * - Performance optimizations (mcopt-performance.toml, COMMON)
+         * - Gameplay modifications (mcopt-gameplay.toml, COMMON)
          * - Safety features (mcopt-safety.toml)
+         * - Sound optimizations (mcopt-sound.toml)
+         * - Entity optimizations (mcopt-entity.toml)
+         * </p>
+         * <p>
+         * CLIENT configs are never loaded on a dedicated server, so any spec
+         * read by server-side code must be registered as COMMON.
          * </p>
          *
          * @param modContainer the mod container to register configs with
@@ -34,11 +40,11 @@ public class ConfigRegistrar {
                                 MCOPTConfig.getRenderingSpec(),
                                 "mcopt-rendering.toml");
 
-                modContainer.registerConfig(ModConfig.Type.CLIENT,
+                modContainer.registerConfig(ModConfig.Type.COMMON,
                                 MCOPTConfig.getPerformanceSpec(),
                                 "mcopt-performance.toml");
 
-                modContainer.registerConfig(ModConfig.Type.CLIENT,
+                modContainer.registerConfig(ModConfig.Type.COMMON,
                                 MCOPTConfig.getGameplaySpec(),
                                 "mcopt-gameplay.toml");
 
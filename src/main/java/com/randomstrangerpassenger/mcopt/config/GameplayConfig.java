@@ -6,6 +6,9 @@ import net.neoforged.neoforge.common.ModConfigSpec;
  * Configuration options for gameplay improvements and fixes.
  * Includes XP orb merging, weather, entity behaviors, portals, and
  * quality-of-life features.
+ * <p>
+ * Registered as a COMMON config so dedicated servers load it too.
+ * </p>
  */
 public class GameplayConfig {
         private static final ModConfigSpec.Builder BUILDER = new ModConfigSpec.Builder();
@@ -5,6 +5,11 @@ import net.neoforged.neoforge.common.ModConfigSpec;
 /**
  * Configuration options for performance optimizations.
  * Includes dynamic FPS, memory management, and AI optimizations.
+ * <p>
+ * Registered as a COMMON config so dedicated servers load it too: most of the
+ * options here (AI, lookup caches, packet coalescing, metrics) run on the
+ * server.
+ * </p>
  */
 public class PerformanceConfig {
         private static final ModConfigSpec.Builder BUILDER = new ModConfigSpec.Builder();
@@ -83,6 +88,16 @@ public class PerformanceConfig {
         public static final ModConfigSpec.BooleanValue ENABLE_NBT_HASH_CACHING;
         public static final ModConfigSpec.BooleanValue ENABLE_HOPPER_OPTIMIZATION;
 
+        // Metrics Exporter Settings
+        public static final ModConfigSpec.BooleanValue ENABLE_METRICS_EXPORTER;
+        public static final ModConfigSpec.IntValue METRICS_EXPORTER_PORT;
+        public static final ModConfigSpec.IntValue METRICS_SAMPLE_INTERVAL_TICKS;
+
+        // Packet Coalescing
+        public static final ModConfigSpec.BooleanValue ENABLE_PACKET_COALESCING;
+        public static final ModConfigSpec.DoubleValue PACKET_COALESCE_CELL_SIZE;
+        public static final ModConfigSpec.IntValue PACKET_COALESCE_MAX_DUPLICATE_SOUNDS;
+
         static {
                 BUILDER.comment("MCOPT Performance Optimizations Configuration")
                                 .push("performance");
@@ -137,7 +152,8 @@ public class PerformanceConfig {
                                 .define("aggressiveGCPrevention", true);
 
                 ENABLE_OBJECT_POOLING = BUILDER
-                                .comment("Enable object pooling for Vec3 and BlockPos (Reduces GC pressure)")
+                                .comment("Enable object pooling for high-volume particles (Reduces GC pressure)",
+                                                "Removed smoke, flame, splash, dust, crit and portal particles are reused")
                                 .define("enableObjectPooling", true);
 
                 ENABLE_RESOURCE_CLEANUP = BUILDER
@@ -299,7 +315,9 @@ public class PerformanceConfig {
 
                 PARTICLE_PHYSICS_SIMPLIFY_DISTANCE = BUILDER
                                 .comment("Distance (in blocks) beyond which particles use simplified physics",
-                                                "Particles closer than this get full collision detection")
+                                                "Particles closer than this get full collision detection",
+                                                "Up to twice this distance particles only land on the terrain surface (heightmap)",
+                                                "Beyond that they ignore collision entirely")
                                 .defineInRange("simplifyDistance", 16, 8, 64);
 
                 BUILDER.pop();
@@ -399,6 +417,51 @@ public class PerformanceConfig {
                                 .define("enableHopperOptimization", false);
 
                 BUILDER.pop(); // Close adaptive_systems
+
+                // Metrics Exporter settings
+                BUILDER.comment("Metrics Exporter - Prometheus endpoint for MCOPT counters",
+                                "Bound to 127.0.0.1 only; use a local scraper or reverse proxy to collect")
+                                .push("metrics_exporter");
+
+                ENABLE_METRICS_EXPORTER = BUILDER
+                                .comment("Enable the local Prometheus metrics endpoint (Recommended: false)",
+                                                "Serves cache hit/miss counters, clear lag totals, entity counts,",
+                                                "MSPT percentiles and JVM memory pools at http://127.0.0.1:<port>/metrics")
+                                .define("enableMetricsExporter", false);
+
+                METRICS_EXPORTER_PORT = BUILDER
+                                .comment("Port the metrics endpoint listens on (localhost only)")
+                                .defineInRange("metricsPort", 9465, 1024, 65535);
+
+                METRICS_SAMPLE_INTERVAL_TICKS = BUILDER
+                                .comment("How often to sample entity counts and tick times on the server thread (in ticks)",
+                                                "20 ticks = 1 second")
+                                .defineInRange("sampleIntervalTicks", 100, 20, 1200);
+
+                BUILDER.pop(); // Close metrics_exporter
+
+                // Packet Coalescing settings
+                BUILDER.comment("Packet Coalescing - Fewer sound and particle packets per tick",
+                                "Helps servers with mob farms, TNT setups and other packet-heavy builds")
+                                .push("packet_coalescing");
+
+                ENABLE_PACKET_COALESCING = BUILDER
+                                .comment("Enable per-tick coalescing of sound and particle packets (Recommended: true)",
+                                                "Identical sounds are capped at maxDuplicateSounds per tick",
+                                                "Particle bursts of the same type are merged into one packet per player")
+                                .define("enablePacketCoalescing", true);
+
+                PACKET_COALESCE_CELL_SIZE = BUILDER
+                                .comment("Size (in blocks) of the grid cell within which packets are treated as the same position",
+                                                "Larger cells = more aggressive merging")
+                                .defineInRange("coalesceCellSize", 2.0, 1.0, 16.0);
+
+                PACKET_COALESCE_MAX_DUPLICATE_SOUNDS = BUILDER
+                                .comment("Maximum number of identical sounds sent to a player per tick and cell",
+                                                "Extra copies are dropped on the server before they are encoded")
+                                .defineInRange("maxDuplicateSounds", 4, 1, 16);
+
+                BUILDER.pop(); // Close packet_coalescing
                 BUILDER.pop(); // Close performance
 
                 SPEC = BUILDER.build();
@@ -15,6 +15,9 @@ public class RenderingConfig {
         public static final ModConfigSpec.BooleanValue ENABLE_CHUNK_OPTIMIZATIONS;
         public static final ModConfigSpec.IntValue CHUNK_UPDATE_LIMIT;
         public static final ModConfigSpec.BooleanValue AGGRESSIVE_CHUNK_CULLING;
+        public static final ModConfigSpec.BooleanValue ENABLE_PRIORITY_COMPILE_QUEUE;
+        public static final ModConfigSpec.BooleanValue ENABLE_SECTION_MESH_CACHE;
+        public static final ModConfigSpec.IntValue SECTION_MESH_CACHE_MB;
 
         // Render Distance Optimization Settings
         public static final ModConfigSpec.BooleanValue ENABLE_ELLIPTICAL_RENDER_DISTANCE;
@@ -34,6 +37,8 @@ public class RenderingConfig {
         public static final ModConfigSpec.BooleanValue ENABLE_PARTICLE_CULLING;
         public static final ModConfigSpec.IntValue PARTICLE_OCCLUSION_CHECK_INTERVAL;
         public static final ModConfigSpec.DoubleValue PARTICLE_CULLING_RANGE;
+        public static final ModConfigSpec.IntValue PARTICLE_BUDGET_PER_TYPE;
+        public static final ModConfigSpec.IntValue PARTICLE_GLOBAL_BUDGET;
 
         // Smart Leaves Settings
         public static final ModConfigSpec.BooleanValue ENABLE_SMART_LEAVES;
@@ -48,6 +53,7 @@ public class RenderingConfig {
         public static final ModConfigSpec.BooleanValue ENABLE_SMART_ANIMATIONS;
         public static final ModConfigSpec.IntValue ANIMATION_UPDATE_DISTANCE;
         public static final ModConfigSpec.IntValue OFFSCREEN_ANIMATION_INTERVAL;
+        public static final ModConfigSpec.BooleanValue ENABLE_BATCHED_ATLAS_UPLOADS;
 
         // Visual Item Merging Settings
         public static final ModConfigSpec.BooleanValue ENABLE_VISUAL_ITEM_MERGING;
@@ -58,6 +64,11 @@ public class RenderingConfig {
         public static final ModConfigSpec.BooleanValue ENABLE_ANIMATION_LOD;
         public static final ModConfigSpec.IntValue ANIMATION_LOD_NEAR_DISTANCE;
         public static final ModConfigSpec.IntValue ANIMATION_LOD_FAR_DISTANCE;
+        public static final ModConfigSpec.BooleanValue LOD_SHADOWS;
+        public static final ModConfigSpec.BooleanValue LOD_ARMOR_DETAILS;
+        public static final ModConfigSpec.BooleanValue LOD_ARMOR;
+        public static final ModConfigSpec.BooleanValue LOD_HELD_ITEMS;
+        public static final ModConfigSpec.BooleanValue LOD_NAME_TAGS;
 
         // Text/UI Caching Settings
         public static final ModConfigSpec.BooleanValue ENABLE_TEXT_CACHING;
@@ -72,6 +83,7 @@ public class RenderingConfig {
         // Adaptive Chunk Upload Settings
         public static final ModConfigSpec.BooleanValue ENABLE_ADAPTIVE_CHUNK_UPLOAD;
         public static final ModConfigSpec.IntValue BASE_CHUNK_UPLOAD_LIMIT;
+        public static final ModConfigSpec.IntValue UPLOAD_FRAME_BUDGET_PERCENT;
 
         // Input Fixes
         public static final ModConfigSpec.BooleanValue ENABLE_MOUSE_INPUT_FIX;
@@ -95,6 +107,21 @@ public class RenderingConfig {
                                 .comment("Enable aggressive chunk culling (May cause pop-in, but improves FPS)")
                                 .define("aggressiveChunkCulling", false);
 
+                ENABLE_PRIORITY_COMPILE_QUEUE = BUILDER
+                                .comment("Compile chunk sections in view and near the camera first (Recommended: true)",
+                                                "Changed sections the player is looking at are rebuilt before anything else",
+                                                "Also limits concurrent compiles to the core count, fewer while the game is under load")
+                                .define("enablePriorityCompileQueue", true);
+
+                ENABLE_SECTION_MESH_CACHE = BUILDER
+                                .comment("Keep the meshes of chunk sections that leave the render distance (Recommended: true)",
+                                                "Unchanged sections that come back into range are shown without rebuilding or uploading them")
+                                .define("enableSectionMeshCache", true);
+
+                SECTION_MESH_CACHE_MB = BUILDER
+                                .comment("Video memory (in MB) for retained section meshes; the least recently left sections are dropped first")
+                                .defineInRange("sectionMeshCacheMb", 128, 8, 2048);
+
                 BUILDER.pop();
 
                 BUILDER.comment("Elliptical Render Distance Optimization")
@@ -119,7 +146,7 @@ public class RenderingConfig {
                                 .defineInRange("horizontalRenderStretch", 1.0, 0.5, 2.0);
 
                 SHOW_CULLED_CHUNKS_DEBUG = BUILDER
-                                .comment("Show debug overlay with number of culled chunk sections (F3 debug screen)")
+                                .comment("Show an overlay with the number of chunk sections culled by the elliptical render distance")
                                 .define("showCulledChunksDebug", false);
 
                 BUILDER.pop();
@@ -132,11 +159,13 @@ public class RenderingConfig {
                                 .define("enableEntityCulling", true);
 
                 ENTITY_CULLING_DISTANCE = BUILDER
-                                .comment("Distance at which entities are culled when not visible (in blocks)")
+                                .comment("Range (in blocks) within which entities are tested for occlusion",
+                                                "Entities farther away are left to vanilla frustum culling")
                                 .defineInRange("entityCullingDistance", 64, 16, 256);
 
                 CULL_ENTITIES_BEHIND_WALLS = BUILDER
-                                .comment("Skip rendering entities that are completely behind walls")
+                                .comment("Skip rendering entities that are completely behind walls",
+                                                "Visibility is traced on a background thread; an entity must stay hidden for a few frames before it is culled")
                                 .define("cullEntitiesBehindWalls", true);
 
                 BUILDER.pop();
@@ -157,7 +186,9 @@ public class RenderingConfig {
                                 .defineInRange("particleSpawnReduction", 0.25, 0.0, 0.9);
 
                 ENABLE_PARTICLE_CULLING = BUILDER
-                                .comment("Enable occlusion-based particle culling (Recommended: true)")
+                                .comment("Enable frustum and distance particle culling (Recommended: true)",
+                                                "Particles behind the camera or beyond particleCullingRange are not drawn,",
+                                                "and culled particles without collision skip most of their tick")
                                 .define("enableParticleCulling", true);
 
                 PARTICLE_OCCLUSION_CHECK_INTERVAL = BUILDER
@@ -166,10 +197,21 @@ public class RenderingConfig {
 
                 PARTICLE_CULLING_RANGE = BUILDER
                                 .comment(
-                                                "Maximum distance (in blocks) to run occlusion checks.",
-                                                "Particles beyond this range skip occlusion tests to reduce overhead.")
+                                                "Maximum distance (in blocks) at which particles are drawn.",
+                                                "Particles beyond this range are culled.")
                                 .defineInRange("particleCullingRange", 48.0, 8.0, 160.0);
 
+                PARTICLE_BUDGET_PER_TYPE = BUILDER
+                                .comment("Maximum live particles of one particle class (requires enableParticleOptimizations)",
+                                                "When exceeded, the particles farthest from the camera are removed first")
+                                .defineInRange("particleBudgetPerType", 2000, 100, 12000);
+
+                PARTICLE_GLOBAL_BUDGET = BUILDER
+                                .comment("Maximum live particles in total (requires enableParticleOptimizations)",
+                                                "Shrinks by up to half while the game is under load (adaptive limits)",
+                                                "Kept below vanilla's own 16384-per-group cap")
+                                .defineInRange("particleGlobalBudget", 8000, 500, 12000);
+
                 BUILDER.pop();
 
                 BUILDER.comment("Smart Leaves Optimization")
@@ -183,11 +225,12 @@ public class RenderingConfig {
                                 .define("enableSmartLeaves", true);
 
                 LEAVES_CULLING_DEPTH = BUILDER
-                                .comment("Minimum depth of leaves before culling is applied",
-                                                "Higher values = more aggressive culling but may make trees look hollow",
-                                                "0 = cull all adjacent same-type leaves (most aggressive)",
-                                                "2 = only cull leaves 2+ blocks deep from surface (recommended, Cull Less Leaves style)",
-                                                "Set to 0 for maximum performance in dense forests")
+                                .comment("How deep inside a canopy a face between two leaf blocks must be before it is culled",
+                                                "A face is culled when the leaves on both sides of it are more than this many",
+                                                "blocks away from the nearest non-leaf block (surface leaves are 1 deep)",
+                                                "Lower values = more aggressive culling but may make trees look hollow",
+                                                "0 = cull every face between two leaf blocks, of any leaf type (most aggressive)",
+                                                "2 = only cull faces with at least 2 leaf blocks of cover on both sides (recommended)")
                                 .defineInRange("leavesCullingDepth", 2, 0, 5);
 
                 BUILDER.pop();
@@ -202,7 +245,8 @@ public class RenderingConfig {
                                 .define("enableBlockEntityCulling", true);
 
                 BLOCK_ENTITY_CULLING_DISTANCE = BUILDER
-                                .comment("Distance at which block entities are culled when not visible (in blocks)",
+                                .comment("Distance beyond which block entities are not rendered at all (in blocks)",
+                                                "Renderers that draw off screen (beacon beams, end gateways) are exempt",
                                                 "Smaller values = better performance, larger values = see block entities from farther")
                                 .defineInRange("blockEntityCullingDistance", 64, 16, 256);
 
@@ -219,21 +263,27 @@ public class RenderingConfig {
 
                 ENABLE_SMART_ANIMATIONS = BUILDER
                                 .comment("Enable smart animated texture optimization (Recommended: true)",
-                                                "Pauses animation updates for water, lava, portals, etc. when not visible",
+                                                "Pauses animation updates for water, lava, portals, etc. when no visible chunk section or item uses them",
                                                 "Preserves vanilla visuals while reducing CPU overhead")
                                 .define("enableSmartAnimations", true);
 
                 ANIMATION_UPDATE_DISTANCE = BUILDER
-                                .comment("Maximum distance (in blocks) to update animated textures",
-                                                "Animations beyond this distance will update less frequently")
+                                .comment("Maximum distance (in blocks) of visible chunk sections whose animated textures update every tick",
+                                                "Animations only visible beyond this distance will update less frequently")
                                 .defineInRange("animationUpdateDistance", 32, 8, 128);
 
                 OFFSCREEN_ANIMATION_INTERVAL = BUILDER
-                                .comment("Tick interval for updating off-screen animations",
+                                .comment("Tick interval for updating animations only visible beyond the update distance",
                                                 "Higher values = more performance, but animations may appear to 'skip' when coming into view",
                                                 "4 = update every 4 ticks (5 times/sec), 10 = update every 10 ticks (2 times/sec)")
                                 .defineInRange("offscreenAnimationInterval", 8, 2, 20);
 
+                ENABLE_BATCHED_ATLAS_UPLOADS = BUILDER
+                                .comment("Upload the animation frames of each texture atlas tick together (Recommended: true)",
+                                                "Frames of sprites that sit next to each other in the atlas are written with one upload",
+                                                "Reduces render thread stalls in packs with many animated blocks")
+                                .define("enableBatchedAtlasUploads", true);
+
                 BUILDER.pop();
 
                 // Visual Item Merging settings
@@ -247,14 +297,14 @@ public class RenderingConfig {
                                 .define("enableVisualItemMerging", true);
 
                 ITEM_MERGE_RADIUS = BUILDER
-                                .comment("Radius (in blocks) to merge nearby items for rendering",
-                                                "Items within this radius will be rendered as a group")
+                                .comment("Size (in blocks) of the grid cells nearby items are merged in for rendering",
+                                                "Items of the same kind in one cell will be rendered as a group")
                                 .defineInRange("itemMergeRadius", 1.5, 0.5, 4.0);
 
                 MAX_ITEMS_PER_BATCH = BUILDER
                                 .comment("Maximum number of items to render in a single batch",
                                                 "Higher = more aggressive batching, may affect visual accuracy")
-                                .defineInRange("maxItemsPerBatch", 8, 2, 32);
+                                .defineInRange("maxItemsPerBatch", 16, 2, 64);
 
                 BUILDER.pop();
 
@@ -270,14 +320,36 @@ public class RenderingConfig {
 
                 ANIMATION_LOD_NEAR_DISTANCE = BUILDER
                                 .comment("Distance (in blocks) for full animation updates",
-                                                "Entities closer than this always get full animation")
+                                                "Entities closer than this always get full animation and every render layer")
                                 .defineInRange("nearDistance", 16, 8, 64);
 
                 ANIMATION_LOD_FAR_DISTANCE = BUILDER
                                 .comment("Distance (in blocks) beyond which entities use static idle pose",
-                                                "Between near and far distance, animations update every 2-3 frames")
+                                                "Between near and far distance, animations update every 3 frames")
                                 .defineInRange("farDistance", 32, 16, 128);
 
+                LOD_SHADOWS = BUILDER
+                                .comment("Drop entity shadows beyond the near distance")
+                                .define("lodShadows", true);
+
+                LOD_ARMOR_DETAILS = BUILDER
+                                .comment("Draw armor without trims and enchantment glint beyond the near distance")
+                                .define("lodArmorDetails", true);
+
+                LOD_ARMOR = BUILDER
+                                .comment("Drop armor and elytra layers beyond the far distance")
+                                .define("lodArmor", true);
+
+                LOD_HELD_ITEMS = BUILDER
+                                .comment("Drop held items beyond the far distance")
+                                .define("lodHeldItems", true);
+
+                LOD_NAME_TAGS = BUILDER
+                                .comment("Hide name tags of named mobs beyond the far distance (Default: false)",
+                                                "Purely a visual trade-off: named pets and mobs lose their label at range",
+                                                "in exchange for fewer text submissions. Player name tags are always kept")
+                                .define("lodNameTags", false);
+
                 BUILDER.pop();
 
                 // Text/UI Caching settings
@@ -286,12 +358,14 @@ public class RenderingConfig {
 
                 ENABLE_TEXT_CACHING = BUILDER
                                 .comment("Enable text/UI caching optimization (Recommended: true)",
-                                                "Caches sign text and skips rendering for distant signs",
+                                                "Caches sign line widths, skips blank sign sides and distant sign text",
+                                                "Text is still tessellated every frame; no sign geometry is reused",
                                                 "Sodium does not cover text/UI rendering")
                                 .define("enableTextCaching", true);
 
                 SIGN_RENDER_DISTANCE_NEAR = BUILDER
-                                .comment("Distance (in blocks) for full sign text rendering")
+                                .comment("Distance (in blocks) for full sign text rendering",
+                                                "Beyond it, glowing sign text is drawn without its outline")
                                 .defineInRange("signNearDistance", 16, 4, 64);
 
                 SIGN_RENDER_DISTANCE_FAR = BUILDER
@@ -306,32 +380,40 @@ public class RenderingConfig {
 
                 ENABLE_MAP_THROTTLING = BUILDER
                                 .comment("Enable map texture update throttling (Recommended: true)",
-                                                "Limits how many maps can update per tick")
+                                                "Limits how many framed maps can update per tick, nearest first",
+                                                "Only the pixels that changed since the last upload are uploaded")
                                 .define("enableMapThrottling", true);
 
                 MAP_UPDATES_PER_TICK = BUILDER
-                                .comment("Maximum map texture updates per tick")
+                                .comment("Maximum framed map texture updates per tick",
+                                                "Held maps always update immediately")
                                 .defineInRange("updatesPerTick", 4, 1, 16);
 
                 MAP_UPDATE_DISTANCE = BUILDER
-                                .comment("Distance (in blocks) beyond which maps are deprioritized")
+                                .comment("Distance (in blocks) beyond which framed maps wait for the next tick's budget")
                                 .defineInRange("updateDistance", 32, 8, 128);
 
                 BUILDER.pop();
 
                 // Adaptive Chunk Upload settings
-                BUILDER.comment("Adaptive Chunk Upload - Frame-based chunk upload limiting")
+                BUILDER.comment("Adaptive Chunk Upload - Frame-time budgeted chunk upload scheduling")
                                 .push("adaptive_chunk_upload");
 
                 ENABLE_ADAPTIVE_CHUNK_UPLOAD = BUILDER
-                                .comment("Enable adaptive chunk upload limiting (Recommended: true)",
-                                                "Uses frame counter instead of milliseconds for better precision")
+                                .comment("Enable adaptive chunk upload scheduling (Recommended: true)",
+                                                "Spends a measured time budget per frame on section uploads",
+                                                "Sections in view and near the camera are uploaded first")
                                 .define("enableAdaptiveChunkUpload", true);
 
                 BASE_CHUNK_UPLOAD_LIMIT = BUILDER
-                                .comment("Base limit for chunk uploads per frame")
+                                .comment("Chunk uploads per frame that always run, even when the time budget is spent")
                                 .defineInRange("baseUploadLimit", 4, 1, 16);
 
+                UPLOAD_FRAME_BUDGET_PERCENT = BUILDER
+                                .comment("Share of the target frame time (frame rate limit, or 60 FPS when unlimited) spent on chunk uploads",
+                                                "Shrinks by up to half while the game is under load (adaptive limits)")
+                                .defineInRange("uploadFrameBudgetPercent", 15, 1, 50);
+
                 BUILDER.pop();
 
                 BUILDER.comment("Input handling fixes")
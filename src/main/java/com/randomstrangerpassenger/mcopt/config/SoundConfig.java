@@ -20,11 +20,20 @@ public class SoundConfig {
         public static final ModConfigSpec.DoubleValue DUPLICATE_SOUND_RADIUS;
         public static final ModConfigSpec.IntValue DUPLICATE_CHECK_INTERVAL_TICKS;
 
-        // Occlusion Cache Settings
+        // Voice Budget Settings
+        public static final ModConfigSpec.BooleanValue ENABLE_VOICE_BUDGET;
+        public static final ModConfigSpec.IntValue MAX_CONCURRENT_SOUNDS;
+
+        // Occlusion Settings
+        public static final ModConfigSpec.BooleanValue ENABLE_SOUND_OCCLUSION;
         public static final ModConfigSpec.BooleanValue ENABLE_OCCLUSION_CACHING;
         public static final ModConfigSpec.IntValue OCCLUSION_CACHE_DURATION_TICKS;
         public static final ModConfigSpec.DoubleValue OCCLUSION_CACHE_INVALIDATE_DISTANCE;
 
+        // Predecode Settings
+        public static final ModConfigSpec.BooleanValue ENABLE_SOUND_PREDECODE;
+        public static final ModConfigSpec.IntValue SOUND_BUFFER_BUDGET_MB;
+
         static {
                 BUILDER.comment("MCOPT Sound Optimizations Configuration")
                                 .push("sound");
@@ -63,32 +72,77 @@ public class SoundConfig {
                                 .defineInRange("duplicateSoundRadius", 16.0, 4.0, 64.0);
 
                 DUPLICATE_CHECK_INTERVAL_TICKS = BUILDER
-                                .comment("How often to clean up duplicate sound tracking (in ticks)",
-                                                "20 ticks = 1 second")
+                                .comment("No longer used: duplicate tracking overwrites expired entries in place",
+                                                "Kept so existing config files still load")
                                 .defineInRange("duplicateCheckIntervalTicks", 10, 5, 40);
 
                 BUILDER.pop();
 
+                BUILDER.comment("Voice Budget",
+                                "Caps how many positional sounds play at once, keeping the most important ones")
+                                .push("voice_budget");
+
+                ENABLE_VOICE_BUDGET = BUILDER
+                                .comment("Enable the priority-based voice budget (Recommended: true)",
+                                                "When full, a louder/closer/more important sound replaces the weakest one",
+                                                "Music, records and UI sounds are never limited")
+                                .define("enableVoiceBudget", true);
+
+                MAX_CONCURRENT_SOUNDS = BUILDER
+                                .comment("Maximum positional sounds playing at once",
+                                                "Shrinks by up to half while the game is under load (adaptive limits)",
+                                                "Vanilla's hard limit is 247 OpenAL sources")
+                                .defineInRange("maxConcurrentSounds", 48, 8, 247);
+
+                BUILDER.pop();
+
                 // Occlusion Caching settings
-                BUILDER.comment("Sound Occlusion Caching - Cache raycast results for repeated sounds")
+                BUILDER.comment("Sound Occlusion - Muffle sounds behind blocks",
+                                "Raycasts run on a background thread and are cached per sound position")
                                 .push("occlusion_caching");
 
+                ENABLE_SOUND_OCCLUSION = BUILDER
+                                .comment("Enable sound occlusion (Recommended: true)",
+                                                "Sounds behind walls are played quieter; never blocks the render thread",
+                                                "A sound plays at full volume until its first result is ready")
+                                .define("enableSoundOcclusion", true);
+
                 ENABLE_OCCLUSION_CACHING = BUILDER
                                 .comment("Enable sound occlusion result caching (Recommended: true)",
-                                                "Caches raycast results for static sounds like water, lava, fire",
-                                                "Reduces CPU overhead for occlusion calculations")
+                                                "Reuses raycast results for repeated sounds like water, lava, fire",
+                                                "When false, every play schedules a fresh raycast")
                                 .define("enableOcclusionCaching", true);
 
                 OCCLUSION_CACHE_DURATION_TICKS = BUILDER
-                                .comment("How long to cache occlusion results (in ticks)",
+                                .comment("How long an occlusion result is trusted without any block change (in ticks)",
+                                                "Block changes along the ray invalidate results immediately",
                                                 "20 ticks = 1 second")
                                 .defineInRange("cacheDurationTicks", 20, 5, 60);
 
                 OCCLUSION_CACHE_INVALIDATE_DISTANCE = BUILDER
-                                .comment("Distance player must move to invalidate cache (in blocks)",
+                                .comment("Size of the listener cell (in blocks)",
+                                                "Results are recomputed when the player moves into another cell",
                                                 "Smaller values = more accurate but more cache misses")
                                 .defineInRange("invalidateDistance", 2.0, 0.5, 8.0);
 
+                BUILDER.pop();
+
+                BUILDER.comment("Sound Predecoding - Decode sounds before their first play",
+                                "Removes the hitch of decoding a sound the first time a new mob, block or biome is heard")
+                                .push("predecode");
+
+                ENABLE_SOUND_PREDECODE = BUILDER
+                                .comment("Enable background predecoding of nearby sounds (Recommended: true)",
+                                                "Chooses sounds from nearby entity types, blocks and the current biome",
+                                                "Also keeps decoded sound buffers within the budget below")
+                                .define("enableSoundPredecode", true);
+
+                SOUND_BUFFER_BUDGET_MB = BUILDER
+                                .comment("Memory budget for decoded sound buffers (in MB)",
+                                                "Least recently played sounds are freed first; sounds played in the last 30 seconds are kept",
+                                                "Vanilla keeps every decoded sound until resources are reloaded")
+                                .defineInRange("bufferBudgetMb", 64, 8, 512);
+
                 BUILDER.pop();
                 BUILDER.pop();
 
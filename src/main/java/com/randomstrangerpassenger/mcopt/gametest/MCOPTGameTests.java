@@ -0,0 +1,54 @@
+package com.randomstrangerpassenger.mcopt.gametest;
+
+import com.randomstrangerpassenger.mcopt.MCOPT;
+import net.minecraft.core.Holder;
+import net.minecraft.gametest.framework.TestData;
+import net.minecraft.gametest.framework.TestEnvironmentDefinition;
+import net.minecraft.resources.ResourceLocation;
+import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.RegisterGameTestsEvent;
+
+/**
+ * Registers the MSPT regression game tests.
+ * <p>
+ * One test per {@link StressScene}, named {@code mcopt:mspt_<scene>}. Each
+ * scene gets its own environment so the framework puts it in its own batch:
+ * tick times are measured server-wide, and a neighbouring scene in the same
+ * batch would pollute them.
+ * </p>
+ * <p>
+ * Run headless with {@code ./gradlew runGameTestServer}; the server exits
+ * non-zero (failing the build) when any scene is slower with its features on
+ * (see {@link MsptComparison}).
+ * Results are written to {@code runs/mspt-report.json}.
+ * </p>
+ */
+public final class MCOPTGameTests {
+
+    private static final ResourceLocation ARENA = id("stress_arena");
+
+    // Midnight: hostile mobs don't burn, so the mob farm keeps its population
+    private static final int MIDNIGHT = 18000;
+
+    private MCOPTGameTests() {
+        // Utility class
+    }
+
+    public static void register(RegisterGameTestsEvent event) {
+        NeoForge.EVENT_BUS.register(TickTimeRecorder.class);
+
+        MsptSettings settings = MsptSettings.fromSystemProperties();
+        for (StressScene scene : StressScene.values()) {
+            Holder<TestEnvironmentDefinition> environment = event.registerEnvironment(
+                    id("mspt_" + scene.id()), new TestEnvironmentDefinition.TimeOfDay(MIDNIGHT));
+
+            event.registerTest(id("mspt_" + scene.id()),
+                    helper -> new MsptComparison(helper, scene, settings).run(),
+                    new TestData<>(environment, ARENA, settings.maxTicks(), 0, true));
+        }
+    }
+
+    private static ResourceLocation id(String path) {
+        return ResourceLocation.fromNamespaceAndPath(MCOPT.MOD_ID, path);
+    }
+}
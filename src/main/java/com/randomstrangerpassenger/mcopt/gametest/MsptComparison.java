@@ -0,0 +1,180 @@
+package com.randomstrangerpassenger.mcopt.gametest;
+
+import com.randomstrangerpassenger.mcopt.MCOPT;
+import com.randomstrangerpassenger.mcopt.config.ConfigCacheManager;
+import com.randomstrangerpassenger.mcopt.gametest.TickTimeRecorder.TickStats;
+import com.randomstrangerpassenger.mcopt.util.FeatureKey;
+import com.randomstrangerpassenger.mcopt.util.FeatureToggles;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.gametest.framework.GameTestSequence;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.GameRules;
+import net.neoforged.neoforge.common.ModConfigSpec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Runs one {@link StressScene} several times with its features on and off,
+ * and compares the median tick times.
+ * <p>
+ * The order alternates between rounds (on/off, off/on, ...), so neither side
+ * always gets the warmer JIT or the emptier heap. Each side's result is the
+ * median over its runs of each run's median, p95 and max tick time.
+ * </p>
+ * <p>
+ * Features are flipped in memory only ({@code ConfigValue.set} without a
+ * save) and restored before the verdict, so a failing comparison never leaves
+ * the config changed. Only server-side caches are refreshed afterwards; the
+ * client ones read CLIENT specs that a dedicated server never loads.
+ * </p>
+ */
+final class MsptComparison {
+
+    private static final long SCENE_SEED = 42L;
+
+    private final GameTestHelper helper;
+    private final StressScene scene;
+    private final MsptSettings settings;
+
+    private final List<Boolean> originalValues = new ArrayList<>();
+    private int originalCramming;
+    private boolean originalMobSpawning;
+
+    private SplittableRandom random;
+    private boolean running;
+    private final List<TickStats> onRuns = new ArrayList<>();
+    private final List<TickStats> offRuns = new ArrayList<>();
+
+    MsptComparison(GameTestHelper helper, StressScene scene, MsptSettings settings) {
+        this.helper = helper;
+        this.scene = scene;
+        this.settings = settings;
+    }
+
+    void run() {
+        helper.onEachTick(() -> {
+            if (running) {
+                scene.tick(helper, random);
+            }
+        });
+
+        GameTestSequence sequence = helper.startSequence().thenExecute(this::prepareWorld);
+        for (int round = 0; round < settings.rounds(); round++) {
+            boolean onFirst = round % 2 == 0;
+            measure(sequence, onFirst);
+            measure(sequence, !onFirst);
+        }
+        sequence.thenExecute(this::finish).thenSucceed();
+    }
+
+    private void measure(GameTestSequence sequence, boolean featuresOn) {
+        sequence.thenExecute(() -> startRun(featuresOn))
+                .thenIdle(settings.warmupTicks())
+                .thenExecute(() -> TickTimeRecorder.start(settings.measuredTicks()))
+                .thenIdle(settings.measuredTicks())
+                .thenExecute(() -> (featuresOn ? onRuns : offRuns).add(TickTimeRecorder.stop()));
+    }
+
+    private void prepareWorld() {
+        GameRules rules = helper.getLevel().getGameRules();
+        originalCramming = rules.getInt(GameRules.RULE_MAX_ENTITY_CRAMMING);
+        originalMobSpawning = rules.getBoolean(GameRules.RULE_DOMOBSPAWNING);
+
+        // Cramming damage and natural spawns would make the two runs see different entity counts
+        rules.getRule(GameRules.RULE_MAX_ENTITY_CRAMMING).set(0, helper.getLevel().getServer());
+        rules.getRule(GameRules.RULE_DOMOBSPAWNING).set(false, helper.getLevel().getServer());
+
+        for (ModConfigSpec.BooleanValue feature : scene.features()) {
+            originalValues.add(feature.get());
+        }
+    }
+
+    private void startRun(boolean featuresOn) {
+        running = false;
+        clearScene();
+        setFeatures(featuresOn);
+
+        random = new SplittableRandom(SCENE_SEED);
+        scene.build(helper, random);
+        running = true;
+    }
+
+    private void finish() {
+        running = false;
+        clearScene();
+        restore();
+
+        TickStats on = median(onRuns);
+        TickStats off = median(offRuns);
+        boolean regressed = on.medianMs() > off.medianMs() * (1.0 + settings.tolerance());
+        MsptReport.record(scene, settings, on, off, regressed);
+        MCOPT.LOGGER.info("MSPT {}: on median {} ms (p95 {}, max {}), off median {} ms (p95 {}, max {})",
+                scene.id(), on.medianMs(), on.p95Ms(), on.maxMs(), off.medianMs(), off.p95Ms(), off.maxMs());
+
+        if (regressed) {
+            helper.fail(Component.literal(String.format(
+                    "%s is slower with MCOPT features on: median %.2f ms vs %.2f ms off",
+                    scene.id(), on.medianMs(), off.medianMs())));
+        }
+    }
+
+    private void clearScene() {
+        // discard() rather than kill(): dying mobs would drop loot and XP into the next run
+        for (Entity entity : helper.getLevel().getEntities((Entity) null, helper.getBounds(),
+                entity -> !(entity instanceof Player))) {
+            entity.discard();
+        }
+    }
+
+    private void setFeatures(boolean enabled) {
+        for (ModConfigSpec.BooleanValue feature : scene.features()) {
+            feature.set(enabled);
+        }
+        refreshCachedConfig();
+    }
+
+    private void restore() {
+        List<ModConfigSpec.BooleanValue> features = scene.features();
+        for (int i = 0; i < features.size(); i++) {
+            features.get(i).set(originalValues.get(i));
+        }
+        refreshCachedConfig();
+
+        GameRules rules = helper.getLevel().getGameRules();
+        rules.getRule(GameRules.RULE_MAX_ENTITY_CRAMMING).set(originalCramming, helper.getLevel().getServer());
+        rules.getRule(GameRules.RULE_DOMOBSPAWNING).set(originalMobSpawning, helper.getLevel().getServer());
+    }
+
+    /**
+     * Median of each statistic over several runs; ticks are summed.
+     */
+    private static TickStats median(List<TickStats> runs) {
+        int ticks = 0;
+        for (TickStats run : runs) {
+            ticks += run.ticks();
+        }
+        return new TickStats(ticks, median(runs, TickStats::medianMs), median(runs, TickStats::p95Ms),
+                median(runs, TickStats::maxMs));
+    }
+
+    private static double median(List<TickStats> runs, ToDoubleFunction<TickStats> statistic) {
+        if (runs.isEmpty()) {
+            return 0;
+        }
+        double[] values = runs.stream().mapToDouble(statistic).toArray();
+        Arrays.sort(values);
+        int middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2.0;
+    }
+
+    private static void refreshCachedConfig() {
+        ConfigCacheManager.refreshServerCaches();
+        FeatureToggles.refreshFromConfig(FeatureKey.XP_ORB_MERGING, FeatureKey.AI_OPTIMIZATIONS);
+    }
+}
@@ -0,0 +1,77 @@
+package com.randomstrangerpassenger.mcopt.gametest;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.randomstrangerpassenger.mcopt.MCOPT;
+import com.randomstrangerpassenger.mcopt.gametest.TickTimeRecorder.TickStats;
+import net.neoforged.neoforge.common.ModConfigSpec;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Collects scene results and writes them to {@code <reportDir>/mspt-report.json}.
+ * <p>
+ * The file is rewritten after every scene so a crash or a failing scene still
+ * leaves the results gathered so far on disk.
+ * </p>
+ */
+final class MsptReport {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Map<StressScene, JsonObject> RESULTS = new LinkedHashMap<>();
+
+    private MsptReport() {
+        // Utility class
+    }
+
+    static synchronized void record(StressScene scene, MsptSettings settings, TickStats on, TickStats off,
+            boolean regressed) {
+        JsonObject result = new JsonObject();
+        JsonArray features = new JsonArray();
+        for (ModConfigSpec.BooleanValue feature : scene.features()) {
+            features.add(String.join(".", feature.getPath()));
+        }
+        result.add("features", features);
+        result.add("on", toJson(on));
+        result.add("off", toJson(off));
+        result.addProperty("medianSpeedup", on.medianMs() > 0 ? off.medianMs() / on.medianMs() : 0);
+        result.addProperty("regressed", regressed);
+        RESULTS.put(scene, result);
+
+        JsonObject report = new JsonObject();
+        report.addProperty("generatedAt", Instant.now().toString());
+        report.addProperty("mcoptVersion", MCOPT.class.getPackage().getImplementationVersion());
+        report.addProperty("warmupTicks", settings.warmupTicks());
+        report.addProperty("measuredTicks", settings.measuredTicks());
+        report.addProperty("rounds", settings.rounds());
+        report.addProperty("tolerance", settings.tolerance());
+        JsonObject scenes = new JsonObject();
+        RESULTS.forEach((key, value) -> scenes.add(key.id(), value));
+        report.add("scenes", scenes);
+
+        Path file = settings.reportDir().resolve("mspt-report.json");
+        try {
+            Files.createDirectories(settings.reportDir());
+            Files.writeString(file, GSON.toJson(report), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            MCOPT.LOGGER.error("Failed to write MSPT report to {}", file, e);
+        }
+    }
+
+    private static JsonObject toJson(TickStats stats) {
+        JsonObject json = new JsonObject();
+        json.addProperty("ticks", stats.ticks());
+        json.addProperty("medianMs", stats.medianMs());
+        json.addProperty("p95Ms", stats.p95Ms());
+        json.addProperty("maxMs", stats.maxMs());
+        return json;
+    }
+}
@@ -0,0 +1,33 @@
+package com.randomstrangerpassenger.mcopt.gametest;
+
+import java.nio.file.Path;
+
+/**
+ * Harness settings, read from system properties so CI can tune them without a
+ * rebuild:
+ * <ul>
+ * <li>{@code mcopt.gametest.warmupTicks} - ticks discarded after building a scene (default 100)</li>
+ * <li>{@code mcopt.gametest.ticks} - ticks measured per run (default 600)</li>
+ * <li>{@code mcopt.gametest.rounds} - on/off pairs per scene, order alternating (default 3)</li>
+ * <li>{@code mcopt.gametest.tolerance} - allowed median slowdown with features on (default 0.05)</li>
+ * <li>{@code mcopt.gametest.reportDir} - report directory (default {@code runs})</li>
+ * </ul>
+ */
+record MsptSettings(int warmupTicks, int measuredTicks, int rounds, double tolerance, Path reportDir) {
+
+    static MsptSettings fromSystemProperties() {
+        return new MsptSettings(
+                Integer.getInteger("mcopt.gametest.warmupTicks", 100),
+                Integer.getInteger("mcopt.gametest.ticks", 600),
+                Math.max(1, Integer.getInteger("mcopt.gametest.rounds", 3)),
+                Double.parseDouble(System.getProperty("mcopt.gametest.tolerance", "0.05")),
+                Path.of(System.getProperty("mcopt.gametest.reportDir", "runs")));
+    }
+
+    /**
+     * Upper bound for a whole comparison, with room for building every scene.
+     */
+    int maxTicks() {
+        return 2 * rounds * (warmupTicks + measuredTicks + 10) + 100;
+    }
+}
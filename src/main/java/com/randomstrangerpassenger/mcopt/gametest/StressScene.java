@@ -0,0 +1,157 @@
+package com.randomstrangerpassenger.mcopt.gametest;
+
+import com.randomstrangerpassenger.mcopt.config.GameplayConfig;
+import com.randomstrangerpassenger.mcopt.config.PerformanceConfig;
+import net.minecraft.core.BlockPos;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.ExperienceOrb;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.FurnaceBlockEntity;
+import net.minecraft.world.phys.Vec3;
+import net.neoforged.neoforge.common.ModConfigSpec;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Reproducible stress scenes for the MSPT regression harness.
+ * <p>
+ * Every scene is built inside the {@code mcopt:stress_arena} structure (a 48x48
+ * stone floor fenced with barriers) from a fixed seed, so the "on" and "off"
+ * runs see the same layout. {@link #features()} lists the config switches
+ * that are flipped between the two runs. They must come from COMMON specs:
+ * the game test server is a dedicated server and never loads CLIENT ones.
+ * </p>
+ */
+public enum StressScene {
+
+    VILLAGERS("villagers", List.of(
+            PerformanceConfig.ENABLE_AI_OPTIMIZATIONS,
+            PerformanceConfig.ENABLE_BRAIN_OPTIMIZATION,
+            PerformanceConfig.ENABLE_ENTITY_SLEEPING,
+            PerformanceConfig.ENABLE_PATHFINDING_CACHE)) {
+        @Override
+        void build(GameTestHelper helper, SplittableRandom random) {
+            for (int i = 0; i < 500; i++) {
+                Mob villager = helper.spawn(EntityType.VILLAGER, randomFloorPos(random));
+                villager.setPersistenceRequired();
+            }
+        }
+    },
+
+    MOB_FARM("mob_farm", List.of(
+            PerformanceConfig.ENABLE_AI_OPTIMIZATIONS,
+            PerformanceConfig.ENABLE_BRAIN_OPTIMIZATION,
+            PerformanceConfig.ENABLE_ENTITY_SLEEPING,
+            PerformanceConfig.ENABLE_PATHFINDING_CACHE)) {
+        @Override
+        void build(GameTestHelper helper, SplittableRandom random) {
+            List<EntityType<? extends Mob>> types = List.of(
+                    EntityType.ZOMBIE, EntityType.SKELETON, EntityType.SPIDER, EntityType.CREEPER);
+            for (int i = 0; i < 2000; i++) {
+                Mob mob = helper.spawn(types.get(i % types.size()), randomFloorPos(random));
+                mob.setPersistenceRequired();
+            }
+        }
+    },
+
+    DROPPED_ITEMS("dropped_items", List.of(
+            PerformanceConfig.ENABLE_NBT_HASH_CACHING,
+            PerformanceConfig.ENABLE_TAG_CACHING)) {
+        @Override
+        void build(GameTestHelper helper, SplittableRandom random) {
+            // Several item kinds so merging can't collapse everything into a few stacks
+            List<Item> items = List.of(Items.COBBLESTONE, Items.DIRT, Items.OAK_LOG, Items.ROTTEN_FLESH,
+                    Items.BONE, Items.ARROW, Items.STRING, Items.GUNPOWDER);
+            for (int i = 0; i < 10_000; i++) {
+                BlockPos pos = randomFloorPos(random);
+                ItemEntity item = helper.spawnItem(items.get(i % items.size()),
+                        pos.getX() + 0.5f, pos.getY() + 0.5f, pos.getZ() + 0.5f);
+                item.setUnlimitedLifetime();
+            }
+        }
+    },
+
+    XP_FLOOD("xp_flood", List.of(GameplayConfig.ENABLE_XP_ORB_MERGING)) {
+        @Override
+        void build(GameTestHelper helper, SplittableRandom random) {
+            for (int i = 0; i < 2000; i++) {
+                spawnOrb(helper, random);
+            }
+        }
+
+        @Override
+        void tick(GameTestHelper helper, SplittableRandom random) {
+            // Keep feeding orbs like a running mob farm would
+            for (int i = 0; i < 25; i++) {
+                spawnOrb(helper, random);
+            }
+        }
+
+        private void spawnOrb(GameTestHelper helper, SplittableRandom random) {
+            BlockPos pos = randomFloorPos(random);
+            Vec3 absolute = helper.absoluteVec(Vec3.atBottomCenterOf(pos));
+            helper.getLevel().addFreshEntity(new ExperienceOrb(helper.getLevel(),
+                    absolute.x, absolute.y, absolute.z, 1 + random.nextInt(3)));
+        }
+    },
+
+    FURNACE_ARRAY("furnace_array", List.of(PerformanceConfig.ENABLE_RECIPE_CACHING)) {
+        @Override
+        void build(GameTestHelper helper, SplittableRandom random) {
+            // 20 x 10 grid, every other block so each furnace is its own block entity tick
+            for (int x = 0; x < 20; x++) {
+                for (int z = 0; z < 10; z++) {
+                    BlockPos pos = new BlockPos(4 + x * 2, 1, 4 + z * 4);
+                    helper.setBlock(pos, Blocks.FURNACE);
+                    FurnaceBlockEntity furnace = helper.getBlockEntity(pos, FurnaceBlockEntity.class);
+                    furnace.setItem(0, new ItemStack(Items.RAW_IRON, 64));
+                    furnace.setItem(1, new ItemStack(Items.COAL, 64));
+                }
+            }
+        }
+    };
+
+    /**
+     * Interior of the arena, inside the barrier fence.
+     */
+    private static final int ARENA_MIN = 2;
+    private static final int ARENA_MAX = 45;
+
+    private final String id;
+    private final List<ModConfigSpec.BooleanValue> features;
+
+    StressScene(String id, List<ModConfigSpec.BooleanValue> features) {
+        this.id = id;
+        this.features = features;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public List<ModConfigSpec.BooleanValue> features() {
+        return features;
+    }
+
+    /**
+     * Populates the arena. Called once per run with a freshly seeded random.
+     */
+    abstract void build(GameTestHelper helper, SplittableRandom random);
+
+    /**
+     * Per-tick load for scenes that need a continuous feed. No-op by default.
+     */
+    void tick(GameTestHelper helper, SplittableRandom random) {
+    }
+
+    static BlockPos randomFloorPos(SplittableRandom random) {
+        return new BlockPos(random.nextInt(ARENA_MIN, ARENA_MAX + 1), 1, random.nextInt(ARENA_MIN, ARENA_MAX + 1));
+    }
+}
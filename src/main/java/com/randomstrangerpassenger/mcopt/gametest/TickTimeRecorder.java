@@ -0,0 +1,70 @@
+package com.randomstrangerpassenger.mcopt.gametest;
+
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+import java.util.Arrays;
+
+/**
+ * Records the duration of whole server ticks while a measurement is running.
+ * <p>
+ * The duration is taken between {@link ServerTickEvent.Pre} and
+ * {@link ServerTickEvent.Post}, so the idle wait between ticks is excluded and
+ * every level (not only the test's) is included. Only touched from the server
+ * thread.
+ * </p>
+ */
+public final class TickTimeRecorder {
+
+    private static long tickStartNanos;
+    private static long[] samples = new long[0];
+    private static int count;
+    private static boolean recording;
+
+    private TickTimeRecorder() {
+        // Utility class
+    }
+
+    /**
+     * Summary of one measurement window, in milliseconds.
+     */
+    public record TickStats(int ticks, double medianMs, double p95Ms, double maxMs) {
+    }
+
+    static void start(int ticks) {
+        samples = new long[ticks];
+        count = 0;
+        recording = true;
+    }
+
+    static TickStats stop() {
+        recording = false;
+        if (count == 0) {
+            return new TickStats(0, 0, 0, 0);
+        }
+
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return new TickStats(count,
+                percentileMs(sorted, 0.50),
+                percentileMs(sorted, 0.95),
+                sorted[count - 1] / 1_000_000.0);
+    }
+
+    private static double percentileMs(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1_000_000.0;
+    }
+
+    @SubscribeEvent
+    public static void onServerTickPre(ServerTickEvent.Pre event) {
+        tickStartNanos = System.nanoTime();
+    }
+
+    @SubscribeEvent
+    public static void onServerTickPost(ServerTickEvent.Post event) {
+        if (recording && count < samples.length) {
+            samples[count++] = System.nanoTime() - tickStartNanos;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.randomstrangerpassenger.mcopt.metrics;
+
+import com.randomstrangerpassenger.mcopt.common.cache.BiomeLookupCache;
+import com.randomstrangerpassenger.mcopt.common.cache.RecipeLookupCache;
+import com.randomstrangerpassenger.mcopt.common.cache.TagLookupCache;
+import com.randomstrangerpassenger.mcopt.server.entity.ai.PathfindingCache;
+import com.randomstrangerpassenger.mcopt.server.entity.clearlag.CleanupExecutor;
+import com.randomstrangerpassenger.mcopt.server.entity.clearlag.EntityTypeCategory;
+import com.randomstrangerpassenger.mcopt.server.network.PacketCoalescer;
+
+import javax.annotation.Nonnull;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.util.Locale;
+
+/**
+ * Metrics available on both client and dedicated server: data caches,
+ * clear lag totals and JVM memory pools.
+ */
+public class CommonMetricsSource implements MetricsSource {
+
+    @Override
+    public void write(@Nonnull PrometheusTextBuilder out) {
+        // Data caches
+        out.cache("biome", BiomeLookupCache.getHits(), BiomeLookupCache.getMisses(),
+                BiomeLookupCache.getTotalEntries());
+        out.cache("tag", TagLookupCache.getHits(), TagLookupCache.getMisses(), TagLookupCache.getSize());
+        out.cache("recipe", RecipeLookupCache.getHits(), RecipeLookupCache.getMisses(),
+                RecipeLookupCache.getSize());
+        out.cache("pathfinding", PathfindingCache.getHits(), PathfindingCache.getMisses(),
+                PathfindingCache.getSize());
+
+        // Clear lag
+        out.counter("mcopt_clearlag_runs_total", "Clear lag passes executed", CleanupExecutor.getTotalRuns());
+        for (EntityTypeCategory category : EntityTypeCategory.values()) {
+            out.counter("mcopt_clearlag_removed_total", "Entities removed by clear lag",
+                    CleanupExecutor.getTotalRemoved(category),
+                    "category", category.name().toLowerCase(Locale.ROOT));
+        }
+
+        // Packet coalescing
+        out.counter("mcopt_packets_sound_dropped_total", "Duplicate sound packets dropped before sending",
+                PacketCoalescer.getSoundsDropped());
+        out.counter("mcopt_packets_particle_merged_total", "Particle packets merged into another burst",
+                PacketCoalescer.getParticlePacketsMerged());
+
+        // JVM memory pools
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage usage = pool.getUsage();
+            if (usage == null) {
+                continue;
+            }
+            String type = pool.getType().name().toLowerCase(Locale.ROOT);
+            out.gauge("jvm_memory_pool_used_bytes", "Used bytes of a JVM memory pool",
+                    usage.getUsed(), "pool", pool.getName(), "type", type);
+            out.gauge("jvm_memory_pool_committed_bytes", "Committed bytes of a JVM memory pool",
+                    usage.getCommitted(), "pool", pool.getName(), "type", type);
+            out.gauge("jvm_memory_pool_max_bytes", "Max bytes of a JVM memory pool (-1 if undefined)",
+                    usage.getMax(), "pool", pool.getName(), "type", type);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.randomstrangerpassenger.mcopt.metrics;
+
+import com.randomstrangerpassenger.mcopt.config.PerformanceConfig;
+import com.randomstrangerpassenger.mcopt.server.entity.clearlag.EntityTypeCategory;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.event.GameShuttingDownEvent;
+import net.neoforged.neoforge.event.server.ServerStartingEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Localhost-only Prometheus endpoint for MCOPT counters.
+ * <p>
+ * Uses the JDK's built-in {@code com.sun.net.httpserver} so no extra
+ * dependency is shipped. The endpoint is bound to the loopback address and
+ * serves {@code /metrics} in the Prometheus text format.
+ * </p>
+ * <p>
+ * <strong>Threading:</strong> Scrapes run on a single daemon thread. Values
+ * that may only be read on the server thread (entity counts, tick times) are
+ * sampled every {@code sampleIntervalTicks} from {@link ServerTickEvent.Post}
+ * and published as an immutable snapshot.
+ * </p>
+ * <p>
+ * Client-only caches are contributed through {@link #registerSource} from
+ * client setup so this class never loads client classes on a dedicated server.
+ * </p>
+ * <p>
+ * The endpoint is started, stopped or moved to a new port from
+ * {@link ServerStartingEvent}, once the COMMON config has been loaded, so
+ * config changes apply the next time a server (or world) starts.
+ * </p>
+ */
+public class MetricsExporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetricsExporter.class);
+
+    private static final List<MetricsSource> SOURCES = new CopyOnWriteArrayList<>();
+
+    private int port;
+    private int sampleIntervalTicks = 100;
+
+    private HttpServer httpServer;
+    private ExecutorService executor;
+    private int ticksUntilSample;
+
+    // Published by the server thread, read by the HTTP thread
+    private volatile ServerSample serverSample = ServerSample.EMPTY;
+
+    /**
+     * Server-thread snapshot of entity counts and tick times.
+     */
+    private record ServerSample(long[] entitiesByCategory, double msptP50, double msptP95, double msptP99,
+            double msptMax) {
+        static final ServerSample EMPTY = new ServerSample(null, 0, 0, 0, 0);
+    }
+
+    public MetricsExporter() {
+        registerSource(new CommonMetricsSource());
+        registerSource(this::writeServerSample);
+    }
+
+    /**
+     * Register an additional source of samples.
+     *
+     * @param source the source to include in every scrape
+     */
+    public static void registerSource(@Nonnull MetricsSource source) {
+        SOURCES.add(source);
+    }
+
+    private void start(int port) {
+        this.port = port;
+        try {
+            httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "MCOPT-Metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            httpServer.setExecutor(executor);
+            httpServer.createContext("/metrics", this::handleScrape);
+            httpServer.start();
+            LOGGER.info("Metrics exporter listening on http://127.0.0.1:{}/metrics", port);
+        } catch (IOException e) {
+            LOGGER.error("Failed to start metrics exporter on 127.0.0.1:{}", port, e);
+            stop();
+        }
+    }
+
+    private void stop() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+            httpServer = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void handleScrape(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private String render() {
+        PrometheusTextBuilder builder = new PrometheusTextBuilder();
+        for (MetricsSource source : SOURCES) {
+            try {
+                source.write(builder);
+            } catch (RuntimeException e) {
+                // A broken source must not take the whole endpoint down
+                LOGGER.debug("Metrics source {} failed", source, e);
+            }
+        }
+        return builder.build();
+    }
+
+    private void writeServerSample(PrometheusTextBuilder out) {
+        ServerSample sample = serverSample;
+        if (sample.entitiesByCategory() == null) {
+            return;
+        }
+
+        for (EntityTypeCategory category : EntityTypeCategory.values()) {
+            out.gauge("mcopt_entities", "Loaded entities across all server levels",
+                    sample.entitiesByCategory()[category.ordinal()],
+                    "category", category.name().toLowerCase(Locale.ROOT));
+        }
+
+        String help = "Server tick time over the last 100 ticks in milliseconds";
+        out.gauge("mcopt_mspt", help, sample.msptP50(), "quantile", "0.5");
+        out.gauge("mcopt_mspt", help, sample.msptP95(), "quantile", "0.95");
+        out.gauge("mcopt_mspt", help, sample.msptP99(), "quantile", "0.99");
+        out.gauge("mcopt_mspt", help, sample.msptMax(), "quantile", "1");
+    }
+
+    @SubscribeEvent
+    public void onServerStarting(ServerStartingEvent event) {
+        sampleIntervalTicks = PerformanceConfig.METRICS_SAMPLE_INTERVAL_TICKS.get();
+
+        boolean enabled = PerformanceConfig.ENABLE_METRICS_EXPORTER.get();
+        int configuredPort = PerformanceConfig.METRICS_EXPORTER_PORT.get();
+        if (httpServer != null && (!enabled || configuredPort != port)) {
+            stop();
+        }
+        if (enabled && httpServer == null) {
+            start(configuredPort);
+        }
+    }
+
+    @SubscribeEvent
+    public void onServerTick(ServerTickEvent.Post event) {
+        if (httpServer == null || --ticksUntilSample > 0) {
+            return;
+        }
+        ticksUntilSample = sampleIntervalTicks;
+        serverSample = sampleServer(event.getServer());
+    }
+
+    @SubscribeEvent
+    public void onServerStopped(ServerStoppedEvent event) {
+        // Don't keep exporting stale numbers once the (integrated) server is gone
+        serverSample = ServerSample.EMPTY;
+        ticksUntilSample = 0;
+    }
+
+    @SubscribeEvent
+    public void onGameShuttingDown(GameShuttingDownEvent event) {
+        stop();
+    }
+
+    private static ServerSample sampleServer(MinecraftServer server) {
+        long[] entities = new long[EntityTypeCategory.values().length];
+        for (ServerLevel level : server.getAllLevels()) {
+            for (Entity entity : level.getAllEntities()) {
+                entities[EntityTypeCategory.of(entity).ordinal()]++;
+            }
+        }
+
+        // Ring buffer of the last 100 tick durations; unfilled slots are zero
+        long[] tickTimes = server.getTickTimesNanos().clone();
+        int filled = 0;
+        for (long time : tickTimes) {
+            if (time > 0) {
+                tickTimes[filled++] = time;
+            }
+        }
+        if (filled == 0) {
+            return new ServerSample(entities, 0, 0, 0, 0);
+        }
+        Arrays.sort(tickTimes, 0, filled);
+
+        return new ServerSample(entities,
+                percentileMs(tickTimes, filled, 0.50),
+                percentileMs(tickTimes, filled, 0.95),
+                percentileMs(tickTimes, filled, 0.99),
+                tickTimes[filled - 1] / 1_000_000.0);
+    }
+
+    private static double percentileMs(long[] sorted, int count, double quantile) {
+        int index = (int) Math.ceil(quantile * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,24 @@
+package com.randomstrangerpassenger.mcopt.metrics;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A contributor of samples to the metrics endpoint.
+ * <p>
+ * Called from the exporter's HTTP thread, so implementations must only read
+ * values that are safe to access off the game thread (volatile snapshots,
+ * counters, or thread-safe collections).
+ * </p>
+ *
+ * @see MetricsExporter#registerSource(MetricsSource)
+ */
+@FunctionalInterface
+public interface MetricsSource {
+
+    /**
+     * Write this source's samples.
+     *
+     * @param out the builder for the current scrape
+     */
+    void write(@Nonnull PrometheusTextBuilder out);
+}
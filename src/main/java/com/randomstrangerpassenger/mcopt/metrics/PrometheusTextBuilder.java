@@ -0,0 +1,145 @@
+package com.randomstrangerpassenger.mcopt.metrics;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds a response body in the Prometheus text exposition format (0.0.4).
+ * <p>
+ * Samples are grouped by metric family so that several {@link MetricsSource}s
+ * can contribute to the same family (e.g. {@code mcopt_cache_hits_total}) without
+ * producing duplicate {@code # TYPE} lines.
+ * </p>
+ * <p>
+ * Not thread-safe; a new builder is created for every scrape.
+ * </p>
+ */
+public final class PrometheusTextBuilder {
+
+    private final Map<String, Family> families = new LinkedHashMap<>();
+
+    /**
+     * Metric family with its help text and collected sample lines.
+     */
+    private record Family(String type, String help, List<String> samples) {
+    }
+
+    /**
+     * Add a monotonically increasing counter sample.
+     *
+     * @param name   metric name (should end with {@code _total})
+     * @param help   help text
+     * @param value  sample value
+     * @param labels label key/value pairs
+     * @return this builder
+     */
+    @Nonnull
+    public PrometheusTextBuilder counter(@Nonnull String name, @Nonnull String help, double value,
+            String... labels) {
+        return sample("counter", name, help, value, labels);
+    }
+
+    /**
+     * Add a gauge sample.
+     *
+     * @param name   metric name
+     * @param help   help text
+     * @param value  sample value
+     * @param labels label key/value pairs
+     * @return this builder
+     */
+    @Nonnull
+    public PrometheusTextBuilder gauge(@Nonnull String name, @Nonnull String help, double value,
+            String... labels) {
+        return sample("gauge", name, help, value, labels);
+    }
+
+    /**
+     * Add the standard hit/miss/size triple for one of MCOPT's caches.
+     *
+     * @param cache  cache label value (e.g. "biome")
+     * @param hits   total hits
+     * @param misses total misses
+     * @param size   current entry count
+     * @return this builder
+     */
+    @Nonnull
+    public PrometheusTextBuilder cache(@Nonnull String cache, long hits, long misses, int size) {
+        counter("mcopt_cache_hits_total", "Cache lookups answered from the cache", hits, "cache", cache);
+        counter("mcopt_cache_misses_total", "Cache lookups that missed", misses, "cache", cache);
+        gauge("mcopt_cache_entries", "Current number of cached entries", size, "cache", cache);
+        return this;
+    }
+
+    private PrometheusTextBuilder sample(String type, String name, String help, double value, String[] labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be key/value pairs: " + name);
+        }
+
+        Family family = families.computeIfAbsent(name, k -> new Family(type, help, new ArrayList<>()));
+
+        StringBuilder line = new StringBuilder(name);
+        if (labels.length > 0) {
+            line.append('{');
+            for (int i = 0; i < labels.length; i += 2) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                line.append(labels[i]).append("=\"");
+                appendEscaped(line, labels[i + 1]);
+                line.append('"');
+            }
+            line.append('}');
+        }
+        line.append(' ').append(formatValue(value));
+        family.samples().add(line.toString());
+        return this;
+    }
+
+    /**
+     * Render all collected families.
+     *
+     * @return exposition text, terminated by a newline
+     */
+    @Nonnull
+    public String build() {
+        StringBuilder out = new StringBuilder(families.size() * 128);
+        for (Map.Entry<String, Family> entry : families.entrySet()) {
+            Family family = entry.getValue();
+            out.append("# HELP ").append(entry.getKey()).append(' ').append(family.help()).append('\n');
+            out.append("# TYPE ").append(entry.getKey()).append(' ').append(family.type()).append('\n');
+            for (String sample : family.samples()) {
+                out.append(sample).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '"' -> out.append("\\\"");
+                case '\n' -> out.append("\\n");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private static String formatValue(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
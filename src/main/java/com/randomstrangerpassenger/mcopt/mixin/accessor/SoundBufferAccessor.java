@@ -0,0 +1,20 @@
+package com.randomstrangerpassenger.mcopt.mixin.accessor;
+
+import com.mojang.blaze3d.audio.SoundBuffer;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import java.nio.ByteBuffer;
+
+@Mixin(SoundBuffer.class)
+public interface SoundBufferAccessor {
+    // Decoded PCM; null once uploaded to OpenAL
+    @Accessor("data")
+    ByteBuffer getDecodedData();
+
+    @Accessor("alBuffer")
+    int getAlBufferId();
+
+    @Accessor("hasAlBuffer")
+    boolean isAlBufferCreated();
+}
@@ -0,0 +1,12 @@
+package com.randomstrangerpassenger.mcopt.mixin.accessor;
+
+import com.mojang.blaze3d.audio.Channel;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+@Mixin(Channel.class)
+public interface SoundChannelAccessor {
+    // OpenAL source name
+    @Accessor("source")
+    int getSource();
+}
@@ -0,0 +1,22 @@
+package com.randomstrangerpassenger.mcopt.mixin.accessor;
+
+import net.minecraft.client.resources.sounds.SoundInstance;
+import net.minecraft.client.sounds.ChannelAccess;
+import net.minecraft.client.sounds.SoundBufferLibrary;
+import net.minecraft.client.sounds.SoundEngine;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import java.util.Map;
+
+@Mixin(SoundEngine.class)
+public interface SoundEngineAccessor {
+    @Accessor("instanceToChannel")
+    Map<SoundInstance, ChannelAccess.ChannelHandle> getInstanceToChannel();
+
+    @Accessor("soundBuffers")
+    SoundBufferLibrary getSoundBuffers();
+
+    @Accessor("channelAccess")
+    ChannelAccess getChannelAccess();
+}
@@ -1,8 +1,53 @@
 package com.randomstrangerpassenger.mcopt.mixin.client;
 
-// Disabled for now due to 1.21 EntityRenderState refactor.
-// Needs to be rewritten to target extractRenderState or handle RenderState objects.
-// @Mixin(LivingEntityRenderer.class)
-public class AnimationLODMixin {
-    // Logic disabled
+import com.randomstrangerpassenger.mcopt.client.rendering.AnimationLODHandler;
+import com.randomstrangerpassenger.mcopt.client.rendering.AnimationPose;
+import com.randomstrangerpassenger.mcopt.client.rendering.MCOptAnimationLODState;
+import net.minecraft.client.model.EntityModel;
+import net.minecraft.client.renderer.entity.LivingEntityRenderer;
+import net.minecraft.client.renderer.entity.state.LivingEntityRenderState;
+import net.minecraft.world.entity.LivingEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Animation LOD on the render state pipeline (see {@link AnimationLODHandler}).
+ * <p>
+ * The tier is decided after vanilla extracted the render state. When the
+ * renderer poses its model for the render layers, a reused pose is copied
+ * into the model parts instead of running {@code setupAnim}, and a freshly
+ * computed pose is captured for the following frames. Any other
+ * {@code setupAnim} call on the same state sees the reused inputs and ends up
+ * with the same pose.
+ * </p>
+ */
+@Mixin(LivingEntityRenderer.class)
+public abstract class AnimationLODMixin {
+
+    @Inject(method = "extractRenderState(Lnet/minecraft/world/entity/LivingEntity;Lnet/minecraft/client/renderer/entity/state/LivingEntityRenderState;F)V", at = @At("TAIL"))
+    private void mcopt$applyAnimationLOD(LivingEntity entity, LivingEntityRenderState state, float partialTick,
+            CallbackInfo ci) {
+        if (AnimationLODHandler.isEnabled()) {
+            AnimationLODHandler.onExtract(entity, state);
+        }
+    }
+
+    @Redirect(method = "submit(Lnet/minecraft/client/renderer/entity/state/LivingEntityRenderState;Lcom/mojang/blaze3d/vertex/PoseStack;Lnet/minecraft/client/renderer/SubmitNodeCollector;Lnet/minecraft/client/renderer/state/CameraRenderState;)V", at = @At(value = "INVOKE", target = "Lnet/minecraft/client/model/EntityModel;setupAnim(Ljava/lang/Object;)V"))
+    private void mcopt$setupAnimWithLOD(EntityModel<Object> model, Object state) {
+        MCOptAnimationLODState lod = (MCOptAnimationLODState) state;
+        AnimationPose pose = lod.mcopt$getAnimationPose();
+        if (pose == null) {
+            model.setupAnim(state);
+            return;
+        }
+
+        if (lod.mcopt$reusesPose() && pose.apply(model)) {
+            return;
+        }
+        model.setupAnim(state);
+        pose.capture(model);
+    }
 }
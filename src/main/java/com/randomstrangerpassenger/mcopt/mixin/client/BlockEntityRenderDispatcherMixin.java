@@ -0,0 +1,46 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.randomstrangerpassenger.mcopt.client.rendering.culling.BlockEntityCullingEngine;
+import net.minecraft.client.renderer.blockentity.BlockEntityRenderDispatcher;
+import net.minecraft.client.renderer.blockentity.BlockEntityRenderer;
+import net.minecraft.client.renderer.blockentity.state.BlockEntityRenderState;
+import net.minecraft.client.renderer.feature.ModelFeatureRenderer;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import javax.annotation.Nullable;
+
+/**
+ * Skips block entity renderers that are out of range or hidden behind
+ * terrain before their render state is extracted.
+ * <p>
+ * Every block entity in a visible section, vanilla or modded, goes through
+ * {@code tryExtractRenderState}; returning null makes the level renderer
+ * skip it for this frame.
+ * </p>
+ */
+@Mixin(BlockEntityRenderDispatcher.class)
+public abstract class BlockEntityRenderDispatcherMixin {
+
+    @Shadow
+    @Nullable
+    public abstract <E extends BlockEntity> BlockEntityRenderer<E, ?> getRenderer(E blockEntity);
+
+    @Inject(method = "tryExtractRenderState", at = @At("HEAD"), cancellable = true)
+    private void mcopt$cullBlockEntity(BlockEntity blockEntity, float partialTick,
+            @Nullable ModelFeatureRenderer.CrumblingOverlay crumblingOverlay,
+            CallbackInfoReturnable<BlockEntityRenderState> cir) {
+        if (!BlockEntityCullingEngine.isEnabled()) {
+            return;
+        }
+
+        BlockEntityRenderer<BlockEntity, ?> renderer = getRenderer(blockEntity);
+        if (renderer != null && BlockEntityCullingEngine.isCulled(blockEntity, renderer.shouldRenderOffScreen())) {
+            cir.setReturnValue(null);
+        }
+    }
+}
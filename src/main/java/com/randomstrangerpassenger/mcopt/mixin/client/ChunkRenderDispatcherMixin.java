@@ -1,50 +1,82 @@
 package com.randomstrangerpassenger.mcopt.mixin.client;
 
-import com.randomstrangerpassenger.mcopt.config.RenderingConfig;
+import com.randomstrangerpassenger.mcopt.client.rendering.AdaptiveChunkUploader;
+import com.randomstrangerpassenger.mcopt.client.rendering.SectionCompileScheduler;
+import com.randomstrangerpassenger.mcopt.client.rendering.SectionUploadQueue;
+import net.minecraft.client.renderer.SectionBufferBuilderPool;
 import net.minecraft.client.renderer.chunk.SectionRenderDispatcher;
+import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Mutable;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
+import java.util.Queue;
+
 /**
- * Optimizes chunk rendering by limiting the number of chunk updates per frame.
- * This prevents frame drops when many chunks need to be rebuilt simultaneously.
+ * Schedules section uploads within a per-frame time budget, and caps
+ * concurrent section compiles.
+ * <p>
+ * The dispatcher's upload queue is replaced by a {@link SectionUploadQueue}
+ * which orders uploads by visibility and distance; each call to
+ * {@code uploadAllPendingUploads} is one budgeted drain of that queue (see
+ * {@link AdaptiveChunkUploader}).
+ * </p>
+ * <p>
+ * Every running compile holds one buffer pack, so the packs in use are the
+ * compiles in flight. {@code runTask} is skipped while they reach
+ * {@link SectionCompileScheduler}'s cap; the next finished compile calls it
+ * again.
+ * </p>
  */
 @Mixin(SectionRenderDispatcher.class)
 public class ChunkRenderDispatcherMixin {
 
-    /** Tracks the number of chunk updates processed in the current frame */
-    private int mcopt$frameUpdateCount = 0;
+    @Shadow
+    @Final
+    @Mutable
+    private Queue<Runnable> toUpload;
 
-    /** Stores the timestamp of the last frame to detect frame changes */
-    private long mcopt$lastFrameTime = 0;
+    @Shadow
+    @Final
+    private SectionBufferBuilderPool bufferPool;
 
-    /**
-     * Limits chunk updates per frame to prevent FPS drops during world loading
-     * or when moving quickly through the world.
-     */
-    @Inject(method = "uploadAllPendingUploads", at = @At("HEAD"), cancellable = true)
-    private void limitChunkUpdates(CallbackInfoReturnable<Boolean> cir) {
-        if (!RenderingConfig.ENABLE_CHUNK_OPTIMIZATIONS.get()) {
-            return;
-        }
+    @Unique
+    private int mcopt$totalBuffers;
 
-        long currentTime = System.currentTimeMillis();
+    @Inject(method = "<init>", at = @At("TAIL"))
+    private void mcopt$installUploadQueue(CallbackInfo ci) {
+        SectionUploadQueue queue = new SectionUploadQueue();
+        // Anything queued while the dispatcher was being set up
+        queue.addAll(this.toUpload);
+        this.toUpload = queue;
+        this.mcopt$totalBuffers = this.bufferPool.getFreeBufferCount();
+    }
 
-        // Reset counter each frame
-        if (currentTime != mcopt$lastFrameTime) {
-            mcopt$frameUpdateCount = 0;
-            mcopt$lastFrameTime = currentTime;
+    @Inject(method = "runTask", at = @At("HEAD"), cancellable = true)
+    private void mcopt$capConcurrentCompiles(CallbackInfo ci) {
+        int inFlight = this.mcopt$totalBuffers - this.bufferPool.getFreeBufferCount();
+        if (!SectionCompileScheduler.canStartCompile(inFlight)) {
+            ci.cancel();
         }
+    }
 
-        // Limit updates per frame based on config
-        int limit = RenderingConfig.CHUNK_UPDATE_LIMIT.get();
-        if (mcopt$frameUpdateCount >= limit) {
-            cir.setReturnValue(false);
-            return;
+    @Inject(method = "uploadAllPendingUploads", at = @At("HEAD"))
+    private void mcopt$beginBudgetedDrain(CallbackInfoReturnable<Boolean> cir) {
+        SectionCompileScheduler.onFrameStart(this.mcopt$totalBuffers);
+        if (AdaptiveChunkUploader.isEnabled() && this.toUpload instanceof SectionUploadQueue queue) {
+            queue.beginFrame();
         }
+    }
 
-        mcopt$frameUpdateCount++;
+    @Inject(method = "uploadAllPendingUploads", at = @At("RETURN"))
+    private void mcopt$endBudgetedDrain(CallbackInfoReturnable<Boolean> cir) {
+        if (this.toUpload instanceof SectionUploadQueue queue) {
+            queue.endFrame();
+        }
     }
 }
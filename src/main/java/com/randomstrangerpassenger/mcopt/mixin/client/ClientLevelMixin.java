@@ -0,0 +1,31 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.randomstrangerpassenger.mcopt.client.rendering.culling.OcclusionGrid;
+import com.randomstrangerpassenger.mcopt.client.sound.SoundOcclusionCache;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Forwards client-side block changes to caches keyed on world geometry.
+ * <p>
+ * {@code sendBlockUpdated} is where every client block change (server
+ * updates, prediction, rollbacks) ends up before the section is re-rendered.
+ * </p>
+ */
+@Mixin(ClientLevel.class)
+public abstract class ClientLevelMixin {
+
+    @Inject(method = "sendBlockUpdated", at = @At("HEAD"))
+    private void mcopt$onBlockUpdated(BlockPos pos, BlockState oldState, BlockState newState, int flags,
+            CallbackInfo ci) {
+        if (oldState != newState) {
+            SoundOcclusionCache.onBlockChanged(pos, oldState, newState);
+            OcclusionGrid.onBlockChanged(pos, oldState, newState);
+        }
+    }
+}
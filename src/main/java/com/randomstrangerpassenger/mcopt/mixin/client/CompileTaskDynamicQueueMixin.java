@@ -0,0 +1,75 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.randomstrangerpassenger.mcopt.client.rendering.SectionCompileScheduler;
+import com.randomstrangerpassenger.mcopt.mixin.accessor.CompileTaskAccessor;
+import net.minecraft.client.renderer.chunk.CompileTaskDynamicQueue;
+import net.minecraft.client.renderer.chunk.SectionRenderDispatcher;
+import net.minecraft.world.phys.Vec3;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.List;
+
+/**
+ * Hands out section compiles by visibility tier and distance instead of
+ * vanilla's nearest-first alternation (see {@link SectionCompileScheduler}).
+ * <p>
+ * {@code poll} is synchronized, so the task list and the poll counter are
+ * only touched by one thread at a time. Cancelled tasks are dropped while
+ * selecting, as vanilla does.
+ * </p>
+ * <p>
+ * The {@code cameraPosition} argument is not used: distances come from the
+ * {@link SectionCompileScheduler}'s camera snapshot, which is captured
+ * together with the view direction once per frame, so the tier and the
+ * distance of a task always come from the same camera.
+ * </p>
+ */
+@Mixin(CompileTaskDynamicQueue.class)
+public class CompileTaskDynamicQueueMixin {
+
+    @Shadow
+    @Final
+    private List<SectionRenderDispatcher.RenderSection.CompileTask> tasks;
+
+    @Unique
+    private int mcopt$pollCount;
+
+    @Inject(method = "poll", at = @At("HEAD"), cancellable = true)
+    private void mcopt$pollByPriority(Vec3 cameraPosition,
+            CallbackInfoReturnable<SectionRenderDispatcher.RenderSection.CompileTask> cir) {
+        if (!SectionCompileScheduler.isEnabled() || this.tasks.isEmpty()) {
+            return;
+        }
+
+        boolean nearestOnly = ++this.mcopt$pollCount % SectionCompileScheduler.NEAREST_POLL_INTERVAL == 0;
+        int best = -1;
+        double bestPriority = Double.MAX_VALUE;
+        for (int i = 0; i < this.tasks.size(); i++) {
+            SectionRenderDispatcher.RenderSection.CompileTask task = this.tasks.get(i);
+            if (((CompileTaskAccessor) task).getIsCancelled().get()) {
+                this.tasks.remove(i--);
+                continue;
+            }
+            double priority = SectionCompileScheduler.priority(task.getRenderOrigin(), task.isRecompile(),
+                    nearestOnly);
+            if (priority < bestPriority) {
+                bestPriority = priority;
+                best = i;
+            }
+        }
+
+        if (best < 0) {
+            // Every task was cancelled
+            cir.setReturnValue(null);
+            return;
+        }
+        SectionCompileScheduler.recordPoll(bestPriority);
+        cir.setReturnValue(this.tasks.remove(best));
+    }
+}
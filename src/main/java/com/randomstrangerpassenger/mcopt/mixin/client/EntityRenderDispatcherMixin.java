@@ -0,0 +1,56 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.randomstrangerpassenger.mcopt.client.rendering.ItemEntityBatcher;
+import com.randomstrangerpassenger.mcopt.client.rendering.RenderFeatureLOD;
+import com.randomstrangerpassenger.mcopt.client.rendering.culling.EntityCullingEngine;
+import net.minecraft.client.renderer.culling.Frustum;
+import net.minecraft.client.renderer.entity.EntityRenderDispatcher;
+import net.minecraft.client.renderer.entity.state.EntityRenderState;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.item.ItemEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Skips entities the occlusion culling engine found hidden behind walls, and
+ * items drawn as part of another item's cluster.
+ * <p>
+ * {@code shouldRender} is asked before an entity's render state is extracted,
+ * so a culled entity costs neither extraction nor drawing. Item clusters are
+ * decided last, once vanilla and occlusion culling have passed the item.
+ * </p>
+ * <p>
+ * Extracted render states of distant entities lose the layers their tier
+ * does not draw (see {@link RenderFeatureLOD}).
+ * </p>
+ */
+@Mixin(EntityRenderDispatcher.class)
+public abstract class EntityRenderDispatcherMixin {
+
+    @Inject(method = "shouldRender", at = @At("HEAD"), cancellable = true)
+    private void mcopt$cullHiddenEntity(Entity entity, Frustum frustum, double camX, double camY, double camZ,
+            CallbackInfoReturnable<Boolean> cir) {
+        if (EntityCullingEngine.isEnabled() && EntityCullingEngine.isCulled(entity)) {
+            cir.setReturnValue(false);
+        }
+    }
+
+    @Inject(method = "shouldRender", at = @At("RETURN"), cancellable = true)
+    private void mcopt$skipClusteredItem(Entity entity, Frustum frustum, double camX, double camY, double camZ,
+            CallbackInfoReturnable<Boolean> cir) {
+        // Only items that would be drawn compete for drawing their cluster
+        if (cir.getReturnValueZ() && entity instanceof ItemEntity item && !ItemEntityBatcher.claim(item)) {
+            cir.setReturnValue(false);
+        }
+    }
+
+    @Inject(method = "extractEntity", at = @At("RETURN"))
+    private void mcopt$applyRenderFeatureLOD(Entity entity, float partialTick,
+            CallbackInfoReturnable<EntityRenderState> cir) {
+        if (RenderFeatureLOD.isEnabled()) {
+            RenderFeatureLOD.apply(entity, cir.getReturnValue());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.randomstrangerpassenger.mcopt.client.rendering.RenderFeatureLOD;
+import net.minecraft.client.renderer.entity.layers.EquipmentLayerRenderer;
+import net.minecraft.core.component.DataComponentType;
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.world.item.ItemStack;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+
+/**
+ * Leaves out armor trims and enchantment glint of armor the armor layer
+ * marked as plain (see {@link RenderFeatureLOD}).
+ */
+@Mixin(EquipmentLayerRenderer.class)
+public abstract class EquipmentLayerRendererMixin {
+
+    @Redirect(method = "renderLayers", at = @At(value = "INVOKE",
+            target = "Lnet/minecraft/world/item/ItemStack;hasFoil()Z"))
+    private boolean mcopt$plainArmorFoil(ItemStack stack) {
+        return !RenderFeatureLOD.isPlainArmor() && stack.hasFoil();
+    }
+
+    @Redirect(method = "renderLayers", at = @At(value = "INVOKE",
+            target = "Lnet/minecraft/world/item/ItemStack;get(Lnet/minecraft/core/component/DataComponentType;)Ljava/lang/Object;"))
+    private Object mcopt$plainArmorTrim(ItemStack stack, DataComponentType<?> type) {
+        if (type == DataComponents.TRIM && RenderFeatureLOD.isPlainArmor()) {
+            return null;
+        }
+        return stack.get(type);
+    }
+}
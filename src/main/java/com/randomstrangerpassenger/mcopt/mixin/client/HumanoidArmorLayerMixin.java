@@ -0,0 +1,33 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.randomstrangerpassenger.mcopt.client.rendering.RenderFeatureLOD;
+import net.minecraft.client.renderer.SubmitNodeCollector;
+import net.minecraft.client.renderer.entity.layers.HumanoidArmorLayer;
+import net.minecraft.client.renderer.entity.state.HumanoidRenderState;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Marks the armor of mid-range entities as drawn without trims and glint
+ * while the armor layer submits it (see {@link RenderFeatureLOD}).
+ */
+@Mixin(HumanoidArmorLayer.class)
+public abstract class HumanoidArmorLayerMixin {
+
+    @Inject(method = "submit", at = @At("HEAD"))
+    private void mcopt$beginArmorLOD(PoseStack poseStack, SubmitNodeCollector nodeCollector, int packedLight,
+            HumanoidRenderState state, float yRot, float xRot, CallbackInfo ci) {
+        if (RenderFeatureLOD.isEnabled()) {
+            RenderFeatureLOD.beginArmorLayer(state);
+        }
+    }
+
+    @Inject(method = "submit", at = @At("RETURN"))
+    private void mcopt$endArmorLOD(PoseStack poseStack, SubmitNodeCollector nodeCollector, int packedLight,
+            HumanoidRenderState state, float yRot, float xRot, CallbackInfo ci) {
+        RenderFeatureLOD.endArmorLayer();
+    }
+}
@@ -2,23 +2,26 @@ package com.randomstrangerpassenger.mcopt.mixin.client;
 
 import com.randomstrangerpassenger.mcopt.client.rendering.ItemEntityBatcher;
 import net.minecraft.client.renderer.entity.ItemEntityRenderer;
+import net.minecraft.client.renderer.entity.state.ItemClusterRenderState;
+import net.minecraft.client.renderer.entity.state.ItemEntityRenderState;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.entity.EntityAttachment;
 import net.minecraft.world.entity.item.ItemEntity;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
-import com.mojang.blaze3d.vertex.PoseStack;
-import net.minecraft.client.renderer.MultiBufferSource;
-
 /**
- * Mixin for ItemEntityRenderer to enable visual item batching.
+ * Mixin for ItemEntityRenderer to draw item clusters as one model.
  * 
  * <p>
- * This mixin intercepts item entity rendering to:
+ * The other items of a cluster are skipped in
+ * {@code EntityRenderDispatcherMixin}; here the representative's render state
+ * is sized for the whole cluster:
  * <ul>
- * <li>Skip rendering items that are part of another batch</li>
- * <li>Render batched item counts for primary items</li>
+ * <li>As many stacked copies of the model as vanilla draws for the combined count</li>
+ * <li>A count label in the name tag slot when the camera is close</li>
  * </ul>
  * 
  * <p>
@@ -29,16 +32,19 @@ import net.minecraft.client.renderer.MultiBufferSource;
 @Mixin(ItemEntityRenderer.class)
 public class ItemEntityRendererMixin {
 
-    /**
-     * Inject at the start of render to check if this item should be skipped.
-     */
-    @Inject(method = "render(Lnet/minecraft/world/entity/item/ItemEntity;FFLcom/mojang/blaze3d/vertex/PoseStack;Lnet/minecraft/client/renderer/MultiBufferSource;I)V", at = @At("HEAD"), cancellable = true)
-    private void mcopt$onRenderItem(ItemEntity entity, float entityYaw, float partialTicks,
-            PoseStack poseStack, MultiBufferSource buffer, int packedLight,
+    @Inject(method = "extractRenderState(Lnet/minecraft/world/entity/item/ItemEntity;Lnet/minecraft/client/renderer/entity/state/ItemEntityRenderState;F)V", at = @At("TAIL"))
+    private void mcopt$extractClusterState(ItemEntity entity, ItemEntityRenderState state, float partialTick,
             CallbackInfo ci) {
-        // Check if this item should be rendered or skipped
-        if (!ItemEntityBatcher.shouldRenderItem(entity)) {
-            ci.cancel();
+        if (!ItemEntityBatcher.isClusterPrimary(entity)) {
+            return;
+        }
+
+        int total = ItemEntityBatcher.getBatchedItemCount(entity);
+        state.count = ItemClusterRenderState.getRenderedAmount(total);
+        if (state.nameTag == null && ItemEntityBatcher.shouldShowCount(state.distanceToCameraSq)) {
+            state.nameTag = Component.translatable("mcopt.item_cluster.count", total);
+            state.nameTagAttachment = entity.getAttachments().getNullable(EntityAttachment.NAME_TAG, 0,
+                    entity.getYRot(partialTick));
         }
     }
 }
@@ -0,0 +1,28 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.randomstrangerpassenger.mcopt.client.rendering.MapUpdateThrottler;
+import net.minecraft.client.renderer.entity.ItemFrameRenderer;
+import net.minecraft.client.renderer.entity.state.ItemFrameRenderState;
+import net.minecraft.world.entity.decoration.ItemFrame;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Gives the map throttler the position of the item frame whose map is being
+ * prepared; maps outside a frame are treated as held.
+ */
+@Mixin(ItemFrameRenderer.class)
+public abstract class ItemFrameRendererMixin {
+
+    @Inject(method = "extractRenderState(Lnet/minecraft/world/entity/decoration/ItemFrame;Lnet/minecraft/client/renderer/entity/state/ItemFrameRenderState;F)V", at = @At("HEAD"))
+    private void mcopt$enterFrame(ItemFrame frame, ItemFrameRenderState state, float partialTick, CallbackInfo ci) {
+        MapUpdateThrottler.setCurrentPosition(frame.blockPosition());
+    }
+
+    @Inject(method = "extractRenderState(Lnet/minecraft/world/entity/decoration/ItemFrame;Lnet/minecraft/client/renderer/entity/state/ItemFrameRenderState;F)V", at = @At("RETURN"))
+    private void mcopt$leaveFrame(ItemFrame frame, ItemFrameRenderState state, float partialTick, CallbackInfo ci) {
+        MapUpdateThrottler.setCurrentPosition(null);
+    }
+}
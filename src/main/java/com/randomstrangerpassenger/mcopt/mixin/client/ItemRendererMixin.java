@@ -0,0 +1,28 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import com.randomstrangerpassenger.mcopt.client.rendering.AnimatedTextureOptimizer;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.entity.ItemRenderer;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import java.util.List;
+
+/**
+ * Keeps animated sprites drawn as items (GUI, held, dropped) ticking.
+ */
+@Mixin(ItemRenderer.class)
+public abstract class ItemRendererMixin {
+
+    @Inject(method = "renderQuadList", at = @At("HEAD"))
+    private static void mcopt$recordItemSprites(PoseStack.Pose pose, VertexConsumer consumer, List<BakedQuad> quads,
+            int[] tintLayers, int packedLight, int packedOverlay, CallbackInfo ci) {
+        if (AnimatedTextureOptimizer.isEnabled()) {
+            AnimatedTextureOptimizer.recordDirectQuads(quads);
+        }
+    }
+}
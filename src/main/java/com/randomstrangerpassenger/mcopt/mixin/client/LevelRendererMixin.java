@@ -0,0 +1,97 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.randomstrangerpassenger.mcopt.client.rendering.AnimatedTextureOptimizer;
+import com.randomstrangerpassenger.mcopt.client.rendering.RenderFrameCache;
+import com.randomstrangerpassenger.mcopt.client.rendering.SectionMeshCache;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.LevelRenderer;
+import net.minecraft.client.renderer.chunk.SectionRenderDispatcher;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Elliptical render distance culling, and section mesh cache invalidation.
+ * <p>
+ * Vanilla rebuilds the visible section lists in {@code applyFrustum} whenever
+ * the camera or frustum changes. Right after that, sections outside the
+ * ellipsoid are removed from both lists, so they are neither drawn nor
+ * scheduled for compilation by {@code compileSections}. A dirty section that
+ * is dropped keeps its dirty flag (only {@code compileSections} clears it
+ * after scheduling the rebuild), so it is compiled as soon as the camera
+ * brings it back inside the ellipsoid.
+ * </p>
+ * <p>
+ * Every way of marking a section dirty ends in {@code setSectionDirty}, which
+ * bumps the section's modification counter in the {@link SectionMeshCache}.
+ * Reloading the renderer or changing the level drops every retained mesh.
+ * </p>
+ * <p>
+ * The visible section list is also what decides which animated textures
+ * tick (see {@link AnimatedTextureOptimizer}).
+ * </p>
+ */
+@Mixin(LevelRenderer.class)
+public abstract class LevelRendererMixin {
+
+    @Shadow
+    @Final
+    private ObjectArrayList<SectionRenderDispatcher.RenderSection> visibleSections;
+
+    @Shadow
+    @Final
+    private ObjectArrayList<SectionRenderDispatcher.RenderSection> nearbyVisibleSections;
+
+    @Inject(method = "applyFrustum", at = @At("TAIL"))
+    private void mcopt$cullOutsideEllipsoid(CallbackInfo ci) {
+        AnimatedTextureOptimizer.setVisibleSections(visibleSections);
+        if (!RenderFrameCache.isEllipticalEnabled()) {
+            return;
+        }
+
+        RenderFrameCache.updateForFrame(Minecraft.getInstance());
+        mcopt$filter(visibleSections, true);
+        // Nearby sections are a subset of the visible ones; they were already counted
+        mcopt$filter(nearbyVisibleSections, false);
+    }
+
+    @Inject(method = "setSectionDirty(IIIZ)V", at = @At("HEAD"))
+    private void mcopt$countSectionChange(int sectionX, int sectionY, int sectionZ, boolean playerChanged,
+            CallbackInfo ci) {
+        SectionMeshCache.onSectionDirty(sectionX, sectionY, sectionZ);
+    }
+
+    @Inject(method = { "allChanged", "setLevel" }, at = @At("HEAD"))
+    private void mcopt$dropRetainedMeshes(CallbackInfo ci) {
+        SectionMeshCache.clear();
+        // Every section recompiles and records its sprites again
+        AnimatedTextureOptimizer.clearTrackedPositions();
+    }
+
+    @Unique
+    private static void mcopt$filter(ObjectArrayList<SectionRenderDispatcher.RenderSection> sections,
+            boolean count) {
+        SectionRenderDispatcher.RenderSection[] elements = sections.elements();
+        int size = sections.size();
+        int write = 0;
+        for (int read = 0; read < size; read++) {
+            SectionRenderDispatcher.RenderSection section = elements[read];
+            if (RenderFrameCache.shouldCullSection(section.getRenderOrigin())) {
+                if (count) {
+                    RenderFrameCache.recordCulledSection();
+                    if (section.isDirty()) {
+                        RenderFrameCache.recordSkippedCompile();
+                    }
+                }
+            } else {
+                elements[write++] = section;
+            }
+        }
+        sections.size(write);
+    }
+}
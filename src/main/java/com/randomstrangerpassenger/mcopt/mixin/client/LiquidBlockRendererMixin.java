@@ -0,0 +1,35 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import com.randomstrangerpassenger.mcopt.client.rendering.AnimatedTextureOptimizer;
+import net.minecraft.client.renderer.block.LiquidBlockRenderer;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.BlockAndTintGetter;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.FluidState;
+import net.neoforged.neoforge.client.textures.FluidSpriteCache;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Records the animated fluid sprites used by the section being compiled.
+ */
+@Mixin(LiquidBlockRenderer.class)
+public abstract class LiquidBlockRendererMixin {
+
+    @Inject(method = "tesselate", at = @At("HEAD"))
+    private void mcopt$recordFluidSprites(BlockAndTintGetter level, BlockPos pos, VertexConsumer consumer,
+            BlockState blockState, FluidState fluidState, CallbackInfo ci) {
+        if (!AnimatedTextureOptimizer.isEnabled()) {
+            return;
+        }
+        for (TextureAtlasSprite sprite : FluidSpriteCache.getFluidSprites(level, pos, fluidState)) {
+            if (sprite != null) {
+                AnimatedTextureOptimizer.recordTerrainSprite(sprite);
+            }
+        }
+    }
+}
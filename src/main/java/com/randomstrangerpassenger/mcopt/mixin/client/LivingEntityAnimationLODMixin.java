@@ -0,0 +1,28 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.randomstrangerpassenger.mcopt.client.rendering.AnimationPose;
+import com.randomstrangerpassenger.mcopt.client.rendering.MCOptAnimatedEntity;
+import net.minecraft.world.entity.LivingEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Gives every living entity a lazily created animation LOD pose cache.
+ */
+@Mixin(LivingEntity.class)
+public abstract class LivingEntityAnimationLODMixin implements MCOptAnimatedEntity {
+
+    @Unique
+    private AnimationPose mcopt$animationPose;
+
+    @Override
+    @Nonnull
+    public AnimationPose mcopt$getAnimationPose() {
+        if (this.mcopt$animationPose == null) {
+            this.mcopt$animationPose = new AnimationPose();
+        }
+        return this.mcopt$animationPose;
+    }
+}
@@ -0,0 +1,40 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.randomstrangerpassenger.mcopt.client.rendering.AnimationPose;
+import com.randomstrangerpassenger.mcopt.client.rendering.MCOptAnimationLODState;
+import net.minecraft.client.renderer.entity.state.LivingEntityRenderState;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+import javax.annotation.Nullable;
+
+/**
+ * Carries the animation LOD decision from extraction to posing.
+ */
+@Mixin(LivingEntityRenderState.class)
+public abstract class LivingEntityRenderStateMixin implements MCOptAnimationLODState {
+
+    @Unique
+    @Nullable
+    private AnimationPose mcopt$animationPose;
+
+    @Unique
+    private boolean mcopt$reusePose;
+
+    @Override
+    public void mcopt$setAnimationLOD(@Nullable AnimationPose pose, boolean reusePose) {
+        this.mcopt$animationPose = pose;
+        this.mcopt$reusePose = reusePose;
+    }
+
+    @Override
+    @Nullable
+    public AnimationPose mcopt$getAnimationPose() {
+        return this.mcopt$animationPose;
+    }
+
+    @Override
+    public boolean mcopt$reusesPose() {
+        return this.mcopt$reusePose;
+    }
+}
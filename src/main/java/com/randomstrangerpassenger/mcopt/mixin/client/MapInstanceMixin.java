@@ -0,0 +1,93 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.mojang.blaze3d.platform.NativeImage;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.randomstrangerpassenger.mcopt.client.rendering.MCOptDirtyMap;
+import com.randomstrangerpassenger.mcopt.client.rendering.MapUpdateThrottler;
+import net.minecraft.client.renderer.texture.DynamicTexture;
+import net.minecraft.world.level.material.MapColor;
+import net.minecraft.world.level.saveddata.maps.MapItemSavedData;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Throttles map texture uploads and writes only the changed rectangle (see
+ * {@link MapUpdateThrottler}).
+ * <p>
+ * A new map instance, or one whose data was replaced, still gets vanilla's
+ * full upload.
+ * </p>
+ */
+@Mixin(targets = "net.minecraft.client.resources.MapTextureManager$MapInstance")
+public abstract class MapInstanceMixin {
+
+    @Shadow
+    private MapItemSavedData data;
+
+    @Shadow
+    @Final
+    private DynamicTexture texture;
+
+    @Shadow
+    private boolean requiresUpload;
+
+    @Unique
+    private boolean mcopt$needsFullUpload = true;
+
+    @Inject(method = "replaceMapData", at = @At("HEAD"))
+    private void mcopt$onDataReplaced(MapItemSavedData newData, CallbackInfo ci) {
+        if (newData != this.data) {
+            this.mcopt$needsFullUpload = true;
+        }
+    }
+
+    @Inject(method = "updateTextureIfNeeded", at = @At("HEAD"), cancellable = true)
+    private void mcopt$uploadChangedRegion(CallbackInfo ci) {
+        if (!this.requiresUpload || !MapUpdateThrottler.isEnabled()) {
+            return;
+        }
+        if (!MapUpdateThrottler.canUpdateCurrentMap()) {
+            // Keep showing the previous texture and ask again next frame
+            ci.cancel();
+            return;
+        }
+
+        int[] rect = ((MCOptDirtyMap) this.data).mcopt$takeDirtyRect();
+        if (this.mcopt$needsFullUpload) {
+            this.mcopt$needsFullUpload = false;
+            MapUpdateThrottler.recordFullUpload();
+            return;
+        }
+
+        ci.cancel();
+        this.requiresUpload = false;
+        if (rect == null) {
+            // Only decorations changed; they are drawn separately
+            MapUpdateThrottler.recordSkippedUpload();
+            return;
+        }
+
+        NativeImage pixels = this.texture.getPixels();
+        if (pixels == null) {
+            return;
+        }
+        int minX = rect[0];
+        int minY = rect[1];
+        int width = rect[2] - minX + 1;
+        int height = rect[3] - minY + 1;
+        byte[] colors = this.data.colors;
+        for (int y = minY; y <= rect[3]; y++) {
+            for (int x = minX; x <= rect[2]; x++) {
+                pixels.setPixel(x, y, MapColor.getColorFromPackedId(colors[x + y * 128]));
+            }
+        }
+        RenderSystem.getDevice().createCommandEncoder().writeToTexture(this.texture.getTexture(), pixels, 0, 0,
+                minX, minY, width, height, minX, minY);
+        MapUpdateThrottler.recordPartialUpload(width * height);
+    }
+}
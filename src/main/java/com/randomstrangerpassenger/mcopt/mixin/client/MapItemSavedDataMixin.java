@@ -0,0 +1,51 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.randomstrangerpassenger.mcopt.client.rendering.MCOptDirtyMap;
+import com.randomstrangerpassenger.mcopt.client.rendering.MapUpdateThrottler;
+import net.minecraft.world.level.saveddata.maps.MapItemSavedData;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import javax.annotation.Nullable;
+
+/**
+ * Tracks the rectangle of map pixels changed since the texture was last
+ * uploaded (see {@link MapUpdateThrottler}).
+ */
+@Mixin(MapItemSavedData.class)
+public abstract class MapItemSavedDataMixin implements MCOptDirtyMap {
+
+    @Unique
+    private int mcopt$dirtyMinX = Integer.MAX_VALUE;
+    @Unique
+    private int mcopt$dirtyMinY = Integer.MAX_VALUE;
+    @Unique
+    private int mcopt$dirtyMaxX = -1;
+    @Unique
+    private int mcopt$dirtyMaxY = -1;
+
+    @Inject(method = "setColor", at = @At("HEAD"))
+    private void mcopt$markPixelDirty(int x, int z, byte color, CallbackInfo ci) {
+        this.mcopt$dirtyMinX = Math.min(this.mcopt$dirtyMinX, x);
+        this.mcopt$dirtyMinY = Math.min(this.mcopt$dirtyMinY, z);
+        this.mcopt$dirtyMaxX = Math.max(this.mcopt$dirtyMaxX, x);
+        this.mcopt$dirtyMaxY = Math.max(this.mcopt$dirtyMaxY, z);
+    }
+
+    @Override
+    @Nullable
+    public int[] mcopt$takeDirtyRect() {
+        if (this.mcopt$dirtyMaxX < 0) {
+            return null;
+        }
+        int[] rect = { this.mcopt$dirtyMinX, this.mcopt$dirtyMinY, this.mcopt$dirtyMaxX, this.mcopt$dirtyMaxY };
+        this.mcopt$dirtyMinX = Integer.MAX_VALUE;
+        this.mcopt$dirtyMinY = Integer.MAX_VALUE;
+        this.mcopt$dirtyMaxX = -1;
+        this.mcopt$dirtyMaxY = -1;
+        return rect;
+    }
+}
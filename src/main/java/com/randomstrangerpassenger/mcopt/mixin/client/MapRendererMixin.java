@@ -1,11 +1,23 @@
 package com.randomstrangerpassenger.mcopt.mixin.client;
 
+import com.randomstrangerpassenger.mcopt.client.rendering.MapUpdateThrottler;
+import net.minecraft.client.renderer.MapRenderer;
+import net.minecraft.client.renderer.state.MapRenderState;
+import net.minecraft.world.level.saveddata.maps.MapId;
+import net.minecraft.world.level.saveddata.maps.MapItemSavedData;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
-// Placeholder because MapRenderer class location is uncertain/changed in 1.21
-// and finding it via file search failed.
-// Will re-enable when correct mapping is found.
-@Mixin(targets = "net.minecraft.client.gui.MapRenderer", remap = false) // Use string target to avoid import error
-public class MapRendererMixin {
-    // Logic disabled for now
+/**
+ * Tells the map throttler which map is having its texture prepared.
+ */
+@Mixin(MapRenderer.class)
+public abstract class MapRendererMixin {
+
+    @Inject(method = "extractRenderState", at = @At("HEAD"))
+    private void mcopt$setCurrentMap(MapId mapId, MapItemSavedData data, MapRenderState state, CallbackInfo ci) {
+        MapUpdateThrottler.setCurrentMap(mapId.id());
+    }
 }
@@ -0,0 +1,72 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import com.randomstrangerpassenger.mcopt.client.rendering.AnimatedTextureOptimizer;
+import com.randomstrangerpassenger.mcopt.client.rendering.leaves.SmartLeavesCuller;
+import net.minecraft.client.renderer.block.ModelBlockRenderer;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.block.model.BlockModelPart;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.BlockAndTintGetter;
+import net.minecraft.world.level.block.state.BlockState;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.List;
+
+/**
+ * Skips leaf faces buried inside dense canopies (smart leaves), and records
+ * the animated sprites of every block meshed into a section or drawn on its
+ * own ({@code renderSingleBlock}, falling blocks).
+ */
+@Mixin(ModelBlockRenderer.class)
+public abstract class ModelBlockRendererMixin {
+
+    @Unique
+    private static final Direction[] mcopt$DIRECTIONS = Direction.values();
+
+    @Inject(method = "shouldRenderFace", at = @At("HEAD"), cancellable = true)
+    private static void mcopt$cullBuriedLeafFace(BlockAndTintGetter level, BlockState state, boolean checkSides,
+            Direction face, BlockPos neighborPos, CallbackInfoReturnable<Boolean> cir) {
+        if (checkSides && SmartLeavesCuller.shouldCullFace(state, face, neighborPos)) {
+            cir.setReturnValue(false);
+        }
+    }
+
+    @Inject(method = "tesselateBlock", at = @At("HEAD"))
+    private void mcopt$recordAnimatedSprites(BlockAndTintGetter level, List<BlockModelPart> parts, BlockState state,
+            BlockPos pos, PoseStack poseStack, VertexConsumer consumer, boolean checkSides, int packedOverlay,
+            CallbackInfo ci) {
+        if (!AnimatedTextureOptimizer.isEnabled()) {
+            return;
+        }
+        for (int i = 0, size = parts.size(); i < size; i++) {
+            BlockModelPart part = parts.get(i);
+            mcopt$recordQuads(part.getQuads(null));
+            for (Direction direction : mcopt$DIRECTIONS) {
+                mcopt$recordQuads(part.getQuads(direction));
+            }
+        }
+    }
+
+    @Inject(method = "renderQuadList", at = @At("HEAD"))
+    private static void mcopt$recordSingleBlockSprites(PoseStack.Pose pose, VertexConsumer consumer, float red,
+            float green, float blue, List<BakedQuad> quads, int packedLight, int packedOverlay, CallbackInfo ci) {
+        if (AnimatedTextureOptimizer.isEnabled()) {
+            AnimatedTextureOptimizer.recordDirectQuads(quads);
+        }
+    }
+
+    @Unique
+    private static void mcopt$recordQuads(List<BakedQuad> quads) {
+        for (int i = 0, size = quads.size(); i < size; i++) {
+            AnimatedTextureOptimizer.recordTerrainSprite(quads.get(i).sprite());
+        }
+    }
+}
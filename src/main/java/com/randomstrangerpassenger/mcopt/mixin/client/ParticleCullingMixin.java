@@ -0,0 +1,105 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.randomstrangerpassenger.mcopt.client.rendering.ViewCone;
+import com.randomstrangerpassenger.mcopt.client.rendering.particle.MCOptCulledParticle;
+import com.randomstrangerpassenger.mcopt.client.rendering.particle.ParticleCullingManager;
+import net.minecraft.client.particle.Particle;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Gives every particle a culled flag and a cheap tick while culled.
+ * <p>
+ * A culled particle without collision cannot interact with anything the
+ * player sees, so its base tick is reduced to ageing and straight-line
+ * motion with gravity and friction: no collision, no bounding box queries.
+ * Subclass logic that runs around {@code super.tick()} (sprite animation,
+ * colour fades) is left alone.
+ * </p>
+ */
+@Mixin(Particle.class)
+public abstract class ParticleCullingMixin implements MCOptCulledParticle {
+
+    @Shadow
+    protected double xo;
+    @Shadow
+    protected double yo;
+    @Shadow
+    protected double zo;
+    @Shadow
+    protected double x;
+    @Shadow
+    protected double y;
+    @Shadow
+    protected double z;
+    @Shadow
+    protected double xd;
+    @Shadow
+    protected double yd;
+    @Shadow
+    protected double zd;
+    @Shadow
+    protected int age;
+    @Shadow
+    protected int lifetime;
+    @Shadow
+    protected float gravity;
+    @Shadow
+    protected float friction;
+    @Shadow
+    protected boolean hasPhysics;
+
+    @Shadow
+    public abstract void setPos(double x, double y, double z);
+
+    @Shadow
+    public abstract void remove();
+
+    @Unique
+    private boolean mcopt$culled;
+
+    @Override
+    public double mcopt$distanceSquared(ViewCone view) {
+        return view.distanceSqr(x, y, z);
+    }
+
+    @Override
+    public boolean mcopt$isOutsideView() {
+        return ParticleCullingManager.isOutsideView(x, y, z);
+    }
+
+    @Override
+    public void mcopt$setCulled(boolean culled) {
+        this.mcopt$culled = culled;
+    }
+
+    @Override
+    public boolean mcopt$isCulled() {
+        return mcopt$culled;
+    }
+
+    @Inject(method = "tick", at = @At("HEAD"), cancellable = true)
+    private void mcopt$tickCulled(CallbackInfo ci) {
+        if (!mcopt$culled || hasPhysics || !ParticleCullingManager.isCullingEnabled()) {
+            return;
+        }
+
+        xo = x;
+        yo = y;
+        zo = z;
+        if (age++ >= lifetime) {
+            remove();
+        } else {
+            yd -= 0.04 * gravity;
+            setPos(x + xd, y + yd, z + zd);
+            xd *= friction;
+            yd *= friction;
+            zd *= friction;
+        }
+        ci.cancel();
+    }
+}
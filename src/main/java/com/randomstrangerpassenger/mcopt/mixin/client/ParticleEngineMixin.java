@@ -0,0 +1,62 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.randomstrangerpassenger.mcopt.client.rendering.particle.ParticleCullingManager;
+import com.randomstrangerpassenger.mcopt.client.rendering.particle.ParticlePhysicsOptimizer;
+import com.randomstrangerpassenger.mcopt.client.rendering.particle.ParticlePool;
+import net.minecraft.client.particle.Particle;
+import net.minecraft.client.particle.ParticleEngine;
+import net.minecraft.core.particles.ParticleOptions;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Feeds the particle engine's lifecycle to {@link ParticleCullingManager},
+ * {@link ParticlePhysicsOptimizer} and {@link ParticlePool}: new particles
+ * are tracked or taken from the pool, budgets, culled flags, the physics
+ * snapshot and the pool quarantine are refreshed right before the engine
+ * ticks, and everything is dropped when the engine is cleared for a new
+ * level.
+ */
+@Mixin(ParticleEngine.class)
+public abstract class ParticleEngineMixin {
+
+    @Inject(method = "makeParticle", at = @At("HEAD"), cancellable = true)
+    private void mcopt$reusePooledParticle(ParticleOptions options, double x, double y, double z,
+            double xd, double yd, double zd, CallbackInfoReturnable<Particle> cir) {
+        Particle pooled = ParticlePool.acquire(options, x, y, z, xd, yd, zd);
+        if (pooled != null) {
+            cir.setReturnValue(pooled);
+        }
+    }
+
+    @Inject(method = "makeParticle", at = @At("RETURN"))
+    private void mcopt$markPoolable(ParticleOptions options, double x, double y, double z,
+            double xd, double yd, double zd, CallbackInfoReturnable<Particle> cir) {
+        Particle particle = cir.getReturnValue();
+        if (particle != null) {
+            ParticlePool.onCreated(options, particle);
+        }
+    }
+
+    @Inject(method = "add(Lnet/minecraft/client/particle/Particle;)V", at = @At("HEAD"))
+    private void mcopt$trackParticle(Particle particle, CallbackInfo ci) {
+        ParticleCullingManager.track(particle);
+    }
+
+    @Inject(method = "tick", at = @At("HEAD"))
+    private void mcopt$applyBudgets(CallbackInfo ci) {
+        ParticlePhysicsOptimizer.onTick();
+        ParticleCullingManager.onEngineTick();
+        ParticlePool.onEngineTick();
+    }
+
+    @Inject(method = "clearParticles", at = @At("HEAD"))
+    private void mcopt$forgetParticles(CallbackInfo ci) {
+        ParticleCullingManager.clear();
+        ParticlePhysicsOptimizer.clear();
+        ParticlePool.clear();
+    }
+}
@@ -28,6 +28,8 @@ public abstract class ParticlePhysicsMixin {
     public double zd;
     @Shadow
     protected boolean onGround;
+    @Shadow
+    protected boolean hasPhysics;
 
     /**
      * Redirects the collision movement logic in Particle.tick().
@@ -40,10 +42,20 @@ public abstract class ParticlePhysicsMixin {
         if (mode == ParticlePhysicsOptimizer.PhysicsMode.NO_CLIP) {
             // Simple movement without collision checks
             this.setPos(x + xd, y + yd, z + zd);
-        } else if (mode == ParticlePhysicsOptimizer.PhysicsMode.HEIGHT_ONLY) {
-            // For now, fall back to normal movement even for HEIGHT_ONLY
-            // because implementing height-only physics here is complex.
-            instance.move(xd, yd, zd);
+        } else if (mode == ParticlePhysicsOptimizer.PhysicsMode.HEIGHT_ONLY && hasPhysics) {
+            // Collide only with the ground surface of the target column
+            double newX = x + xd;
+            double newZ = z + zd;
+            double newY = y + yd;
+            double ground = ParticlePhysicsOptimizer.estimateGroundLevel(newX, y, newZ);
+            if (yd < 0 && newY < ground) {
+                newY = ground;
+                this.yd = 0;
+                this.onGround = true;
+            } else {
+                this.onGround = false;
+            }
+            this.setPos(newX, newY, newZ);
         } else {
             // Full physics
             instance.move(xd, yd, zd);
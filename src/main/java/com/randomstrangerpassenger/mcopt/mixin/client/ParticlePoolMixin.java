@@ -0,0 +1,291 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.randomstrangerpassenger.mcopt.client.rendering.particle.MCOptPooledParticle;
+import com.randomstrangerpassenger.mcopt.client.rendering.particle.ParticlePool;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.particle.Particle;
+import net.minecraft.core.particles.DustParticleOptions;
+import net.minecraft.core.particles.ParticleOptions;
+import net.minecraft.core.particles.ParticleType;
+import net.minecraft.core.particles.ParticleTypes;
+import net.minecraft.util.RandomSource;
+import org.joml.Vector3f;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Lets {@link ParticlePool} recycle particles.
+ * <p>
+ * Removal hands poolable particles to the pool. {@link #mcopt$reinit} resets
+ * every base field and then repeats what the constructor of the pooled type
+ * does. Sprites are kept: the pooled types either pick a random sprite from
+ * the same set or re-pick one from their age every tick.
+ * </p>
+ */
+@Mixin(Particle.class)
+public abstract class ParticlePoolMixin implements MCOptPooledParticle {
+
+    @Shadow
+    @Final
+    protected ClientLevel level;
+    @Shadow
+    @Final
+    protected RandomSource random;
+    @Shadow
+    protected double xo;
+    @Shadow
+    protected double yo;
+    @Shadow
+    protected double zo;
+    @Shadow
+    protected double x;
+    @Shadow
+    protected double y;
+    @Shadow
+    protected double z;
+    @Shadow
+    protected double xd;
+    @Shadow
+    protected double yd;
+    @Shadow
+    protected double zd;
+    @Shadow
+    protected boolean onGround;
+    @Shadow
+    protected boolean hasPhysics;
+    @Shadow
+    private boolean stoppedByCollision;
+    @Shadow
+    protected boolean removed;
+    @Shadow
+    protected int age;
+    @Shadow
+    protected int lifetime;
+    @Shadow
+    protected float gravity;
+    @Shadow
+    protected float friction;
+    @Shadow
+    protected boolean speedUpWhenYMotionIsBlocked;
+
+    @Shadow
+    public abstract void setPos(double x, double y, double z);
+
+    @Shadow
+    protected abstract void setSize(float width, float height);
+
+    @Unique
+    private ParticleType<?> mcopt$poolType;
+
+    @Override
+    public ParticleType<?> mcopt$getPoolType() {
+        return mcopt$poolType;
+    }
+
+    @Override
+    public void mcopt$setPoolType(ParticleType<?> type) {
+        this.mcopt$poolType = type;
+    }
+
+    @Override
+    public boolean mcopt$isInLevel(ClientLevel level) {
+        return this.level == level;
+    }
+
+    @Inject(method = "remove", at = @At("HEAD"))
+    private void mcopt$releaseToPool(CallbackInfo ci) {
+        if (!removed && mcopt$poolType != null) {
+            ParticlePool.release((Particle) (Object) this);
+        }
+    }
+
+    @Override
+    public void mcopt$reinit(ParticleOptions options, double x, double y, double z,
+            double xd, double yd, double zd) {
+        ParticleType<?> type = mcopt$poolType;
+        if (type == ParticleTypes.SMOKE) {
+            mcopt$reinitSmoke(x, y, z, xd, yd, zd);
+        } else if (type == ParticleTypes.FLAME) {
+            mcopt$reinitFlame(x, y, z, xd, yd, zd);
+        } else if (type == ParticleTypes.SPLASH) {
+            mcopt$reinitSplash(x, y, z, xd, yd, zd);
+        } else if (type == ParticleTypes.DUST) {
+            mcopt$reinitDust((DustParticleOptions) options, x, y, z, xd, yd, zd);
+        } else if (type == ParticleTypes.CRIT) {
+            mcopt$reinitCrit(x, y, z);
+        } else if (type == ParticleTypes.PORTAL) {
+            mcopt$reinitPortal(x, y, z, xd, yd, zd);
+        }
+    }
+
+    /**
+     * Particle(level, x, y, z) plus field defaults.
+     */
+    @Unique
+    private void mcopt$resetBase(double x, double y, double z) {
+        removed = false;
+        age = 0;
+        onGround = false;
+        stoppedByCollision = false;
+        hasPhysics = true;
+        speedUpWhenYMotionIsBlocked = false;
+        gravity = 0.0F;
+        friction = 0.98F;
+        xd = 0.0;
+        yd = 0.0;
+        zd = 0.0;
+        setSize(0.2F, 0.2F);
+        setPos(x, y, z);
+        xo = x;
+        yo = y;
+        zo = z;
+        lifetime = (int) (4.0F / (random.nextFloat() * 0.9F + 0.1F));
+    }
+
+    /**
+     * Particle(level, x, y, z, xd, yd, zd): base reset plus randomized velocity.
+     */
+    @Unique
+    private void mcopt$resetBase(double x, double y, double z, double xd, double yd, double zd) {
+        mcopt$resetBase(x, y, z);
+        this.xd = xd + (Math.random() * 2.0 - 1.0) * 0.4F;
+        this.yd = yd + (Math.random() * 2.0 - 1.0) * 0.4F;
+        this.zd = zd + (Math.random() * 2.0 - 1.0) * 0.4F;
+        double speed = (Math.random() + Math.random() + 1.0) * 0.15F;
+        double length = Math.sqrt(this.xd * this.xd + this.yd * this.yd + this.zd * this.zd);
+        this.xd = this.xd / length * speed * 0.4F;
+        this.yd = this.yd / length * speed * 0.4F + 0.1F;
+        this.zd = this.zd / length * speed * 0.4F;
+    }
+
+    @Unique
+    private float mcopt$defaultQuadSize() {
+        return 0.1F * (random.nextFloat() * 0.5F + 0.5F) * 2.0F;
+    }
+
+    @Unique
+    private void mcopt$resetQuad(float quadSize, float red, float green, float blue) {
+        ((MCOptPooledParticle.Quad) this).mcopt$resetQuad(quadSize, red, green, blue);
+    }
+
+    /**
+     * SmokeParticle / BaseAshSmokeParticle.
+     */
+    @Unique
+    private void mcopt$reinitSmoke(double x, double y, double z, double xd, double yd, double zd) {
+        mcopt$resetBase(x, y, z, 0.0, 0.0, 0.0);
+        friction = 0.96F;
+        gravity = -0.1F;
+        speedUpWhenYMotionIsBlocked = true;
+        this.xd = this.xd * 0.1F + xd;
+        this.yd = this.yd * 0.1F + yd;
+        this.zd = this.zd * 0.1F + zd;
+        float shade = random.nextFloat() * 0.3F;
+        mcopt$resetQuad(mcopt$defaultQuadSize() * 0.75F, shade, shade, shade);
+        lifetime = Math.max((int) (8.0 / (random.nextFloat() * 0.8 + 0.2)), 1);
+    }
+
+    /**
+     * FlameParticle / RisingParticle.
+     */
+    @Unique
+    private void mcopt$reinitFlame(double x, double y, double z, double xd, double yd, double zd) {
+        mcopt$resetBase(x, y, z, xd, yd, zd);
+        friction = 0.96F;
+        this.xd = this.xd * 0.01F + xd;
+        this.yd = this.yd * 0.01F + yd;
+        this.zd = this.zd * 0.01F + zd;
+        this.x += (random.nextFloat() - random.nextFloat()) * 0.05F;
+        this.y += (random.nextFloat() - random.nextFloat()) * 0.05F;
+        this.z += (random.nextFloat() - random.nextFloat()) * 0.05F;
+        lifetime = (int) (8.0 / (Math.random() * 0.8 + 0.2)) + 4;
+        mcopt$resetQuad(mcopt$defaultQuadSize(), 1.0F, 1.0F, 1.0F);
+    }
+
+    /**
+     * SplashParticle / WaterDropParticle.
+     */
+    @Unique
+    private void mcopt$reinitSplash(double x, double y, double z, double xd, double yd, double zd) {
+        mcopt$resetBase(x, y, z);
+        this.yd = Math.random() * 0.2F + 0.1F;
+        setSize(0.01F, 0.01F);
+        lifetime = (int) (8.0 / (Math.random() * 0.8 + 0.2));
+        gravity = 0.04F;
+        if (yd == 0.0 && (xd != 0.0 || zd != 0.0)) {
+            this.xd = xd;
+            this.yd = 0.1;
+            this.zd = zd;
+        }
+        mcopt$resetQuad(mcopt$defaultQuadSize(), 1.0F, 1.0F, 1.0F);
+    }
+
+    /**
+     * DustParticle / DustParticleBase.
+     */
+    @Unique
+    private void mcopt$reinitDust(DustParticleOptions options, double x, double y, double z,
+            double xd, double yd, double zd) {
+        mcopt$resetBase(x, y, z, xd, yd, zd);
+        friction = 0.96F;
+        speedUpWhenYMotionIsBlocked = true;
+        this.xd *= 0.1F;
+        this.yd *= 0.1F;
+        this.zd *= 0.1F;
+        float scale = options.getScale();
+        int baseLifetime = (int) (8.0 / (random.nextDouble() * 0.8 + 0.2));
+        lifetime = (int) Math.max(baseLifetime * scale, 1.0F);
+
+        Vector3f color = options.getColor();
+        float brightness = random.nextFloat() * 0.4F + 0.6F;
+        mcopt$resetQuad(mcopt$defaultQuadSize() * 0.75F * scale,
+                mcopt$randomizeColor(color.x(), brightness),
+                mcopt$randomizeColor(color.y(), brightness),
+                mcopt$randomizeColor(color.z(), brightness));
+    }
+
+    @Unique
+    private float mcopt$randomizeColor(float color, float brightness) {
+        return (random.nextFloat() * 0.2F + 0.8F) * color * brightness;
+    }
+
+    /**
+     * CritParticle.
+     */
+    @Unique
+    private void mcopt$reinitCrit(double x, double y, double z) {
+        mcopt$resetBase(x, y, z, 0.0, 0.0, 0.0);
+        friction = 0.7F;
+        gravity = 0.5F;
+        this.xd *= 0.1F;
+        this.yd *= 0.1F;
+        this.zd *= 0.1F;
+        this.xd += this.xd * 0.4;
+        this.yd += this.yd * 0.4;
+        this.zd += this.zd * 0.4;
+        float shade = random.nextFloat() * 0.3F + 0.6F;
+        mcopt$resetQuad(mcopt$defaultQuadSize() * 0.75F, shade, shade, shade);
+        lifetime = Math.max((int) (6.0 / (random.nextFloat() * 0.8 + 0.6)), 1);
+        hasPhysics = false;
+    }
+
+    /**
+     * PortalParticle.
+     */
+    @Unique
+    private void mcopt$reinitPortal(double x, double y, double z, double xd, double yd, double zd) {
+        mcopt$resetBase(x, y, z);
+        this.xd = xd;
+        this.yd = yd;
+        this.zd = zd;
+        ((MCOptPooledParticle.Portal) this).mcopt$setStart(x, y, z);
+        float shade = random.nextFloat() * 0.6F + 0.4F;
+        mcopt$resetQuad(0.1F * (random.nextFloat() * 0.2F + 0.5F), shade * 0.9F, shade * 0.3F, shade);
+        lifetime = (int) (Math.random() * 10.0) + 40;
+    }
+}
@@ -0,0 +1,34 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.randomstrangerpassenger.mcopt.client.rendering.particle.MCOptCulledParticle;
+import com.randomstrangerpassenger.mcopt.client.rendering.particle.ParticleCullingManager;
+import net.minecraft.client.particle.SingleQuadParticle;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Skips extracting quad particles that are behind the camera or out of range.
+ * <p>
+ * The view test is repeated here instead of trusting the flag from the last
+ * tick, so turning the camera never leaves freshly visible particles hidden.
+ * </p>
+ */
+@Mixin(SingleQuadParticle.class)
+public abstract class ParticleRenderCullingMixin {
+
+    @Inject(method = "extract", at = @At("HEAD"), cancellable = true)
+    private void mcopt$cullOutsideView(CallbackInfo ci) {
+        if (!ParticleCullingManager.isCullingEnabled()) {
+            return;
+        }
+
+        MCOptCulledParticle particle = (MCOptCulledParticle) this;
+        boolean outside = particle.mcopt$isOutsideView();
+        particle.mcopt$setCulled(outside);
+        if (outside) {
+            ci.cancel();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.randomstrangerpassenger.mcopt.client.rendering.particle.MCOptPooledParticle;
+import net.minecraft.client.particle.PortalParticle;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Mutable;
+import org.spongepowered.asm.mixin.Shadow;
+
+/**
+ * Portal particles move relative to a final start position, which has to be
+ * reset when the particle is recycled.
+ */
+@Mixin(PortalParticle.class)
+public abstract class PortalParticlePoolMixin implements MCOptPooledParticle.Portal {
+
+    @Shadow
+    @Final
+    @Mutable
+    private double xStart;
+    @Shadow
+    @Final
+    @Mutable
+    private double yStart;
+    @Shadow
+    @Final
+    @Mutable
+    private double zStart;
+
+    @Override
+    public void mcopt$setStart(double x, double y, double z) {
+        this.xStart = x;
+        this.yStart = y;
+        this.zStart = z;
+    }
+}
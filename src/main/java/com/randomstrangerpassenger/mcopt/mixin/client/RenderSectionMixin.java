@@ -0,0 +1,83 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.randomstrangerpassenger.mcopt.client.rendering.AdaptiveChunkUploader;
+import com.randomstrangerpassenger.mcopt.client.rendering.SectionMeshCache;
+import net.minecraft.client.renderer.chunk.CompiledSectionMesh;
+import net.minecraft.client.renderer.chunk.SectionMesh;
+import net.minecraft.client.renderer.chunk.SectionRenderDispatcher;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Render section lifecycle hooks.
+ * <p>
+ * When the view area moves a section to another position, its compiled mesh
+ * is handed to the {@link SectionMeshCache} before vanilla closes it, and a
+ * mesh retained for the new position is put back afterwards (the section is
+ * then no longer dirty, so it is not recompiled).
+ * </p>
+ * <p>
+ * While a section queues a mesh or index buffer upload, the calling thread is
+ * tagged with the section, so {@link AdaptiveChunkUploader} can order the
+ * upload by the section it really belongs to.
+ * </p>
+ */
+@Mixin(SectionRenderDispatcher.RenderSection.class)
+public abstract class RenderSectionMixin {
+
+    @Shadow
+    @Final
+    public AtomicReference<SectionMesh> sectionMesh;
+
+    @Shadow
+    volatile long sectionNode;
+
+    @Shadow
+    public abstract boolean isDirty();
+
+    @Shadow
+    public abstract void setNotDirty();
+
+    @Inject(method = "setSectionNode", at = @At("HEAD"))
+    private void mcopt$retainMesh(long newSectionNode, CallbackInfo ci) {
+        if (!SectionMeshCache.isEnabled() || newSectionNode == this.sectionNode || isDirty()) {
+            return;
+        }
+        SectionMesh mesh = this.sectionMesh.get();
+        // Vanilla closes whatever is left in the reference; an uncompiled placeholder is harmless
+        if (mesh instanceof CompiledSectionMesh
+                && this.sectionMesh.compareAndSet(mesh, CompiledSectionMesh.UNCOMPILED)) {
+            SectionMeshCache.retain(this.sectionNode, mesh);
+        }
+    }
+
+    @Inject(method = "setSectionNode", at = @At("TAIL"))
+    private void mcopt$restoreMesh(long newSectionNode, CallbackInfo ci) {
+        if (!SectionMeshCache.isEnabled()) {
+            return;
+        }
+        SectionMesh mesh = SectionMeshCache.take(newSectionNode);
+        if (mesh != null) {
+            this.sectionMesh.set(mesh);
+            setNotDirty();
+        }
+    }
+
+    @Inject(method = { "upload", "uploadSectionIndexBuffer" }, at = @At("HEAD"))
+    private void mcopt$tagUpload(CallbackInfoReturnable<CompletableFuture<Void>> cir) {
+        AdaptiveChunkUploader.beginSectionUpload(this.sectionNode);
+    }
+
+    @Inject(method = { "upload", "uploadSectionIndexBuffer" }, at = @At("RETURN"))
+    private void mcopt$untagUpload(CallbackInfoReturnable<CompletableFuture<Void>> cir) {
+        AdaptiveChunkUploader.endSectionUpload();
+    }
+}
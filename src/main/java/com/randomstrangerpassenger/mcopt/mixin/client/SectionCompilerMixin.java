@@ -0,0 +1,37 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.mojang.blaze3d.vertex.VertexSorting;
+import com.randomstrangerpassenger.mcopt.client.rendering.AnimatedTextureOptimizer;
+import com.randomstrangerpassenger.mcopt.client.rendering.leaves.SmartLeavesCuller;
+import net.minecraft.client.renderer.SectionBufferBuilderPack;
+import net.minecraft.client.renderer.chunk.RenderSectionRegion;
+import net.minecraft.client.renderer.chunk.SectionCompiler;
+import net.minecraft.core.SectionPos;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Per-section compile hooks: builds the smart leaves depth buffer and records
+ * the animated sprites the section uses.
+ */
+@Mixin(SectionCompiler.class)
+public abstract class SectionCompilerMixin {
+
+    @Inject(method = "compile", at = @At("HEAD"))
+    private void mcopt$beginLeafAnalysis(SectionPos sectionPos, RenderSectionRegion region,
+            VertexSorting vertexSorting, SectionBufferBuilderPack builders,
+            CallbackInfoReturnable<SectionCompiler.Results> cir) {
+        SmartLeavesCuller.beginSection(sectionPos, region);
+        AnimatedTextureOptimizer.beginSection();
+    }
+
+    @Inject(method = "compile", at = @At("RETURN"))
+    private void mcopt$endLeafAnalysis(SectionPos sectionPos, RenderSectionRegion region,
+            VertexSorting vertexSorting, SectionBufferBuilderPack builders,
+            CallbackInfoReturnable<SectionCompiler.Results> cir) {
+        SmartLeavesCuller.endSection();
+        AnimatedTextureOptimizer.endSection(sectionPos);
+    }
+}
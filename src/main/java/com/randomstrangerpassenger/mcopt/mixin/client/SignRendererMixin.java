@@ -1,25 +1,59 @@
 package com.randomstrangerpassenger.mcopt.mixin.client;
 
+import com.mojang.blaze3d.vertex.PoseStack;
 import com.randomstrangerpassenger.mcopt.client.ui.SignTextCache;
-import net.minecraft.client.renderer.blockentity.SignRenderer;
-import net.minecraft.core.BlockPos;
-import net.minecraft.world.level.block.entity.SignBlockEntity;
+import net.minecraft.client.gui.Font;
+import net.minecraft.client.renderer.SubmitNodeCollector;
+import net.minecraft.client.renderer.blockentity.AbstractSignRenderer;
+import net.minecraft.client.renderer.blockentity.state.SignRenderState;
+import net.minecraft.util.FormattedCharSequence;
+import net.minecraft.world.level.block.entity.SignText;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
-@Mixin(SignRenderer.class)
-// @SuppressWarnings("null") // Suppress warning if preferred, or use explicit
-// check
-public class SignRendererMixin {
+/**
+ * Skips distant and blank sign text, leaves out the glow outline at mid
+ * range, and reuses the measured line widths (see {@link SignTextCache}).
+ */
+@Mixin(AbstractSignRenderer.class)
+public abstract class SignRendererMixin {
 
-    @Inject(method = "renderSignText", at = @At("HEAD"), cancellable = true)
-    private void onRenderSignText(BlockPos pos, SignBlockEntity sign, com.mojang.blaze3d.vertex.PoseStack poseStack,
-            net.minecraft.client.renderer.MultiBufferSource buffer, int packedLight, int packedOverlay,
+    @Inject(method = "submitSignText", at = @At("HEAD"), cancellable = true)
+    private void mcopt$beginSignText(SignRenderState state, PoseStack poseStack, SubmitNodeCollector collector,
             boolean isFrontText, CallbackInfo ci) {
-        if (pos != null && !SignTextCache.shouldRenderText(pos)) {
+        SignTextCache.SignLOD lod = state.blockPos != null
+                ? SignTextCache.getSignLOD(state.blockPos)
+                : SignTextCache.SignLOD.FULL;
+        if (lod == SignTextCache.SignLOD.SKIP) {
             ci.cancel();
+            return;
         }
+        SignText text = isFrontText ? state.frontText : state.backText;
+        if (text != null && !SignTextCache.beginText(text, lod)) {
+            ci.cancel();
+        }
+    }
+
+    @Inject(method = "isOutlineVisible", at = @At("HEAD"), cancellable = true)
+    private static void mcopt$skipOutline(CallbackInfoReturnable<Boolean> cir) {
+        if (SignTextCache.skipOutline()) {
+            cir.setReturnValue(false);
+        }
+    }
+
+    @Redirect(method = "submitSignText", at = @At(value = "INVOKE",
+            target = "Lnet/minecraft/client/gui/Font;width(Lnet/minecraft/util/FormattedCharSequence;)I"))
+    private int mcopt$cachedLineWidth(Font font, FormattedCharSequence line) {
+        return SignTextCache.lineWidth(font, line);
+    }
+
+    @Inject(method = "submitSignText", at = @At("RETURN"))
+    private void mcopt$endSignText(SignRenderState state, PoseStack poseStack, SubmitNodeCollector collector,
+            boolean isFrontText, CallbackInfo ci) {
+        SignTextCache.endText();
     }
 }
@@ -0,0 +1,39 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.randomstrangerpassenger.mcopt.client.rendering.particle.MCOptPooledParticle;
+import net.minecraft.client.particle.SingleQuadParticle;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+
+/**
+ * Quad size, colour and roll reset for recycled particles.
+ */
+@Mixin(SingleQuadParticle.class)
+public abstract class SingleQuadParticlePoolMixin implements MCOptPooledParticle.Quad {
+
+    @Shadow
+    protected float quadSize;
+    @Shadow
+    protected float rCol;
+    @Shadow
+    protected float gCol;
+    @Shadow
+    protected float bCol;
+    @Shadow
+    protected float alpha;
+    @Shadow
+    protected float roll;
+    @Shadow
+    protected float oRoll;
+
+    @Override
+    public void mcopt$resetQuad(float quadSize, float red, float green, float blue) {
+        this.quadSize = quadSize;
+        this.rCol = red;
+        this.gCol = green;
+        this.bCol = blue;
+        this.alpha = 1.0F;
+        this.roll = 0.0F;
+        this.oRoll = 0.0F;
+    }
+}
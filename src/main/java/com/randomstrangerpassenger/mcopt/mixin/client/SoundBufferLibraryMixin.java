@@ -0,0 +1,35 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.mojang.blaze3d.audio.SoundBuffer;
+import com.randomstrangerpassenger.mcopt.client.sound.SoundPredecoder;
+import net.minecraft.client.sounds.SoundBufferLibrary;
+import net.minecraft.resources.ResourceLocation;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Lets {@link SoundPredecoder} track every decoded sound buffer so the
+ * library's cache can be kept within a byte budget.
+ */
+@Mixin(SoundBufferLibrary.class)
+public abstract class SoundBufferLibraryMixin {
+
+    @Inject(method = "getCompleteBuffer", at = @At("RETURN"))
+    private void mcopt$trackBuffer(ResourceLocation path,
+            CallbackInfoReturnable<CompletableFuture<SoundBuffer>> cir) {
+        if (SoundPredecoder.isEnabled()) {
+            SoundPredecoder.onBufferRequested(path, cir.getReturnValue());
+        }
+    }
+
+    @Inject(method = "clear", at = @At("HEAD"))
+    private void mcopt$forgetBuffers(CallbackInfo ci) {
+        // Vanilla discards every buffer on resource reload
+        SoundPredecoder.onLibraryCleared();
+    }
+}
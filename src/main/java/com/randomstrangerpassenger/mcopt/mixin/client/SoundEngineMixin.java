@@ -1,7 +1,8 @@
 package com.randomstrangerpassenger.mcopt.mixin.client;
 
 import com.randomstrangerpassenger.mcopt.client.sound.SoundCullingHandler;
-import com.randomstrangerpassenger.mcopt.config.SoundConfig;
+import com.randomstrangerpassenger.mcopt.client.sound.SoundVoiceBudget;
+import com.randomstrangerpassenger.mcopt.mixin.accessor.SoundEngineAccessor;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.client.player.LocalPlayer;
@@ -22,6 +23,10 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
  * <p>
  * Immersion-first: Only culls sounds that are truly inaudible or redundant.
  * </p>
+ * <p>
+ * Sounds that survive culling are then checked against the global voice
+ * budget ({@link SoundVoiceBudget}).
+ * </p>
  */
 @Mixin(SoundEngine.class)
 public abstract class SoundEngineMixin {
@@ -35,7 +40,7 @@ public abstract class SoundEngineMixin {
      */
     @Inject(method = "play", at = @At("HEAD"), cancellable = true)
     private void mcopt$cullSound(SoundInstance soundInstance, CallbackInfo ci) {
-        if (!SoundConfig.ENABLE_SOUND_OPTIMIZATIONS.get()) {
+        if (!SoundCullingHandler.isEnabled()) {
             return;
         }
 
@@ -61,6 +66,40 @@ public abstract class SoundEngineMixin {
         }
     }
 
+    /**
+     * Enforces the global voice budget, stealing the channel of the weakest
+     * playing sound when the incoming one outranks it. Delayed sounds pass
+     * through here when they actually start.
+     *
+     * @param soundInstance The sound to be played
+     * @param ci            Callback info for cancellation
+     */
+    @Inject(method = "play", at = @At("HEAD"), cancellable = true)
+    private void mcopt$enforceVoiceBudget(SoundInstance soundInstance, CallbackInfo ci) {
+        if (ci.isCancelled() || !SoundVoiceBudget.isEnabled() || soundInstance == null) {
+            return;
+        }
+
+        Minecraft minecraft = Minecraft.getInstance();
+        if (minecraft.player == null || minecraft.level == null) {
+            return;
+        }
+
+        SoundEngine engine = (SoundEngine) (Object) this;
+        if (!SoundVoiceBudget.admit(engine, ((SoundEngineAccessor) engine).getInstanceToChannel().keySet(),
+                soundInstance, minecraft.player.position(), minecraft.level.getGameTime())) {
+            ci.cancel();
+        }
+    }
+
+    /**
+     * Forgets budget bookkeeping when every sound is stopped (world change).
+     */
+    @Inject(method = "stopAll", at = @At("HEAD"))
+    private void mcopt$clearVoiceBudget(CallbackInfo ci) {
+        SoundVoiceBudget.clear();
+    }
+
     /**
      * Intercepts delayed sound play requests with the same optimization logic.
      *
@@ -70,7 +109,7 @@ public abstract class SoundEngineMixin {
      */
     @Inject(method = "playDelayed", at = @At("HEAD"), cancellable = true)
     private void mcopt$cullDelayedSound(SoundInstance soundInstance, int delay, CallbackInfo ci) {
-        if (!SoundConfig.ENABLE_SOUND_OPTIMIZATIONS.get()) {
+        if (!SoundCullingHandler.isEnabled()) {
             return;
         }
 
@@ -1,10 +1,34 @@
 package com.randomstrangerpassenger.mcopt.mixin.client;
 
+import com.randomstrangerpassenger.mcopt.client.sound.SoundOcclusionCache;
+import net.minecraft.client.resources.sounds.SoundInstance;
+import net.minecraft.client.sounds.SoundEngine;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
-// Placeholder because SoundEngine injection point was ambiguous.
-// Logic handles by SoundOcclusionCache directly where possible.
-@Mixin(targets = "net.minecraft.client.sounds.SoundEngine", remap = false)
-public class SoundOcclusionCacheMixin {
-    // Logic disabled for now
+/**
+ * Applies the latest known occlusion factor to a sound's channel volume.
+ * <p>
+ * {@code calculateVolume(SoundInstance)} is used both when a sound starts and
+ * every tick for tickable sounds, so moving sources and listeners pick up new
+ * factors as the worker produces them. The lookup never blocks.
+ * </p>
+ */
+@Mixin(SoundEngine.class)
+public abstract class SoundOcclusionCacheMixin {
+
+    @Inject(method = "calculateVolume(Lnet/minecraft/client/resources/sounds/SoundInstance;)F",
+            at = @At("RETURN"), cancellable = true)
+    private void mcopt$applyOcclusion(SoundInstance sound, CallbackInfoReturnable<Float> cir) {
+        if (!SoundOcclusionCache.isEnabled()) {
+            return;
+        }
+
+        float factor = SoundOcclusionCache.getOcclusionFactor(sound);
+        if (factor < 1.0f) {
+            cir.setReturnValue(cir.getReturnValueF() * factor);
+        }
+    }
 }
@@ -1,54 +1,54 @@
 package com.randomstrangerpassenger.mcopt.mixin.client;
 
+import com.mojang.blaze3d.platform.NativeImage;
+import com.mojang.blaze3d.systems.CommandEncoder;
+import com.mojang.blaze3d.textures.GpuTexture;
 import com.randomstrangerpassenger.mcopt.client.rendering.AnimatedTextureOptimizer;
-import com.randomstrangerpassenger.mcopt.config.RenderingConfig;
-import net.minecraft.client.Minecraft;
+import com.randomstrangerpassenger.mcopt.client.rendering.AtlasUploadBatcher;
+import com.randomstrangerpassenger.mcopt.client.rendering.MCOptAnimatedSprite;
 import net.minecraft.client.renderer.texture.SpriteContents;
+import net.minecraft.client.renderer.texture.SpriteTicker;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
-import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 /**
- * Mixin for SpriteContents to optimize animated texture updates.
+ * Gives every animated sprite a dense id, so the sprites in use can be kept
+ * in a bitset (see {@link AnimatedTextureOptimizer}).
  * <p>
- * Intercepts the animation tick method to skip updates for textures
- * that are off-screen or too far away to notice the animation.
+ * Only animated sprites get a ticker, and the atlas creates the tickers when
+ * it is loaded, before any section is compiled with its sprites.
  * </p>
  * <p>
- * Immersion-first: Visible animations always update normally.
+ * Frame uploads go through {@link AtlasUploadBatcher}, which coalesces them
+ * while an atlas cycles its animations.
  * </p>
  */
 @Mixin(SpriteContents.class)
-public abstract class SpriteContentsMixin {
+public abstract class SpriteContentsMixin implements MCOptAnimatedSprite {
 
-    /**
-     * Intercepts animation tick to conditionally skip updates.
-     * 
-     * @param ci Callback info for cancellation
-     */
-    @Inject(method = "tick", at = @At("HEAD"), cancellable = true)
-    private void mcopt$conditionalAnimationTick(CallbackInfo ci) {
-        if (!RenderingConfig.ENABLE_SMART_ANIMATIONS.get()) {
-            return;
-        }
+    @Unique
+    private volatile int mcopt$animationId = -1;
 
-        Minecraft minecraft = Minecraft.getInstance();
-        if (minecraft.level == null) {
-            return;
+    @Inject(method = "createTicker", at = @At("RETURN"))
+    private void mcopt$assignAnimationId(CallbackInfoReturnable<SpriteTicker> cir) {
+        if (cir.getReturnValue() != null && this.mcopt$animationId < 0) {
+            this.mcopt$animationId = AnimatedTextureOptimizer.nextSpriteId(((SpriteContents) (Object) this).name());
         }
+    }
 
-        // Get the texture name for this sprite - stored in field, no resource leak
-        String textureName = ((SpriteContents) (Object) this).name().toString();
-
-        // Get current game tick using local variable after null check
-        net.minecraft.client.multiplayer.ClientLevel level = java.util.Objects.requireNonNull(minecraft.level,
-                "Level is null");
-        long currentTick = level.getGameTime();
+    @Redirect(method = "upload", at = @At(value = "INVOKE",
+            target = "Lcom/mojang/blaze3d/systems/CommandEncoder;writeToTexture(Lcom/mojang/blaze3d/textures/GpuTexture;Lcom/mojang/blaze3d/platform/NativeImage;IIIIIIII)V"))
+    private void mcopt$batchFrameUpload(CommandEncoder encoder, GpuTexture texture, NativeImage image, int mipLevel,
+            int depth, int destX, int destY, int width, int height, int srcX, int srcY) {
+        AtlasUploadBatcher.write(encoder, texture, image, mipLevel, depth, destX, destY, width, height, srcX, srcY);
+    }
 
-        // Check if this animation should be updated
-        if (!AnimatedTextureOptimizer.shouldUpdateAnimation(textureName, currentTick)) {
-            ci.cancel();
-        }
+    @Override
+    public int mcopt$getAnimationId() {
+        return this.mcopt$animationId;
     }
 }
@@ -0,0 +1,34 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.randomstrangerpassenger.mcopt.client.rendering.AnimatedTextureOptimizer;
+import com.randomstrangerpassenger.mcopt.client.rendering.MCOptAnimatedSprite;
+import net.minecraft.client.renderer.texture.SpriteContents;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Skips the frame advance and upload of animated sprites nothing on screen
+ * uses.
+ * <p>
+ * A skipped sprite keeps its current frame and simply continues from there
+ * once it is in use again.
+ * </p>
+ */
+@Mixin(targets = "net.minecraft.client.renderer.texture.SpriteContents$Ticker")
+public abstract class SpriteTickerMixin {
+
+    @Shadow
+    @Final
+    SpriteContents this$0;
+
+    @Inject(method = "tickAndUpload", at = @At("HEAD"), cancellable = true)
+    private void mcopt$skipUnusedSprite(CallbackInfo ci) {
+        if (!AnimatedTextureOptimizer.shouldTick(((MCOptAnimatedSprite) this.this$0).mcopt$getAnimationId())) {
+            ci.cancel();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.randomstrangerpassenger.mcopt.mixin.client;
+
+import com.randomstrangerpassenger.mcopt.client.rendering.AtlasUploadBatcher;
+import net.minecraft.client.renderer.texture.TextureAtlas;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Batches the animated sprite uploads of one atlas tick (see
+ * {@link AtlasUploadBatcher}).
+ */
+@Mixin(TextureAtlas.class)
+public abstract class TextureAtlasMixin {
+
+    @Inject(method = "cycleAnimationFrames", at = @At("HEAD"))
+    private void mcopt$beginUploadBatch(CallbackInfo ci) {
+        AtlasUploadBatcher.begin();
+    }
+
+    @Inject(method = "cycleAnimationFrames", at = @At("TAIL"))
+    private void mcopt$flushUploadBatch(CallbackInfo ci) {
+        AtlasUploadBatcher.flush();
+    }
+
+    @Inject(method = "clearTextureData", at = @At("HEAD"))
+    private void mcopt$releaseStaging(CallbackInfo ci) {
+        AtlasUploadBatcher.clear();
+    }
+}
@@ -8,12 +8,23 @@
  *
  * <h2>Client Mixins</h2>
  * <ul>
- * <li>{@code LevelRendererMixin} - Elliptical render distance culling</li>
- * <li>{@code RenderSectionMixin} - Per-chunk visibility decisions</li>
- * <li>{@code ChunkRenderDispatcherMixin} - Chunk rebuild rate limiting</li>
- * <li>{@code EntityRenderDispatcherMixin} - Entity distance/backface
- * culling</li>
- * <li>{@code ParticleEngineMixin} - Particle spawn rate limiting</li>
+ * <li>{@code LevelRendererMixin} - Elliptical render distance culling (drawing and compiles)</li>
+ * <li>{@code RenderSectionMixin} - Mesh retention across view area moves</li>
+ * <li>{@code ChunkRenderDispatcherMixin} - Budgeted section uploads, compile worker cap</li>
+ * <li>{@code CompileTaskDynamicQueueMixin} - Visibility-ordered section compiles</li>
+ * <li>{@code SectionCompilerMixin} / {@code ModelBlockRendererMixin} - Smart leaves, section sprite recording</li>
+ * <li>{@code SpriteContentsMixin} / {@code SpriteTickerMixin} - Animated textures tick only while in use</li>
+ * <li>{@code TextureAtlasMixin} - Batched animation frame uploads</li>
+ * <li>{@code MapInstanceMixin} / {@code MapItemSavedDataMixin} - Throttled, partial map texture uploads</li>
+ * <li>{@code MapRendererMixin} / {@code ItemFrameRendererMixin} - Map throttling context</li>
+ * <li>{@code SignRendererMixin} - Sign text LOD, blank side skipping, cached line widths</li>
+ * <li>{@code LiquidBlockRendererMixin} / {@code ItemRendererMixin} - Fluid and item sprite recording</li>
+ * <li>{@code EntityRenderDispatcherMixin} - Entity occlusion culling, item clusters, render feature LOD</li>
+ * <li>{@code HumanoidArmorLayerMixin} / {@code EquipmentLayerRendererMixin} - Armor without trims and glint at range</li>
+ * <li>{@code AnimationLODMixin} - Distance-tiered entity animation</li>
+ * <li>{@code ParticleEngineMixin} - Particle budgets</li>
+ * <li>{@code ParticleCullingMixin} - Particle frustum/distance culling</li>
+ * <li>{@code ParticlePoolMixin} - Particle recycling</li>
  * </ul>
  *
  * <h2>Server Mixins</h2>
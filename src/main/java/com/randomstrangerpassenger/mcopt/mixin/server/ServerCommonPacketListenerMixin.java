@@ -0,0 +1,43 @@
+package com.randomstrangerpassenger.mcopt.mixin.server;
+
+import com.randomstrangerpassenger.mcopt.server.network.PacketCoalescer;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerCommonPacketListenerImpl;
+import net.minecraft.server.network.ServerGamePacketListenerImpl;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Routes outgoing sound and particle packets through {@link PacketCoalescer}.
+ * <p>
+ * Duplicate sounds are dropped and particle bursts are held until the end of
+ * the tick, where they are merged and sent once per player.
+ */
+@Mixin(ServerCommonPacketListenerImpl.class)
+public class ServerCommonPacketListenerMixin {
+
+    @Shadow
+    @Final
+    protected MinecraftServer server;
+
+    @Inject(method = "send(Lnet/minecraft/network/protocol/Packet;)V", at = @At("HEAD"), cancellable = true)
+    private void mcopt$coalescePacket(Packet<?> packet, CallbackInfo ci) {
+        if (!PacketCoalescer.isEnabled()) {
+            return;
+        }
+
+        // Only game connections carry level packets, and buffers are owned by the server thread
+        if (!((Object) this instanceof ServerGamePacketListenerImpl listener) || !server.isSameThread()) {
+            return;
+        }
+
+        if (PacketCoalescer.intercept(listener, packet)) {
+            ci.cancel();
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.randomstrangerpassenger.mcopt.safety;
 
 import com.randomstrangerpassenger.mcopt.MCOPT;
+import com.randomstrangerpassenger.mcopt.client.rendering.MapUpdateThrottler;
 import com.randomstrangerpassenger.mcopt.client.rendering.RenderFrameCache;
+import com.randomstrangerpassenger.mcopt.client.ui.SignTextCache;
 import com.randomstrangerpassenger.mcopt.util.FeatureToggles;
 import com.randomstrangerpassenger.mcopt.util.FeatureKey;
 import net.minecraft.client.Minecraft;
@@ -110,6 +112,8 @@ public class LeakGuard {
     private static void clearModCaches() {
         // Clear RenderFrameCache
         RenderFrameCache.reset();
+        MapUpdateThrottler.clearQueue();
+        SignTextCache.clearAll();
 
         // Clear other static caches if necessary
         LOGGER.debug("LeakGuard cleared mod caches");
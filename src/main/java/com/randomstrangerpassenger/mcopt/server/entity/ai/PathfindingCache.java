@@ -40,6 +40,10 @@ public class PathfindingCache {
                 }
             });
 
+    // Statistics
+    private static long hits = 0;
+    private static long misses = 0;
+
     /**
      * Cache key for pathfinding.
      */
@@ -80,13 +84,27 @@ public class PathfindingCache {
             return null;
         }
 
-        PathCacheKey key = new PathCacheKey(mob.blockPosition(), target, mob.getType().getDescriptionId());
+        return getCachedPath(mob.blockPosition(), target, mob.getType().getDescriptionId());
+    }
+
+    /**
+     * Get a cached path for an explicit start/target/entity type key.
+     */
+    @Nullable
+    public static Path getCachedPath(@Nonnull BlockPos start, @Nonnull BlockPos target, @Nonnull String entityType) {
+        if (!enabled) {
+            return null;
+        }
+
+        PathCacheKey key = new PathCacheKey(start, target, entityType);
         CachedPath cached = cache.get(key);
 
         if (cached != null && cached.isValid(System.currentTimeMillis())) {
+            hits++;
             return cached.path();
         }
 
+        misses++;
         return null;
     }
 
@@ -98,14 +116,51 @@ public class PathfindingCache {
             return;
         }
 
-        PathCacheKey key = new PathCacheKey(mob.blockPosition(), target, mob.getType().getDescriptionId());
+        cachePath(mob.blockPosition(), target, mob.getType().getDescriptionId(), path);
+    }
+
+    /**
+     * Cache a pathfinding result for an explicit start/target/entity type key.
+     */
+    public static void cachePath(@Nonnull BlockPos start, @Nonnull BlockPos target, @Nonnull String entityType,
+            @Nonnull Path path) {
+        if (!enabled) {
+            return;
+        }
+
+        PathCacheKey key = new PathCacheKey(start, target, entityType);
         cache.put(key, new CachedPath(path, System.currentTimeMillis()));
     }
 
     /**
      * Clear the cache.
+     * <p>
+     * Hit and miss counters are kept: they are exported as monotonic
+     * Prometheus counters.
+     * </p>
      */
     public static void clear() {
         cache.clear();
     }
+
+    /**
+     * Get total cache hits since startup.
+     */
+    public static long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get total cache misses since startup.
+     */
+    public static long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Get number of cached paths.
+     */
+    public static int getSize() {
+        return cache.size();
+    }
 }
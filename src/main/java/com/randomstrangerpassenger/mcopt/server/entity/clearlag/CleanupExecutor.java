@@ -2,14 +2,13 @@ package com.randomstrangerpassenger.mcopt.server.entity.clearlag;
 
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.Entity;
-import net.minecraft.world.entity.ExperienceOrb;
-import net.minecraft.world.entity.item.ItemEntity;
-import net.minecraft.world.entity.projectile.Projectile;
 
 import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Executes entity cleanup operations.
@@ -26,6 +25,10 @@ public class CleanupExecutor {
     private final List<Entity> toRemove = new ArrayList<>(1000);
     private final Map<EntityTypeCategory, Integer> counts = new EnumMap<>(EntityTypeCategory.class);
 
+    // Lifetime totals across all executors, read by the metrics exporter
+    private static final AtomicLongArray TOTAL_REMOVED = new AtomicLongArray(EntityTypeCategory.values().length);
+    private static final AtomicLong TOTAL_RUNS = new AtomicLong();
+
     /**
      * Perform cleanup across all provided levels.
      *
@@ -43,7 +46,7 @@ public class CleanupExecutor {
             for (Entity entity : level.getAllEntities()) {
                 if (filter.shouldRemove(entity)) {
                     toRemove.add(entity);
-                    EntityTypeCategory category = categorize(entity);
+                    EntityTypeCategory category = EntityTypeCategory.of(entity);
                     // Use explicit lambda to avoid Integer::sum unboxing warning
                     counts.merge(category, 1, (a, b) -> a + b);
                 }
@@ -55,27 +58,31 @@ public class CleanupExecutor {
             entity.discard();
         }
 
+        // Accumulate lifetime totals
+        TOTAL_RUNS.incrementAndGet();
+        counts.forEach((category, count) -> TOTAL_REMOVED.addAndGet(category.ordinal(), count));
+
         // Return immutable statistics
         return new CleanupStats(toRemove.size(), Map.copyOf(counts));
     }
 
     /**
-     * Categorize an entity by type.
+     * Get the total number of entities removed in a category since startup.
      *
-     * @param entity the entity to categorize
-     * @return the entity's category
+     * @param category the entity type category
+     * @return lifetime removal count for that category
      */
-    private EntityTypeCategory categorize(Entity entity) {
-        if (entity instanceof ItemEntity) {
-            return EntityTypeCategory.ITEM;
-        }
-        if (entity instanceof ExperienceOrb) {
-            return EntityTypeCategory.XP_ORB;
-        }
-        if (entity instanceof Projectile) {
-            return EntityTypeCategory.PROJECTILE;
-        }
-        return EntityTypeCategory.OTHER;
+    public static long getTotalRemoved(EntityTypeCategory category) {
+        return TOTAL_REMOVED.get(category.ordinal());
+    }
+
+    /**
+     * Get the number of cleanup passes executed since startup.
+     *
+     * @return lifetime cleanup run count
+     */
+    public static long getTotalRuns() {
+        return TOTAL_RUNS.get();
     }
 
     /**
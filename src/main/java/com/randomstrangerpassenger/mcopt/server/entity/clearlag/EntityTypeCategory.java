@@ -1,5 +1,10 @@
 package com.randomstrangerpassenger.mcopt.server.entity.clearlag;
 
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.ExperienceOrb;
+import net.minecraft.world.entity.item.ItemEntity;
+import net.minecraft.world.entity.projectile.Projectile;
+
 /**
  * Categories of entities for clear-lag tracking.
  * <p>
@@ -18,5 +23,24 @@ public enum EntityTypeCategory {
     PROJECTILE,
 
     /** Other miscellaneous entities */
-    OTHER
+    OTHER;
+
+    /**
+     * Categorize an entity by type.
+     *
+     * @param entity the entity to categorize
+     * @return the entity's category
+     */
+    public static EntityTypeCategory of(Entity entity) {
+        if (entity instanceof ItemEntity) {
+            return ITEM;
+        }
+        if (entity instanceof ExperienceOrb) {
+            return XP_ORB;
+        }
+        if (entity instanceof Projectile) {
+            return PROJECTILE;
+        }
+        return OTHER;
+    }
 }
@@ -15,9 +15,9 @@ import java.util.Objects;
  */
 public final class XpOrbHandler {
 
-    // Cache config values to avoid repeated .get() calls
-    private static double cachedMergeRadius = GameplayConfig.XP_ORB_MERGE_RADIUS.get();
-    private static int cachedMergeDelay = GameplayConfig.XP_ORB_MERGE_DELAY.get();
+    // Cache config values to avoid repeated .get() calls (defaults until the config is loaded)
+    private static double cachedMergeRadius = 1.5;
+    private static int cachedMergeDelay = 10;
 
     private XpOrbHandler() {
         // Utility class
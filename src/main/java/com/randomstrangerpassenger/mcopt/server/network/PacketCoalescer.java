@@ -0,0 +1,238 @@
+package com.randomstrangerpassenger.mcopt.server.network;
+
+import com.randomstrangerpassenger.mcopt.config.PerformanceConfig;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.particles.ParticleOptions;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ClientboundLevelParticlesPacket;
+import net.minecraft.network.protocol.game.ClientboundSoundPacket;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.network.ServerGamePacketListenerImpl;
+import net.minecraft.sounds.SoundSource;
+import net.minecraft.util.Mth;
+
+import javax.annotation.Nonnull;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Coalesces sound and particle packets per player per server tick.
+ * <p>
+ * Mob farms and TNT setups can emit hundreds of identical sound and particle
+ * packets in a single tick. Instead of encoding and sending each of them to
+ * every nearby player:
+ * </p>
+ * <ul>
+ * <li>Sounds with the same id and source within the same cell are capped at
+ * {@code maxDuplicateSounds} per tick. Extra copies are dropped before they are encoded.</li>
+ * <li>Particle bursts with the same options within the same cell are merged
+ * into one packet whose spread covers every burst and whose count is the sum
+ * of their counts. Merged bursts are sent when the tick ends.</li>
+ * </ul>
+ * <p>
+ * Sounds are not held back: the first copies go out immediately so their
+ * ordering relative to block updates is unchanged, and only the per-tick
+ * counters are reset at the end of the tick.
+ * </p>
+ * <p>
+ * <strong>Threading:</strong> Only packets sent from the server thread are
+ * coalesced; all state is owned by that thread.
+ * </p>
+ */
+public final class PacketCoalescer {
+
+    // Cached config values (defaults until the config is loaded)
+    private static boolean enabled = true;
+    private static double cellSize = 2.0;
+    private static int maxDuplicateSounds = 4;
+
+    private static final Map<ServerGamePacketListenerImpl, PlayerBuffer> BUFFERS = new IdentityHashMap<>();
+
+    // Set while flushing so our own sends are not buffered again
+    private static boolean flushing;
+
+    // Statistics
+    private static long soundsDropped = 0;
+    private static long particlePacketsMerged = 0;
+
+    private PacketCoalescer() {
+        // Utility class
+    }
+
+    /**
+     * Refreshes cached config values.
+     * Call this when config is reloaded.
+     */
+    public static void refreshConfigCache() {
+        enabled = PerformanceConfig.ENABLE_PACKET_COALESCING.get();
+        cellSize = PerformanceConfig.PACKET_COALESCE_CELL_SIZE.get();
+        maxDuplicateSounds = PerformanceConfig.PACKET_COALESCE_MAX_DUPLICATE_SOUNDS.get();
+    }
+
+    public static boolean isEnabled() {
+        return enabled && !flushing;
+    }
+
+    /**
+     * Offers an outgoing packet to the coalescer.
+     *
+     * @param listener The player connection the packet is sent to
+     * @param packet   The outgoing packet
+     * @return true if the packet was consumed and must not be sent now
+     */
+    public static boolean intercept(@Nonnull ServerGamePacketListenerImpl listener, @Nonnull Packet<?> packet) {
+        if (packet instanceof ClientboundSoundPacket sound) {
+            return dropDuplicateSound(listener, sound);
+        }
+        if (packet instanceof ClientboundLevelParticlesPacket particles) {
+            return bufferParticles(listener, particles);
+        }
+        return false;
+    }
+
+    private static boolean dropDuplicateSound(ServerGamePacketListenerImpl listener, ClientboundSoundPacket packet) {
+        SoundKey key = new SoundKey(packet.getSound().value().location(), packet.getSource(),
+                cellOf(packet.getX(), packet.getY(), packet.getZ()));
+
+        Object2IntOpenHashMap<SoundKey> counts = BUFFERS.computeIfAbsent(listener, l -> new PlayerBuffer()).sounds;
+        int count = counts.addTo(key, 1);
+        if (count < maxDuplicateSounds) {
+            return false;
+        }
+
+        soundsDropped++;
+        return true;
+    }
+
+    private static boolean bufferParticles(ServerGamePacketListenerImpl listener,
+            ClientboundLevelParticlesPacket packet) {
+        // With a count of zero the spread fields carry a velocity, so the burst can't be merged
+        if (packet.getCount() <= 0) {
+            return false;
+        }
+
+        ParticleKey key = new ParticleKey(packet.getParticle(), packet.isOverrideLimiter(), packet.alwaysShow(),
+                packet.getMaxSpeed(), cellOf(packet.getX(), packet.getY(), packet.getZ()));
+
+        Map<ParticleKey, ParticleBurst> bursts = BUFFERS.computeIfAbsent(listener, l -> new PlayerBuffer()).particles;
+        ParticleBurst burst = bursts.get(key);
+        if (burst == null) {
+            bursts.put(key, new ParticleBurst(packet));
+        } else {
+            burst.merge(packet);
+            particlePacketsMerged++;
+        }
+        return true;
+    }
+
+    private static long cellOf(double x, double y, double z) {
+        return BlockPos.asLong(Mth.floor(x / cellSize), Mth.floor(y / cellSize), Mth.floor(z / cellSize));
+    }
+
+    /**
+     * Sends every merged particle burst and resets the per-tick sound counters.
+     * Called at the end of each server tick.
+     */
+    public static void flush() {
+        if (BUFFERS.isEmpty()) {
+            return;
+        }
+
+        flushing = true;
+        try {
+            for (Map.Entry<ServerGamePacketListenerImpl, PlayerBuffer> entry : BUFFERS.entrySet()) {
+                ServerGamePacketListenerImpl listener = entry.getKey();
+                for (ParticleBurst burst : entry.getValue().particles.values()) {
+                    listener.send(burst.toPacket());
+                }
+            }
+        } finally {
+            flushing = false;
+            // Dropping the buffers also releases listeners of players that logged out
+            BUFFERS.clear();
+        }
+    }
+
+    /**
+     * Discards everything buffered without sending it.
+     */
+    public static void clear() {
+        BUFFERS.clear();
+    }
+
+    public static long getSoundsDropped() {
+        return soundsDropped;
+    }
+
+    public static long getParticlePacketsMerged() {
+        return particlePacketsMerged;
+    }
+
+    /**
+     * Per-player state for the current tick.
+     */
+    private static final class PlayerBuffer {
+        final Object2IntOpenHashMap<SoundKey> sounds = new Object2IntOpenHashMap<>();
+        // Insertion order keeps bursts in the order they were spawned
+        final Map<ParticleKey, ParticleBurst> particles = new LinkedHashMap<>();
+    }
+
+    private record SoundKey(ResourceLocation id, SoundSource source, long cell) {
+    }
+
+    private record ParticleKey(ParticleOptions options, boolean overrideLimiter, boolean alwaysShow,
+            float maxSpeed, long cell) {
+    }
+
+    /**
+     * Running union of the particle bursts that share a key.
+     */
+    private static final class ParticleBurst {
+        private final ClientboundLevelParticlesPacket first;
+        private double minX, minY, minZ;
+        private double maxX, maxY, maxZ;
+        private float spreadX, spreadY, spreadZ;
+        private long count;
+
+        ParticleBurst(ClientboundLevelParticlesPacket packet) {
+            this.first = packet;
+            this.minX = this.maxX = packet.getX();
+            this.minY = this.maxY = packet.getY();
+            this.minZ = this.maxZ = packet.getZ();
+            this.spreadX = packet.getXDist();
+            this.spreadY = packet.getYDist();
+            this.spreadZ = packet.getZDist();
+            this.count = packet.getCount();
+        }
+
+        void merge(ClientboundLevelParticlesPacket packet) {
+            minX = Math.min(minX, packet.getX());
+            minY = Math.min(minY, packet.getY());
+            minZ = Math.min(minZ, packet.getZ());
+            maxX = Math.max(maxX, packet.getX());
+            maxY = Math.max(maxY, packet.getY());
+            maxZ = Math.max(maxZ, packet.getZ());
+            spreadX = Math.max(spreadX, packet.getXDist());
+            spreadY = Math.max(spreadY, packet.getYDist());
+            spreadZ = Math.max(spreadZ, packet.getZDist());
+            count += packet.getCount();
+        }
+
+        ClientboundLevelParticlesPacket toPacket() {
+            if (minX == maxX && minY == maxY && minZ == maxZ && count == first.getCount()) {
+                return first;
+            }
+
+            // Centre on the bursts and widen the spread so the merged burst still covers all of them
+            return new ClientboundLevelParticlesPacket(first.getParticle(), first.isOverrideLimiter(),
+                    first.alwaysShow(),
+                    (minX + maxX) * 0.5, (minY + maxY) * 0.5, (minZ + maxZ) * 0.5,
+                    spreadX + (float) ((maxX - minX) * 0.5),
+                    spreadY + (float) ((maxY - minY) * 0.5),
+                    spreadZ + (float) ((maxZ - minZ) * 0.5),
+                    first.getMaxSpeed(), (int) Math.min(count, Integer.MAX_VALUE));
+        }
+    }
+}
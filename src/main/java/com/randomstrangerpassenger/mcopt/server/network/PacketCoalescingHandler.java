@@ -0,0 +1,25 @@
+package com.randomstrangerpassenger.mcopt.server.network;
+
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+/**
+ * Flushes {@link PacketCoalescer} at the end of every server tick.
+ * <p>
+ * Registered unconditionally so bursts buffered after the feature is turned
+ * on by a config reload are never left behind.
+ * </p>
+ */
+public class PacketCoalescingHandler {
+
+    @SubscribeEvent
+    public void onServerTick(ServerTickEvent.Post event) {
+        PacketCoalescer.flush();
+    }
+
+    @SubscribeEvent
+    public void onServerStopped(ServerStoppedEvent event) {
+        PacketCoalescer.clear();
+    }
+}
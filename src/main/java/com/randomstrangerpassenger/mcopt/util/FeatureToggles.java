@@ -76,23 +76,44 @@ public final class FeatureToggles {
     public static void refreshFromConfig() {
         ModList modList = ModList.get();
 
-        for (Map.Entry<FeatureKey, FeatureToggle> entry : TOGGLES.entrySet()) {
-            FeatureToggle toggle = entry.getValue();
-
-            boolean configEnabled = toggle.configSupplier.get();
-            boolean hasIncompatibleMod = toggle.hasIncompatibleMod(modList);
+        for (FeatureToggle toggle : TOGGLES.values()) {
+            refresh(toggle, modList);
+        }
+    }
 
-            toggle.enabled.set(configEnabled && !hasIncompatibleMod);
+    /**
+     * Refresh only the given feature toggles.
+     * <p>
+     * Used by the game test harness, which must not read CLIENT config values
+     * on a dedicated server.
+     *
+     * @param keys the toggles to re-evaluate
+     */
+    public static void refreshFromConfig(FeatureKey... keys) {
+        ModList modList = ModList.get();
 
-            // Log when feature is disabled due to mod conflict
-            if (configEnabled && hasIncompatibleMod) {
-                String conflictingMods = String.join(", ", toggle.getLoadedIncompatibleMods(modList));
-                MCOPT.LOGGER.info("{} 모드가 감지되었습니다. 충돌 방지를 위해 {}을(를) 비활성화합니다.",
-                        conflictingMods, toggle.displayName);
+        for (FeatureKey key : keys) {
+            FeatureToggle toggle = TOGGLES.get(key);
+            if (toggle != null) {
+                refresh(toggle, modList);
             }
         }
     }
 
+    private static void refresh(FeatureToggle toggle, ModList modList) {
+        boolean configEnabled = toggle.configSupplier.get();
+        boolean hasIncompatibleMod = toggle.hasIncompatibleMod(modList);
+
+        toggle.enabled.set(configEnabled && !hasIncompatibleMod);
+
+        // Log when feature is disabled due to mod conflict
+        if (configEnabled && hasIncompatibleMod) {
+            String conflictingMods = String.join(", ", toggle.getLoadedIncompatibleMods(modList));
+            MCOPT.LOGGER.info("{} 모드가 감지되었습니다. 충돌 방지를 위해 {}을(를) 비활성화합니다.",
+                    conflictingMods, toggle.displayName);
+        }
+    }
+
     public static boolean isEnabled(FeatureKey key) {
         FeatureToggle toggle = TOGGLES.get(key);
         return toggle != null && toggle.enabled.get();
@@ -0,0 +1,132 @@
+package com.randomstrangerpassenger.mcopt.client.rendering;
+
+import com.mojang.blaze3d.platform.NativeImage;
+import com.randomstrangerpassenger.mcopt.client.rendering.AtlasUploadBatcher.Rect;
+import com.randomstrangerpassenger.mcopt.client.rendering.AtlasUploadBatcher.Region;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AtlasUploadBatcher region merging.
+ * <p>
+ * Merging only looks at region bounds and the frame image format, so it can
+ * be verified with mocked frame images and without a render device.
+ */
+@DisplayName("AtlasUploadBatcher Unit Tests")
+class AtlasUploadBatcherTest {
+
+    private static final NativeImage RGBA = image(NativeImage.Format.RGBA);
+    private static final NativeImage LUMINANCE = image(NativeImage.Format.LUMINANCE);
+
+    private static NativeImage image(NativeImage.Format format) {
+        NativeImage image = mock(NativeImage.class);
+        when(image.format()).thenReturn(format);
+        return image;
+    }
+
+    private static Region region(int mipLevel, int x, int y, int width, int height) {
+        return new Region(RGBA, mipLevel, x, y, width, height, 0, 0);
+    }
+
+    private static ObjectArrayList<Rect> merge(Region... regions) {
+        ObjectArrayList<Region> queued = new ObjectArrayList<>(regions);
+        ObjectArrayList<Rect> rects = new ObjectArrayList<>();
+        AtlasUploadBatcher.mergeRows(queued, rects);
+        AtlasUploadBatcher.mergeColumns(rects);
+        return rects;
+    }
+
+    private static void assertRect(Rect rect, int mipLevel, int x, int y, int width, int height, int members) {
+        assertThat(new int[] { rect.mipLevel, rect.x, rect.y, rect.width, rect.height, rect.members.size() })
+                .as("mip, x, y, width, height, members")
+                .containsExactly(mipLevel, x, y, width, height, members);
+    }
+
+    @Test
+    @DisplayName("Should merge touching regions of the same row and height")
+    void testRowRuns() {
+        ObjectArrayList<Rect> rects = merge(
+                region(0, 32, 0, 16, 16),
+                region(0, 0, 0, 16, 16),
+                region(0, 64, 0, 16, 16),
+                region(0, 16, 0, 16, 16));
+
+        assertThat(rects).hasSize(2);
+        assertRect(rects.get(0), 0, 0, 0, 48, 16, 3);
+        assertRect(rects.get(1), 0, 64, 0, 16, 16, 1);
+    }
+
+    @Test
+    @DisplayName("Should keep regions of different heights in separate runs")
+    void testRowHeightMismatch() {
+        ObjectArrayList<Rect> rects = merge(
+                region(0, 0, 0, 16, 16),
+                region(0, 16, 0, 16, 32));
+
+        assertThat(rects).hasSize(2);
+        assertRect(rects.get(0), 0, 0, 0, 16, 16, 1);
+        assertRect(rects.get(1), 0, 16, 0, 16, 32, 1);
+    }
+
+    @Test
+    @DisplayName("Should stack runs of the same column and width into one rectangle")
+    void testGrid() {
+        ObjectArrayList<Rect> rects = merge(
+                region(0, 16, 16, 16, 16),
+                region(0, 0, 16, 16, 16),
+                region(0, 16, 0, 16, 16),
+                region(0, 0, 0, 16, 16),
+                region(0, 0, 32, 16, 16),
+                region(0, 16, 32, 16, 16));
+
+        assertThat(rects).hasSize(1);
+        assertRect(rects.get(0), 0, 0, 0, 32, 48, 6);
+        assertThat(rects.get(0).members).extracting(Region::destY).containsExactly(0, 0, 16, 16, 32, 32);
+    }
+
+    @Test
+    @DisplayName("Should not stack runs of different widths or with a gap")
+    void testColumnMismatch() {
+        ObjectArrayList<Rect> rects = merge(
+                region(0, 0, 0, 16, 16),
+                region(0, 16, 0, 16, 16),
+                region(0, 0, 16, 16, 16),
+                region(0, 0, 48, 16, 16));
+
+        assertThat(rects).hasSize(3);
+        assertRect(rects.get(0), 0, 0, 0, 32, 16, 2);
+        assertRect(rects.get(1), 0, 0, 16, 16, 16, 1);
+        assertRect(rects.get(2), 0, 0, 48, 16, 16, 1);
+    }
+
+    @Test
+    @DisplayName("Should never merge across mip levels")
+    void testMipLevels() {
+        ObjectArrayList<Rect> rects = merge(
+                region(1, 8, 0, 8, 8),
+                region(0, 0, 0, 16, 16),
+                region(1, 0, 0, 8, 8),
+                region(0, 16, 0, 16, 16));
+
+        assertThat(rects).hasSize(2);
+        assertRect(rects.get(0), 0, 0, 0, 32, 16, 2);
+        assertRect(rects.get(1), 1, 0, 0, 16, 8, 2);
+    }
+
+    @Test
+    @DisplayName("Should write non-RGBA frames on their own")
+    void testNonRgbaNotMerged() {
+        ObjectArrayList<Rect> rects = merge(
+                region(0, 0, 0, 16, 16),
+                new Region(LUMINANCE, 0, 16, 0, 16, 16, 0, 0),
+                region(0, 32, 0, 16, 16),
+                region(0, 16, 16, 16, 16));
+
+        assertThat(rects).hasSize(4);
+        assertThat(rects).allSatisfy(rect -> assertThat(rect.members).hasSize(1));
+    }
+}
@@ -0,0 +1,155 @@
+package com.randomstrangerpassenger.mcopt.client.rendering;
+
+import net.minecraft.core.SectionPos;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for SectionUploadQueue.
+ * <p>
+ * Frames are started with a fixed camera and frame rate instead of the
+ * client's, so ordering and budgeting can be verified without a Minecraft
+ * environment. A very high frame rate leaves no budget, which limits every
+ * frame to the minimum of 4 uploads.
+ */
+@DisplayName("SectionUploadQueue Unit Tests")
+class SectionUploadQueueTest {
+
+    // At the origin looking along +Z
+    private static final ViewCone CAMERA = new ViewCone(0, 0, 0, 0, 0, 1, Math.cos(Math.toRadians(45)));
+    private static final int NO_BUDGET_FPS = 1_000_000_000;
+    private static final int AMPLE_BUDGET_FPS = 1;
+
+    private final List<String> uploaded = new ArrayList<>();
+    private SectionUploadQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        AdaptiveChunkUploader.reset();
+        queue = new SectionUploadQueue();
+    }
+
+    private void offer(String label, long section) {
+        AdaptiveChunkUploader.beginSectionUpload(section);
+        try {
+            queue.offer(() -> uploaded.add(label));
+        } finally {
+            AdaptiveChunkUploader.endSectionUpload();
+        }
+    }
+
+    /** Run one frame's drain and return what it uploaded. */
+    private List<String> drainFrame(int targetFps) {
+        uploaded.clear();
+        queue.beginFrame(pending -> AdaptiveChunkUploader.startFrame(pending, CAMERA, targetFps));
+        Runnable upload;
+        while ((upload = queue.poll()) != null) {
+            upload.run();
+        }
+        queue.endFrame();
+        return new ArrayList<>(uploaded);
+    }
+
+    @Test
+    @DisplayName("Should upload untagged, then in-view, then out-of-view sections, each by distance")
+    void testPriorityOrder() {
+        offer("behind", SectionPos.asLong(0, 0, -3));
+        offer("far", SectionPos.asLong(0, 0, 10));
+        offer("untagged", Long.MIN_VALUE);
+        offer("near", SectionPos.asLong(0, 0, 3));
+        offer("beside", SectionPos.asLong(6, 0, 0));
+
+        assertThat(drainFrame(AMPLE_BUDGET_FPS)).containsExactly("untagged", "near", "far", "behind", "beside");
+        assertThat(queue).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep the queue order of uploads of the same section")
+    void testSectionFifo() {
+        long far = SectionPos.asLong(0, 0, 10);
+        long near = SectionPos.asLong(0, 0, 3);
+        offer("far mesh", far);
+        offer("near mesh", near);
+        offer("far index", far);
+        offer("near index", near);
+
+        assertThat(drainFrame(AMPLE_BUDGET_FPS)).containsExactly("near mesh", "near index", "far mesh", "far index");
+    }
+
+    @Test
+    @DisplayName("Should stop at the minimum uploads once the budget is spent and resume next frame")
+    void testBudget() {
+        for (int i = 0; i < 10; i++) {
+            offer("upload " + i, SectionPos.asLong(0, 0, 2 + i));
+        }
+
+        assertThat(drainFrame(NO_BUDGET_FPS)).containsExactly("upload 0", "upload 1", "upload 2", "upload 3");
+        assertThat(queue).hasSize(6);
+        assertThat(AdaptiveChunkUploader.getUploadsLastFrame()).isEqualTo(4);
+
+        assertThat(drainFrame(NO_BUDGET_FPS)).containsExactly("upload 4", "upload 5", "upload 6", "upload 7");
+        assertThat(drainFrame(AMPLE_BUDGET_FPS)).containsExactly("upload 8", "upload 9");
+        assertThat(queue).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return nothing after the budget is spent until the frame ends")
+    void testExhaustedUntilEndFrame() {
+        for (int i = 0; i < 6; i++) {
+            offer("upload " + i, SectionPos.asLong(0, 0, 2 + i));
+        }
+
+        queue.beginFrame(pending -> AdaptiveChunkUploader.startFrame(pending, CAMERA, NO_BUDGET_FPS));
+        for (int i = 0; i < 4; i++) {
+            assertThat(queue.poll()).isNotNull();
+        }
+        assertThat(queue.poll()).isNull();
+        assertThat(queue.poll()).as("still exhausted").isNull();
+
+        queue.endFrame();
+        assertThat(queue.poll()).as("plain queue outside a drain").isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should pull a section's uploads forward with its oldest upload")
+    void testStarvedSectionGoesFirst() {
+        long behind = SectionPos.asLong(0, 0, -3);
+        offer("behind mesh", behind);
+
+        // Nearer uploads take each frame's 4 slots until the waiting limit
+        for (int frame = 1; frame < AdaptiveChunkUploader.MAX_WAIT_FRAMES; frame++) {
+            for (int i = 0; i < 4; i++) {
+                offer("filler", SectionPos.asLong(0, 0, 2 + i));
+            }
+            assertThat(drainFrame(NO_BUDGET_FPS)).doesNotContain("behind mesh");
+        }
+
+        offer("behind index", behind);
+        for (int i = 0; i < 4; i++) {
+            offer("filler", SectionPos.asLong(0, 0, 2 + i));
+        }
+        assertThat(drainFrame(NO_BUDGET_FPS)).startsWith("behind mesh", "behind index");
+    }
+
+    @Test
+    @DisplayName("Should behave like a plain FIFO queue outside a drain")
+    void testIdleFifo() {
+        offer("first", SectionPos.asLong(0, 0, -3));
+        offer("second", SectionPos.asLong(0, 0, 3));
+        offer("third", Long.MIN_VALUE);
+
+        assertThat(queue).hasSize(3);
+        Runnable upload;
+        while ((upload = queue.poll()) != null) {
+            upload.run();
+        }
+        assertThat(uploaded).containsExactly("first", "second", "third");
+        assertThat(queue).isEmpty();
+    }
+}
@@ -0,0 +1,95 @@
+package com.randomstrangerpassenger.mcopt.client.rendering;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for ViewCone.
+ * <p>
+ * The cone is a plain record, so containment can be verified without a
+ * Minecraft environment; only {@code capture} needs a running client.
+ */
+@DisplayName("ViewCone Unit Tests")
+class ViewConeTest {
+
+    private static boolean contains(ViewCone cone, double x, double y, double z) {
+        return cone.contains(x, y, z, cone.distanceSqr(x, y, z));
+    }
+
+    /** Camera at the origin looking along +Z. */
+    private static ViewCone lookingNorth(double halfAngleDegrees) {
+        return new ViewCone(0, 0, 0, 0, 0, 1, Math.cos(Math.toRadians(halfAngleDegrees)));
+    }
+
+    @Test
+    @DisplayName("Should compute the squared distance from the camera")
+    void testDistanceSqr() {
+        ViewCone cone = new ViewCone(1, 2, 3, 0, 0, 1, 0.5);
+
+        assertThat(cone.distanceSqr(4, 6, 3)).isEqualTo(25.0);
+        assertThat(cone.distanceSqr(1, 2, 3)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should contain points inside a narrow cone and reject points outside it")
+    void testNarrowCone() {
+        ViewCone cone = lookingNorth(45);
+
+        assertThat(contains(cone, 0, 0, 10)).as("straight ahead").isTrue();
+        assertThat(contains(cone, 5, 3, 10)).as("about 30 degrees off axis").isTrue();
+        assertThat(contains(cone, 9.9, 0, 10)).as("just inside the edge").isTrue();
+        assertThat(contains(cone, 10.1, 0, 10)).as("just outside the edge").isFalse();
+        assertThat(contains(cone, 10, 0, 0)).as("perpendicular").isFalse();
+        assertThat(contains(cone, 0, 0, -10)).as("behind").isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject points behind the camera even though their squared dot product is large")
+    void testNarrowConeRejectsBehind() {
+        ViewCone cone = lookingNorth(30);
+
+        // Directly behind, the squared dot product equals the squared distance
+        assertThat(contains(cone, 0.1, 0, -50)).isFalse();
+        assertThat(contains(cone, 0, -0.1, -0.5)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep the sign of the dot product for cones wider than a half sphere")
+    void testWideCone() {
+        ViewCone cone = lookingNorth(120);
+
+        double angle = Math.toRadians(110);
+        assertThat(contains(cone, 10 * Math.sin(angle), 0, 10 * Math.cos(angle))).as("110 degrees off axis")
+                .isTrue();
+        assertThat(contains(cone, 10, 0, 0)).as("perpendicular").isTrue();
+        angle = Math.toRadians(130);
+        assertThat(contains(cone, 10 * Math.sin(angle), 0, 10 * Math.cos(angle))).as("130 degrees off axis")
+                .isFalse();
+        assertThat(contains(cone, 0, 0, -10)).as("behind").isFalse();
+    }
+
+    @Test
+    @DisplayName("Should measure directions from the camera position")
+    void testOffsetCamera() {
+        ViewCone cone = new ViewCone(100, 64, -50, -1, 0, 0, Math.cos(Math.toRadians(40)));
+
+        assertThat(contains(cone, 80, 64, -50)).isTrue();
+        assertThat(contains(cone, 80, 70, -45)).isTrue();
+        assertThat(contains(cone, 120, 64, -50)).isFalse();
+        assertThat(contains(cone, 100, 64, -30)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should accept every point when looking everywhere")
+    void testEverywhere() {
+        ViewCone cone = ViewCone.EVERYWHERE;
+
+        assertThat(contains(cone, 0, 0, 10)).isTrue();
+        assertThat(contains(cone, 10, 0, 0)).isTrue();
+        assertThat(contains(cone, 0, 0, -10)).isTrue();
+        assertThat(contains(cone, -3, 7, -1)).isTrue();
+        assertThat(contains(cone, 0, 0, 0)).as("the camera position itself").isTrue();
+    }
+}
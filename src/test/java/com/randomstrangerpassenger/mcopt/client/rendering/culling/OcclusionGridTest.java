@@ -0,0 +1,104 @@
+package com.randomstrangerpassenger.mcopt.client.rendering.culling;
+
+import net.minecraft.core.SectionPos;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for OcclusionGrid.
+ * <p>
+ * Sections are published directly instead of snapshotted from a level, so
+ * the bit layout and lookups can be verified without a Minecraft environment.
+ */
+@DisplayName("OcclusionGrid Unit Tests")
+class OcclusionGridTest {
+
+    @AfterEach
+    void tearDown() {
+        OcclusionGrid.clear();
+    }
+
+    @Test
+    @DisplayName("Should lay out blocks as X, then Z, then Y")
+    void testLocalIndexLayout() {
+        assertThat(OcclusionGrid.localIndex(0, 0, 0)).isZero();
+        assertThat(OcclusionGrid.localIndex(15, 0, 0)).isEqualTo(15);
+        assertThat(OcclusionGrid.localIndex(0, 0, 1)).isEqualTo(16);
+        assertThat(OcclusionGrid.localIndex(0, 1, 0)).isEqualTo(256);
+        assertThat(OcclusionGrid.localIndex(15, 15, 15)).isEqualTo(4095);
+    }
+
+    @Test
+    @DisplayName("Should use the section-local part of world coordinates")
+    void testLocalIndexWorldCoordinates() {
+        assertThat(OcclusionGrid.localIndex(-1, 17, 33)).isEqualTo(OcclusionGrid.localIndex(15, 1, 1));
+        assertThat(OcclusionGrid.localIndex(-16, -16, -16)).isZero();
+        assertThat(OcclusionGrid.localIndex(1000, -65, 48)).isEqualTo(OcclusionGrid.localIndex(8, 15, 0));
+    }
+
+    @Test
+    @DisplayName("Should set exactly one bit per block, including across word boundaries")
+    void testSingleBits() {
+        int[][] blocks = { { 0, 0, 0 }, { 15, 0, 3 }, { 0, 0, 4 }, { 7, 9, 2 }, { 15, 15, 15 } };
+        for (int[] block : blocks) {
+            long[] bits = new long[64];
+            OcclusionGrid.setOpaque(bits, block[0], block[1], block[2], true);
+
+            int index = OcclusionGrid.localIndex(block[0], block[1], block[2]);
+            assertThat(bits[index >>> 6]).isEqualTo(1L << (index & 63));
+            assertThat(Arrays.stream(bits).map(Long::bitCount).sum()).isEqualTo(1);
+            assertThat(OcclusionGrid.isOpaque(bits, block[0], block[1], block[2])).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Should read only the blocks that were set")
+    void testIsOpaque() {
+        long[] bits = new long[64];
+        OcclusionGrid.setOpaque(bits, 15, 0, 3, true);
+        OcclusionGrid.setOpaque(bits, 0, 0, 4, true);
+
+        assertThat(OcclusionGrid.isOpaque(bits, 15, 0, 3)).isTrue();
+        assertThat(OcclusionGrid.isOpaque(bits, 0, 0, 4)).isTrue();
+        assertThat(OcclusionGrid.isOpaque(bits, 14, 0, 3)).isFalse();
+        assertThat(OcclusionGrid.isOpaque(bits, 3, 0, 15)).as("X and Z swapped").isFalse();
+        assertThat(OcclusionGrid.isOpaque(bits, 15, 16, 3)).as("same local block in the next section up")
+                .isTrue();
+
+        OcclusionGrid.setOpaque(bits, 15, 0, 3, false);
+        assertThat(OcclusionGrid.isOpaque(bits, 15, 0, 3)).isFalse();
+        assertThat(OcclusionGrid.isOpaque(bits, 0, 0, 4)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should read empty sections as fully transparent")
+    void testEmptySection() {
+        assertThat(OcclusionGrid.isOpaque(OcclusionGrid.EMPTY, 0, 0, 0)).isFalse();
+        assertThat(OcclusionGrid.isOpaque(new long[64], 5, 5, 5)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should return published sections and EMPTY for unknown ones")
+    void testSectionLookup() {
+        long key = SectionPos.asLong(-2, 4, 7);
+        long[] bits = new long[64];
+        OcclusionGrid.setOpaque(bits, 1, 2, 3, true);
+        int version = OcclusionGrid.getVersion();
+
+        OcclusionGrid.put(key, bits);
+
+        assertThat(OcclusionGrid.section(key)).isSameAs(bits);
+        assertThat(OcclusionGrid.section(SectionPos.asLong(-2, 4, 8))).isSameAs(OcclusionGrid.EMPTY);
+        assertThat(OcclusionGrid.getVersion()).isNotEqualTo(version);
+        assertThat(OcclusionGrid.getSize()).isEqualTo(1);
+
+        OcclusionGrid.clear();
+        assertThat(OcclusionGrid.section(key)).isSameAs(OcclusionGrid.EMPTY);
+        assertThat(OcclusionGrid.getSize()).isZero();
+    }
+}
@@ -0,0 +1,130 @@
+package com.randomstrangerpassenger.mcopt.client.rendering.culling;
+
+import net.minecraft.core.SectionPos;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for VisibilityTracer.
+ * <p>
+ * Opaque blocks are published to the {@link OcclusionGrid} directly, so the
+ * ray walk can be verified without a Minecraft environment.
+ */
+@DisplayName("VisibilityTracer Unit Tests")
+class VisibilityTracerTest {
+
+    @AfterEach
+    void tearDown() {
+        OcclusionGrid.clear();
+    }
+
+    private static void place(int x, int y, int z) {
+        long key = SectionPos.asLong(x >> 4, y >> 4, z >> 4);
+        long[] current = OcclusionGrid.section(key);
+        long[] bits = current == OcclusionGrid.EMPTY ? new long[64] : current.clone();
+        OcclusionGrid.setOpaque(bits, x, y, z, true);
+        OcclusionGrid.put(key, bits);
+    }
+
+    /** A 16x16 wall at the given Z, covering X and Y 0 to 15. */
+    private static void wallAtZ(int z) {
+        for (int x = 0; x < 16; x++) {
+            for (int y = 0; y < 16; y++) {
+                place(x, y, z);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should see through an empty grid")
+    void testEmptyGrid() {
+        assertThat(VisibilityTracer.isRayClear(0.5, 0.5, 0.5, 40.5, -20.5, 33.5)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should be blocked by a wall between the endpoints")
+    void testWallBlocks() {
+        wallAtZ(5);
+
+        assertThat(VisibilityTracer.isRayClear(8.5, 8.5, 1.5, 8.5, 8.5, 10.5)).isFalse();
+        assertThat(VisibilityTracer.isRayClear(8.5, 8.5, 10.5, 8.5, 8.5, 1.5)).as("reverse direction").isFalse();
+        assertThat(VisibilityTracer.isRayClear(3.2, 12.7, 1.5, 11.9, 2.1, 9.3)).as("oblique").isFalse();
+        assertThat(VisibilityTracer.isRayClear(8.5, 8.5, 1.5, 8.5, 8.5, 4.5)).as("stops before the wall").isTrue();
+        assertThat(VisibilityTracer.isRayClear(8.5, 20.5, 1.5, 8.5, 20.5, 10.5)).as("above the wall").isTrue();
+    }
+
+    @Test
+    @DisplayName("Should ignore the start and end blocks")
+    void testEndpointsIgnored() {
+        wallAtZ(5);
+
+        assertThat(VisibilityTracer.isRayClear(8.5, 8.5, 1.5, 8.5, 8.5, 5.5)).as("target inside the wall").isTrue();
+        assertThat(VisibilityTracer.isRayClear(8.5, 8.5, 5.5, 8.5, 8.5, 10.5)).as("camera inside the wall").isTrue();
+        assertThat(VisibilityTracer.isRayClear(8.5, 8.5, 5.2, 8.5, 8.5, 5.8)).as("same block").isTrue();
+    }
+
+    @Test
+    @DisplayName("Should see through a hole in a wall")
+    void testHole() {
+        for (int x = 0; x < 16; x++) {
+            for (int y = 0; y < 16; y++) {
+                if (x != 8 || y != 8) {
+                    place(x, y, 5);
+                }
+            }
+        }
+
+        assertThat(VisibilityTracer.isRayClear(8.5, 8.5, 1.5, 8.5, 8.5, 10.5)).isTrue();
+        assertThat(VisibilityTracer.isRayClear(9.5, 8.5, 1.5, 9.5, 8.5, 10.5)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should look up blocks in other sections, including negative coordinates")
+    void testAcrossSections() {
+        place(20, 8, 8);
+        place(-5, 8, 8);
+        place(8, -3, 8);
+
+        assertThat(VisibilityTracer.isRayClear(2.5, 8.5, 8.5, 30.5, 8.5, 8.5)).isFalse();
+        assertThat(VisibilityTracer.isRayClear(2.5, 8.5, 8.5, -10.5, 8.5, 8.5)).isFalse();
+        assertThat(VisibilityTracer.isRayClear(8.5, 2.5, 8.5, 8.5, -10.5, 8.5)).isFalse();
+        assertThat(VisibilityTracer.isRayClear(2.5, 9.5, 8.5, 30.5, 9.5, 8.5)).as("one block higher").isTrue();
+    }
+
+    @Test
+    @DisplayName("Should walk every block a diagonal ray crosses")
+    void testDiagonal() {
+        place(5, 5, 5);
+
+        assertThat(VisibilityTracer.isRayClear(0.5, 0.5, 0.5, 10.5, 10.5, 10.5)).isFalse();
+        assertThat(VisibilityTracer.isRayClear(0.5, 0.5, 2.5, 10.5, 10.5, 12.5)).isTrue();
+        // Enters (5, 5, 5) through its -X face
+        assertThat(VisibilityTracer.isRayClear(0.5, 5.5, 0.5, 10.5, 5.5, 10.9)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should find a box visible if any sample point is")
+    void testBoxVisibility() {
+        wallAtZ(5);
+
+        assertThat(VisibilityTracer.isBoxVisible(8.5, 8.5, 1.5, 6, 6, 8, 11, 11, 9)).as("fully behind the wall")
+                .isFalse();
+        assertThat(VisibilityTracer.isBoxVisible(8.5, 8.5, 1.5, 40, 6, 8, 42, 9, 9)).as("beside the wall")
+                .isTrue();
+        assertThat(VisibilityTracer.isBoxVisible(8.5, 8.5, 1.5, 6, 6, 2, 11, 11, 3)).as("in front of the wall")
+                .isTrue();
+    }
+
+    @Test
+    @DisplayName("Should detect a camera inside an opaque block")
+    void testInsideOpaque() {
+        place(-3, 70, 12);
+
+        assertThat(VisibilityTracer.isInsideOpaque(-2.5, 70.2, 12.9)).isTrue();
+        assertThat(VisibilityTracer.isInsideOpaque(-1.5, 70.2, 12.9)).isFalse();
+        assertThat(VisibilityTracer.isInsideOpaque(-2.5, 71.2, 12.9)).isFalse();
+    }
+}
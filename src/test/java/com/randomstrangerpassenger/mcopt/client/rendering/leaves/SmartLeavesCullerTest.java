@@ -0,0 +1,135 @@
+package com.randomstrangerpassenger.mcopt.client.rendering.leaves;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the SmartLeavesCuller depth transform.
+ * <p>
+ * The transform works on a plain byte cube, so leaf depths can be verified
+ * without a Minecraft environment.
+ */
+@DisplayName("SmartLeavesCuller Unit Tests")
+class SmartLeavesCullerTest {
+
+    /** A cube of {@code size}^3 cells filled with leaves at the cap. */
+    private static byte[] leaves(int size, int cap) {
+        byte[] depths = new byte[size * size * size];
+        Arrays.fill(depths, (byte) cap);
+        return depths;
+    }
+
+    private static int index(int size, int x, int y, int z) {
+        return (y * size + z) * size + x;
+    }
+
+    /** Clears a one-cell shell around the cube, leaving a leaf block of size - 2. */
+    private static void clearShell(byte[] depths, int size) {
+        for (int y = 0; y < size; y++) {
+            for (int z = 0; z < size; z++) {
+                for (int x = 0; x < size; x++) {
+                    if (x == 0 || y == 0 || z == 0 || x == size - 1 || y == size - 1 || z == size - 1) {
+                        depths[index(size, x, y, z)] = 0;
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should give surface leaves depth 1 and count inwards")
+    void testSolidCanopy() {
+        int size = 9;
+        byte[] depths = leaves(size, 10);
+        clearShell(depths, size);
+
+        SmartLeavesCuller.distanceTransform(depths, size);
+
+        assertThat(depths[index(size, 0, 4, 4)]).as("air").isEqualTo((byte) 0);
+        assertThat(depths[index(size, 1, 4, 4)]).as("surface").isEqualTo((byte) 1);
+        assertThat(depths[index(size, 1, 1, 1)]).as("corner").isEqualTo((byte) 1);
+        assertThat(depths[index(size, 2, 4, 4)]).isEqualTo((byte) 2);
+        assertThat(depths[index(size, 3, 2, 4)]).as("nearest air is below").isEqualTo((byte) 2);
+        assertThat(depths[index(size, 4, 4, 4)]).as("centre").isEqualTo((byte) 4);
+        assertThat(depths[index(size, 7, 4, 4)]).as("opposite surface").isEqualTo((byte) 1);
+    }
+
+    @Test
+    @DisplayName("Should cap depths at their initial value")
+    void testCap() {
+        int size = 9;
+        byte[] depths = leaves(size, 2);
+        clearShell(depths, size);
+
+        SmartLeavesCuller.distanceTransform(depths, size);
+
+        assertThat(depths[index(size, 1, 4, 4)]).isEqualTo((byte) 1);
+        assertThat(depths[index(size, 2, 4, 4)]).isEqualTo((byte) 2);
+        assertThat(depths[index(size, 4, 4, 4)]).isEqualTo((byte) 2);
+    }
+
+    @Test
+    @DisplayName("Should measure city-block distance to the nearest non-leaf block")
+    void testCityBlockDistance() {
+        int size = 5;
+        byte[] depths = leaves(size, 20);
+        depths[index(size, 0, 0, 0)] = 0;
+
+        SmartLeavesCuller.distanceTransform(depths, size);
+
+        for (int y = 0; y < size; y++) {
+            for (int z = 0; z < size; z++) {
+                for (int x = 0; x < size; x++) {
+                    assertThat(depths[index(size, x, y, z)]).as("depth at %d %d %d", x, y, z)
+                            .isEqualTo((byte) (x + y + z));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should treat a gap inside a canopy as a surface")
+    void testInnerGap() {
+        int size = 11;
+        byte[] depths = leaves(size, 10);
+        clearShell(depths, size);
+        depths[index(size, 5, 5, 5)] = 0;
+
+        SmartLeavesCuller.distanceTransform(depths, size);
+
+        assertThat(depths[index(size, 5, 5, 5)]).isEqualTo((byte) 0);
+        assertThat(depths[index(size, 4, 5, 5)]).isEqualTo((byte) 1);
+        assertThat(depths[index(size, 5, 6, 5)]).isEqualTo((byte) 1);
+        assertThat(depths[index(size, 5, 5, 3)]).isEqualTo((byte) 2);
+        assertThat(depths[index(size, 3, 3, 3)]).as("nearer the outside").isEqualTo((byte) 3);
+    }
+
+    @Test
+    @DisplayName("Should leave depths at the cap when no non-leaf block is in range")
+    void testAllLeaves() {
+        int size = 6;
+        byte[] depths = leaves(size, 3);
+
+        SmartLeavesCuller.distanceTransform(depths, size);
+
+        assertThat(depths).containsOnly((byte) 3);
+    }
+
+    @Test
+    @DisplayName("Should only touch the first size^3 cells of a larger buffer")
+    void testLargerBuffer() {
+        int size = 4;
+        byte[] depths = leaves(8, 5);
+        depths[index(size, 0, 0, 0)] = 0;
+
+        SmartLeavesCuller.distanceTransform(depths, size);
+
+        assertThat(depths[index(size, 1, 0, 0)]).isEqualTo((byte) 1);
+        assertThat(depths[size * size * size]).as("past the cube").isEqualTo((byte) 5);
+        assertThat(depths[depths.length - 1]).isEqualTo((byte) 5);
+    }
+}
@@ -0,0 +1,62 @@
+package com.randomstrangerpassenger.mcopt.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for PrometheusTextBuilder.
+ * <p>
+ * The builder is pure Java, so the exposition output can be verified
+ * without a Minecraft environment.
+ */
+@DisplayName("PrometheusTextBuilder Unit Tests")
+class PrometheusTextBuilderTest {
+
+    @Test
+    @DisplayName("Should group samples of the same family under one TYPE line")
+    void testFamilyGrouping() {
+        String text = new PrometheusTextBuilder()
+                .cache("biome", 10, 2, 5)
+                .cache("tag", 3, 4, 1)
+                .build();
+
+        assertThat(text.split("# TYPE mcopt_cache_hits_total counter", -1))
+                .as("TYPE line should appear exactly once")
+                .hasSize(2);
+        assertThat(text)
+                .contains("mcopt_cache_hits_total{cache=\"biome\"} 10\n")
+                .contains("mcopt_cache_hits_total{cache=\"tag\"} 3\n")
+                .contains("mcopt_cache_entries{cache=\"tag\"} 1\n");
+    }
+
+    @Test
+    @DisplayName("Should format integral and fractional values")
+    void testValueFormatting() {
+        String text = new PrometheusTextBuilder()
+                .gauge("a", "help", 42.0)
+                .gauge("b", "help", 1.5)
+                .gauge("c", "help", Double.NaN)
+                .build();
+
+        assertThat(text).contains("a 42\n").contains("b 1.5\n").contains("c NaN\n");
+    }
+
+    @Test
+    @DisplayName("Should escape label values")
+    void testLabelEscaping() {
+        String text = new PrometheusTextBuilder()
+                .gauge("pool", "help", 1, "name", "G1 \"Old\"\\Gen")
+                .build();
+
+        assertThat(text).contains("pool{name=\"G1 \\\"Old\\\"\\\\Gen\"} 1\n");
+    }
+
+    @Test
+    @DisplayName("Should reject unpaired labels")
+    void testUnpairedLabels() {
+        assertThatThrownBy(() -> new PrometheusTextBuilder().gauge("x", "help", 1, "orphan"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}